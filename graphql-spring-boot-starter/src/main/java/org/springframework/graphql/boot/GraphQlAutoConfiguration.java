@@ -19,6 +19,7 @@ package org.springframework.graphql.boot;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,6 +35,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.graphql.execution.BulkheadRegistry;
+import org.springframework.graphql.execution.DataFetcherCacheRegistry;
 import org.springframework.graphql.execution.DataFetcherExceptionResolver;
 import org.springframework.graphql.execution.GraphQlSource;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
@@ -53,8 +56,21 @@ public class GraphQlAutoConfiguration {
 
 	private static final String[] SCHEMA_FILES_EXTENSIONS = new String[] {"*.graphqls", "*.graphql", "*.gql", "*.gqls"};
 
+	@Bean
+	@ConditionalOnMissingBean
+	public BulkheadRegistry graphQlBulkheadRegistry() {
+		return new BulkheadRegistry();
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public DataFetcherCacheRegistry graphQlDataFetcherCacheRegistry() {
+		return new DataFetcherCacheRegistry();
+	}
+
 	@Bean
 	public GraphQlSource graphQlSource(ResourcePatternResolver resourcePatternResolver, GraphQlProperties properties,
+			BulkheadRegistry bulkheadRegistry,
 			ObjectProvider<DataFetcherExceptionResolver> exceptionResolversProvider,
 			ObjectProvider<Instrumentation> instrumentationsProvider,
 			ObjectProvider<GraphQlSourceBuilderCustomizer> sourceCustomizers,
@@ -64,7 +80,9 @@ public class GraphQlAutoConfiguration {
 		GraphQlSource.Builder builder = GraphQlSource.builder()
 				.schemaResources(schemaResources.toArray(new Resource[0]))
 				.exceptionResolvers(exceptionResolversProvider.orderedStream().collect(Collectors.toList()))
-				.instrumentation(instrumentationsProvider.orderedStream().collect(Collectors.toList()));
+				.instrumentation(instrumentationsProvider.orderedStream().collect(Collectors.toList()))
+				.typeVisitors(Collections.singletonList(bulkheadRegistry.typeVisitor()))
+				.deferDirective(properties.getSchema().getDefer().isEnabled());
 		wiringConfigurers.orderedStream().forEach(builder::configureRuntimeWiring);
 		sourceCustomizers.orderedStream().forEach((customizer) -> customizer.customize(builder));
 		return builder.build();
@@ -23,6 +23,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.graphql.web.GraphQlRequestParser;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
+import org.springframework.util.unit.DataSize;
 
 /**
  * {@link ConfigurationProperties properties} for Spring GraphQL.
@@ -38,12 +41,20 @@ public class GraphQlProperties {
 	 */
 	private String path = "/graphql";
 
+	private final Request request = new Request();
+
 	private final Schema schema = new Schema();
 
 	private final GraphiQL graphiql = new GraphiQL();
 
 	private final Websocket websocket = new Websocket();
 
+	private final Sse sse = new Sse();
+
+	private final Rsocket rsocket = new Rsocket();
+
+	private final Subscription subscription = new Subscription();
+
 	public String getPath() {
 		return this.path;
 	}
@@ -52,6 +63,10 @@ public class GraphQlProperties {
 		this.path = path;
 	}
 
+	public Request getRequest() {
+		return this.request;
+	}
+
 	public Schema getSchema() {
 		return this.schema;
 	}
@@ -64,6 +79,78 @@ public class GraphQlProperties {
 		return this.websocket;
 	}
 
+	public Sse getSse() {
+		return this.sse;
+	}
+
+	public Rsocket getRsocket() {
+		return this.rsocket;
+	}
+
+	public Subscription getSubscription() {
+		return this.subscription;
+	}
+
+	public static class Request {
+
+		/**
+		 * Maximum size of a JSON request body. Applies to Spring MVC only, while
+		 * WebFlux applications read the body with the configured codecs, limited
+		 * by "spring.codec.max-in-memory-size".
+		 */
+		private DataSize maxBodySize = DataSize.ofBytes(GraphQlRequestParser.DEFAULT_MAX_BODY_SIZE);
+
+		/**
+		 * Maximum length of the query in characters. Applies to Spring MVC only.
+		 */
+		private int maxQueryLength = GraphQlRequestParser.DEFAULT_MAX_QUERY_LENGTH;
+
+		/**
+		 * Maximum length of the variables JSON in characters. Applies to Spring MVC
+		 * only.
+		 */
+		private int maxVariablesLength = GraphQlRequestParser.DEFAULT_MAX_VARIABLES_LENGTH;
+
+		/**
+		 * Maximum nesting depth of JSON objects and arrays in a request body. Applies
+		 * to Spring MVC only.
+		 */
+		private int maxDepth = GraphQlRequestParser.DEFAULT_MAX_DEPTH;
+
+		public DataSize getMaxBodySize() {
+			return this.maxBodySize;
+		}
+
+		public void setMaxBodySize(DataSize maxBodySize) {
+			this.maxBodySize = maxBodySize;
+		}
+
+		public int getMaxQueryLength() {
+			return this.maxQueryLength;
+		}
+
+		public void setMaxQueryLength(int maxQueryLength) {
+			this.maxQueryLength = maxQueryLength;
+		}
+
+		public int getMaxVariablesLength() {
+			return this.maxVariablesLength;
+		}
+
+		public void setMaxVariablesLength(int maxVariablesLength) {
+			this.maxVariablesLength = maxVariablesLength;
+		}
+
+		public int getMaxDepth() {
+			return this.maxDepth;
+		}
+
+		public void setMaxDepth(int maxDepth) {
+			this.maxDepth = maxDepth;
+		}
+
+	}
+
 	public static class Schema {
 
 		/**
@@ -73,6 +160,8 @@ public class GraphQlProperties {
 
 		private final Printer printer = new Printer();
 
+		private final Defer defer = new Defer();
+
 		public List<String> getLocations() {
 			return this.locations;
 		}
@@ -91,6 +180,10 @@ public class GraphQlProperties {
 			return this.printer;
 		}
 
+		public Defer getDefer() {
+			return this.defer;
+		}
+
 		public static class Printer {
 
 			/**
@@ -108,6 +201,24 @@ public class GraphQlProperties {
 
 		}
 
+		public static class Defer {
+
+			/**
+			 * Whether to declare the '@defer' directive, unless declared in the
+			 * schema files, to allow clients to defer the results of slow fields.
+			 */
+			private boolean enabled = false;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+		}
+
 	}
 
 	public static class GraphiQL {
@@ -170,4 +281,84 @@ public class GraphQlProperties {
 
 	}
 
+	public static class Sse {
+
+		/**
+		 * Whether to handle GraphQL requests that accept "text/event-stream" at the
+		 * GraphQL request HTTP endpoint, streaming results as Server-Sent Events.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Interval between heartbeat comments sent to keep the event stream open.
+		 */
+		private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getHeartbeatInterval() {
+			return this.heartbeatInterval;
+		}
+
+		public void setHeartbeatInterval(Duration heartbeatInterval) {
+			this.heartbeatInterval = heartbeatInterval;
+		}
+
+	}
+
+	public static class Rsocket {
+
+		/**
+		 * Mapping of the RSocket message handler.
+		 */
+		private String mapping;
+
+		public String getMapping() {
+			return this.mapping;
+		}
+
+		public void setMapping(String mapping) {
+			this.mapping = mapping;
+		}
+
+	}
+
+	public static class Subscription {
+
+		/**
+		 * Maximum number of results to buffer for each subscription while the client
+		 * is slow to consume them. Applies only if an overflow strategy is set.
+		 */
+		private int maxBufferSize = 1024;
+
+		/**
+		 * What to do when the buffer of a subscription is full. By default, no
+		 * strategy is set and subscription results are not bounded.
+		 */
+		private SubscriptionOverflowPolicy.Strategy overflowStrategy;
+
+		public int getMaxBufferSize() {
+			return this.maxBufferSize;
+		}
+
+		public void setMaxBufferSize(int maxBufferSize) {
+			this.maxBufferSize = maxBufferSize;
+		}
+
+		public SubscriptionOverflowPolicy.Strategy getOverflowStrategy() {
+			return this.overflowStrategy;
+		}
+
+		public void setOverflowStrategy(SubscriptionOverflowPolicy.Strategy overflowStrategy) {
+			this.overflowStrategy = overflowStrategy;
+		}
+
+	}
+
 }
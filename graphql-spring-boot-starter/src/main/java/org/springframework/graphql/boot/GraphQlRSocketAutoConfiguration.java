@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot;
+
+import graphql.GraphQL;
+import io.rsocket.RSocket;
+
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.GraphQlService;
+import org.springframework.graphql.rsocket.GraphQlRSocketHandler;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for enabling Spring GraphQL over
+ * RSocket. Requests are handled by an RSocket {@code @Controller} mapped to the
+ * {@code spring.graphql.rsocket.mapping} route, and detected by the
+ * {@link RSocketMessageHandler}.
+ *
+ * @since 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ GraphQL.class, RSocket.class, RSocketMessageHandler.class })
+@ConditionalOnBean(GraphQlService.class)
+@ConditionalOnProperty(prefix = "spring.graphql.rsocket", name = "mapping")
+@AutoConfigureAfter(GraphQlServiceAutoConfiguration.class)
+public class GraphQlRSocketAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlRSocketHandler graphQlRSocketHandler(GraphQlService graphQlService) {
+		return new GraphQlRSocketHandler(graphQlService);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlRSocketController graphQlRSocketController(GraphQlRSocketHandler handler) {
+		return new GraphQlRSocketController(handler);
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot;
+
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.graphql.rsocket.GraphQlRSocketHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+/**
+ * RSocket {@code @Controller} that delegates GraphQL requests to a
+ * {@link GraphQlRSocketHandler}. Both methods are mapped to the same route,
+ * and the {@code Mono} and {@code Flux} return types map them to
+ * request-response and request-stream interactions respectively.
+ *
+ * @since 1.0.0
+ */
+@Controller
+public class GraphQlRSocketController {
+
+	private final GraphQlRSocketHandler handler;
+
+	GraphQlRSocketController(GraphQlRSocketHandler handler) {
+		this.handler = handler;
+	}
+
+	@MessageMapping("${spring.graphql.rsocket.mapping}")
+	public Mono<Map<String, Object>> handle(@Payload Map<String, Object> payload) {
+		return this.handler.handle(payload);
+	}
+
+	@MessageMapping("${spring.graphql.rsocket.mapping}")
+	public Flux<Map<String, Object>> handleSubscription(@Payload Map<String, Object> payload) {
+		return this.handler.handleSubscription(payload);
+	}
+
+}
@@ -37,10 +37,14 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.graphql.GraphQlService;
 import org.springframework.graphql.data.method.AnnotatedDataFetcherConfigurer;
+import org.springframework.graphql.execution.BulkheadRegistry;
+import org.springframework.graphql.execution.DataFetcherCacheRegistry;
 import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
 import org.springframework.graphql.web.WebGraphQlHandler;
 import org.springframework.graphql.web.WebInterceptor;
 import org.springframework.graphql.web.webflux.GraphQlHttpHandler;
+import org.springframework.graphql.web.webflux.GraphQlSseHandler;
 import org.springframework.graphql.web.webflux.GraphQlWebSocketHandler;
 import org.springframework.graphql.web.webflux.GraphiQlHandler;
 import org.springframework.graphql.web.webflux.SchemaHandler;
@@ -75,9 +79,12 @@ public class GraphQlWebFluxAutoConfiguration {
 	private static final Log logger = LogFactory.getLog(GraphQlWebFluxAutoConfiguration.class);
 
 	@Bean
-	public AnnotatedDataFetcherConfigurer annotatedDataFetcherConfigurer(ServerCodecConfigurer configurer) {
+	public AnnotatedDataFetcherConfigurer annotatedDataFetcherConfigurer(ServerCodecConfigurer configurer,
+			ObjectProvider<BulkheadRegistry> bulkheadRegistry, ObjectProvider<DataFetcherCacheRegistry> cacheRegistry) {
 		AnnotatedDataFetcherConfigurer registrar = new AnnotatedDataFetcherConfigurer();
 		registrar.setServerCodecConfigurer(configurer);
+		registrar.setBulkheadRegistry(bulkheadRegistry.getIfAvailable());
+		registrar.setCacheRegistry(cacheRegistry.getIfAvailable());
 		return registrar;
 	}
 
@@ -96,8 +103,29 @@ public class GraphQlWebFluxAutoConfiguration {
 	}
 
 	@Bean
-	public RouterFunction<ServerResponse> graphQlEndpoint(GraphQlHttpHandler handler, GraphQlSource graphQlSource,
-			GraphQlProperties properties, ResourceLoader resourceLoader) {
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.graphql.subscription", name = "overflow-strategy")
+	public SubscriptionOverflowPolicy graphQlSubscriptionOverflowPolicy(GraphQlProperties properties) {
+		GraphQlProperties.Subscription subscription = properties.getSubscription();
+		return new SubscriptionOverflowPolicy(subscription.getMaxBufferSize(), subscription.getOverflowStrategy());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.graphql.sse", name = "enabled", matchIfMissing = true)
+	public GraphQlSseHandler graphQlSseHandler(WebGraphQlHandler webGraphQlHandler, GraphQlProperties properties,
+			ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy) {
+
+		GraphQlSseHandler handler = new GraphQlSseHandler(webGraphQlHandler);
+		handler.setHeartbeatInterval(properties.getSse().getHeartbeatInterval());
+		handler.setSubscriptionOverflowPolicy(overflowPolicy.getIfAvailable());
+		return handler;
+	}
+
+	@Bean
+	public RouterFunction<ServerResponse> graphQlEndpoint(GraphQlHttpHandler handler,
+			ObjectProvider<GraphQlSseHandler> sseHandler, GraphQlSource graphQlSource, GraphQlProperties properties,
+			ResourceLoader resourceLoader) {
 
 		String graphQLPath = properties.getPath();
 		if (logger.isInfoEnabled()) {
@@ -110,9 +138,19 @@ public class GraphQlWebFluxAutoConfiguration {
 								.headers(headers -> headers.setAllow(Collections.singleton(HttpMethod.POST)))
 								.build())
 				.POST(graphQLPath,
-						accept(MediaType.APPLICATION_JSON).and(contentType(MediaType.APPLICATION_JSON)),
+						accept(MediaType.APPLICATION_JSON, MediaType.MULTIPART_MIXED).and(contentType(MediaType.APPLICATION_JSON)),
+						handler::handleRequest)
+				.POST(graphQLPath,
+						accept(MediaType.APPLICATION_JSON).and(contentType(MediaType.MULTIPART_FORM_DATA)),
 						handler::handleRequest);
 
+		GraphQlSseHandler graphQlSseHandler = sseHandler.getIfAvailable();
+		if (graphQlSseHandler != null) {
+			builder = builder.POST(graphQLPath,
+					accept(MediaType.TEXT_EVENT_STREAM).and(contentType(MediaType.APPLICATION_JSON)),
+					graphQlSseHandler::handleRequest);
+		}
+
 		if (properties.getGraphiql().isEnabled()) {
 			Resource resource = resourceLoader.getResource("classpath:graphiql/index.html");
 			GraphiQlHandler graphiQlHandler = new GraphiQlHandler(graphQLPath, resource);
@@ -134,9 +172,12 @@ public class GraphQlWebFluxAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		public GraphQlWebSocketHandler graphQlWebSocketHandler(WebGraphQlHandler webGraphQlHandler,
-				GraphQlProperties properties, ServerCodecConfigurer configurer) {
-			return new GraphQlWebSocketHandler(webGraphQlHandler, configurer,
+				GraphQlProperties properties, ServerCodecConfigurer configurer,
+				ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy) {
+			GraphQlWebSocketHandler handler = new GraphQlWebSocketHandler(webGraphQlHandler, configurer,
 					properties.getWebsocket().getConnectionInitTimeout());
+			handler.setSubscriptionOverflowPolicy(overflowPolicy.getIfAvailable());
+			return handler;
 		}
 
 		@Bean
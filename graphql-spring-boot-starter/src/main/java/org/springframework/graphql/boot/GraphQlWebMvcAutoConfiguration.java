@@ -41,11 +41,16 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.graphql.GraphQlService;
 import org.springframework.graphql.data.method.AnnotatedDataFetcherConfigurer;
+import org.springframework.graphql.execution.BulkheadRegistry;
+import org.springframework.graphql.execution.DataFetcherCacheRegistry;
 import org.springframework.graphql.execution.GraphQlSource;
 import org.springframework.graphql.execution.ThreadLocalAccessor;
+import org.springframework.graphql.web.GraphQlRequestParser;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
 import org.springframework.graphql.web.WebGraphQlHandler;
 import org.springframework.graphql.web.WebInterceptor;
 import org.springframework.graphql.web.webmvc.GraphQlHttpHandler;
+import org.springframework.graphql.web.webmvc.GraphQlSseHandler;
 import org.springframework.graphql.web.webmvc.GraphQlWebSocketHandler;
 import org.springframework.graphql.web.webmvc.GraphiQlHandler;
 import org.springframework.graphql.web.webmvc.SchemaHandler;
@@ -83,9 +88,12 @@ public class GraphQlWebMvcAutoConfiguration {
 
 
 	@Bean
-	public AnnotatedDataFetcherConfigurer annotatedDataFetcherConfigurer(HttpMessageConverters converters) {
+	public AnnotatedDataFetcherConfigurer annotatedDataFetcherConfigurer(HttpMessageConverters converters,
+			ObjectProvider<BulkheadRegistry> bulkheadRegistry, ObjectProvider<DataFetcherCacheRegistry> cacheRegistry) {
 		AnnotatedDataFetcherConfigurer registrar = new AnnotatedDataFetcherConfigurer();
 		registrar.setJsonMessageConverter(getJsonConverter(converters));
+		registrar.setBulkheadRegistry(bulkheadRegistry.getIfAvailable());
+		registrar.setCacheRegistry(cacheRegistry.getIfAvailable());
 		return registrar;
 	}
 
@@ -110,13 +118,45 @@ public class GraphQlWebMvcAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public GraphQlHttpHandler graphQlHttpHandler(WebGraphQlHandler webGraphQlHandler) {
-		return new GraphQlHttpHandler(webGraphQlHandler);
+	public GraphQlHttpHandler graphQlHttpHandler(WebGraphQlHandler webGraphQlHandler, GraphQlProperties properties) {
+		return new GraphQlHttpHandler(webGraphQlHandler, createRequestParser(properties));
+	}
+
+	private static GraphQlRequestParser createRequestParser(GraphQlProperties properties) {
+		GraphQlProperties.Request request = properties.getRequest();
+		GraphQlRequestParser parser = new GraphQlRequestParser();
+		parser.setMaxBodySize(Math.toIntExact(request.getMaxBodySize().toBytes()));
+		parser.setMaxQueryLength(request.getMaxQueryLength());
+		parser.setMaxVariablesLength(request.getMaxVariablesLength());
+		parser.setMaxDepth(request.getMaxDepth());
+		return parser;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.graphql.subscription", name = "overflow-strategy")
+	public SubscriptionOverflowPolicy graphQlSubscriptionOverflowPolicy(GraphQlProperties properties) {
+		GraphQlProperties.Subscription subscription = properties.getSubscription();
+		return new SubscriptionOverflowPolicy(subscription.getMaxBufferSize(), subscription.getOverflowStrategy());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.graphql.sse", name = "enabled", matchIfMissing = true)
+	public GraphQlSseHandler graphQlSseHandler(WebGraphQlHandler webGraphQlHandler, GraphQlProperties properties,
+			HttpMessageConverters converters, ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy) {
+
+		GraphQlSseHandler handler = new GraphQlSseHandler(webGraphQlHandler, getJsonConverter(converters),
+				createRequestParser(properties));
+		handler.setHeartbeatInterval(properties.getSse().getHeartbeatInterval());
+		handler.setSubscriptionOverflowPolicy(overflowPolicy.getIfAvailable());
+		return handler;
 	}
 
 	@Bean
 	public RouterFunction<ServerResponse> graphQlRouterFunction(GraphQlHttpHandler handler,
-			GraphQlSource graphQlSource, GraphQlProperties properties, ResourceLoader resourceLoader) {
+			ObjectProvider<GraphQlSseHandler> sseHandler, GraphQlSource graphQlSource, GraphQlProperties properties,
+			ResourceLoader resourceLoader) {
 
 		String graphQLPath = properties.getPath();
 		if (logger.isInfoEnabled()) {
@@ -129,9 +169,19 @@ public class GraphQlWebMvcAutoConfiguration {
 								.headers(headers -> headers.setAllow(Collections.singleton(HttpMethod.POST)))
 								.build())
 				.POST(graphQLPath,
-						contentType(MediaType.APPLICATION_JSON).and(accept(MediaType.APPLICATION_JSON)),
+						contentType(MediaType.APPLICATION_JSON).and(accept(MediaType.APPLICATION_JSON, MediaType.MULTIPART_MIXED)),
+						handler::handleRequest)
+				.POST(graphQLPath,
+						contentType(MediaType.MULTIPART_FORM_DATA).and(accept(MediaType.APPLICATION_JSON)),
 						handler::handleRequest);
 
+		GraphQlSseHandler graphQlSseHandler = sseHandler.getIfAvailable();
+		if (graphQlSseHandler != null) {
+			builder = builder.POST(graphQLPath,
+					contentType(MediaType.APPLICATION_JSON).and(accept(MediaType.TEXT_EVENT_STREAM)),
+					graphQlSseHandler::handleRequest);
+		}
+
 		if (properties.getGraphiql().isEnabled()) {
 			Resource resource = resourceLoader.getResource("classpath:graphiql/index.html");
 			GraphiQlHandler graphiQLHandler = new GraphiQlHandler(graphQLPath, resource);
@@ -154,10 +204,13 @@ public class GraphQlWebMvcAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		public GraphQlWebSocketHandler graphQlWebSocketHandler(WebGraphQlHandler webGraphQlHandler,
-				GraphQlProperties properties, HttpMessageConverters converters) {
+				GraphQlProperties properties, HttpMessageConverters converters,
+				ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy) {
 
-			return new GraphQlWebSocketHandler(webGraphQlHandler, getJsonConverter(converters),
-					properties.getWebsocket().getConnectionInitTimeout());
+			GraphQlWebSocketHandler handler = new GraphQlWebSocketHandler(webGraphQlHandler,
+					getJsonConverter(converters), properties.getWebsocket().getConnectionInitTimeout());
+			handler.setSubscriptionOverflowPolicy(overflowPolicy.getIfAvailable());
+			return handler;
 		}
 
 		@Bean
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * Registry of data fetcher statistics per field coordinate, e.g.
+ * {@code "Query.book"}. Each entry tracks the invocation count, errors, the
+ * size of list results, and a {@link LatencyHistogram latency histogram}.
+ *
+ * <p>Memory use is fixed per field and the number of fields is bounded, with
+ * invocations of further fields ignored once the limit is reached. Statistics
+ * can be reset at runtime.
+ *
+ * @since 1.0.0
+ */
+public class GraphQlFieldStatistics {
+
+	private final int maxFields;
+
+	private final Map<String, FieldStats> fields = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Create an instance.
+	 * @param maxFields the maximum number of distinct fields to track
+	 */
+	public GraphQlFieldStatistics(int maxFields) {
+		Assert.isTrue(maxFields > 0, "'maxFields' must be greater than 0");
+		this.maxFields = maxFields;
+	}
+
+
+	/**
+	 * Record an invocation of the data fetcher for the given field.
+	 * @param coordinates the field coordinates, e.g. "Query.book"
+	 * @param durationNanos the time to fetch the value in nanoseconds
+	 * @param error whether fetching the value failed
+	 * @param listSize the size of the fetched list, or -1 if the value is not a list
+	 */
+	public void record(String coordinates, long durationNanos, boolean error, int listSize) {
+		FieldStats stats = this.fields.get(coordinates);
+		if (stats == null) {
+			if (this.fields.size() >= this.maxFields) {
+				return;
+			}
+			stats = this.fields.computeIfAbsent(coordinates, FieldStats::new);
+		}
+		stats.record(durationNanos, error, listSize);
+	}
+
+	/**
+	 * Return the statistics for all fields, sorted by total fetch time in
+	 * descending order.
+	 */
+	public List<FieldStats> getFields() {
+		List<FieldStats> fields = new ArrayList<>(this.fields.values());
+		fields.sort(Comparator.comparingLong(FieldStats::getTotalTimeMicros).reversed());
+		return fields;
+	}
+
+	/**
+	 * Reset the statistics of all fields.
+	 */
+	public void reset() {
+		this.fields.values().forEach(FieldStats::reset);
+	}
+
+
+	/**
+	 * Data fetcher statistics for a single field.
+	 */
+	public static final class FieldStats {
+
+		private final String coordinates;
+
+		private final LatencyHistogram latency = new LatencyHistogram();
+
+		private final LongAdder errorCount = new LongAdder();
+
+		private final LongAdder listCount = new LongAdder();
+
+		private final LongAdder totalListSize = new LongAdder();
+
+		FieldStats(String coordinates) {
+			this.coordinates = coordinates;
+		}
+
+		void record(long durationNanos, boolean error, int listSize) {
+			this.latency.record(durationNanos);
+			if (error) {
+				this.errorCount.increment();
+			}
+			if (listSize >= 0) {
+				this.listCount.increment();
+				this.totalListSize.add(listSize);
+			}
+		}
+
+		void reset() {
+			this.latency.reset();
+			this.errorCount.reset();
+			this.listCount.reset();
+			this.totalListSize.reset();
+		}
+
+		public String getCoordinates() {
+			return this.coordinates;
+		}
+
+		public long getCount() {
+			return this.latency.getCount();
+		}
+
+		public long getErrorCount() {
+			return this.errorCount.sum();
+		}
+
+		/**
+		 * Return the average size of list results, or 0 if the field did not
+		 * return any lists.
+		 */
+		public double getAverageListSize() {
+			long count = this.listCount.sum();
+			return (count != 0 ? (double) this.totalListSize.sum() / count : 0);
+		}
+
+		public long getTotalTimeMicros() {
+			return this.latency.getTotalMicros();
+		}
+
+		/**
+		 * Return the approximate fetch time at the given percentile.
+		 * @param percentile the percentile, between 0.0 and 1.0
+		 */
+		public Duration getTime(double percentile) {
+			return Duration.ofNanos(this.latency.getPercentileMicros(percentile) * 1000);
+		}
+
+		public Duration getMaxTime() {
+			return Duration.ofNanos(this.latency.getMaxMicros() * 1000);
+		}
+
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * {@link graphql.execution.instrumentation.Instrumentation} that records the
+ * invocations of non-trivial data fetchers in {@link GraphQlFieldStatistics}.
+ */
+class GraphQlFieldStatisticsInstrumentation extends SimpleInstrumentation {
+
+	private final GraphQlFieldStatistics statistics;
+
+	private final Map<GraphQLFieldDefinition, RecordingDataFetcher> dataFetchers =
+			new ConcurrentReferenceHashMap<>(256, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+
+	GraphQlFieldStatisticsInstrumentation(GraphQlFieldStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+
+	@Override
+	public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+			InstrumentationFieldFetchParameters parameters) {
+
+		if (parameters.isTrivialDataFetcher()) {
+			return dataFetcher;
+		}
+		GraphQLFieldDefinition fieldDefinition = parameters.getEnvironment().getFieldDefinition();
+		GraphQLType parentType = parameters.getEnvironment().getParentType();
+		RecordingDataFetcher recordingDataFetcher = this.dataFetchers.get(fieldDefinition);
+		if (recordingDataFetcher == null || !recordingDataFetcher.matches(dataFetcher, parentType)) {
+			recordingDataFetcher = new RecordingDataFetcher(dataFetcher, parentType,
+					GraphQLTypeUtil.simplePrint(parentType) + "." + fieldDefinition.getName());
+			this.dataFetchers.put(fieldDefinition, recordingDataFetcher);
+		}
+		return recordingDataFetcher;
+	}
+
+	private static int listSize(@Nullable Object value) {
+		if (value instanceof Collection) {
+			return ((Collection<?>) value).size();
+		}
+		if (value != null && value.getClass().isArray()) {
+			return Array.getLength(value);
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Wraps the {@code DataFetcher} for a field, with its coordinates computed
+	 * once, to record its invocations.
+	 */
+	private class RecordingDataFetcher implements DataFetcher<Object> {
+
+		private final DataFetcher<?> delegate;
+
+		private final GraphQLType parentType;
+
+		private final String coordinates;
+
+		RecordingDataFetcher(DataFetcher<?> delegate, GraphQLType parentType, String coordinates) {
+			this.delegate = delegate;
+			this.parentType = parentType;
+			this.coordinates = coordinates;
+		}
+
+		boolean matches(DataFetcher<?> dataFetcher, GraphQLType parentType) {
+			return (this.delegate == dataFetcher && this.parentType == parentType);
+		}
+
+		@Override
+		public Object get(DataFetchingEnvironment environment) throws Exception {
+			long startNanos = System.nanoTime();
+			try {
+				Object value = this.delegate.get(environment);
+				if (value instanceof CompletionStage<?>) {
+					return ((CompletionStage<?>) value).whenComplete(
+							(result, ex) -> record(this.coordinates, startNanos, result, ex));
+				}
+				record(this.coordinates, startNanos, value, null);
+				return value;
+			}
+			catch (Throwable ex) {
+				record(this.coordinates, startNanos, null, ex);
+				throw ex;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import graphql.GraphQL;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for the
+ * {@link GraphQlFieldsEndpoint}. Per-field statistics are recorded only while
+ * the endpoint is available.
+ *
+ * @since 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ GraphQL.class, ConditionalOnAvailableEndpoint.class })
+@ConditionalOnAvailableEndpoint(endpoint = GraphQlFieldsEndpoint.class)
+@EnableConfigurationProperties(GraphQlFieldsProperties.class)
+public class GraphQlFieldsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlFieldStatistics graphQlFieldStatistics(GraphQlFieldsProperties properties) {
+		return new GraphQlFieldStatistics(properties.getMaxFields());
+	}
+
+	@Bean
+	public GraphQlFieldStatisticsInstrumentation graphQlFieldStatisticsInstrumentation(
+			GraphQlFieldStatistics statistics) {
+		return new GraphQlFieldStatisticsInstrumentation(statistics);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlFieldsEndpoint graphQlFieldsEndpoint(GraphQlFieldStatistics statistics) {
+		return new GraphQlFieldsEndpoint(statistics);
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link Endpoint @Endpoint} that exposes live data fetcher statistics per
+ * field coordinate, as recorded in {@link GraphQlFieldStatistics}, sorted by
+ * total fetch time.
+ *
+ * @since 1.0.0
+ */
+@Endpoint(id = "graphqlfields")
+public class GraphQlFieldsEndpoint {
+
+	private final GraphQlFieldStatistics statistics;
+
+
+	public GraphQlFieldsEndpoint(GraphQlFieldStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+
+	@ReadOperation
+	public FieldsDescriptor fields(@Nullable Integer top) {
+		List<FieldDescriptor> fields = this.statistics.getFields().stream()
+				.limit(top != null ? top : Long.MAX_VALUE)
+				.map(FieldDescriptor::new)
+				.collect(Collectors.toList());
+		return new FieldsDescriptor(fields);
+	}
+
+	@DeleteOperation
+	public void reset() {
+		this.statistics.reset();
+	}
+
+
+	/**
+	 * Description of the statistics of all fields.
+	 */
+	public static final class FieldsDescriptor {
+
+		private final List<FieldDescriptor> fields;
+
+		private FieldsDescriptor(List<FieldDescriptor> fields) {
+			this.fields = fields;
+		}
+
+		public List<FieldDescriptor> getFields() {
+			return this.fields;
+		}
+
+	}
+
+
+	/**
+	 * Description of the statistics of a single field, with times in
+	 * milliseconds.
+	 */
+	public static final class FieldDescriptor {
+
+		private final String coordinates;
+
+		private final long count;
+
+		private final long errorCount;
+
+		private final double averageListSize;
+
+		private final double p50;
+
+		private final double p95;
+
+		private final double p99;
+
+		private final double maxTime;
+
+		private FieldDescriptor(GraphQlFieldStatistics.FieldStats stats) {
+			this.coordinates = stats.getCoordinates();
+			this.count = stats.getCount();
+			this.errorCount = stats.getErrorCount();
+			this.averageListSize = stats.getAverageListSize();
+			this.p50 = toMillis(stats.getTime(0.5));
+			this.p95 = toMillis(stats.getTime(0.95));
+			this.p99 = toMillis(stats.getTime(0.99));
+			this.maxTime = toMillis(stats.getMaxTime());
+		}
+
+		private static double toMillis(Duration duration) {
+			return duration.toNanos() / 1_000_000.0;
+		}
+
+		public String getCoordinates() {
+			return this.coordinates;
+		}
+
+		public long getCount() {
+			return this.count;
+		}
+
+		public long getErrorCount() {
+			return this.errorCount;
+		}
+
+		public double getAverageListSize() {
+			return this.averageListSize;
+		}
+
+		public double getP50() {
+			return this.p50;
+		}
+
+		public double getP95() {
+			return this.p95;
+		}
+
+		public double getP99() {
+			return this.p99;
+		}
+
+		public double getMaxTime() {
+			return this.maxTime;
+		}
+
+	}
+
+}
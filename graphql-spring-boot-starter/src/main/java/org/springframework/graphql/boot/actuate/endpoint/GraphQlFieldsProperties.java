@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@link ConfigurationProperties properties} for GraphQL per-field statistics.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties("management.graphql.fields")
+public class GraphQlFieldsProperties {
+
+	/**
+	 * Maximum number of distinct fields to track.
+	 */
+	private int maxFields = 1000;
+
+	public int getMaxFields() {
+		return this.maxFields;
+	}
+
+	public void setMaxFields(int maxFields) {
+		this.maxFields = maxFields;
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Registry of execution statistics per GraphQL operation, keyed by operation
+ * name and normalized document signature. Each entry tracks the call count,
+ * errors, result size, and a {@link LatencyHistogram latency histogram}.
+ *
+ * <p>The number of distinct operations is bounded. Once the limit is reached,
+ * executions of operations not yet tracked are folded into a single
+ * {@link #OVERFLOW_OPERATION_NAME overflow} entry.
+ *
+ * @since 1.0.0
+ */
+public class GraphQlOperationStatistics {
+
+	/**
+	 * Name of the entry that operations are folded into once the maximum
+	 * number of tracked operations is reached.
+	 */
+	public static final String OVERFLOW_OPERATION_NAME = "_overflow";
+
+
+	private final int maxOperations;
+
+	private final Map<OperationKey, OperationStats> operations = new ConcurrentHashMap<>();
+
+	private final AtomicInteger operationCount = new AtomicInteger();
+
+	private final OperationStats overflow = new OperationStats(OVERFLOW_OPERATION_NAME, "");
+
+
+	/**
+	 * Create an instance.
+	 * @param maxOperations the maximum number of distinct operations to track
+	 */
+	public GraphQlOperationStatistics(int maxOperations) {
+		Assert.isTrue(maxOperations > 0, "'maxOperations' must be greater than 0");
+		this.maxOperations = maxOperations;
+	}
+
+
+	/**
+	 * Record an execution of the given operation.
+	 * @param operationName the operation name, or {@code null} if anonymous
+	 * @param signature the normalized document signature
+	 * @param durationNanos the execution time in nanoseconds
+	 * @param errorCount the number of errors in the result
+	 * @param resultSize the number of values in the result data
+	 */
+	public void record(@Nullable String operationName, String signature, long durationNanos,
+			int errorCount, int resultSize) {
+
+		getOrCreateStats(new OperationKey(operationName, signature)).record(durationNanos, errorCount, resultSize);
+	}
+
+	private OperationStats getOrCreateStats(OperationKey key) {
+		OperationStats stats = this.operations.get(key);
+		if (stats != null) {
+			return stats;
+		}
+		// Reserve a slot atomically, so that concurrent new operations cannot exceed the limit
+		stats = this.operations.computeIfAbsent(key, (k) -> {
+			if (this.operationCount.incrementAndGet() > this.maxOperations) {
+				this.operationCount.decrementAndGet();
+				return null;
+			}
+			return new OperationStats(k.name, k.signature);
+		});
+		return (stats != null ? stats : this.overflow);
+	}
+
+	/**
+	 * Return the operations with the highest total execution time, including
+	 * the overflow entry if any executions were folded into it.
+	 * @param limit the maximum number of operations to return
+	 * @return the operations, sorted by total execution time in descending order
+	 */
+	public List<OperationStats> getTopOperations(int limit) {
+		List<OperationStats> all = new ArrayList<>(this.operations.values());
+		if (this.overflow.getCount() > 0) {
+			all.add(this.overflow);
+		}
+		return all.stream()
+				.sorted(Comparator.comparingLong(OperationStats::getTotalTimeMicros).reversed())
+				.limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Return the number of distinct operations tracked, not including the
+	 * overflow entry.
+	 */
+	public int getOperationCount() {
+		return this.operations.size();
+	}
+
+	/**
+	 * Remove all tracked operations and reset the overflow entry.
+	 */
+	public void reset() {
+		for (OperationKey key : this.operations.keySet()) {
+			if (this.operations.remove(key) != null) {
+				this.operationCount.decrementAndGet();
+			}
+		}
+		this.overflow.reset();
+	}
+
+
+	private static final class OperationKey {
+
+		@Nullable
+		private final String name;
+
+		private final String signature;
+
+		OperationKey(@Nullable String name, String signature) {
+			this.name = name;
+			this.signature = signature;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof OperationKey)) {
+				return false;
+			}
+			OperationKey otherKey = (OperationKey) other;
+			return (this.signature.equals(otherKey.signature) &&
+					(this.name != null ? this.name.equals(otherKey.name) : otherKey.name == null));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (this.name != null ? this.name.hashCode() : 0) + this.signature.hashCode();
+		}
+
+	}
+
+
+	/**
+	 * Execution statistics for a single operation.
+	 */
+	public static final class OperationStats {
+
+		@Nullable
+		private final String name;
+
+		private final String signature;
+
+		private final LatencyHistogram latency = new LatencyHistogram();
+
+		private final LongAdder errorCount = new LongAdder();
+
+		private final LongAdder failedCount = new LongAdder();
+
+		private final LongAdder totalResultSize = new LongAdder();
+
+		OperationStats(@Nullable String name, String signature) {
+			this.name = name;
+			this.signature = signature;
+		}
+
+		void record(long durationNanos, int errorCount, int resultSize) {
+			this.latency.record(durationNanos);
+			if (errorCount > 0) {
+				this.errorCount.add(errorCount);
+				this.failedCount.increment();
+			}
+			this.totalResultSize.add(resultSize);
+		}
+
+		void reset() {
+			this.latency.reset();
+			this.errorCount.reset();
+			this.failedCount.reset();
+			this.totalResultSize.reset();
+		}
+
+		/**
+		 * Return the operation name, or {@code null} for anonymous operations.
+		 */
+		@Nullable
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the normalized document signature of the operation.
+		 */
+		public String getSignature() {
+			return this.signature;
+		}
+
+		public long getCount() {
+			return this.latency.getCount();
+		}
+
+		/**
+		 * Return the total number of errors across all executions.
+		 */
+		public long getErrorCount() {
+			return this.errorCount.sum();
+		}
+
+		/**
+		 * Return the fraction of executions with at least one error.
+		 */
+		public double getErrorRate() {
+			long count = getCount();
+			return (count != 0 ? (double) this.failedCount.sum() / count : 0);
+		}
+
+		/**
+		 * Return the average number of values in the result data.
+		 */
+		public double getAverageResultSize() {
+			long count = getCount();
+			return (count != 0 ? (double) this.totalResultSize.sum() / count : 0);
+		}
+
+		public long getTotalTimeMicros() {
+			return this.latency.getTotalMicros();
+		}
+
+		public Duration getTotalTime() {
+			return Duration.ofNanos(this.latency.getTotalMicros() * 1000);
+		}
+
+		public Duration getMeanTime() {
+			return Duration.ofNanos((long) (this.latency.getMeanMicros() * 1000));
+		}
+
+		public Duration getMaxTime() {
+			return Duration.ofNanos(this.latency.getMaxMicros() * 1000);
+		}
+
+		/**
+		 * Return the approximate execution time at the given percentile.
+		 * @param percentile the percentile, between 0.0 and 1.0
+		 */
+		public Duration getTime(double percentile) {
+			return Duration.ofNanos(this.latency.getPercentileMicros(percentile) * 1000);
+		}
+
+	}
+
+}
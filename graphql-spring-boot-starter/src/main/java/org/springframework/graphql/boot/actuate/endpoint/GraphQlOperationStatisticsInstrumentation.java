@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.AstPrinter;
+import graphql.language.AstSignature;
+import graphql.language.Document;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link graphql.execution.instrumentation.Instrumentation} that records the
+ * execution of each operation in {@link GraphQlOperationStatistics}, and logs
+ * operations that take longer than a configurable threshold.
+ *
+ * <p>The signature of an operation is its document with aliases removed,
+ * literals hidden, and selections sorted, as computed by {@link AstSignature}.
+ * Signatures are cached by query text. Requests that fail to parse or validate
+ * are not recorded.
+ */
+class GraphQlOperationStatisticsInstrumentation extends SimpleInstrumentation {
+
+	private static final Log logger = LogFactory.getLog(GraphQlOperationStatisticsInstrumentation.class);
+
+	private static final int SIGNATURE_CACHE_LIMIT = 1024;
+
+	private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+
+	private final GraphQlOperationStatistics statistics;
+
+	@Nullable
+	private final Duration slowOperationThreshold;
+
+	private final Map<String, String> signatureCache = new ConcurrentHashMap<>();
+
+
+	GraphQlOperationStatisticsInstrumentation(GraphQlOperationStatistics statistics,
+			@Nullable Duration slowOperationThreshold) {
+
+		this.statistics = statistics;
+		this.slowOperationThreshold = slowOperationThreshold;
+	}
+
+
+	@Override
+	public InstrumentationState createState() {
+		return new OperationState();
+	}
+
+	@Override
+	public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+		OperationState state = parameters.getInstrumentationState();
+		long startNanos = System.nanoTime();
+		return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+			String signature = state.signature;
+			if (signature == null) {
+				return;
+			}
+			long durationNanos = System.nanoTime() - startNanos;
+			int errorCount = (result != null ? result.getErrors().size() : 1);
+			int resultSize = (result != null ? countValues(result.getData()) : 0);
+			this.statistics.record(state.operationName, signature, durationNanos, errorCount, resultSize);
+			logIfSlow(state.operationName, signature, durationNanos);
+		});
+	}
+
+	@Override
+	public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+			InstrumentationExecuteOperationParameters parameters) {
+
+		OperationState state = parameters.getInstrumentationState();
+		ExecutionContext context = parameters.getExecutionContext();
+		state.operationName = context.getOperationDefinition().getName();
+		state.signature = getSignature(context);
+		return super.beginExecuteOperation(parameters);
+	}
+
+	private String getSignature(ExecutionContext context) {
+		String operationName = context.getOperationDefinition().getName();
+		String cacheKey = (operationName != null ? operationName : "") + "#" + context.getExecutionInput().getQuery();
+		String signature = this.signatureCache.get(cacheKey);
+		if (signature == null) {
+			Document document = new AstSignature().signatureQuery(context.getDocument(), operationName);
+			signature = WHITESPACE_PATTERN.matcher(AstPrinter.printAst(document)).replaceAll(" ").trim();
+			if (this.signatureCache.size() < SIGNATURE_CACHE_LIMIT) {
+				this.signatureCache.put(cacheKey, signature);
+			}
+		}
+		return signature;
+	}
+
+	private void logIfSlow(@Nullable String operationName, String signature, long durationNanos) {
+		if (this.slowOperationThreshold != null && durationNanos >= this.slowOperationThreshold.toNanos() &&
+				logger.isWarnEnabled()) {
+			logger.warn("Slow GraphQL operation '" + (operationName != null ? operationName : "anonymous") +
+					"' took " + TimeUnit.NANOSECONDS.toMillis(durationNanos) + "ms: " + signature);
+		}
+	}
+
+	private static int countValues(@Nullable Object value) {
+		if (value instanceof Map) {
+			int count = 0;
+			for (Object element : ((Map<?, ?>) value).values()) {
+				count += countValues(element);
+			}
+			return count;
+		}
+		if (value instanceof Collection) {
+			int count = 0;
+			for (Object element : (Collection<?>) value) {
+				count += countValues(element);
+			}
+			return count;
+		}
+		return (value != null ? 1 : 0);
+	}
+
+
+	private static class OperationState implements InstrumentationState {
+
+		@Nullable
+		private volatile String operationName;
+
+		@Nullable
+		private volatile String signature;
+
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import graphql.GraphQL;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for per-operation GraphQL
+ * execution statistics, the slow operation log, and the
+ * {@link GraphQlOperationsEndpoint}. Per-operation statistics are recorded only
+ * while the endpoint is available.
+ *
+ * @since 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ GraphQL.class, ConditionalOnAvailableEndpoint.class })
+@ConditionalOnAvailableEndpoint(endpoint = GraphQlOperationsEndpoint.class)
+@EnableConfigurationProperties(GraphQlOperationsProperties.class)
+public class GraphQlOperationsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlOperationStatistics graphQlOperationStatistics(GraphQlOperationsProperties properties) {
+		return new GraphQlOperationStatistics(properties.getMaxOperations());
+	}
+
+	@Bean
+	public GraphQlOperationStatisticsInstrumentation graphQlOperationStatisticsInstrumentation(
+			GraphQlOperationStatistics statistics, GraphQlOperationsProperties properties) {
+		return new GraphQlOperationStatisticsInstrumentation(statistics, properties.getSlowThreshold());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlOperationsEndpoint graphQlOperationsEndpoint(GraphQlOperationStatistics statistics,
+			GraphQlOperationsProperties properties) {
+		return new GraphQlOperationsEndpoint(statistics, properties.getTop());
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link Endpoint @Endpoint} that exposes the GraphQL operations with the
+ * highest total execution time, as recorded in {@link GraphQlOperationStatistics}.
+ *
+ * @since 1.0.0
+ */
+@Endpoint(id = "graphqloperations")
+public class GraphQlOperationsEndpoint {
+
+	private final GraphQlOperationStatistics statistics;
+
+	private final int defaultLimit;
+
+
+	public GraphQlOperationsEndpoint(GraphQlOperationStatistics statistics, int defaultLimit) {
+		this.statistics = statistics;
+		this.defaultLimit = defaultLimit;
+	}
+
+
+	@ReadOperation
+	public OperationsDescriptor operations(@Nullable Integer top) {
+		int limit = (top != null ? top : this.defaultLimit);
+		List<OperationDescriptor> operations = this.statistics.getTopOperations(limit).stream()
+				.map(OperationDescriptor::new)
+				.collect(Collectors.toList());
+		return new OperationsDescriptor(this.statistics.getOperationCount(), operations);
+	}
+
+	@DeleteOperation
+	public void reset() {
+		this.statistics.reset();
+	}
+
+
+	/**
+	 * Description of the top GraphQL operations.
+	 */
+	public static final class OperationsDescriptor {
+
+		private final int trackedOperations;
+
+		private final List<OperationDescriptor> operations;
+
+		private OperationsDescriptor(int trackedOperations, List<OperationDescriptor> operations) {
+			this.trackedOperations = trackedOperations;
+			this.operations = operations;
+		}
+
+		public int getTrackedOperations() {
+			return this.trackedOperations;
+		}
+
+		public List<OperationDescriptor> getOperations() {
+			return this.operations;
+		}
+
+	}
+
+
+	/**
+	 * Description of the statistics of a single GraphQL operation, with
+	 * times in milliseconds.
+	 */
+	public static final class OperationDescriptor {
+
+		@Nullable
+		private final String name;
+
+		private final String signature;
+
+		private final long count;
+
+		private final double errorRate;
+
+		private final double averageResultSize;
+
+		private final double totalTime;
+
+		private final double meanTime;
+
+		private final double p50;
+
+		private final double p95;
+
+		private final double p99;
+
+		private final double maxTime;
+
+		private OperationDescriptor(GraphQlOperationStatistics.OperationStats stats) {
+			this.name = stats.getName();
+			this.signature = stats.getSignature();
+			this.count = stats.getCount();
+			this.errorRate = stats.getErrorRate();
+			this.averageResultSize = stats.getAverageResultSize();
+			this.totalTime = toMillis(stats.getTotalTime());
+			this.meanTime = toMillis(stats.getMeanTime());
+			this.p50 = toMillis(stats.getTime(0.5));
+			this.p95 = toMillis(stats.getTime(0.95));
+			this.p99 = toMillis(stats.getTime(0.99));
+			this.maxTime = toMillis(stats.getMaxTime());
+		}
+
+		private static double toMillis(Duration duration) {
+			return duration.toNanos() / 1_000_000.0;
+		}
+
+		@Nullable
+		public String getName() {
+			return this.name;
+		}
+
+		public String getSignature() {
+			return this.signature;
+		}
+
+		public long getCount() {
+			return this.count;
+		}
+
+		public double getErrorRate() {
+			return this.errorRate;
+		}
+
+		public double getAverageResultSize() {
+			return this.averageResultSize;
+		}
+
+		public double getTotalTime() {
+			return this.totalTime;
+		}
+
+		public double getMeanTime() {
+			return this.meanTime;
+		}
+
+		public double getP50() {
+			return this.p50;
+		}
+
+		public double getP95() {
+			return this.p95;
+		}
+
+		public double getP99() {
+			return this.p99;
+		}
+
+		public double getMaxTime() {
+			return this.maxTime;
+		}
+
+	}
+
+}
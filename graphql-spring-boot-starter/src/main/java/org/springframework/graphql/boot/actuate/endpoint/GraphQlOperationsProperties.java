@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@link ConfigurationProperties properties} for GraphQL per-operation statistics.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties("management.graphql.operations")
+public class GraphQlOperationsProperties {
+
+	/**
+	 * Maximum number of distinct operations to track. Further operations are
+	 * recorded in a single overflow entry.
+	 */
+	private int maxOperations = 200;
+
+	/**
+	 * Number of operations listed by the endpoint, unless requested otherwise.
+	 */
+	private int top = 20;
+
+	/**
+	 * Execution time above which an operation is logged as slow. Slow operations
+	 * are not logged if not set, or if the operations endpoint is not available.
+	 */
+	private Duration slowThreshold;
+
+	public int getMaxOperations() {
+		return this.maxOperations;
+	}
+
+	public void setMaxOperations(int maxOperations) {
+		this.maxOperations = maxOperations;
+	}
+
+	public int getTop() {
+		return this.top;
+	}
+
+	public void setTop(int top) {
+		this.top = top;
+	}
+
+	public Duration getSlowThreshold() {
+		return this.slowThreshold;
+	}
+
+	public void setSlowThreshold(Duration slowThreshold) {
+		this.slowThreshold = slowThreshold;
+	}
+
+}
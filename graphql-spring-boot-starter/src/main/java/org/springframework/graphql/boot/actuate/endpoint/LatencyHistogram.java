@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with a fixed memory footprint. Values are
+ * recorded in microseconds into log-linear buckets, with 8 sub-buckets per
+ * power of two, which bounds the error of reported percentiles to 12.5%.
+ *
+ * <p>{@link #reset()} is not atomic with respect to concurrent recording, so
+ * values recorded during a reset may or may not be kept.
+ */
+final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int MAX_SHIFT = 32;
+
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_SHIFT + 1) * SUB_BUCKET_COUNT;
+
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong totalMicros = new AtomicLong();
+
+	private final AtomicLong maxMicros = new AtomicLong();
+
+
+	/**
+	 * Record the given duration.
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	void record(long durationNanos) {
+		long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+		this.buckets.incrementAndGet(bucketIndex(micros));
+		this.count.incrementAndGet();
+		this.totalMicros.addAndGet(micros);
+		this.maxMicros.accumulateAndGet(micros, Math::max);
+	}
+
+	long getCount() {
+		return this.count.get();
+	}
+
+	long getTotalMicros() {
+		return this.totalMicros.get();
+	}
+
+	long getMaxMicros() {
+		return this.maxMicros.get();
+	}
+
+	double getMeanMicros() {
+		long count = this.count.get();
+		return (count != 0 ? (double) this.totalMicros.get() / count : 0);
+	}
+
+	/**
+	 * Return the approximate value at the given percentile, as the upper bound
+	 * of the bucket that contains it, capped by the maximum recorded value.
+	 * @param percentile the percentile, between 0.0 and 1.0
+	 * @return the value in microseconds, or 0 if nothing was recorded
+	 */
+	long getPercentileMicros(double percentile) {
+		long total = 0;
+		long[] counts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = this.buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile * total));
+		long cumulative = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += counts[i];
+			if (cumulative >= rank) {
+				return Math.min(bucketUpperBound(i), this.maxMicros.get());
+			}
+		}
+		return this.maxMicros.get();
+	}
+
+	void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			this.buckets.set(i, 0);
+		}
+		this.count.set(0);
+		this.totalMicros.set(0);
+		this.maxMicros.set(0);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		if (shift > MAX_SHIFT) {
+			return BUCKET_COUNT - 1;
+		}
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+
+}
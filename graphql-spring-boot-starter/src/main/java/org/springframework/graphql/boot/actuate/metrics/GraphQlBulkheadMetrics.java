@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.graphql.execution.BulkheadRegistry;
+import org.springframework.graphql.execution.DataFetcherBulkhead;
+
+/**
+ * Publishes in-flight, queued, and rejected counts for each
+ * {@link DataFetcherBulkhead} in a {@link BulkheadRegistry}. Meters are bound
+ * once all singletons are initialized, since bulkheads declared on annotated
+ * handler methods are only registered while the {@code GraphQlSource} is built.
+ */
+class GraphQlBulkheadMetrics implements SmartInitializingSingleton {
+
+	private final MeterRegistry meterRegistry;
+
+	private final ObjectProvider<BulkheadRegistry> bulkheadRegistry;
+
+	GraphQlBulkheadMetrics(MeterRegistry meterRegistry, ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.bulkheadRegistry = bulkheadRegistry;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		this.bulkheadRegistry.ifAvailable(this::bindTo);
+	}
+
+	private void bindTo(BulkheadRegistry registry) {
+		for (DataFetcherBulkhead bulkhead : registry.getBulkheads().values()) {
+			Tags tags = Tags.of("field", bulkhead.getName());
+			Gauge.builder("graphql.bulkhead.inflight", bulkhead, DataFetcherBulkhead::getInFlightCount)
+					.description("Number of data fetcher invocations in progress")
+					.tags(tags)
+					.register(this.meterRegistry);
+			Gauge.builder("graphql.bulkhead.queued", bulkhead, DataFetcherBulkhead::getQueuedCount)
+					.description("Number of data fetcher invocations waiting for a permit")
+					.tags(tags)
+					.register(this.meterRegistry);
+			FunctionCounter.builder("graphql.bulkhead.rejected", bulkhead, DataFetcherBulkhead::getRejectedCount)
+					.description("Number of rejected data fetcher invocations")
+					.tags(tags)
+					.register(this.meterRegistry);
+		}
+	}
+
+}
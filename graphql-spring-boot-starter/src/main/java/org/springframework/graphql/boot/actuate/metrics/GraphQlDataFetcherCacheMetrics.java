@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.graphql.execution.DataFetcherCache;
+import org.springframework.graphql.execution.DataFetcherCacheRegistry;
+
+/**
+ * Publishes hit, miss, eviction, and size metrics for each
+ * {@link DataFetcherCache} in a {@link DataFetcherCacheRegistry}, once all
+ * singletons are initialized and caches on annotated handler methods have
+ * been registered.
+ */
+class GraphQlDataFetcherCacheMetrics implements SmartInitializingSingleton {
+
+	private final MeterRegistry meterRegistry;
+
+	private final ObjectProvider<DataFetcherCacheRegistry> cacheRegistry;
+
+	GraphQlDataFetcherCacheMetrics(MeterRegistry meterRegistry, ObjectProvider<DataFetcherCacheRegistry> cacheRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.cacheRegistry = cacheRegistry;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		this.cacheRegistry.ifAvailable(this::bindTo);
+	}
+
+	private void bindTo(DataFetcherCacheRegistry registry) {
+		for (DataFetcherCache cache : registry.getCaches().values()) {
+			Tags tags = Tags.of("field", cache.getName());
+			FunctionCounter.builder("graphql.cache.gets", cache, DataFetcherCache::getHitCount)
+					.description("Number of field values returned from the cache")
+					.tags(tags).tag("result", "hit")
+					.register(this.meterRegistry);
+			FunctionCounter.builder("graphql.cache.gets", cache, DataFetcherCache::getMissCount)
+					.description("Number of field values loaded because they were not cached")
+					.tags(tags).tag("result", "miss")
+					.register(this.meterRegistry);
+			FunctionCounter.builder("graphql.cache.evictions", cache, DataFetcherCache::getEvictionCount)
+					.description("Number of field values evicted from the cache")
+					.tags(tags)
+					.register(this.meterRegistry);
+			Gauge.builder("graphql.cache.size", cache, DataFetcherCache::getSize)
+					.description("Number of field values in the cache")
+					.tags(tags)
+					.register(this.meterRegistry);
+		}
+	}
+
+}
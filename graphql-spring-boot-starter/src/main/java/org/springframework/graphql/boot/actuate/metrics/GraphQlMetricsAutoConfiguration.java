@@ -31,6 +31,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BulkheadRegistry;
+import org.springframework.graphql.execution.DataFetcherCacheRegistry;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for instrumentation of Spring
@@ -58,4 +61,22 @@ public class GraphQlMetricsAutoConfiguration {
 		return new GraphQlMetricsInstrumentation(meterRegistry, tagsProvider, properties.getAutotime());
 	}
 
+	@Bean
+	public GraphQlBulkheadMetrics graphQlBulkheadMetrics(MeterRegistry meterRegistry,
+			ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+		return new GraphQlBulkheadMetrics(meterRegistry, bulkheadRegistry);
+	}
+
+	@Bean
+	public GraphQlDataFetcherCacheMetrics graphQlDataFetcherCacheMetrics(MeterRegistry meterRegistry,
+			ObjectProvider<DataFetcherCacheRegistry> cacheRegistry) {
+		return new GraphQlDataFetcherCacheMetrics(meterRegistry, cacheRegistry);
+	}
+
+	@Bean
+	public GraphQlSubscriptionOverflowMetrics graphQlSubscriptionOverflowMetrics(
+			ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy) {
+		return new GraphQlSubscriptionOverflowMetrics(overflowPolicy);
+	}
+
 }
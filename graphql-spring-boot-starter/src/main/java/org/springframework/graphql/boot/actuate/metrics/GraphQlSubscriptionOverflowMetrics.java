@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
+
+/**
+ * Publishes counts of subscription results dropped, and of subscriptions
+ * terminated, by a {@link SubscriptionOverflowPolicy}.
+ */
+class GraphQlSubscriptionOverflowMetrics implements MeterBinder {
+
+	private final ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy;
+
+	GraphQlSubscriptionOverflowMetrics(ObjectProvider<SubscriptionOverflowPolicy> overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		this.overflowPolicy.ifAvailable((policy) -> {
+			FunctionCounter.builder("graphql.subscription.dropped", policy, SubscriptionOverflowPolicy::getDroppedCount)
+					.description("Number of subscription results dropped because the client was slow")
+					.register(meterRegistry);
+			FunctionCounter.builder("graphql.subscription.overflow", policy, SubscriptionOverflowPolicy::getOverflowCount)
+					.description("Number of subscriptions terminated because the client was slow")
+					.register(meterRegistry);
+		});
+	}
+
+}
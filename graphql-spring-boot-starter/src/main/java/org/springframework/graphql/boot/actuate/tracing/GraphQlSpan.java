@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A timed step within a {@link GraphQlTrace}: parsing, validation, or the
+ * invocation of a data fetcher. Data fetcher spans carry the
+ * {@link graphql.execution.ExecutionStepInfo#getPath() path} of the field,
+ * which places them in the tree of the response, e.g. the span at
+ * "/books[0]/author" is a child of the span at "/books".
+ *
+ * @since 1.0.0
+ */
+public final class GraphQlSpan {
+
+	private final String name;
+
+	@Nullable
+	private final String path;
+
+	private final long startOffsetNanos;
+
+	private final long durationNanos;
+
+	private final boolean error;
+
+	GraphQlSpan(String name, @Nullable String path, long startOffsetNanos, long durationNanos, boolean error) {
+		this.name = name;
+		this.path = path;
+		this.startOffsetNanos = startOffsetNanos;
+		this.durationNanos = durationNanos;
+		this.error = error;
+	}
+
+	/**
+	 * Return the name of the span, i.e. "parse", "validate", or the field
+	 * coordinates for a data fetcher span, e.g. "Book.author".
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the path of the field for a data fetcher span, or {@code null}.
+	 */
+	@Nullable
+	public String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Return the start of the span relative to the start of the trace.
+	 */
+	public long getStartOffsetNanos() {
+		return this.startOffsetNanos;
+	}
+
+	/**
+	 * Return the duration of the span.
+	 */
+	public long getDurationNanos() {
+		return this.durationNanos;
+	}
+
+	/**
+	 * Whether the step completed with an exception.
+	 */
+	public boolean isError() {
+		return this.error;
+	}
+
+	/**
+	 * Return a Map representation of the span, e.g. for the response extensions.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>(5);
+		map.put("name", this.name);
+		if (this.path != null) {
+			map.put("path", this.path);
+		}
+		map.put("startOffset", this.startOffsetNanos);
+		map.put("duration", this.durationNanos);
+		if (this.error) {
+			map.put("error", true);
+		}
+		return map;
+	}
+
+	@Override
+	public String toString() {
+		return this.name + ((this.path != null) ? " " + this.path : "") + " " + this.durationNanos + "ns";
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+/**
+ * Contract to export the {@link GraphQlTrace} of a sampled GraphQL request,
+ * e.g. to a tracing backend or a log. Implementations are invoked on the
+ * thread that completes the execution, and should hand off any I/O.
+ *
+ * @since 1.0.0
+ * @see InMemoryGraphQlSpanExporter
+ */
+@FunctionalInterface
+public interface GraphQlSpanExporter {
+
+	/**
+	 * Export the given trace.
+	 * @param trace the completed trace
+	 */
+	void export(GraphQlTrace trace);
+
+}
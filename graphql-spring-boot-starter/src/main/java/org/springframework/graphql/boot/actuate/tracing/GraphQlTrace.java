@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * The recorded spans of a single, sampled GraphQL request execution.
+ *
+ * @since 1.0.0
+ */
+public final class GraphQlTrace {
+
+	@Nullable
+	private final String operationName;
+
+	private final Instant startTime;
+
+	private final long durationNanos;
+
+	private final List<GraphQlSpan> spans;
+
+	GraphQlTrace(@Nullable String operationName, Instant startTime, long durationNanos, List<GraphQlSpan> spans) {
+		this.operationName = operationName;
+		this.startTime = startTime;
+		this.durationNanos = durationNanos;
+		this.spans = Collections.unmodifiableList(spans);
+	}
+
+	/**
+	 * Return the name of the executed operation, if specified in the request.
+	 */
+	@Nullable
+	public String getOperationName() {
+		return this.operationName;
+	}
+
+	/**
+	 * Return the time the execution started.
+	 */
+	public Instant getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Return the duration of the entire execution.
+	 */
+	public long getDurationNanos() {
+		return this.durationNanos;
+	}
+
+	/**
+	 * Return the spans of the execution, ordered by completion time.
+	 */
+	public List<GraphQlSpan> getSpans() {
+		return this.spans;
+	}
+
+	/**
+	 * Return a Map representation of the trace, e.g. for the response extensions.
+	 */
+	public Map<String, Object> toMap() {
+		List<Map<String, Object>> spanMaps = new ArrayList<>(this.spans.size());
+		for (GraphQlSpan span : this.spans) {
+			spanMaps.add(span.toMap());
+		}
+		Map<String, Object> map = new LinkedHashMap<>(3);
+		map.put("startTime", this.startTime.toString());
+		map.put("duration", this.durationNanos);
+		map.put("spans", spanMaps);
+		return map;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import graphql.GraphQL;
+
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for sampled per-field
+ * tracing of GraphQL request executions. Spans are exported to the
+ * {@link GraphQlSpanExporter} bean, or kept in memory if there is none.
+ *
+ * @since 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(GraphQL.class)
+@ConditionalOnProperty(prefix = "management.tracing.graphql", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(GraphQlTracingProperties.class)
+public class GraphQlTracingAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GraphQlSpanExporter graphQlSpanExporter() {
+		return new InMemoryGraphQlSpanExporter();
+	}
+
+	@Bean
+	public GraphQlTracingInstrumentation graphQlTracingInstrumentation(GraphQlSpanExporter exporter,
+			GraphQlTracingProperties properties) {
+		return new GraphQlTracingInstrumentation(exporter, properties.getSampleRate(), properties.isIncludeInResponse());
+	}
+
+}
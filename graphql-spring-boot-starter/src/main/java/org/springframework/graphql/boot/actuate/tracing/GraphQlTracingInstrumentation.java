@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.validation.ValidationError;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link graphql.execution.instrumentation.Instrumentation} that records a
+ * {@link GraphQlTrace} with parse, validate, and data fetcher spans for a
+ * sample of request executions, and passes it to a {@link GraphQlSpanExporter}.
+ *
+ * <p>The sampling decision is made once at the start of an execution. For
+ * unsampled executions, no state is created and shared no-op contexts are
+ * returned, so there is no per-field overhead. Trivial property data fetchers
+ * are not traced.
+ */
+class GraphQlTracingInstrumentation extends SimpleInstrumentation {
+
+	private static final Log logger = LogFactory.getLog(GraphQlTracingInstrumentation.class);
+
+	private static final String EXTENSIONS_KEY = "tracing";
+
+	private static final InstrumentationContext<Object> NO_OP_CONTEXT = new SimpleInstrumentationContext<>();
+
+
+	private final GraphQlSpanExporter exporter;
+
+	private final double sampleRate;
+
+	private final boolean includeInResponse;
+
+
+	GraphQlTracingInstrumentation(GraphQlSpanExporter exporter, double sampleRate, boolean includeInResponse) {
+		this.exporter = exporter;
+		this.sampleRate = sampleRate;
+		this.includeInResponse = includeInResponse;
+	}
+
+
+	@Override
+	@Nullable
+	public InstrumentationState createState() {
+		if (this.sampleRate <= 0 || (this.sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate)) {
+			return null;
+		}
+		return new TraceState();
+	}
+
+	@Override
+	public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+		TraceState state = parameters.getInstrumentationState();
+		if (state == null) {
+			return noOp();
+		}
+		return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+			GraphQlTrace trace = state.complete(parameters.getOperation());
+			try {
+				this.exporter.export(trace);
+			}
+			catch (Throwable exportEx) {
+				logger.error("Failed to export GraphQL trace", exportEx);
+			}
+		});
+	}
+
+	@Override
+	public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters) {
+		TraceState state = parameters.getInstrumentationState();
+		return (state != null ? state.startSpan("parse", null) : noOp());
+	}
+
+	@Override
+	public InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters) {
+		TraceState state = parameters.getInstrumentationState();
+		return (state != null ? state.startSpan("validate", null) : noOp());
+	}
+
+	@Override
+	public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+		TraceState state = parameters.getInstrumentationState();
+		if (state == null || parameters.isTrivialDataFetcher()) {
+			return noOp();
+		}
+		String name = GraphQLTypeUtil.simplePrint(parameters.getEnvironment().getParentType()) + "." +
+				parameters.getField().getName();
+		return state.startSpan(name, parameters.getExecutionStepInfo().getPath().toString());
+	}
+
+	@Override
+	public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+			InstrumentationExecutionParameters parameters) {
+
+		TraceState state = parameters.getInstrumentationState();
+		GraphQlTrace trace = (state != null && this.includeInResponse ? state.trace : null);
+		if (trace == null) {
+			return CompletableFuture.completedFuture(executionResult);
+		}
+		Map<Object, Object> extensions = new LinkedHashMap<>();
+		if (executionResult.getExtensions() != null) {
+			extensions.putAll(executionResult.getExtensions());
+		}
+		extensions.put(EXTENSIONS_KEY, trace.toMap());
+		return CompletableFuture.completedFuture(
+				ExecutionResultImpl.newExecutionResult().from(executionResult).extensions(extensions).build());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> InstrumentationContext<T> noOp() {
+		return (InstrumentationContext<T>) NO_OP_CONTEXT;
+	}
+
+
+	/**
+	 * Spans recorded for a sampled execution.
+	 */
+	private static class TraceState implements InstrumentationState {
+
+		private final Instant startTime = Instant.now();
+
+		private final long startNanos = System.nanoTime();
+
+		private final List<GraphQlSpan> spans = new ArrayList<>();
+
+		@Nullable
+		private volatile GraphQlTrace trace;
+
+		<T> InstrumentationContext<T> startSpan(String name, @Nullable String path) {
+			long spanStartNanos = System.nanoTime();
+			return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+				long endNanos = System.nanoTime();
+				GraphQlSpan span = new GraphQlSpan(name, path,
+						spanStartNanos - this.startNanos, endNanos - spanStartNanos, (ex != null));
+				synchronized (this.spans) {
+					this.spans.add(span);
+				}
+			});
+		}
+
+		GraphQlTrace complete(@Nullable String operationName) {
+			long durationNanos = System.nanoTime() - this.startNanos;
+			List<GraphQlSpan> spans;
+			synchronized (this.spans) {
+				spans = new ArrayList<>(this.spans);
+			}
+			GraphQlTrace trace = new GraphQlTrace(operationName, this.startTime, durationNanos, spans);
+			this.trace = trace;
+			return trace;
+		}
+
+	}
+
+}
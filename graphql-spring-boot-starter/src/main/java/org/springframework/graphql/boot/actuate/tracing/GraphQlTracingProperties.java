@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@link ConfigurationProperties properties} for GraphQL per-field tracing.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties("management.tracing.graphql")
+public class GraphQlTracingProperties {
+
+	/**
+	 * Whether to trace GraphQL request executions.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Fraction of request executions to trace, between 0.0 and 1.0.
+	 */
+	private double sampleRate = 0.01;
+
+	/**
+	 * Whether to add the recorded spans to the "extensions" of the response.
+	 */
+	private boolean includeInResponse;
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public double getSampleRate() {
+		return this.sampleRate;
+	}
+
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	public boolean isIncludeInResponse() {
+		return this.includeInResponse;
+	}
+
+	public void setIncludeInResponse(boolean includeInResponse) {
+		this.includeInResponse = includeInResponse;
+	}
+
+}
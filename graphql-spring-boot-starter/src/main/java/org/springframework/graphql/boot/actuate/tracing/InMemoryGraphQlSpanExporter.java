@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link GraphQlSpanExporter} that keeps the most recent traces in memory,
+ * e.g. for use in tests.
+ *
+ * @since 1.0.0
+ */
+public class InMemoryGraphQlSpanExporter implements GraphQlSpanExporter {
+
+	private final int capacity;
+
+	private final Deque<GraphQlTrace> traces;
+
+
+	/**
+	 * Create an instance that keeps up to 100 traces.
+	 */
+	public InMemoryGraphQlSpanExporter() {
+		this(100);
+	}
+
+	/**
+	 * Create an instance that keeps up to the given number of traces.
+	 * @param capacity the maximum number of traces to keep
+	 */
+	public InMemoryGraphQlSpanExporter(int capacity) {
+		Assert.isTrue(capacity > 0, "'capacity' must be greater than 0");
+		this.capacity = capacity;
+		this.traces = new ArrayDeque<>(capacity);
+	}
+
+
+	@Override
+	public void export(GraphQlTrace trace) {
+		synchronized (this.traces) {
+			if (this.traces.size() == this.capacity) {
+				this.traces.removeFirst();
+			}
+			this.traces.addLast(trace);
+		}
+	}
+
+	/**
+	 * Return the exported traces, oldest first.
+	 */
+	public List<GraphQlTrace> getTraces() {
+		synchronized (this.traces) {
+			return new ArrayList<>(this.traces);
+		}
+	}
+
+	/**
+	 * Remove all exported traces.
+	 */
+	public void clear() {
+		synchronized (this.traces) {
+			this.traces.clear();
+		}
+	}
+
+}
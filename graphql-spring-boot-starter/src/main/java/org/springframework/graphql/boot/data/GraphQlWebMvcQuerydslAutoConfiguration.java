@@ -36,12 +36,15 @@ import org.springframework.graphql.boot.GraphQlAutoConfiguration;
 import org.springframework.graphql.boot.GraphQlSourceBuilderCustomizer;
 import org.springframework.graphql.data.querydsl.QuerydslDataFetcher;
 import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.web.WebInterceptor;
+import org.springframework.lang.Nullable;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} that creates a
  * {@link GraphQlSourceBuilderCustomizer}s to detect Spring Data repositories
  * with Querydsl support and register them as {@code DataFetcher}s for any
- * queries with a matching return type.
+ * queries with a matching return type, along with a {@link WebInterceptor} that
+ * prepares requests to load relations between those types in batches.
  *
  * @author Rossen Stoyanchev
  * @since 1.0.0
@@ -54,6 +57,9 @@ import org.springframework.graphql.execution.GraphQlSource;
 @AutoConfigureAfter(GraphQlAutoConfiguration.class)
 public class GraphQlWebMvcQuerydslAutoConfiguration {
 
+	@Nullable
+	private volatile GraphQLTypeVisitor registrationTypeVisitor;
+
 	@Bean
 	public GraphQlSourceBuilderCustomizer querydslRegistrar(
 			ObjectProvider<QuerydslPredicateExecutor<?>> executorsProvider,
@@ -69,7 +75,19 @@ public class GraphQlWebMvcQuerydslAutoConfiguration {
 			if (!executors.isEmpty()) {
 				GraphQLTypeVisitor visitor = QuerydslDataFetcher.registrationTypeVisitor(executors, reactiveExecutors);
 				builder.typeVisitors(Collections.singletonList(visitor));
+				this.registrationTypeVisitor = visitor;
+			}
+		};
+	}
+
+	@Bean
+	public WebInterceptor querydslRelationLoadingInterceptor() {
+		return (webInput, next) -> {
+			GraphQLTypeVisitor visitor = this.registrationTypeVisitor;
+			if (visitor != null) {
+				QuerydslDataFetcher.configureRelationLoading(visitor, webInput);
 			}
+			return next.handle(webInput);
 		};
 	}
 
@@ -16,6 +16,8 @@
 
 package org.springframework.graphql.boot.test.tester;
 
+import graphql.execution.instrumentation.Instrumentation;
+
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -23,6 +25,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.boot.GraphQlProperties;
+import org.springframework.graphql.execution.DataFetcherInvocationCounter;
 import org.springframework.graphql.test.tester.GraphQlTester;
 import org.springframework.graphql.test.tester.WebGraphQlTester;
 import org.springframework.graphql.web.WebGraphQlHandler;
@@ -41,6 +44,15 @@ import org.springframework.web.reactive.function.client.WebClient;
 		name = "org.springframework.boot.test.autoconfigure.web.reactive.WebTestClientAutoConfiguration")
 public class GraphQlTesterAutoConfiguration {
 
+	/**
+	 * Count data fetcher invocations in tests, for
+	 * {@link GraphQlTester.ResponseSpec#dataFetcherInvocationsAtMost(int)}.
+	 */
+	@Bean
+	public Instrumentation graphQlTesterInvocationCounterInstrumentation() {
+		return DataFetcherInvocationCounter.instrumentation();
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnBean(WebTestClient.class)
 	public static class WebTestClientGraphQlTesterConfiguration {
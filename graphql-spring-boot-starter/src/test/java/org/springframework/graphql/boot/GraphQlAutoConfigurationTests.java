@@ -72,6 +72,15 @@ class GraphQlAutoConfigurationTests {
 				});
 	}
 
+	@Test
+	void shouldDeclareDeferDirectiveWhenEnabled() {
+		this.contextRunner.withPropertyValues("spring.graphql.schema.locations:classpath:books/")
+				.run((context) -> assertThat(context.getBean(GraphQlSource.class).schema().getDirective("defer")).isNull());
+		this.contextRunner.withPropertyValues("spring.graphql.schema.locations:classpath:books/",
+				"spring.graphql.schema.defer.enabled=true")
+				.run((context) -> assertThat(context.getBean(GraphQlSource.class).schema().getDirective("defer")).isNotNull());
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class CustomGraphQlBuilderConfiguration {
 
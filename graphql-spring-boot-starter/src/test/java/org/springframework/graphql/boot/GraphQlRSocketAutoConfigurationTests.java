@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import graphql.schema.idl.TypeRuntimeWiring;
+import io.rsocket.Closeable;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketStrategiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphQlRSocketAutoConfigurationTests {
+
+	private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
+			new ParameterizedTypeReference<Map<String, Object>>() {};
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+					RSocketStrategiesAutoConfiguration.class, RSocketMessagingAutoConfiguration.class,
+					GraphQlAutoConfiguration.class, GraphQlServiceAutoConfiguration.class,
+					GraphQlRSocketAutoConfiguration.class))
+			.withUserConfiguration(DataFetchersConfiguration.class)
+			.withPropertyValues(
+					"spring.graphql.schema.locations=classpath:books/",
+					"spring.graphql.rsocket.mapping=graphql");
+
+	@Test
+	void query() {
+		testWithRequester((requester) -> {
+			String query = "{ bookById(id: \"book-1\"){ name } }";
+			Map<String, Object> result = requester.route("graphql")
+					.data(Collections.singletonMap("query", query))
+					.retrieveMono(MAP_TYPE)
+					.block();
+
+			assertThat(result).isEqualTo(Collections.singletonMap("data",
+					Collections.singletonMap("bookById", Collections.singletonMap("name", "GraphQL for beginners"))));
+		});
+	}
+
+	@Test
+	void subscription() {
+		testWithRequester((requester) -> {
+			String query = "subscription { bookSearch(minPages: 200) { id } }";
+			List<Map<String, Object>> results = requester.route("graphql")
+					.data(Collections.singletonMap("query", query))
+					.retrieveFlux(MAP_TYPE)
+					.collectList()
+					.block();
+
+			assertThat(results).hasSize(3);
+			assertThat(results.get(0)).isEqualTo(Collections.singletonMap("data",
+					Collections.singletonMap("bookSearch", Collections.singletonMap("id", "book-2"))));
+		});
+	}
+
+	@Test
+	void noMappingProperty() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(GraphQlAutoConfiguration.class,
+						GraphQlServiceAutoConfiguration.class, GraphQlRSocketAutoConfiguration.class))
+				.withUserConfiguration(DataFetchersConfiguration.class)
+				.withPropertyValues("spring.graphql.schema.locations=classpath:books/")
+				.run((context) -> assertThat(context).doesNotHaveBean(GraphQlRSocketController.class));
+	}
+
+	private void testWithRequester(Consumer<RSocketRequester> consumer) {
+		this.contextRunner.run((context) -> {
+			RSocketMessageHandler messageHandler = context.getBean(RSocketMessageHandler.class);
+			Closeable server = RSocketServer.create(messageHandler.responder())
+					.bind(LocalServerTransport.create("graphql-test"))
+					.block();
+			RSocketRequester requester = RSocketRequester.builder()
+					.rsocketStrategies(context.getBean(RSocketStrategies.class))
+					.transport(LocalClientTransport.create("graphql-test"));
+			try {
+				consumer.accept(requester);
+			}
+			finally {
+				requester.dispose();
+				server.dispose();
+			}
+		});
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class DataFetchersConfiguration {
+
+		@Bean
+		RuntimeWiringConfigurer bookDataFetcher() {
+			return (builder) -> builder
+					.type(TypeRuntimeWiring.newTypeWiring("Query")
+							.dataFetcher("bookById", GraphQlDataFetchers.getBookByIdDataFetcher()))
+					.type(TypeRuntimeWiring.newTypeWiring("Subscription")
+							.dataFetcher("bookSearch", GraphQlDataFetchers.getBooksOnSaleDataFetcher()));
+		}
+
+	}
+
+}
@@ -31,11 +31,14 @@ import org.springframework.boot.test.context.runner.ReactiveWebApplicationContex
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
 import org.springframework.graphql.web.WebInterceptor;
+import org.springframework.graphql.web.webflux.GraphQlSseHandler;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 
 class GraphQlWebFluxAutoConfigurationTests {
@@ -131,6 +134,44 @@ class GraphQlWebFluxAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	void querySse() {
+		testWithWebClient((client) -> {
+			String query = "{ bookById(id: \\\"book-1\\\"){ name } }";
+			client.post().uri("").accept(MediaType.TEXT_EVENT_STREAM).bodyValue("{  \"query\": \"" + query + "\"}")
+					.exchange()
+					.expectStatus()
+					.isOk()
+					.expectHeader()
+					.contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+					.expectBody(String.class)
+					.value(containsString("event:next\ndata:{\"data\":{\"bookById\":{\"name\":\"GraphQL for beginners\"}}}"))
+					.value(containsString("event:complete\n"));
+		});
+	}
+
+	@Test
+	void subscriptionOverflowPolicyNotSetByDefault() {
+		this.contextRunner.run((context) -> {
+			assertThat(context).doesNotHaveBean(SubscriptionOverflowPolicy.class);
+			assertThat(context.getBean(GraphQlSseHandler.class).getSubscriptionOverflowPolicy()).isNull();
+		});
+	}
+
+	@Test
+	void subscriptionOverflowPolicy() {
+		this.contextRunner
+				.withPropertyValues("spring.graphql.subscription.overflow-strategy=drop-oldest",
+						"spring.graphql.subscription.max-buffer-size=16")
+				.run((context) -> {
+					SubscriptionOverflowPolicy policy = context.getBean(SubscriptionOverflowPolicy.class);
+					assertThat(policy.getStrategy()).isEqualTo(SubscriptionOverflowPolicy.Strategy.DROP_OLDEST);
+					assertThat(policy.getMaxBufferSize()).isEqualTo(16);
+					assertThat(context.getBean(GraphQlSseHandler.class).getSubscriptionOverflowPolicy())
+							.isSameAs(policy);
+				});
+	}
+
 	@Test
 	void schemaEndpoint() {
 		testWithWebClient((client) ->
@@ -139,11 +180,24 @@ class GraphQlWebFluxAutoConfigurationTests {
 						.expectStatus()
 						.isOk()
 						.expectHeader()
-						.contentType(MediaType.TEXT_PLAIN)
+						.contentType("text/plain;charset=UTF-8")
 						.expectBody(String.class)
 						.value(containsString("type Book")));
 	}
 
+	@Test
+	void schemaEndpointWithIntrospectionFormat() {
+		testWithWebClient((client) ->
+				client.get().uri("/schema?format=introspection").accept(MediaType.ALL)
+						.exchange()
+						.expectStatus()
+						.isOk()
+						.expectHeader()
+						.contentType(MediaType.APPLICATION_JSON)
+						.expectBody()
+						.jsonPath("data.__schema").exists());
+	}
+
 	private void testWithWebClient(Consumer<WebTestClient> consumer) {
 		this.contextRunner.run((context) -> {
 			WebTestClient client = WebTestClient.bindToApplicationContext(context)
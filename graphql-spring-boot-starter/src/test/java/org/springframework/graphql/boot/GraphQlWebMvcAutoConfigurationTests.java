@@ -30,6 +30,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 import org.springframework.graphql.web.WebInterceptor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -94,12 +95,26 @@ class GraphQlWebMvcAutoConfigurationTests {
 
 	@Test
 	void missingQuery() {
-		testWith((mockMvc) -> mockMvc.perform(post("/graphql").content("{}")).andExpect(status().isBadRequest()));
+		testWith((mockMvc) -> {
+			MvcResult result = mockMvc.perform(post("/graphql").content("{}")).andReturn();
+			mockMvc.perform(asyncDispatch(result)).andExpect(status().isBadRequest());
+		});
 	}
 
 	@Test
 	void invalidJson() {
-		testWith((mockMvc) -> mockMvc.perform(post("/graphql").content(":)")).andExpect(status().isBadRequest()));
+		testWith((mockMvc) -> {
+			MvcResult result = mockMvc.perform(post("/graphql").content(":)")).andReturn();
+			mockMvc.perform(asyncDispatch(result)).andExpect(status().isBadRequest());
+		});
+	}
+
+	@Test
+	void requestBodySizeLimit() {
+		testWith(this.contextRunner.withPropertyValues("spring.graphql.request.max-body-size=16B"), (mockMvc) -> {
+			MvcResult result = mockMvc.perform(post("/graphql").content("{\"query\": \"{ bookById }\"}")).andReturn();
+			mockMvc.perform(asyncDispatch(result)).andExpect(status().isPayloadTooLarge());
+		});
 	}
 
 	@Test
@@ -124,12 +139,32 @@ class GraphQlWebMvcAutoConfigurationTests {
 	void schemaEndpoint() {
 		testWith((mockMvc) -> mockMvc.perform(get("/graphql/schema"))
 				.andExpect(status().isOk())
-				.andExpect(content().contentType(MediaType.TEXT_PLAIN))
+				.andExpect(content().contentType("text/plain;charset=UTF-8"))
 				.andExpect(content().string(Matchers.containsString("type Book"))));
 	}
 
+	@Test
+	void schemaEndpointWithIntrospectionFormat() {
+		testWith((mockMvc) -> {
+			String eTag = mockMvc.perform(get("/graphql/schema").param("format", "introspection"))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+					.andExpect(jsonPath("data.__schema").exists())
+					.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+			mockMvc.perform(get("/graphql/schema").param("format", "introspection").header(HttpHeaders.IF_NONE_MATCH, eTag))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.ETAG, eTag))
+					.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+		});
+	}
+
 	private void testWith(MockMvcConsumer mockMvcConsumer) {
-		this.contextRunner.run((context) -> {
+		testWith(this.contextRunner, mockMvcConsumer);
+	}
+
+	private void testWith(WebApplicationContextRunner contextRunner, MockMvcConsumer mockMvcConsumer) {
+		contextRunner.run((context) -> {
 			MediaType mediaType = MediaType.APPLICATION_JSON;
 			MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context)
 					.defaultRequest(post("/graphql").contentType(mediaType).accept(mediaType))
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import graphql.GraphQL;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.boot.actuate.endpoint.GraphQlFieldStatistics.FieldStats;
+import org.springframework.graphql.execution.GraphQlSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GraphQlFieldStatistics} and
+ * {@link GraphQlFieldStatisticsInstrumentation}.
+ */
+class GraphQlFieldStatisticsTests {
+
+	private static final String SCHEMA = "type Query { greeting: String, names: [String], failure: String }";
+
+	private final GraphQlFieldStatistics statistics = new GraphQlFieldStatistics(10);
+
+
+	@Test
+	void recordFields() throws Exception {
+		GraphQL graphQl = initGraphQl();
+		graphQl.executeAsync("{ greeting names failure }").get();
+		graphQl.executeAsync("{ greeting }").get();
+
+		List<FieldStats> fields = this.statistics.getFields();
+		assertThat(fields).extracting(FieldStats::getCoordinates)
+				.containsExactlyInAnyOrder("Query.greeting", "Query.names", "Query.failure");
+
+		FieldStats greeting = getField("Query.greeting");
+		assertThat(greeting.getCount()).isEqualTo(2);
+		assertThat(greeting.getErrorCount()).isEqualTo(0);
+		assertThat(greeting.getAverageListSize()).isEqualTo(0);
+
+		assertThat(getField("Query.names").getAverageListSize()).isEqualTo(3);
+		assertThat(getField("Query.failure").getErrorCount()).isEqualTo(1);
+	}
+
+	@Test
+	void reset() throws Exception {
+		initGraphQl().executeAsync("{ greeting }").get();
+		this.statistics.reset();
+
+		FieldStats greeting = getField("Query.greeting");
+		assertThat(greeting.getCount()).isEqualTo(0);
+		assertThat(greeting.getTime(0.99).isZero()).isTrue();
+	}
+
+	@Test
+	void ignoreFieldsBeyondLimit() {
+		GraphQlFieldStatistics statistics = new GraphQlFieldStatistics(1);
+		statistics.record("Query.a", 1000, false, -1);
+		statistics.record("Query.b", 1000, false, -1);
+
+		assertThat(statistics.getFields()).extracting(FieldStats::getCoordinates).containsExactly("Query.a");
+	}
+
+	private FieldStats getField(String coordinates) {
+		return this.statistics.getFields().stream()
+				.filter((stats) -> stats.getCoordinates().equals(coordinates)).findFirst().get();
+	}
+
+	private GraphQL initGraphQl() {
+		return GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) -> builder
+						.dataFetcher("greeting", (env) -> Mono.just("Hello"))
+						.dataFetcher("names", (env) -> Flux.fromIterable(Arrays.asList("a", "b", "c")))
+						.dataFetcher("failure", (env) -> Mono.error(new IllegalStateException("Boom")))))
+				.instrumentation(Collections.singletonList(new GraphQlFieldStatisticsInstrumentation(this.statistics)))
+				.build()
+				.graphQl();
+	}
+
+}
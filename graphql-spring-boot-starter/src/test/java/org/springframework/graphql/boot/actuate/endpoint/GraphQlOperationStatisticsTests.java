@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.endpoint;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import graphql.GraphQL;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.boot.actuate.endpoint.GraphQlOperationStatistics.OperationStats;
+import org.springframework.graphql.execution.GraphQlSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GraphQlOperationStatistics} and
+ * {@link GraphQlOperationStatisticsInstrumentation}.
+ */
+class GraphQlOperationStatisticsTests {
+
+	private static final String SCHEMA = "type Query { greeting(name: String): String }";
+
+	private final GraphQlOperationStatistics statistics = new GraphQlOperationStatistics(2);
+
+
+	@Test
+	void recordOperation() {
+		this.statistics.record("a", "{a}", Duration.ofMillis(10).toNanos(), 0, 3);
+		this.statistics.record("a", "{a}", Duration.ofMillis(30).toNanos(), 2, 5);
+
+		OperationStats stats = this.statistics.getTopOperations(10).get(0);
+		assertThat(stats.getName()).isEqualTo("a");
+		assertThat(stats.getCount()).isEqualTo(2);
+		assertThat(stats.getErrorCount()).isEqualTo(2);
+		assertThat(stats.getErrorRate()).isEqualTo(0.5);
+		assertThat(stats.getAverageResultSize()).isEqualTo(4);
+		assertThat(stats.getTotalTime()).isEqualTo(Duration.ofMillis(40));
+		assertThat(stats.getMaxTime()).isEqualTo(Duration.ofMillis(30));
+		assertThat(stats.getTime(0.5).toMillis()).isBetween(9L, 12L);
+		assertThat(stats.getTime(0.99)).isEqualTo(Duration.ofMillis(30));
+	}
+
+	@Test
+	void topOperationsSortedByTotalTime() {
+		this.statistics.record("fast", "{fast}", Duration.ofMillis(1).toNanos(), 0, 1);
+		this.statistics.record("slow", "{slow}", Duration.ofMillis(50).toNanos(), 0, 1);
+
+		List<OperationStats> top = this.statistics.getTopOperations(1);
+		assertThat(top).hasSize(1);
+		assertThat(top.get(0).getName()).isEqualTo("slow");
+	}
+
+	@Test
+	void foldIntoOverflowWhenLimitReached() {
+		this.statistics.record("a", "{a}", 1000, 0, 1);
+		this.statistics.record("b", "{b}", 1000, 0, 1);
+		this.statistics.record("c", "{c}", 1000, 0, 1);
+		this.statistics.record("d", "{d}", 1000, 0, 1);
+		this.statistics.record("a", "{a}", 1000, 0, 1);
+
+		assertThat(this.statistics.getOperationCount()).isEqualTo(2);
+		assertThat(this.statistics.getTopOperations(10))
+				.filteredOn((stats) -> GraphQlOperationStatistics.OVERFLOW_OPERATION_NAME.equals(stats.getName()))
+				.singleElement().extracting(OperationStats::getCount).isEqualTo(2L);
+
+		this.statistics.reset();
+		assertThat(this.statistics.getTopOperations(10)).isEmpty();
+	}
+
+	@Test
+	void concurrentNewOperationsDoNotExceedLimit() throws Exception {
+		GraphQlOperationStatistics statistics = new GraphQlOperationStatistics(10);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			for (int i = 0; i < 1000; i++) {
+				String name = "op" + i;
+				executor.execute(() -> {
+					try {
+						start.await();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					statistics.record(name, "{" + name + "}", 1000, 0, 1);
+				});
+			}
+			start.countDown();
+		}
+		finally {
+			executor.shutdown();
+			assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(statistics.getOperationCount()).isEqualTo(10);
+		assertThat(statistics.getTopOperations(20).stream().mapToLong(OperationStats::getCount).sum())
+				.isEqualTo(1000);
+	}
+
+	@Test
+	void latencyHistogramBuckets() {
+		for (long value = 0; value < 100_000; value += 7) {
+			int index = LatencyHistogram.bucketIndex(value);
+			assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+			assertThat(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value).isTrue();
+		}
+	}
+
+	@Test
+	void instrumentationNormalizesSignature() throws Exception {
+		GraphQL graphQl = initGraphQl();
+		graphQl.executeAsync("query Greet { greeting(name: \"A\") }").get();
+		graphQl.executeAsync("query Greet {\n  hello: greeting(name: \"B\")\n}").get();
+
+		List<OperationStats> top = this.statistics.getTopOperations(10);
+		assertThat(top).hasSize(1);
+		assertThat(top.get(0).getName()).isEqualTo("Greet");
+		assertThat(top.get(0).getCount()).isEqualTo(2);
+		assertThat(top.get(0).getAverageResultSize()).isEqualTo(1);
+		assertThat(top.get(0).getSignature()).doesNotContain("\n", "hello", "\"A\"");
+	}
+
+	@Test
+	void instrumentationSkipsInvalidDocuments() throws Exception {
+		initGraphQl().executeAsync("{ unknown }").get();
+		assertThat(this.statistics.getTopOperations(10)).isEmpty();
+	}
+
+	private GraphQL initGraphQl() {
+		return GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query",
+						(builder) -> builder.dataFetcher("greeting", (env) -> Mono.just("Hello"))))
+				.instrumentation(Collections.singletonList(
+						new GraphQlOperationStatisticsInstrumentation(this.statistics, Duration.ofSeconds(10))))
+				.build()
+				.graphQl();
+	}
+
+}
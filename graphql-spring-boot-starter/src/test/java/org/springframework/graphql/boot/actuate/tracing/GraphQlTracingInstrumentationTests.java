@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.boot.actuate.tracing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.GraphQlSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GraphQlTracingInstrumentation}.
+ */
+class GraphQlTracingInstrumentationTests {
+
+	private static final String SCHEMA = "type Query { greeting: String }";
+
+	private final InMemoryGraphQlSpanExporter exporter = new InMemoryGraphQlSpanExporter();
+
+	@Test
+	void traceSampledExecution() throws Exception {
+		GraphQL graphQl = initGraphQl(1.0, false);
+		ExecutionResult result = graphQl.executeAsync("query Greeting { greeting }").get();
+
+		assertThat(result.getExtensions()).isNull();
+
+		List<GraphQlTrace> traces = this.exporter.getTraces();
+		assertThat(traces).hasSize(1);
+		GraphQlTrace trace = traces.get(0);
+		assertThat(trace.getOperationName()).isEqualTo("Greeting");
+		assertThat(trace.getDurationNanos()).isGreaterThan(0);
+
+		List<String> names = trace.getSpans().stream().map(GraphQlSpan::getName).collect(Collectors.toList());
+		assertThat(names).containsExactlyInAnyOrder("parse", "validate", "Query.greeting");
+
+		GraphQlSpan fieldSpan = trace.getSpans().stream()
+				.filter((span) -> span.getName().equals("Query.greeting")).findFirst().get();
+		assertThat(fieldSpan.getPath()).isEqualTo("/greeting");
+		assertThat(fieldSpan.isError()).isFalse();
+	}
+
+	@Test
+	void skipUnsampledExecution() throws Exception {
+		GraphQL graphQl = initGraphQl(0.0, true);
+		ExecutionResult result = graphQl.executeAsync("{ greeting }").get();
+
+		assertThat(result.getExtensions()).isNull();
+		assertThat(this.exporter.getTraces()).isEmpty();
+	}
+
+	@Test
+	void includeTraceInResponse() throws Exception {
+		GraphQL graphQl = initGraphQl(1.0, true);
+		ExecutionResult result = graphQl.executeAsync("{ greeting }").get();
+
+		Map<Object, Object> extensions = result.getExtensions();
+		assertThat(extensions).containsKey("tracing");
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> tracing = (Map<String, Object>) extensions.get("tracing");
+		assertThat(tracing).containsKeys("startTime", "duration", "spans");
+		assertThat((List<?>) tracing.get("spans")).hasSize(3);
+	}
+
+	private GraphQL initGraphQl(double sampleRate, boolean includeInResponse) {
+		return GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query",
+						(builder) -> builder.dataFetcher("greeting", (env) -> Mono.just("Hello"))))
+				.instrumentation(Collections.singletonList(
+						new GraphQlTracingInstrumentation(this.exporter, sampleRate, includeInResponse)))
+				.build()
+				.graphQl();
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -40,6 +41,7 @@ import reactor.core.publisher.Flux;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.graphql.GraphQlService;
 import org.springframework.graphql.RequestInput;
+import org.springframework.graphql.execution.DataFetcherInvocationCounter;
 import org.springframework.lang.Nullable;
 import org.springframework.test.util.AssertionErrors;
 import org.springframework.test.util.JsonExpectationsHelper;
@@ -166,9 +168,27 @@ class DefaultGraphQlTester implements GraphQlTester {
 
 		@Override
 		public ResponseSpec execute(RequestInput input) {
+			DataFetcherInvocationCounter counter = new DataFetcherInvocationCounter();
+			input.configureExecutionInput((executionInput, builder) -> {
+				counter.register(executionInput);
+				return executionInput;
+			});
+
+			long allocatedBytes = ExecutionMetrics.currentThreadAllocatedBytes();
 			ExecutionResult executionResult = executeInternal(input);
+			if (allocatedBytes != -1) {
+				allocatedBytes = ExecutionMetrics.currentThreadAllocatedBytes() - allocatedBytes;
+			}
+
+			int dataFetcherCount = (counter.isInstrumented() ? counter.getCount() : -1);
+			ExecutionMetrics metrics = new ExecutionMetrics(allocatedBytes, dataFetcherCount, () -> {
+				long startTime = System.nanoTime();
+				executeInternal(input);
+				return Duration.ofNanos(System.nanoTime() - startTime);
+			});
+
 			DocumentContext context = JsonPath.parse(executionResult.toSpecification(), jsonPathConfig());
-			return new DefaultResponseSpec(context, errorFilter(), assertDecorator(input));
+			return new DefaultResponseSpec(context, errorFilter(), assertDecorator(input), metrics);
 		}
 
 		@Override
@@ -436,6 +456,11 @@ class DefaultGraphQlTester implements GraphQlTester {
 
 		private final ResponseContainer responseContainer;
 
+		private final Consumer<Runnable> assertDecorator;
+
+		@Nullable
+		private final ExecutionMetrics metrics;
+
 		/**
 		 * Class constructor.
 		 * @param documentContext the parsed response content
@@ -446,7 +471,24 @@ class DefaultGraphQlTester implements GraphQlTester {
 				DocumentContext documentContext, @Nullable Predicate<GraphQLError> errorFilter,
 				Consumer<Runnable> assertDecorator) {
 
+			this(documentContext, errorFilter, assertDecorator, null);
+		}
+
+		/**
+		 * Variant of {@link #DefaultResponseSpec(DocumentContext, Predicate, Consumer)}
+		 * with the metrics of the execution for budget assertions.
+		 * @param documentContext the parsed response content
+		 * @param errorFilter a globally defined filter for expected errors (to be ignored)
+		 * @param assertDecorator decorator to apply around assertions, e.g. to add extra
+		 * @param metrics the metrics of the execution, if available
+		 */
+		DefaultResponseSpec(
+				DocumentContext documentContext, @Nullable Predicate<GraphQLError> errorFilter,
+				Consumer<Runnable> assertDecorator, @Nullable ExecutionMetrics metrics) {
+
 			this.responseContainer = new ResponseContainer(documentContext, errorFilter, assertDecorator);
+			this.assertDecorator = assertDecorator;
+			this.metrics = metrics;
 		}
 
 		@Override
@@ -478,6 +520,50 @@ class DefaultGraphQlTester implements GraphQlTester {
 			return this;
 		}
 
+		@Override
+		public ResponseSpec allocatedBytesAtMost(long maxBytes) {
+			long allocatedBytes = getMetrics().getAllocatedBytes();
+			Assert.state(allocatedBytes != -1, "Allocation is measured only for requests executed " +
+					"without a transport, on a JVM that supports thread allocation measurement");
+			this.assertDecorator.accept(() -> AssertionErrors.assertTrue(
+					"Expected at most " + maxBytes + " bytes allocated, but was " + allocatedBytes,
+					allocatedBytes <= maxBytes));
+			return this;
+		}
+
+		@Override
+		public ResponseSpec dataFetcherInvocationsAtMost(int maxInvocations) {
+			int count = getMetrics().getDataFetcherCount();
+			Assert.state(count != -1, "Data fetcher invocations are counted only for requests executed " +
+					"without a transport, with DataFetcherInvocationCounter.instrumentation() installed");
+			this.assertDecorator.accept(() -> AssertionErrors.assertTrue(
+					"Expected at most " + maxInvocations + " data fetcher invocations, but was " + count,
+					count <= maxInvocations));
+			return this;
+		}
+
+		@Override
+		public ResponseSpec latencyAtMost(Duration budget, int repetitions) {
+			Assert.isTrue(repetitions > 0, "Repetitions must be greater than 0");
+			ExecutionMetrics metrics = getMetrics();
+			Duration[] latencies = new Duration[repetitions];
+			for (int i = 0; i < repetitions; i++) {
+				latencies[i] = metrics.measureLatency();
+			}
+			Arrays.sort(latencies);
+			Duration median = latencies[(repetitions - 1) / 2];
+			this.assertDecorator.accept(() -> AssertionErrors.assertTrue(
+					"Expected median latency of at most " + budget.toMillis() + "ms over " + repetitions +
+							" executions, but was " + String.format(Locale.ROOT, "%.3fms", median.toNanos() / 1_000_000d),
+					median.compareTo(budget) <= 0));
+			return this;
+		}
+
+		private ExecutionMetrics getMetrics() {
+			Assert.state(this.metrics != null, "Budget assertions are not supported for subscription events");
+			return this.metrics;
+		}
+
 	}
 
 	/**
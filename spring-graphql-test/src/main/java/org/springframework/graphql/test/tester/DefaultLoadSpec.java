@@ -0,0 +1,245 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.test.tester;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Default implementation of {@link GraphQlTester.LoadSpec} that executes
+ * requests on a fixed pool of worker threads, each recording the latencies
+ * of the requests it executes.
+ */
+final class DefaultLoadSpec implements GraphQlTester.LoadSpec {
+
+	private static final AtomicInteger runCount = new AtomicInteger();
+
+
+	private final List<GraphQlTester.ExecuteSpec> requests = new ArrayList<>();
+
+	private final List<Integer> weights = new ArrayList<>();
+
+	private int concurrency = 1;
+
+	private int rate;
+
+	private Duration warmUp = Duration.ZERO;
+
+	private Duration duration = Duration.ofSeconds(10);
+
+
+	@Override
+	public GraphQlTester.LoadSpec request(GraphQlTester.ExecuteSpec request) {
+		return request(request, 1);
+	}
+
+	@Override
+	public GraphQlTester.LoadSpec request(GraphQlTester.ExecuteSpec request, int weight) {
+		Assert.notNull(request, "Request is required");
+		Assert.isTrue(weight > 0, "Weight must be greater than 0");
+		this.requests.add(request);
+		this.weights.add(weight);
+		return this;
+	}
+
+	@Override
+	public GraphQlTester.LoadSpec concurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		this.concurrency = concurrency;
+		return this;
+	}
+
+	@Override
+	public GraphQlTester.LoadSpec rate(int requestsPerSecond) {
+		Assert.isTrue(requestsPerSecond > 0, "Rate must be greater than 0");
+		this.rate = requestsPerSecond;
+		return this;
+	}
+
+	@Override
+	public GraphQlTester.LoadSpec warmUp(Duration warmUp) {
+		Assert.isTrue(!warmUp.isNegative(), "Warm-up must not be negative");
+		this.warmUp = warmUp;
+		return this;
+	}
+
+	@Override
+	public GraphQlTester.LoadSpec duration(Duration duration) {
+		Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Duration must be greater than 0");
+		this.duration = duration;
+		return this;
+	}
+
+	@Override
+	public LoadResult run() {
+		Assert.state(!this.requests.isEmpty(), "No requests to execute");
+		Run run = new Run();
+		String threadPrefix = "graphql-load-" + runCount.incrementAndGet() + "-";
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, (runnable) -> {
+			Thread thread = new Thread(runnable, threadPrefix + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<long[]>> futures = new ArrayList<>(this.concurrency);
+			for (int i = 0; i < this.concurrency; i++) {
+				futures.add(executor.submit(run::work));
+			}
+			long[][] workerLatencies = new long[this.concurrency][];
+			int total = 0;
+			for (int i = 0; i < this.concurrency; i++) {
+				workerLatencies[i] = futures.get(i).get();
+				total += workerLatencies[i].length;
+			}
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - run.measureStartNanos);
+			long[] latencies = new long[total];
+			int offset = 0;
+			for (long[] values : workerLatencies) {
+				System.arraycopy(values, 0, latencies, offset, values.length);
+				offset += values.length;
+			}
+			return new LoadResult(latencies, run.errorCount.get(), elapsed, run.firstError.get());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for load run to complete", ex);
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Load worker failed", ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	/**
+	 * State shared by the workers of a single run.
+	 */
+	private final class Run {
+
+		private final GraphQlTester.ExecuteSpec[] requests =
+				DefaultLoadSpec.this.requests.toArray(new GraphQlTester.ExecuteSpec[0]);
+
+		private final int[] cumulativeWeights = new int[this.requests.length];
+
+		private final long startNanos = System.nanoTime();
+
+		private final long measureStartNanos = this.startNanos + DefaultLoadSpec.this.warmUp.toNanos();
+
+		private final long endNanos = this.measureStartNanos + DefaultLoadSpec.this.duration.toNanos();
+
+		private final long intervalNanos = (DefaultLoadSpec.this.rate > 0 ?
+				1_000_000_000L / DefaultLoadSpec.this.rate : 0);
+
+		private final AtomicLong ticket = new AtomicLong();
+
+		private final AtomicLong errorCount = new AtomicLong();
+
+		private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+
+		Run() {
+			int sum = 0;
+			for (int i = 0; i < this.requests.length; i++) {
+				sum += DefaultLoadSpec.this.weights.get(i);
+				this.cumulativeWeights[i] = sum;
+			}
+		}
+
+		long[] work() {
+			long[] latencies = new long[1024];
+			int count = 0;
+			while (!Thread.currentThread().isInterrupted()) {
+				long start = nextStart();
+				if (start - this.endNanos >= 0) {
+					break;
+				}
+				Throwable error = execute(selectRequest());
+				if (start - this.measureStartNanos < 0) {
+					continue;
+				}
+				if (error != null) {
+					this.errorCount.incrementAndGet();
+					this.firstError.compareAndSet(null, error);
+				}
+				if (count == latencies.length) {
+					latencies = Arrays.copyOf(latencies, count * 2);
+				}
+				latencies[count++] = System.nanoTime() - start;
+			}
+			return Arrays.copyOf(latencies, count);
+		}
+
+		/**
+		 * Return the start time for the next request, waiting for its scheduled
+		 * time if a rate is set.
+		 */
+		private long nextStart() {
+			if (this.intervalNanos == 0) {
+				return System.nanoTime();
+			}
+			long scheduled = this.startNanos + this.ticket.getAndIncrement() * this.intervalNanos;
+			long delay;
+			while ((delay = scheduled - System.nanoTime()) > 0 && scheduled - this.endNanos < 0 &&
+					!Thread.currentThread().isInterrupted()) {
+				LockSupport.parkNanos(delay);
+			}
+			return scheduled;
+		}
+
+		private GraphQlTester.ExecuteSpec selectRequest() {
+			if (this.requests.length == 1) {
+				return this.requests[0];
+			}
+			int value = ThreadLocalRandom.current().nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+			for (int i = 0; i < this.cumulativeWeights.length; i++) {
+				if (value < this.cumulativeWeights[i]) {
+					return this.requests[i];
+				}
+			}
+			throw new IllegalStateException("No request selected");
+		}
+
+		@Nullable
+		private Throwable execute(GraphQlTester.ExecuteSpec request) {
+			try {
+				request.executeAndVerify();
+				return null;
+			}
+			catch (Exception | AssertionError ex) {
+				return ex;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.test.tester;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Measurements taken while executing a request, used for the budget
+ * assertions of {@link GraphQlTester.ResponseSpec}, along with a way to
+ * execute the same request again to measure latency.
+ */
+final class ExecutionMetrics {
+
+	@Nullable
+	private static final com.sun.management.ThreadMXBean threadMXBean = initThreadMXBean();
+
+
+	private final long allocatedBytes;
+
+	private final int dataFetcherCount;
+
+	private final Supplier<Duration> latencySupplier;
+
+
+	/**
+	 * Create an instance.
+	 * @param allocatedBytes bytes allocated on the calling thread, or -1 if
+	 * not measured
+	 * @param dataFetcherCount number of data fetcher invocations, or -1 if
+	 * not measured
+	 * @param latencySupplier executes the request again and returns the latency
+	 */
+	ExecutionMetrics(long allocatedBytes, int dataFetcherCount, Supplier<Duration> latencySupplier) {
+		this.allocatedBytes = allocatedBytes;
+		this.dataFetcherCount = dataFetcherCount;
+		this.latencySupplier = latencySupplier;
+	}
+
+
+	long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	int getDataFetcherCount() {
+		return this.dataFetcherCount;
+	}
+
+	Duration measureLatency() {
+		return this.latencySupplier.get();
+	}
+
+
+	/**
+	 * Return the bytes allocated so far by the current thread, or -1 if the
+	 * JVM does not support allocation measurement.
+	 */
+	static long currentThreadAllocatedBytes() {
+		return (threadMXBean != null ? threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1);
+	}
+
+	@Nullable
+	private static com.sun.management.ThreadMXBean initThreadMXBean() {
+		try {
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+				if (sunBean.isThreadAllocatedMemorySupported()) {
+					if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+						sunBean.setThreadAllocatedMemoryEnabled(true);
+					}
+					return sunBean;
+				}
+			}
+		}
+		catch (LinkageError | UnsupportedOperationException | SecurityException ex) {
+			// Allocation measurement not available
+		}
+		return null;
+	}
+
+}
@@ -52,6 +52,16 @@ public interface GraphQlTester {
 	 */
 	RequestSpec<?> query(String query);
 
+	/**
+	 * Prepare to drive load with one or more requests, each prepared through
+	 * {@link #query(String)}, for a fixed duration, in order to measure
+	 * latency, throughput, and errors.
+	 * @return spec to declare the requests and the load to generate
+	 */
+	default LoadSpec load() {
+		return new DefaultLoadSpec();
+	}
+
 
 	/**
 	 * Create a {@code GraphQlTester} that performs GraphQL requests through the
@@ -166,6 +176,79 @@ public interface GraphQlTester {
 
 	}
 
+	/**
+	 * Declare the requests and the load to generate with them. Requests are
+	 * executed in a closed loop by a fixed number of concurrent workers, each
+	 * request is verified to have no errors as with
+	 * {@link ExecuteSpec#executeAndVerify()}, and a failed verification or
+	 * any other exception is counted as an error. Subscriptions are not
+	 * supported.
+	 */
+	interface LoadSpec {
+
+		/**
+		 * Add a request to execute, with a weight of 1.
+		 * @param request the prepared request
+		 * @return this load spec
+		 */
+		LoadSpec request(ExecuteSpec request);
+
+		/**
+		 * Add a request to execute in proportion to the given weight, relative
+		 * to the weights of other requests, in order to simulate a mix of
+		 * documents.
+		 * @param request the prepared request
+		 * @param weight the relative weight of the request
+		 * @return this load spec
+		 */
+		LoadSpec request(ExecuteSpec request, int weight);
+
+		/**
+		 * Set the number of concurrent workers executing requests.
+		 * <p>By default this is set to 1.
+		 * @param concurrency the number of concurrent workers
+		 * @return this load spec
+		 */
+		LoadSpec concurrency(int concurrency);
+
+		/**
+		 * Set a target rate of requests per second across all workers. Latency
+		 * is then measured from the scheduled start time of each request, so
+		 * that delays caused by workers falling behind the target rate are
+		 * included.
+		 * <p>By default this is not set, and workers execute requests as fast
+		 * as they can.
+		 * @param requestsPerSecond the target rate
+		 * @return this load spec
+		 */
+		LoadSpec rate(int requestsPerSecond);
+
+		/**
+		 * Set the duration of a warm-up phase, e.g. to allow JIT compilation,
+		 * during which requests are executed but not recorded.
+		 * <p>By default there is no warm-up phase.
+		 * @param warmUp the duration of the warm-up
+		 * @return this load spec
+		 */
+		LoadSpec warmUp(Duration warmUp);
+
+		/**
+		 * Set the duration for which to generate load.
+		 * <p>By default this is set to 10 seconds.
+		 * @param duration the duration of the load
+		 * @return this load spec
+		 */
+		LoadSpec duration(Duration duration);
+
+		/**
+		 * Generate the load, blocking until the duration has elapsed and all
+		 * requests in progress have completed.
+		 * @return the recorded latencies, throughput, and errors
+		 */
+		LoadResult run();
+
+	}
+
 	/**
 	 * Declare options to switch to different part of the GraphQL response.
 	 */
@@ -199,6 +282,45 @@ public interface GraphQlTester {
 		 */
 		ErrorSpec errors();
 
+		/**
+		 * Assert that executing the request allocated at most the given number
+		 * of bytes on the calling thread, as measured through the
+		 * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)
+		 * ThreadMXBean}. Allocations on other threads, e.g. by data fetchers
+		 * that complete asynchronously, are not included.
+		 * <p>This is supported only for requests executed without a transport,
+		 * through a {@link GraphQlService} or a
+		 * {@link org.springframework.graphql.web.WebGraphQlHandler}.
+		 * @param maxBytes the allocation budget in bytes
+		 * @return the same spec for more assertions
+		 */
+		ResponseSpec allocatedBytesAtMost(long maxBytes);
+
+		/**
+		 * Assert that executing the request invoked at most the given number
+		 * of data fetchers, e.g. to catch N+1 access patterns. The default
+		 * property data fetchers of graphql-java are not counted.
+		 * <p>This is supported only for requests executed without a transport,
+		 * through a {@link GraphQlService} or a
+		 * {@link org.springframework.graphql.web.WebGraphQlHandler}, and
+		 * requires the
+		 * {@link org.springframework.graphql.execution.DataFetcherInvocationCounter#instrumentation()
+		 * counting instrumentation} to be installed.
+		 * @param maxInvocations the maximum number of invocations
+		 * @return the same spec for more assertions
+		 */
+		ResponseSpec dataFetcherInvocationsAtMost(int maxInvocations);
+
+		/**
+		 * Execute the request again the given number of times, and assert that
+		 * the median latency of those executions is within the given budget.
+		 * The initial execution is not included, so that it serves as warm-up.
+		 * @param budget the latency budget
+		 * @param repetitions the number of executions to measure
+		 * @return the same spec for more assertions
+		 */
+		ResponseSpec latencyAtMost(Duration budget, int repetitions);
+
 	}
 
 	/**
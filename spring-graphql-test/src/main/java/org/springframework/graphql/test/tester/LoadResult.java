@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.test.tester;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Result of a load run declared through {@link GraphQlTester.LoadSpec}, with
+ * latency percentiles, throughput, and error counts for the requests executed
+ * after the warm-up phase.
+ *
+ * @since 1.0.0
+ */
+public final class LoadResult {
+
+	private final long[] latencies;
+
+	private final long errorCount;
+
+	private final Duration duration;
+
+	@Nullable
+	private final Throwable firstError;
+
+
+	LoadResult(long[] latencies, long errorCount, Duration duration, @Nullable Throwable firstError) {
+		this.latencies = latencies;
+		Arrays.sort(this.latencies);
+		this.errorCount = errorCount;
+		this.duration = duration;
+		this.firstError = firstError;
+	}
+
+
+	/**
+	 * Return the number of requests executed, including failed ones.
+	 * @return the request count
+	 */
+	public long getRequestCount() {
+		return this.latencies.length;
+	}
+
+	/**
+	 * Return the number of requests that failed, either because the response
+	 * had errors, or because of any other exception.
+	 * @return the error count
+	 */
+	public long getErrorCount() {
+		return this.errorCount;
+	}
+
+	/**
+	 * Return the first error that occurred, if any, to help diagnose failures.
+	 * @return the first error, or {@code null}
+	 */
+	@Nullable
+	public Throwable getFirstError() {
+		return this.firstError;
+	}
+
+	/**
+	 * Return the time from the start of the measured phase until all requests
+	 * completed.
+	 * @return the duration of the run
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Return the number of requests completed per second.
+	 * @return the throughput
+	 */
+	public double getThroughput() {
+		long nanos = this.duration.toNanos();
+		return (nanos > 0 ? this.latencies.length * 1_000_000_000d / nanos : 0);
+	}
+
+	/**
+	 * Return the latency at the given percentile, using the nearest-rank
+	 * method, e.g. 50 for the median or 99 for the 99th percentile.
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the latency, or {@link Duration#ZERO} if no requests were executed
+	 */
+	public Duration getLatencyPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+		if (this.latencies.length == 0) {
+			return Duration.ZERO;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * this.latencies.length);
+		return Duration.ofNanos(this.latencies[Math.max(rank - 1, 0)]);
+	}
+
+	/**
+	 * Return the mean latency.
+	 * @return the mean, or {@link Duration#ZERO} if no requests were executed
+	 */
+	public Duration getMeanLatency() {
+		if (this.latencies.length == 0) {
+			return Duration.ZERO;
+		}
+		double sum = 0;
+		for (long latency : this.latencies) {
+			sum += latency;
+		}
+		return Duration.ofNanos((long) (sum / this.latencies.length));
+	}
+
+	/**
+	 * Return the maximum latency.
+	 * @return the maximum, or {@link Duration#ZERO} if no requests were executed
+	 */
+	public Duration getMaxLatency() {
+		return getLatencyPercentile(100);
+	}
+
+	@Override
+	public String toString() {
+		return "LoadResult[requests=" + getRequestCount() + ", errors=" + this.errorCount +
+				", throughput=" + String.format(Locale.ROOT, "%.1f", getThroughput()) + "/s" +
+				", p50=" + toMillis(getLatencyPercentile(50)) +
+				", p90=" + toMillis(getLatencyPercentile(90)) +
+				", p99=" + toMillis(getLatencyPercentile(99)) +
+				", max=" + toMillis(getMaxLatency()) + "]";
+	}
+
+	private static String toMillis(Duration duration) {
+		return String.format(Locale.ROOT, "%.3fms", duration.toNanos() / 1_000_000d);
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.graphql.test.tester;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -34,8 +36,12 @@ import org.mockito.ArgumentCaptor;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.graphql.GraphQlService;
 import org.springframework.graphql.RequestInput;
+import org.springframework.graphql.execution.DataFetcherInvocationCounter;
+import org.springframework.graphql.execution.ExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 
@@ -299,6 +305,97 @@ public class GraphQlTesterTests {
 		assertThat(this.inputCaptor.getValue().getQuery()).contains(query);
 	}
 
+	@Test
+	void budgetAssertions() {
+		GraphQlSource graphQlSource = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(
+						"type Query { me: Character } type Character { name: String }".getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) ->
+						builder.dataFetcher("me", (env) -> MovieCharacter.create("Luke Skywalker"))))
+				.instrumentation(Collections.singletonList(DataFetcherInvocationCounter.instrumentation()))
+				.build();
+		GraphQlTester graphQlTester = GraphQlTester.create(new ExecutionGraphQlService(graphQlSource));
+
+		GraphQlTester.ResponseSpec spec = graphQlTester.query("{me {name}}").execute();
+
+		spec.dataFetcherInvocationsAtMost(1)
+				.allocatedBytesAtMost(100 * 1024 * 1024)
+				.latencyAtMost(Duration.ofSeconds(5), 3);
+
+		assertThatThrownBy(() -> spec.dataFetcherInvocationsAtMost(0))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Expected at most 0 data fetcher invocations, but was 1");
+
+		assertThatThrownBy(() -> spec.allocatedBytesAtMost(0))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Expected at most 0 bytes allocated");
+
+		assertThatThrownBy(() -> spec.latencyAtMost(Duration.ZERO, 1))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Expected median latency of at most 0ms over 1 executions");
+	}
+
+	@Test
+	void dataFetcherInvocationsRequireInstrumentation() {
+		GraphQlSource graphQlSource = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(
+						"type Query { me: Character } type Character { name: String }".getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) ->
+						builder.dataFetcher("me", (env) -> MovieCharacter.create("Luke Skywalker"))))
+				.build();
+		GraphQlTester graphQlTester = GraphQlTester.create(new ExecutionGraphQlService(graphQlSource));
+
+		GraphQlTester.ResponseSpec spec = graphQlTester.query("{me {name}}").execute();
+
+		assertThatThrownBy(() -> spec.dataFetcherInvocationsAtMost(1))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("DataFetcherInvocationCounter.instrumentation()");
+	}
+
+	@Test
+	void load() {
+		GraphQlService service = (input) -> {
+			ExecutionResultImpl.Builder builder = new ExecutionResultImpl.Builder();
+			if (input.getQuery().contains("hero")) {
+				builder.addError(GraphqlErrorBuilder.newError().message("No hero").build());
+			}
+			else {
+				builder.data(Collections.singletonMap("me", Collections.singletonMap("name", "Luke Skywalker")));
+			}
+			return Mono.just(builder.build());
+		};
+		GraphQlTester graphQlTester = GraphQlTester.create(service);
+
+		LoadResult result = graphQlTester.load()
+				.request(graphQlTester.query("{me {name}}"), 3)
+				.request(graphQlTester.query("{hero {name}}"), 1)
+				.concurrency(2)
+				.duration(Duration.ofMillis(200))
+				.run();
+
+		assertThat(result.getRequestCount()).isGreaterThan(0);
+		assertThat(result.getErrorCount()).isGreaterThan(0).isLessThan(result.getRequestCount());
+		assertThat(result.getFirstError()).isInstanceOf(AssertionError.class);
+		assertThat(result.getThroughput()).isGreaterThan(0);
+		assertThat(result.getLatencyPercentile(50)).isLessThanOrEqualTo(result.getMaxLatency());
+	}
+
+	@Test
+	void loadAtTargetRate() {
+		GraphQlTester graphQlTester = GraphQlTester.create((input) -> Mono.just(ExecutionResultImpl.newExecutionResult()
+				.data(Collections.singletonMap("me", Collections.singletonMap("name", "Luke Skywalker"))).build()));
+
+		LoadResult result = graphQlTester.load()
+				.request(graphQlTester.query("{me {name}}"))
+				.concurrency(2)
+				.rate(100)
+				.duration(Duration.ofMillis(200))
+				.run();
+
+		assertThat(result.getRequestCount()).isEqualTo(20);
+		assertThat(result.getErrorCount()).isEqualTo(0);
+	}
+
 	private void setResponse(String data) throws Exception {
 		setResponse(data, Collections.emptyList());
 	}
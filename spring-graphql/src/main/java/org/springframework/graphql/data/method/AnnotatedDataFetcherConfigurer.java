@@ -16,11 +16,15 @@
 package org.springframework.graphql.data.method;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import graphql.schema.DataFetcher;
@@ -41,15 +45,24 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.codec.Decoder;
 import org.springframework.core.codec.Encoder;
+import org.springframework.graphql.data.method.annotation.Bulkhead;
+import org.springframework.graphql.data.method.annotation.CachedField;
 import org.springframework.graphql.data.method.annotation.GraphQlController;
+import org.springframework.graphql.data.method.annotation.InvalidateResponseCache;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionDelivery;
 import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.graphql.data.method.annotation.support.InputArgumentMethodArgumentResolver;
 import org.springframework.graphql.data.method.annotation.support.DataFetchingEnvironmentMethodArgumentResolver;
 import org.springframework.graphql.data.method.annotation.support.SourceMethodArgumentResolver;
+import org.springframework.graphql.execution.BulkheadRegistry;
+import org.springframework.graphql.execution.DataFetcherBulkhead;
+import org.springframework.graphql.execution.DataFetcherCache;
+import org.springframework.graphql.execution.DataFetcherCacheRegistry;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.graphql.execution.SubscriptionDeliveryPolicy;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.DecoderHttpMessageReader;
 import org.springframework.http.codec.EncoderHttpMessageWriter;
@@ -105,6 +118,15 @@ public class AnnotatedDataFetcherConfigurer
 	@Nullable
 	private Decoder<Object> jsonDecoder;
 
+	@Nullable
+	private BulkheadRegistry bulkheadRegistry;
+
+	@Nullable
+	private DataFetcherCacheRegistry cacheRegistry;
+
+	@Nullable
+	private Function<DataFetchingEnvironment, Object> cacheKeyResolver;
+
 
 	/**
 	 * Configure the {@link org.springframework.http.converter.HttpMessageConverter}
@@ -149,6 +171,39 @@ public class AnnotatedDataFetcherConfigurer
 				.orElseThrow(() -> new IllegalArgumentException("No Encoder for JSON"));
 	}
 
+	/**
+	 * Configure a {@link BulkheadRegistry} to register bulkheads declared on
+	 * handler methods through {@link Bulkhead @Bulkhead}, e.g. in order to
+	 * expose them for monitoring.
+	 * <p>By default, bulkheads are applied but not registered.
+	 * @param bulkheadRegistry the registry to use
+	 */
+	public void setBulkheadRegistry(@Nullable BulkheadRegistry bulkheadRegistry) {
+		this.bulkheadRegistry = bulkheadRegistry;
+	}
+
+	/**
+	 * Configure a {@link DataFetcherCacheRegistry} to register caches declared
+	 * on handler methods through {@link CachedField @CachedField}, e.g. in
+	 * order to expose them for monitoring.
+	 * <p>By default, caches are applied but not registered.
+	 * @param cacheRegistry the registry to use
+	 */
+	public void setCacheRegistry(@Nullable DataFetcherCacheRegistry cacheRegistry) {
+		this.cacheRegistry = cacheRegistry;
+	}
+
+	/**
+	 * Configure the {@link DataFetcherCache#setKeyResolver key resolver} for
+	 * caches declared on handler methods through {@link CachedField @CachedField},
+	 * e.g. to cache results separately for each principal.
+	 * <p>By default, cached results are shared across all requests.
+	 * @param cacheKeyResolver the function to use
+	 */
+	public void setCacheKeyResolver(@Nullable Function<DataFetchingEnvironment, Object> cacheKeyResolver) {
+		this.cacheKeyResolver = cacheKeyResolver;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) {
 		this.applicationContext = applicationContext;
@@ -186,11 +241,87 @@ public class AnnotatedDataFetcherConfigurer
 
 		detectHandlerMethods().forEach((coordinates, handlerMethod) -> {
 			DataFetcher<?> dataFetcher = new AnnotatedDataFetcher(coordinates, handlerMethod, this.argumentResolvers);
+			dataFetcher = applyBulkhead(coordinates, handlerMethod, dataFetcher);
+			dataFetcher = applyCache(coordinates, handlerMethod, dataFetcher);
+			dataFetcher = applyResponseCacheInvalidation(coordinates, handlerMethod, dataFetcher);
+			dataFetcher = applySubscriptionDelivery(coordinates, handlerMethod, dataFetcher);
 			builder.type(coordinates.getTypeName(), typeBuilder ->
 					typeBuilder.dataFetcher(coordinates.getFieldName(), dataFetcher));
 		});
 	}
 
+	private DataFetcher<?> applyBulkhead(
+			FieldCoordinates coordinates, HandlerMethod handlerMethod, DataFetcher<?> dataFetcher) {
+
+		Bulkhead annotation = handlerMethod.getMethodAnnotation(Bulkhead.class);
+		if (annotation == null) {
+			return dataFetcher;
+		}
+		Assert.isTrue(!coordinates.getTypeName().equals("Subscription"),
+				"@Bulkhead is not supported for subscriptions: " + handlerMethod.getShortLogMessage());
+		DataFetcherBulkhead bulkhead = new DataFetcherBulkhead(
+				coordinates.getTypeName() + "." + coordinates.getFieldName(),
+				annotation.maxConcurrentCalls(), annotation.maxWaitingCalls(),
+				Duration.ofMillis(annotation.maxWaitTime()));
+		if (this.bulkheadRegistry != null) {
+			this.bulkheadRegistry.register(coordinates, bulkhead);
+		}
+		return bulkhead.decorate(dataFetcher);
+	}
+
+	private DataFetcher<?> applyCache(
+			FieldCoordinates coordinates, HandlerMethod handlerMethod, DataFetcher<?> dataFetcher) {
+
+		CachedField annotation = handlerMethod.getMethodAnnotation(CachedField.class);
+		if (annotation == null) {
+			return dataFetcher;
+		}
+		String typeName = coordinates.getTypeName();
+		Assert.isTrue(!typeName.equals("Mutation") && !typeName.equals("Subscription"),
+				"@CachedField is not supported for mutations and subscriptions: " + handlerMethod.getShortLogMessage());
+		DataFetcherCache cache = new DataFetcherCache(
+				typeName + "." + coordinates.getFieldName(), annotation.maxSize(),
+				Duration.ofMillis(annotation.timeToLive()), Duration.ofMillis(annotation.refreshAfter()));
+		if (this.cacheKeyResolver != null) {
+			cache.setKeyResolver(this.cacheKeyResolver);
+		}
+		if (this.cacheRegistry != null) {
+			this.cacheRegistry.register(coordinates, cache);
+		}
+		return cache.decorate(dataFetcher);
+	}
+
+	private DataFetcher<?> applyResponseCacheInvalidation(
+			FieldCoordinates coordinates, HandlerMethod handlerMethod, DataFetcher<?> dataFetcher) {
+
+		InvalidateResponseCache annotation = handlerMethod.getMethodAnnotation(InvalidateResponseCache.class);
+		if (annotation == null) {
+			return dataFetcher;
+		}
+		Assert.isTrue(coordinates.getTypeName().equals("Mutation"),
+				"@InvalidateResponseCache is only supported for mutations: " + handlerMethod.getShortLogMessage());
+		List<String> tags = Arrays.asList(annotation.value());
+		return (environment) -> {
+			Collection<String> invalidatedTags = environment.getGraphQlContext().get(InvalidateResponseCache.class.getName());
+			if (invalidatedTags != null) {
+				invalidatedTags.addAll(tags);
+			}
+			return dataFetcher.get(environment);
+		};
+	}
+
+	private DataFetcher<?> applySubscriptionDelivery(
+			FieldCoordinates coordinates, HandlerMethod handlerMethod, DataFetcher<?> dataFetcher) {
+
+		SubscriptionDelivery annotation = handlerMethod.getMethodAnnotation(SubscriptionDelivery.class);
+		if (annotation == null) {
+			return dataFetcher;
+		}
+		Assert.isTrue(coordinates.getTypeName().equals("Subscription"),
+				"@SubscriptionDelivery is only supported for subscriptions: " + handlerMethod.getShortLogMessage());
+		return SubscriptionDeliveryPolicy.conflate(Duration.ofMillis(annotation.interval())).decorate(dataFetcher);
+	}
+
 	/**
 	 * Scan beans in the ApplicationContext, detect and prepare a map of handler methods.
 	 */
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.graphql.data.method.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to limit the number of concurrent invocations of a
+ * {@link SchemaMapping @SchemaMapping} handler method. Invocations beyond
+ * the limit wait for a permit, if {@link #maxWaitingCalls()} allows it, or
+ * otherwise the field resolves to {@code null} with an error.
+ *
+ * <p>Not supported on {@link SubscriptionMapping @SubscriptionMapping} methods.
+ *
+ * @since 1.0.0
+ * @see org.springframework.graphql.execution.DataFetcherBulkhead
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+	/**
+	 * The maximum number of concurrent invocations of the handler method.
+	 */
+	int maxConcurrentCalls();
+
+	/**
+	 * The maximum number of invocations that can wait for a permit.
+	 * <p>By default this is 0, i.e. invocations are rejected immediately when
+	 * the bulkhead is saturated.
+	 */
+	int maxWaitingCalls() default 0;
+
+	/**
+	 * The maximum time in milliseconds to wait for a permit.
+	 * <p>By default this is 0, i.e. invocations do not wait.
+	 */
+	long maxWaitTime() default 0;
+
+}
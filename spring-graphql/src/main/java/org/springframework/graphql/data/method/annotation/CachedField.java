@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.graphql.data.method.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to cache the results of a {@link SchemaMapping @SchemaMapping}
+ * handler method, keyed by the identity of the source object and the field
+ * arguments. Suited to fields that return reference data which changes rarely.
+ *
+ * <p>Cached results are shared by all requests, including requests from
+ * different users, for root fields and for source objects that are shared
+ * across requests. Do not use this for results that depend on the principal,
+ * unless a
+ * {@link org.springframework.graphql.data.method.AnnotatedDataFetcherConfigurer#setCacheKeyResolver
+ * cacheKeyResolver} is configured to tell users apart.
+ *
+ * <p>Not supported on {@link MutationMapping @MutationMapping} and
+ * {@link SubscriptionMapping @SubscriptionMapping} methods.
+ *
+ * @since 1.0.0
+ * @see org.springframework.graphql.execution.DataFetcherCache
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedField {
+
+	/**
+	 * How long in milliseconds a cached value remains valid.
+	 */
+	long timeToLive();
+
+	/**
+	 * The maximum number of cached values, beyond which the least recently
+	 * used value is evicted.
+	 * <p>By default this is 1000.
+	 */
+	int maxSize() default 1000;
+
+	/**
+	 * How long in milliseconds after it is loaded a cached value is reloaded
+	 * in the background on the next access, while the current value continues
+	 * to be returned. Must be less than {@link #timeToLive()}.
+	 * <p>By default this is 0, i.e. refresh-ahead is disabled.
+	 */
+	long refreshAfter() default 0;
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.graphql.data.method.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for a {@link MutationMapping @MutationMapping} handler method to
+ * declare the tags of cached query responses that become invalid when the
+ * mutation is performed. Query responses are tagged with the names of their
+ * top-level fields, e.g. a response to {@code { books { title } }} is tagged
+ * with "books".
+ *
+ * <p>Invoking the mutation adds the tags to a {@code Collection<String>} in the
+ * {@link graphql.GraphQLContext} under the name of this annotation class, if
+ * present. This is how
+ * {@link org.springframework.graphql.web.ResponseCacheInterceptor} obtains the
+ * tags to invalidate once the mutation request completes.
+ *
+ * @since 1.0.0
+ * @see org.springframework.graphql.web.ResponseCacheInterceptor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface InvalidateResponseCache {
+
+	/**
+	 * The tags to invalidate, i.e. the names of top-level query fields.
+	 */
+	String[] value();
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.graphql.data.method.annotation;
+package org.springframework.graphql.data.method.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to conflate the events of a
+ * {@link SubscriptionMapping @SubscriptionMapping} handler method, for
+ * high-frequency event streams. This takes precedence over a policy applied
+ * to all subscription fields.
+ *
+ * @since 1.0.0
+ * @see org.springframework.graphql.execution.SubscriptionDeliveryPolicy
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SubscriptionDelivery {
+
+	/**
+	 * The interval in milliseconds to conflate events over, delivering only
+	 * the latest event of each interval.
+	 * @see org.springframework.graphql.execution.SubscriptionDeliveryPolicy#conflate
+	 */
+	long interval();
+
+}
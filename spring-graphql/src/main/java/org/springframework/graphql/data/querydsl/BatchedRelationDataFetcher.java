@@ -0,0 +1,197 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.data.querydsl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationState;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.ReactiveQuerydslPredicateExecutor;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataFetcher} for a relation between two types with Querydsl
+ * repositories that loads the related entities of all parents at the same
+ * level of the response with a single {@code in} predicate query, through a
+ * request-scoped {@link DataLoader}, and groups them back to their parents.
+ *
+ * <p>Relations are joined by a key property on the parent, and a property of
+ * the related type with the same value:
+ * <ul>
+ * <li>For one-to-many relations, the "id" of the parent matches a foreign key
+ * property of the related type, e.g. {@code Author.books} by {@code Book.authorId}.
+ * <li>For many-to-one relations, a foreign key property of the parent matches
+ * the "id" of the related type, e.g. {@code Book.author} by {@code Book.authorId}.
+ * </ul>
+ *
+ * <p>If the request has no {@link DataLoaderRegistry}, related entities are
+ * loaded per parent. A registry is added to requests through
+ * {@link QuerydslDataFetcher#configureRelationLoading}.
+ */
+final class BatchedRelationDataFetcher implements DataFetcher<CompletableFuture<Object>> {
+
+	static final String ID_PROPERTY = "id";
+
+
+	private final String name;
+
+	private final String sourceKeyProperty;
+
+	private final boolean many;
+
+	private final Function<Set<Object>, CompletionStage<Map<Object, Object>>> batchLoader;
+
+
+	private BatchedRelationDataFetcher(String name, String sourceKeyProperty, boolean many,
+			Function<Set<Object>, CompletionStage<Map<Object, Object>>> batchLoader) {
+
+		this.name = name;
+		this.sourceKeyProperty = sourceKeyProperty;
+		this.many = many;
+		this.batchLoader = batchLoader;
+	}
+
+
+	/**
+	 * Create a fetcher for a list of entities whose foreign key property
+	 * matches the "id" of the parent.
+	 * @param name a unique name for the relation, e.g. "Author.books"
+	 * @param executor the repository of the related type
+	 * @param domainType the related domain type
+	 * @param foreignKey the foreign key property of the related type
+	 */
+	static BatchedRelationDataFetcher oneToMany(
+			String name, Object executor, Class<?> domainType, String foreignKey) {
+
+		PathBuilder<Object> foreignKeyPath = createPath(domainType).get(foreignKey);
+		Function<Iterable<?>, Map<Object, Object>> grouping = (entities) -> groupBy(entities, foreignKey);
+		return new BatchedRelationDataFetcher(name, ID_PROPERTY, true,
+				(keys) -> findAll(executor, foreignKeyPath.in(keys), grouping));
+	}
+
+	/**
+	 * Create a fetcher for a single entity whose "id" matches a foreign key
+	 * property of the parent.
+	 * @param name a unique name for the relation, e.g. "Book.author"
+	 * @param executor the repository of the related type
+	 * @param domainType the related domain type
+	 * @param foreignKey the foreign key property of the parent type
+	 */
+	static BatchedRelationDataFetcher manyToOne(
+			String name, Object executor, Class<?> domainType, String foreignKey) {
+
+		PathBuilder<Object> idPath = createPath(domainType).get(ID_PROPERTY);
+		Function<Iterable<?>, Map<Object, Object>> indexing = (entities) -> indexBy(entities, ID_PROPERTY);
+		return new BatchedRelationDataFetcher(name, foreignKey, false,
+				(keys) -> findAll(executor, idPath.in(keys), indexing));
+	}
+
+	private static PathBuilder<?> createPath(Class<?> domainType) {
+		EntityPath<?> entityPath = SimpleEntityPathResolver.INSTANCE.createPath(domainType);
+		return new PathBuilder<>(entityPath.getType(), entityPath.getMetadata());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static CompletionStage<Map<Object, Object>> findAll(
+			Object executor, Predicate predicate, Function<Iterable<?>, Map<Object, Object>> resultMapper) {
+
+		if (executor instanceof QuerydslPredicateExecutor) {
+			Iterable<?> entities = ((QuerydslPredicateExecutor<Object>) executor).findAll(predicate);
+			return CompletableFuture.completedFuture(resultMapper.apply(entities));
+		}
+		Assert.isInstanceOf(ReactiveQuerydslPredicateExecutor.class, executor);
+		return ((ReactiveQuerydslPredicateExecutor<Object>) executor).findAll(predicate)
+				.collectList().map(resultMapper::apply).toFuture();
+	}
+
+	private static Map<Object, Object> groupBy(Iterable<?> entities, String property) {
+		Map<Object, Object> result = new HashMap<>();
+		for (Object entity : entities) {
+			Object key = getProperty(entity, property);
+			if (key != null) {
+				@SuppressWarnings("unchecked")
+				List<Object> group = (List<Object>) result.computeIfAbsent(key, (k) -> new ArrayList<>());
+				group.add(entity);
+			}
+		}
+		return result;
+	}
+
+	private static Map<Object, Object> indexBy(Iterable<?> entities, String property) {
+		Map<Object, Object> result = new HashMap<>();
+		for (Object entity : entities) {
+			Object key = getProperty(entity, property);
+			if (key != null) {
+				result.put(key, entity);
+			}
+		}
+		return result;
+	}
+
+	@Nullable
+	private static Object getProperty(Object entity, String property) {
+		return new DirectFieldAccessFallbackBeanWrapper(entity).getPropertyValue(property);
+	}
+
+
+	@Override
+	public CompletableFuture<Object> get(DataFetchingEnvironment environment) {
+		Object source = environment.getSource();
+		Object key = (source != null ? getProperty(source, this.sourceKeyProperty) : null);
+		if (key == null) {
+			return CompletableFuture.completedFuture(getDefaultValue());
+		}
+
+		DataLoaderRegistry registry = environment.getDataLoaderRegistry();
+		CompletableFuture<Object> future;
+		if (registry == null || registry == DataLoaderDispatcherInstrumentationState.EMPTY_DATALOADER_REGISTRY) {
+			future = this.batchLoader.apply(Collections.singleton(key))
+					.thenApply((map) -> map.get(key)).toCompletableFuture();
+		}
+		else {
+			DataLoader<Object, Object> loader = registry.computeIfAbsent(
+					this.name, (loaderName) -> DataLoader.newMappedDataLoader(this.batchLoader::apply));
+			future = loader.load(key);
+		}
+		return future.thenApply((value) -> (value != null ? value : getDefaultValue()));
+	}
+
+	@Nullable
+	private Object getDefaultValue() {
+		return (this.many ? Collections.emptyList() : null);
+	}
+
+}
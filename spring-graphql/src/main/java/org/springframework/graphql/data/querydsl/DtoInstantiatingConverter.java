@@ -40,6 +40,10 @@ class DtoInstantiatingConverter<T> implements Converter<Object, T> {
 
 	private final MappingContext<? extends PersistentEntity<?, ?>, ? extends PersistentProperty<?>> context;
 
+	private final PersistentEntity<?, ?> entity;
+
+	private final PreferredConstructor<?, ? extends PersistentProperty<?>> constructor;
+
 	private final EntityInstantiator instantiator;
 
 	/**
@@ -54,7 +58,9 @@ class DtoInstantiatingConverter<T> implements Converter<Object, T> {
 
 		this.targetType = dtoType;
 		this.context = context;
-		this.instantiator = entityInstantiators.getInstantiatorFor(context.getRequiredPersistentEntity(dtoType));
+		this.entity = context.getRequiredPersistentEntity(dtoType);
+		this.constructor = this.entity.getPersistenceConstructor();
+		this.instantiator = entityInstantiators.getInstantiatorFor(this.entity);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -68,11 +74,9 @@ class DtoInstantiatingConverter<T> implements Converter<Object, T> {
 		PersistentEntity<?, ?> sourceEntity = this.context.getRequiredPersistentEntity(source.getClass());
 
 		PersistentPropertyAccessor<?> sourceAccessor = sourceEntity.getPropertyAccessor(source);
-		PersistentEntity<?, ?> entity = this.context.getRequiredPersistentEntity(this.targetType);
-		PreferredConstructor<?, ? extends PersistentProperty<?>> constructor = entity.getPersistenceConstructor();
 
 		@SuppressWarnings({"rawtypes", "unchecked"})
-		Object dto = this.instantiator.createInstance(entity, new ParameterValueProvider() {
+		Object dto = this.instantiator.createInstance(this.entity, new ParameterValueProvider() {
 
 					@Override
 					public Object getParameterValue(Parameter parameter) {
@@ -81,11 +85,11 @@ class DtoInstantiatingConverter<T> implements Converter<Object, T> {
 					}
 				});
 
-		PersistentPropertyAccessor<?> dtoAccessor = entity.getPropertyAccessor(dto);
+		PersistentPropertyAccessor<?> dtoAccessor = this.entity.getPropertyAccessor(dto);
 
-		entity.doWithProperties((SimplePropertyHandler) property -> {
+		this.entity.doWithProperties((SimplePropertyHandler) property -> {
 
-			if (constructor.isConstructorParameter(property)) {
+			if (this.constructor.isConstructorParameter(property)) {
 				return;
 			}
 
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.data.querydsl;
+
+import java.util.List;
+
+import graphql.relay.Connection;
+import graphql.relay.Edge;
+import graphql.relay.PageInfo;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Relay-style {@link Connection} produced by
+ * {@link QuerydslDataFetcher.Builder#connection(org.springframework.data.domain.Sort) connection}
+ * data fetchers, with an optional total count.
+ *
+ * @param <T> the node type
+ * @since 1.0.0
+ */
+public class KeysetConnection<T> implements Connection<T> {
+
+	private final List<Edge<T>> edges;
+
+	private final PageInfo pageInfo;
+
+	@Nullable
+	private final Long totalCount;
+
+
+	KeysetConnection(List<Edge<T>> edges, PageInfo pageInfo, @Nullable Long totalCount) {
+		this.edges = edges;
+		this.pageInfo = pageInfo;
+		this.totalCount = totalCount;
+	}
+
+
+	@Override
+	public List<Edge<T>> getEdges() {
+		return this.edges;
+	}
+
+	@Override
+	public PageInfo getPageInfo() {
+		return this.pageInfo;
+	}
+
+	/**
+	 * Return the total number of elements matching the filter arguments, or
+	 * {@code null} if the {@code totalCount} field was not selected.
+	 */
+	@Nullable
+	public Long getTotalCount() {
+		return this.totalCount;
+	}
+
+}
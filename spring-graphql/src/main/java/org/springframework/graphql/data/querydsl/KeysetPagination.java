@@ -0,0 +1,252 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.data.querydsl;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparablePath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import graphql.relay.Connection;
+import graphql.relay.ConnectionCursor;
+import graphql.relay.DefaultConnectionCursor;
+import graphql.relay.DefaultEdge;
+import graphql.relay.DefaultPageInfo;
+import graphql.relay.Edge;
+import graphql.relay.PageInfo;
+import graphql.schema.DataFetchingEnvironment;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Keyset pagination for Relay-style connections. The cursor of an element is
+ * an opaque, Base64 encoded form of the values of its sort properties, and the
+ * page after a cursor is selected with a predicate on those values rather
+ * than with an offset, so that every page costs the same to fetch.
+ *
+ * <p>The sort must define a total order, e.g. by ending with a unique
+ * property such as the id, and sort properties must not be {@code null}.
+ *
+ * @param <T> the domain type
+ */
+final class KeysetPagination<T> {
+
+	static final String FIRST_ARGUMENT = "first";
+
+	static final String AFTER_ARGUMENT = "after";
+
+	private static final String TOTAL_COUNT_FIELD = "totalCount";
+
+	private static final char SEPARATOR = ',';
+
+
+	private final TypeInformation<T> domainType;
+
+	private final Sort sort;
+
+	private final List<Sort.Order> orders;
+
+	private final List<ComparablePath<Comparable>> paths;
+
+	private final int maxPageSize;
+
+	private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	KeysetPagination(TypeInformation<T> domainType, Sort sort, int maxPageSize) {
+		Assert.isTrue(sort.isSorted(), "Sort is required for keyset pagination");
+		Assert.isTrue(maxPageSize > 0, "'maxPageSize' must be greater than 0");
+		this.domainType = domainType;
+		this.sort = sort;
+		this.orders = sort.toList();
+		this.maxPageSize = maxPageSize;
+
+		EntityPath<?> entityPath = SimpleEntityPathResolver.INSTANCE.createPath(domainType.getType());
+		PathBuilder<?> root = new PathBuilder<>(entityPath.getType(), entityPath.getMetadata());
+		this.paths = new ArrayList<>(this.orders.size());
+		for (Sort.Order order : this.orders) {
+			Assert.notNull(domainType.getProperty(order.getProperty()),
+					() -> "No property '" + order.getProperty() + "' on " + domainType.getType().getName());
+			PathBuilder<?> parent = root;
+			String[] segments = order.getProperty().split("\\.");
+			for (int i = 0; i < segments.length - 1; i++) {
+				parent = parent.get(segments[i]);
+			}
+			this.paths.add((ComparablePath) parent.getComparable(segments[segments.length - 1], Comparable.class));
+		}
+	}
+
+
+	Sort getSort() {
+		return this.sort;
+	}
+
+	/**
+	 * Return the number of elements requested through the "first" argument,
+	 * capped at, and defaulting to, the maximum page size.
+	 */
+	int getPageSize(DataFetchingEnvironment environment) {
+		Integer first = environment.getArgument(FIRST_ARGUMENT);
+		if (first == null) {
+			return this.maxPageSize;
+		}
+		Assert.isTrue(first >= 0, "'first' must not be negative");
+		return Math.min(first, this.maxPageSize);
+	}
+
+	/**
+	 * Return the arguments of the field, minus the pagination arguments.
+	 */
+	static Map<String, Object> getFilterArguments(DataFetchingEnvironment environment) {
+		Map<String, Object> arguments = environment.getArguments();
+		if (!arguments.containsKey(FIRST_ARGUMENT) && !arguments.containsKey(AFTER_ARGUMENT)) {
+			return arguments;
+		}
+		Map<String, Object> filterArguments = new LinkedHashMap<>(arguments);
+		filterArguments.remove(FIRST_ARGUMENT);
+		filterArguments.remove(AFTER_ARGUMENT);
+		return filterArguments;
+	}
+
+	/**
+	 * Whether the selection set includes the total count, which requires a
+	 * separate count query.
+	 */
+	static boolean isTotalCountRequested(DataFetchingEnvironment environment) {
+		return environment.getSelectionSet().contains(TOTAL_COUNT_FIELD);
+	}
+
+	/**
+	 * Combine the given predicate with the keyset predicate for the elements
+	 * after the cursor in the "after" argument, if any.
+	 */
+	@SuppressWarnings("unchecked")
+	Predicate applyCursor(Predicate predicate, DataFetchingEnvironment environment) {
+		String after = environment.getArgument(AFTER_ARGUMENT);
+		if (after == null) {
+			return predicate;
+		}
+		List<Comparable<?>> values = decodeCursor(after);
+
+		// (a > v1) OR (a = v1 AND b > v2) OR ...
+		BooleanBuilder keyset = new BooleanBuilder();
+		for (int i = 0; i < this.orders.size(); i++) {
+			BooleanBuilder clause = new BooleanBuilder();
+			for (int j = 0; j < i; j++) {
+				clause.and(this.paths.get(j).eq(values.get(j)));
+			}
+			ComparablePath<Comparable> path = this.paths.get(i);
+			clause.and(this.orders.get(i).isAscending() ? path.gt(values.get(i)) : path.lt(values.get(i)));
+			keyset.or(clause);
+		}
+		return new BooleanBuilder(predicate).and(keyset);
+	}
+
+	/**
+	 * Create the connection for the given elements, which must be fetched with
+	 * a limit of one more than the page size in order to detect a next page.
+	 */
+	<R> Connection<R> createConnection(List<T> elements, int pageSize, Function<T, R> converter,
+			DataFetchingEnvironment environment, @Nullable Long totalCount) {
+
+		boolean hasNextPage = (elements.size() > pageSize);
+		List<Edge<R>> edges = new ArrayList<>(Math.min(elements.size(), pageSize));
+		for (int i = 0; i < elements.size() && i < pageSize; i++) {
+			T element = elements.get(i);
+			edges.add(new DefaultEdge<>(converter.apply(element), new DefaultConnectionCursor(encodeCursor(element))));
+		}
+		ConnectionCursor startCursor = (!edges.isEmpty() ? edges.get(0).getCursor() : null);
+		ConnectionCursor endCursor = (!edges.isEmpty() ? edges.get(edges.size() - 1).getCursor() : null);
+		boolean hasPreviousPage = (environment.getArgument(AFTER_ARGUMENT) != null);
+		PageInfo pageInfo = new DefaultPageInfo(startCursor, endCursor, hasPreviousPage, hasNextPage);
+		return new KeysetConnection<>(edges, pageInfo, totalCount);
+	}
+
+	private String encodeCursor(T element) {
+		DirectFieldAccessFallbackBeanWrapper wrapper = new DirectFieldAccessFallbackBeanWrapper(element);
+		StringBuilder builder = new StringBuilder();
+		for (Sort.Order order : this.orders) {
+			Object value = wrapper.getPropertyValue(order.getProperty());
+			Assert.state(value != null, () -> "Sort property '" + order.getProperty() + "' must not be null");
+			if (builder.length() > 0) {
+				builder.append(SEPARATOR);
+			}
+			builder.append(urlEncode(this.conversionService.convert(value, String.class)));
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(
+				builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<Comparable<?>> decodeCursor(String cursor) {
+		String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+		}
+		String[] parts = decoded.split(String.valueOf(SEPARATOR), -1);
+		Assert.isTrue(parts.length == this.orders.size(), () -> "Invalid cursor: " + cursor);
+		List<Comparable<?>> values = new ArrayList<>(parts.length);
+		for (int i = 0; i < parts.length; i++) {
+			TypeInformation<?> propertyType = this.domainType.getProperty(this.orders.get(i).getProperty());
+			Object value = this.conversionService.convert(urlDecode(parts[i]), propertyType.getType());
+			Assert.isInstanceOf(Comparable.class, value, "Invalid cursor: " + cursor);
+			values.add((Comparable<?>) value);
+		}
+		return Collections.unmodifiableList(values);
+	}
+
+	private static String urlEncode(@Nullable String value) {
+		try {
+			return URLEncoder.encode((value != null ? value : ""), "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String urlDecode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
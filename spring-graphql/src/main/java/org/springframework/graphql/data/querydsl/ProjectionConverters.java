@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.data.querydsl;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mapping.model.EntityInstantiators;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates and caches the converters used to project domain objects for
+ * {@link QuerydslDataFetcher.Builder#projectAs(Class)}. The projection factory,
+ * mapping context, and instantiators are shared, so class metadata is
+ * introspected once per type rather than once per builder.
+ *
+ * <p>Closed interface projections, i.e. ones with only getters that map to
+ * properties of the source object and no {@code @Value} expressions, are
+ * created as proxies that invoke the source getters directly, resolved once
+ * per source class. Other interface projections are created through a
+ * {@link SpelAwareProxyProjectionFactory}, and classes are instantiated as DTOs.
+ */
+final class ProjectionConverters {
+
+	private static final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+	private static final DtoMappingContext mappingContext = new DtoMappingContext();
+
+	private static final EntityInstantiators entityInstantiators = new EntityInstantiators();
+
+	private static final Map<Class<?>, Function<Object, ?>> converters = new ConcurrentReferenceHashMap<>();
+
+
+	private ProjectionConverters() {
+	}
+
+
+	/**
+	 * Return the converter for the given projection type.
+	 * @param projectionType interface or DTO type to project to
+	 * @param <S> the source type
+	 * @param <T> the projection type
+	 * @return the shared converter
+	 */
+	@SuppressWarnings("unchecked")
+	static <S, T> Function<S, T> getConverter(Class<T> projectionType) {
+		Assert.notNull(projectionType, "Projection type must not be null");
+		return (Function<S, T>) converters.computeIfAbsent(projectionType, ProjectionConverters::createConverter);
+	}
+
+	private static Function<Object, ?> createConverter(Class<?> projectionType) {
+		if (projectionType.isInterface()) {
+			ProjectionInformation information = projectionFactory.getProjectionInformation(projectionType);
+			if (information.isClosed() && AccessorProjection.isSupported(projectionType)) {
+				return new AccessorProjection<>(projectionType);
+			}
+			return (source) -> projectionFactory.createProjection(projectionType, source);
+		}
+		DtoInstantiatingConverter<?> converter =
+				new DtoInstantiatingConverter<>(projectionType, mappingContext, entityInstantiators);
+		return converter::convert;
+	}
+
+
+	/**
+	 * Projection of a closed interface through proxies that delegate each
+	 * getter to the matching getter of the source object.
+	 */
+	private static final class AccessorProjection<T> implements Function<Object, T> {
+
+		private final Class<T> projectionType;
+
+		private final Map<Class<?>, Map<Method, Method>> accessorsBySourceType = new ConcurrentReferenceHashMap<>();
+
+		AccessorProjection(Class<T> projectionType) {
+			this.projectionType = projectionType;
+		}
+
+		static boolean isSupported(Class<?> projectionType) {
+			for (Method method : projectionType.getMethods()) {
+				if (method.isDefault() || method.getParameterCount() > 0 ||
+						BeanUtils.findPropertyForMethod(method) == null) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T apply(Object source) {
+			Map<Method, Method> accessors = this.accessorsBySourceType.computeIfAbsent(
+					source.getClass(), this::resolveAccessors);
+			if (accessors.isEmpty()) {
+				return projectionFactory.createProjection(this.projectionType, source);
+			}
+			return (T) Proxy.newProxyInstance(this.projectionType.getClassLoader(),
+					new Class<?>[] {this.projectionType}, new AccessorInvocationHandler(source, accessors));
+		}
+
+		/**
+		 * Map each projection getter to a source getter with an assignable
+		 * return type, or return an empty map if that's not possible for all.
+		 */
+		private Map<Method, Method> resolveAccessors(Class<?> sourceType) {
+			Method[] methods = this.projectionType.getMethods();
+			Map<Method, Method> accessors = new HashMap<>(methods.length);
+			for (Method method : methods) {
+				PropertyDescriptor projected = BeanUtils.findPropertyForMethod(method);
+				PropertyDescriptor descriptor = (projected != null ?
+						BeanUtils.getPropertyDescriptor(sourceType, projected.getName()) : null);
+				Method readMethod = (descriptor != null ? descriptor.getReadMethod() : null);
+				if (readMethod == null || !ClassUtils.isAssignable(method.getReturnType(), readMethod.getReturnType())) {
+					return Collections.emptyMap();
+				}
+				ReflectionUtils.makeAccessible(readMethod);
+				accessors.put(method, readMethod);
+			}
+			return accessors;
+		}
+
+	}
+
+
+	private static final class AccessorInvocationHandler implements InvocationHandler {
+
+		private final Object target;
+
+		private final Map<Method, Method> accessors;
+
+		AccessorInvocationHandler(Object target, Map<Method, Method> accessors) {
+			this.target = target;
+			this.accessors = accessors;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, @Nullable Object[] args) throws Throwable {
+			Method accessor = this.accessors.get(method);
+			if (accessor != null) {
+				try {
+					return accessor.invoke(this.target);
+				}
+				catch (InvocationTargetException ex) {
+					throw ex.getTargetException();
+				}
+			}
+			if (ReflectionUtils.isEqualsMethod(method)) {
+				Object other = (args != null ? args[0] : null);
+				if (other == null || !Proxy.isProxyClass(other.getClass())) {
+					return false;
+				}
+				InvocationHandler handler = Proxy.getInvocationHandler(other);
+				return (handler instanceof AccessorInvocationHandler &&
+						this.target.equals(((AccessorInvocationHandler) handler).target));
+			}
+			if (ReflectionUtils.isHashCodeMethod(method)) {
+				return this.target.hashCode();
+			}
+			if (ReflectionUtils.isToStringMethod(method)) {
+				return this.target.toString();
+			}
+			throw new UnsupportedOperationException("Unexpected method: " + method);
+		}
+
+	}
+
+}
@@ -21,11 +21,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Predicate;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationState;
+import graphql.relay.Connection;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLCodeRegistry;
@@ -35,11 +38,13 @@ import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLNamedOutputType;
 import graphql.schema.GraphQLSchemaElement;
 import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
 import graphql.schema.GraphQLTypeVisitor;
 import graphql.schema.GraphQLTypeVisitorStub;
 import graphql.schema.PropertyDataFetcher;
 import graphql.util.TraversalControl;
 import graphql.util.TraverserContext;
+import org.dataloader.DataLoaderRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -47,9 +52,8 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.MergedAnnotations;
 import org.springframework.core.convert.support.DefaultConversionService;
-import org.springframework.data.mapping.model.EntityInstantiators;
-import org.springframework.data.projection.ProjectionFactory;
-import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.querydsl.ReactiveQuerydslPredicateExecutor;
 import org.springframework.data.querydsl.SimpleEntityPathResolver;
@@ -63,6 +67,7 @@ import org.springframework.data.repository.core.support.DefaultRepositoryMetadat
 import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.util.Streamable;
 import org.springframework.data.util.TypeInformation;
+import org.springframework.graphql.RequestInput;
 import org.springframework.graphql.data.GraphQlRepository;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -76,7 +81,8 @@ import org.springframework.util.StringUtils;
  * {@link ReactiveQuerydslPredicateExecutor} that support customization of bindings
  * and interface- and DTO projections. Instances can be created through a
  * {@link #builder(QuerydslPredicateExecutor) builder} to query for
- * {@link Builder#single()} or {@link Builder#many()} objects.
+ * {@link Builder#single()} or {@link Builder#many()} objects, or for a
+ * {@link Builder#connection(Sort) connection} with keyset pagination.
  * <p>Example:
  * <pre class="code">
  * interface BookRepository extends
@@ -117,6 +123,8 @@ import org.springframework.util.StringUtils;
  */
 public abstract class QuerydslDataFetcher<T> {
 
+	private static final int DEFAULT_MAX_PAGE_SIZE = 20;
+
 	private static final QuerydslPredicateBuilder BUILDER = new QuerydslPredicateBuilder(
 			DefaultConversionService.getSharedInstance(), SimpleEntityPathResolver.INSTANCE);
 
@@ -169,6 +177,13 @@ public abstract class QuerydslDataFetcher<T> {
 	 * registers {@link DataFetcher}s for those queries.
 	 * <p><strong>Note:</strong> currently, this method will match only to
 	 * queries under the top-level "Query" type in the GraphQL schema.
+	 * <p>Fields of a registered type that return another registered type are
+	 * registered as relations loaded in batches, one query per level of the
+	 * response, if the domain types follow a foreign key convention:
+	 * {@code Author.books} is joined on {@code Book.authorId} and
+	 * {@code Book.author} on {@code Book.authorId}, both matched against the
+	 * "id" of the other type. Requests need a {@link DataLoaderRegistry} for
+	 * that, see {@link #configureRelationLoading(GraphQLTypeVisitor, RequestInput)}.
 	 * @param executors repositories to consider for registration
 	 * @param reactiveExecutors reactive repositories to consider for registration
 	 * @return the created visitor
@@ -180,15 +195,38 @@ public abstract class QuerydslDataFetcher<T> {
 		return new RegistrationTypeVisitor(executors, reactiveExecutors);
 	}
 
-	@SuppressWarnings({"unchecked", "rawtypes"})
+	/**
+	 * Prepare a request for relations registered through the given visitor to
+	 * be loaded in batches, by adding a request-scoped {@link DataLoaderRegistry}
+	 * if the visitor has registered any relations, and the request has no
+	 * registry yet. Otherwise, the request is left without a registry, which
+	 * keeps {@code DataLoader} dispatching by graphql-java disabled.
+	 * @param registrationTypeVisitor a visitor created through
+	 * {@link #registrationTypeVisitor(List, List)}, after the schema is built
+	 * @param requestInput the request to prepare
+	 */
+	public static void configureRelationLoading(GraphQLTypeVisitor registrationTypeVisitor, RequestInput requestInput) {
+		Assert.isInstanceOf(RegistrationTypeVisitor.class, registrationTypeVisitor);
+		if (((RegistrationTypeVisitor) registrationTypeVisitor).hasRelations()) {
+			requestInput.configureExecutionInput((input, builder) ->
+					(input.getDataLoaderRegistry() == DataLoaderDispatcherInstrumentationState.EMPTY_DATALOADER_REGISTRY ?
+							builder.dataLoaderRegistry(new DataLoaderRegistry()).build() : input));
+		}
+	}
+
 	protected Predicate buildPredicate(DataFetchingEnvironment environment) {
+		return buildPredicate(environment.getArguments());
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	Predicate buildPredicate(Map<String, Object> arguments) {
 		MultiValueMap<String, Object> parameters = new LinkedMultiValueMap<>();
 		QuerydslBindings bindings = new QuerydslBindings();
 
 		EntityPath<?> path = SimpleEntityPathResolver.INSTANCE.createPath(this.domainType.getType());
 		this.customizer.customize(bindings, path);
 
-		for (Map.Entry<String, Object> entry : environment.getArguments().entrySet()) {
+		for (Map.Entry<String, Object> entry : arguments.entrySet()) {
 			parameters.put(entry.getKey(), Collections.singletonList(entry.getValue()));
 		}
 
@@ -204,22 +242,6 @@ public abstract class QuerydslDataFetcher<T> {
 		return predicate;
 	}
 
-	private static <S, T> Function<S, T> createProjection(Class<T> projectionType) {
-		// TODO: SpelAwareProxyProjectionFactory, DtoMappingContext, and EntityInstantiators
-		//  should be reused to avoid duplicate class metadata.
-		Assert.notNull(projectionType, "Projection type must not be null");
-
-		if (projectionType.isInterface()) {
-			ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
-			return element -> projectionFactory.createProjection(projectionType, element);
-		}
-
-		DtoInstantiatingConverter<T> converter = new DtoInstantiatingConverter<>(projectionType,
-				new DtoMappingContext(), new EntityInstantiators());
-
-		return converter::convert;
-	}
-
 	private static Class<?> getRepositoryInterface(Object executor) {
 		Assert.isInstanceOf(Repository.class, executor);
 
@@ -278,7 +300,7 @@ public abstract class QuerydslDataFetcher<T> {
 		public <P> Builder<T, P> projectAs(Class<P> projectionType) {
 			Assert.notNull(projectionType, "Projection type must not be null");
 			return new Builder<>(
-					this.executor, this.domainType, this.customizer, createProjection(projectionType));
+					this.executor, this.domainType, this.customizer, ProjectionConverters.getConverter(projectionType));
 		}
 
 		/**
@@ -312,6 +334,38 @@ public abstract class QuerydslDataFetcher<T> {
 					this.executor, this.domainType, this.customizer, this.resultConverter);
 		}
 
+		/**
+		 * Build a {@link DataFetcher} to fetch a page of object instances as
+		 * a Relay-style {@link Connection}, with the page selected through
+		 * the {@code first} and {@code after} arguments. Pages are fetched
+		 * with keyset pagination, i.e. with a predicate on the sort values of
+		 * the last element of the previous page rather than with an offset.
+		 * The {@code totalCount} of the connection is queried only if selected.
+		 * <p>Pages are fetched through {@link QuerydslLimitedExecutor} if the
+		 * repository implements it. Otherwise they are fetched as a
+		 * {@link org.springframework.data.domain.Page}, which runs an additional
+		 * count query whenever there is a next page.
+		 * @param sort the sort order, which must be a total order, e.g. by
+		 * ending with a unique property
+		 * @return a {@link DataFetcher} based on Querydsl to fetch a connection
+		 */
+		public DataFetcher<Connection<R>> connection(Sort sort) {
+			return connection(sort, DEFAULT_MAX_PAGE_SIZE);
+		}
+
+		/**
+		 * Variant of {@link #connection(Sort)} with a maximum page size, which
+		 * is also the page size when the {@code first} argument is not set.
+		 * @param sort the sort order, which must be a total order
+		 * @param maxPageSize the maximum number of elements per page
+		 * @return a {@link DataFetcher} based on Querydsl to fetch a connection
+		 */
+		public DataFetcher<Connection<R>> connection(Sort sort, int maxPageSize) {
+			Assert.notNull(sort, "Sort must not be null");
+			return new ConnectionEntityFetcher<>(this.executor, this.domainType, this.customizer, this.resultConverter,
+					new KeysetPagination<>(this.domainType, sort, maxPageSize));
+		}
+
 	}
 
 	/**
@@ -355,7 +409,7 @@ public abstract class QuerydslDataFetcher<T> {
 		public <P> ReactiveBuilder<T, P> projectAs(Class<P> projectionType) {
 			Assert.notNull(projectionType, "Projection type must not be null");
 			return new ReactiveBuilder<>(
-					this.executor, this.domainType, this.customizer, createProjection(projectionType));
+					this.executor, this.domainType, this.customizer, ProjectionConverters.getConverter(projectionType));
 		}
 
 		/**
@@ -389,6 +443,34 @@ public abstract class QuerydslDataFetcher<T> {
 					this.executor, this.domainType, this.customizer, this.resultConverter);
 		}
 
+		/**
+		 * Build a {@link DataFetcher} to fetch a page of object instances as
+		 * a Relay-style {@link Connection}, with the page selected through
+		 * the {@code first} and {@code after} arguments. Pages are fetched
+		 * with keyset pagination, i.e. with a predicate on the sort values of
+		 * the last element of the previous page rather than with an offset.
+		 * The {@code totalCount} of the connection is queried only if selected.
+		 * @param sort the sort order, which must be a total order, e.g. by
+		 * ending with a unique property
+		 * @return a {@link DataFetcher} based on Querydsl to fetch a connection
+		 */
+		public DataFetcher<Mono<Connection<R>>> connection(Sort sort) {
+			return connection(sort, DEFAULT_MAX_PAGE_SIZE);
+		}
+
+		/**
+		 * Variant of {@link #connection(Sort)} with a maximum page size, which
+		 * is also the page size when the {@code first} argument is not set.
+		 * @param sort the sort order, which must be a total order
+		 * @param maxPageSize the maximum number of elements per page
+		 * @return a {@link DataFetcher} based on Querydsl to fetch a connection
+		 */
+		public DataFetcher<Mono<Connection<R>>> connection(Sort sort, int maxPageSize) {
+			Assert.notNull(sort, "Sort must not be null");
+			return new ReactiveConnectionEntityFetcher<>(this.executor, this.domainType, this.customizer, this.resultConverter,
+					new KeysetPagination<>(this.domainType, sort, maxPageSize));
+		}
+
 	}
 
 	private static class SingleEntityFetcher<T, R> extends QuerydslDataFetcher<T> implements DataFetcher<R> {
@@ -490,6 +572,96 @@ public abstract class QuerydslDataFetcher<T> {
 	}
 
 
+	private static class ConnectionEntityFetcher<T, R> extends QuerydslDataFetcher<T>
+			implements DataFetcher<Connection<R>> {
+
+		private final QuerydslPredicateExecutor<T> executor;
+
+		private final Function<T, R> resultConverter;
+
+		private final KeysetPagination<T> pagination;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		ConnectionEntityFetcher(QuerydslPredicateExecutor<T> executor,
+				ClassTypeInformation<T> domainType,
+				QuerydslBinderCustomizer<? extends EntityPath<T>> customizer,
+				Function<T, R> resultConverter, KeysetPagination<T> pagination) {
+
+			super(domainType, (QuerydslBinderCustomizer) customizer);
+			this.executor = executor;
+			this.resultConverter = resultConverter;
+			this.pagination = pagination;
+		}
+
+		@Override
+		public Connection<R> get(DataFetchingEnvironment environment) {
+			Predicate predicate = buildPredicate(KeysetPagination.getFilterArguments(environment));
+			Predicate keysetPredicate = this.pagination.applyCursor(predicate, environment);
+			int pageSize = this.pagination.getPageSize(environment);
+
+			Long totalCount = (KeysetPagination.isTotalCountRequested(environment) ?
+					this.executor.count(predicate) : null);
+
+			// Fetch one more than the page size to find out if there is a next page
+			List<T> elements = (pageSize > 0 ? findElements(keysetPredicate, pageSize + 1) : Collections.emptyList());
+
+			return this.pagination.createConnection(elements, pageSize, this.resultConverter, environment, totalCount);
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<T> findElements(Predicate predicate, int limit) {
+			Sort sort = this.pagination.getSort();
+			if (this.executor instanceof QuerydslLimitedExecutor) {
+				return ((QuerydslLimitedExecutor<T>) this.executor).findAll(predicate, sort, limit);
+			}
+			// A Page runs a count query if it is full, i.e. if there is a next page
+			return this.executor.findAll(predicate, PageRequest.of(0, limit, sort)).getContent();
+		}
+
+	}
+
+	private static class ReactiveConnectionEntityFetcher<T, R> extends QuerydslDataFetcher<T>
+			implements DataFetcher<Mono<Connection<R>>> {
+
+		private final ReactiveQuerydslPredicateExecutor<T> executor;
+
+		private final Function<T, R> resultConverter;
+
+		private final KeysetPagination<T> pagination;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		ReactiveConnectionEntityFetcher(ReactiveQuerydslPredicateExecutor<T> executor,
+				ClassTypeInformation<T> domainType,
+				QuerydslBinderCustomizer<? extends EntityPath<T>> customizer,
+				Function<T, R> resultConverter, KeysetPagination<T> pagination) {
+
+			super(domainType, (QuerydslBinderCustomizer) customizer);
+			this.executor = executor;
+			this.resultConverter = resultConverter;
+			this.pagination = pagination;
+		}
+
+		@Override
+		public Mono<Connection<R>> get(DataFetchingEnvironment environment) {
+			Predicate predicate = buildPredicate(KeysetPagination.getFilterArguments(environment));
+			Predicate keysetPredicate = this.pagination.applyCursor(predicate, environment);
+			int pageSize = this.pagination.getPageSize(environment);
+
+			Mono<Optional<Long>> totalCount = (KeysetPagination.isTotalCountRequested(environment) ?
+					this.executor.count(predicate).map(Optional::of) : Mono.just(Optional.empty()));
+
+			// Fetch one more than the page size to find out if there is a next page
+			Mono<List<T>> elements = (pageSize > 0 ?
+					this.executor.findAll(keysetPredicate, this.pagination.getSort())
+							.limitRequest(pageSize + 1).collectList() :
+					Mono.just(Collections.emptyList()));
+
+			return Mono.zip(elements, totalCount).map((tuple) -> this.pagination.createConnection(
+					tuple.getT1(), pageSize, this.resultConverter, environment, tuple.getT2().orElse(null)));
+		}
+
+	}
+
 	/**
 	 * GraphQLTypeVisitor that auto-registers Querydsl Spring Data repositories.
 	 */
@@ -497,6 +669,12 @@ public abstract class QuerydslDataFetcher<T> {
 
 		private final Map<String, Function<Boolean, DataFetcher<?>>> executorMap;
 
+		private final Map<String, Object> executorsByTypeName = new HashMap<>();
+
+		private final Map<String, Class<?>> domainTypesByTypeName = new HashMap<>();
+
+		private volatile boolean hasRelations;
+
 		RegistrationTypeVisitor(
 				List<QuerydslPredicateExecutor<?>> executors,
 				List<ReactiveQuerydslPredicateExecutor<?>> reactiveExecutors) {
@@ -516,6 +694,7 @@ public abstract class QuerydslDataFetcher<T> {
 					map.put(typeName, (single) -> single ?
 							QuerydslDataFetcher.builder(executor).single() :
 							QuerydslDataFetcher.builder(executor).many());
+					registerDomainType(typeName, executor);
 				}
 			}
 
@@ -525,12 +704,23 @@ public abstract class QuerydslDataFetcher<T> {
 					map.put(typeName, (single) -> single ?
 							QuerydslDataFetcher.builder(reactiveExecutor).single() :
 							QuerydslDataFetcher.builder(reactiveExecutor).many());
+					registerDomainType(typeName, reactiveExecutor);
 				}
 			}
 
 			return map;
 		}
 
+		boolean hasRelations() {
+			return this.hasRelations;
+		}
+
+		private void registerDomainType(String typeName, Object executor) {
+			RepositoryMetadata metadata = new DefaultRepositoryMetadata(getRepositoryInterface(executor));
+			this.executorsByTypeName.put(typeName, executor);
+			this.domainTypesByTypeName.put(typeName, metadata.getDomainType());
+		}
+
 		@Nullable
 		private String getTypeName(Object repository) {
 			GraphQlRepository annotation =
@@ -558,6 +748,9 @@ public abstract class QuerydslDataFetcher<T> {
 			GraphQLType fieldType = fieldDefinition.getType();
 			GraphQLFieldsContainer parent = (GraphQLFieldsContainer) context.getParentNode();
 			if (!parent.getName().equals("Query")) {
+				if (this.domainTypesByTypeName.containsKey(parent.getName())) {
+					registerRelationDataFetcher(parent, fieldDefinition, context);
+				}
 				return TraversalControl.ABORT;
 			}
 
@@ -587,6 +780,62 @@ public abstract class QuerydslDataFetcher<T> {
 			return null;
 		}
 
+		/**
+		 * Register a {@link BatchedRelationDataFetcher} for a field of a
+		 * registered type that returns another registered type, if the domain
+		 * types have a matching foreign key property by convention.
+		 */
+		private void registerRelationDataFetcher(GraphQLFieldsContainer parent,
+				GraphQLFieldDefinition fieldDefinition, TraverserContext<GraphQLSchemaElement> context) {
+
+			GraphQLType fieldType = GraphQLTypeUtil.unwrapNonNull(fieldDefinition.getType());
+			boolean many = (fieldType instanceof GraphQLList);
+			if (many) {
+				fieldType = GraphQLTypeUtil.unwrapNonNull(((GraphQLList) fieldType).getWrappedType());
+			}
+			if (!(fieldType instanceof GraphQLNamedOutputType)) {
+				return;
+			}
+
+			String typeName = ((GraphQLNamedOutputType) fieldType).getName();
+			Object executor = this.executorsByTypeName.get(typeName);
+			if (executor == null) {
+				return;
+			}
+
+			Class<?> parentDomainType = this.domainTypesByTypeName.get(parent.getName());
+			Class<?> domainType = this.domainTypesByTypeName.get(typeName);
+			String name = parent.getName() + "." + fieldDefinition.getName();
+
+			DataFetcher<?> dataFetcher = null;
+			if (many) {
+				String foreignKey = StringUtils.uncapitalize(parent.getName()) + "Id";
+				if (hasProperty(domainType, foreignKey) &&
+						hasProperty(parentDomainType, BatchedRelationDataFetcher.ID_PROPERTY)) {
+					dataFetcher = BatchedRelationDataFetcher.oneToMany(name, executor, domainType, foreignKey);
+				}
+			}
+			else {
+				String foreignKey = fieldDefinition.getName() + "Id";
+				if (hasProperty(parentDomainType, foreignKey) &&
+						hasProperty(domainType, BatchedRelationDataFetcher.ID_PROPERTY)) {
+					dataFetcher = BatchedRelationDataFetcher.manyToOne(name, executor, domainType, foreignKey);
+				}
+			}
+
+			if (dataFetcher != null) {
+				GraphQLCodeRegistry.Builder registry = context.getVarFromParents(GraphQLCodeRegistry.Builder.class);
+				if (!hasDataFetcher(registry, parent, fieldDefinition)) {
+					registry.dataFetcher(parent, fieldDefinition, dataFetcher);
+					this.hasRelations = true;
+				}
+			}
+		}
+
+		private boolean hasProperty(Class<?> domainType, String property) {
+			return (ClassTypeInformation.from(domainType).getProperty(property) != null);
+		}
+
 		private boolean hasDataFetcher(
 				GraphQLCodeRegistry.Builder registry, GraphQLFieldsContainer parent,
 				GraphQLFieldDefinition fieldDefinition) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.data.querydsl;
+
+import java.util.List;
+
+import com.querydsl.core.types.Predicate;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Repository fragment to fetch a limited number of elements for a Querydsl
+ * {@link Predicate}, without the count query that a
+ * {@link org.springframework.data.domain.Page} requires. Connection
+ * {@link graphql.schema.DataFetcher}s built with
+ * {@link QuerydslDataFetcher.Builder#connection(Sort)} use it to fetch pages
+ * if the repository implements it, for example:
+ * <pre class="code">
+ * interface BookRepository extends Repository&lt;Book, Long&gt;,
+ *         QuerydslPredicateExecutor&lt;Book&gt;, QuerydslLimitedExecutor&lt;Book&gt; {}
+ *
+ * class BookRepositoryImpl implements QuerydslLimitedExecutor&lt;Book&gt; {
+ *
+ *     public List&lt;Book&gt; findAll(Predicate predicate, Sort sort, int limit) {
+ *         return new JPAQuery&lt;Book&gt;(entityManager).from(QBook.book)
+ *                 .where(predicate).orderBy(…).limit(limit).fetch();
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <T> the domain type
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface QuerydslLimitedExecutor<T> {
+
+	/**
+	 * Return at most {@code limit} elements that match the given predicate,
+	 * ordered by the given sort.
+	 * @param predicate the predicate to match
+	 * @param sort the sort order to apply
+	 * @param limit the maximum number of elements to return
+	 * @return the matching elements
+	 */
+	List<T> findAll(Predicate predicate, Sort sort, int limit);
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.util.concurrent.CompletionStage;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Wrap a {@link DataFetcher} to apply a {@link DataFetcherBulkhead}.
+ *
+ * <p>If a permit is available, the delegate is invoked right away and the
+ * permit is released when the returned value completes. Otherwise, a
+ * {@link Mono} is returned that invokes the delegate once a permit becomes
+ * available, or resolves the field to {@code null} with an error if the
+ * invocation is rejected.
+ */
+final class BulkheadDataFetcherDecorator implements DataFetcher<Object> {
+
+	private final DataFetcher<?> delegate;
+
+	private final DataFetcherBulkhead bulkhead;
+
+	BulkheadDataFetcherDecorator(DataFetcher<?> delegate, DataFetcherBulkhead bulkhead) {
+		Assert.notNull(delegate, "'delegate' DataFetcher is required");
+		Assert.notNull(bulkhead, "'bulkhead' is required");
+		this.delegate = delegate;
+		this.bulkhead = bulkhead;
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) throws Exception {
+		DataFetcherBulkhead.Permit permit = this.bulkhead.tryAcquire();
+		if (permit != null) {
+			return invoke(environment, permit);
+		}
+		ContextView contextView = ReactorContextManager.getReactorContext(environment);
+		return this.bulkhead.acquire()
+				.flatMap((acquiredPermit) -> {
+					Object value;
+					try {
+						ReactorContextManager.restoreThreadLocalValues(contextView);
+						value = invoke(environment, acquiredPermit);
+					}
+					catch (Throwable ex) {
+						return Mono.error(ex);
+					}
+					finally {
+						ReactorContextManager.resetThreadLocalValues(contextView);
+					}
+					return toMono(value);
+				})
+				.onErrorResume(DataFetcherBulkhead.BulkheadFullException.class, (ex) ->
+						Mono.just(rejectedResult(environment, ex)));
+	}
+
+	@Nullable
+	private Object invoke(DataFetchingEnvironment environment, DataFetcherBulkhead.Permit permit) throws Exception {
+		Object value;
+		try {
+			value = this.delegate.get(environment);
+		}
+		catch (Throwable ex) {
+			permit.release();
+			throw ex;
+		}
+		if (value instanceof Mono) {
+			return ((Mono<?>) value).doFinally((signalType) -> permit.release());
+		}
+		if (value instanceof Flux) {
+			return ((Flux<?>) value).doFinally((signalType) -> permit.release());
+		}
+		if (value instanceof CompletionStage) {
+			return ((CompletionStage<?>) value).whenComplete((result, ex) -> permit.release());
+		}
+		permit.release();
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	static Mono<Object> toMono(@Nullable Object value) {
+		if (value instanceof Mono) {
+			return (Mono<Object>) value;
+		}
+		if (value instanceof Flux) {
+			return ((Flux<Object>) value).collectList().cast(Object.class);
+		}
+		if (value instanceof CompletionStage) {
+			return Mono.fromCompletionStage((CompletionStage<Object>) value);
+		}
+		return Mono.justOrEmpty(value);
+	}
+
+	private static DataFetcherResult<Object> rejectedResult(DataFetchingEnvironment environment, Throwable ex) {
+		GraphQLError error = GraphqlErrorBuilder.newError(environment)
+				.errorType(ErrorType.UNAVAILABLE)
+				.message(ex.getMessage())
+				.build();
+		return DataFetcherResult.newResult().error(error).build();
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchemaElement;
+import graphql.schema.GraphQLTypeVisitor;
+import graphql.schema.GraphQLTypeVisitorStub;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Container for {@link DataFetcherBulkhead}s by field coordinates. Bulkheads
+ * registered here are applied through the {@link #typeVisitor() type visitor}
+ * which is meant to be passed to
+ * {@link GraphQlSource.Builder#typeVisitors(java.util.List)}, and are also
+ * exposed for monitoring.
+ * <p>Example:
+ * <pre class="code">
+ * BulkheadRegistry registry = new BulkheadRegistry();
+ * registry.register(FieldCoordinates.coordinates("Book", "reviews"), 10, 100, Duration.ofSeconds(1));
+ *
+ * GraphQlSource.builder()
+ *         .typeVisitors(Collections.singletonList(registry.typeVisitor()))
+ *         ...
+ * </pre>
+ *
+ * @since 1.0.0
+ */
+public class BulkheadRegistry {
+
+	private final Map<FieldCoordinates, DataFetcherBulkhead> bulkheads = new LinkedHashMap<>();
+
+
+	/**
+	 * Register a bulkhead for the given field coordinates.
+	 * @param coordinates the field to apply the bulkhead to
+	 * @param maxConcurrentCalls the maximum number of concurrent invocations
+	 * @param maxWaitingCalls the maximum number of waiting invocations
+	 * @param maxWaitTime how long an invocation can wait for a permit
+	 * @return the registered bulkhead
+	 */
+	public DataFetcherBulkhead register(FieldCoordinates coordinates,
+			int maxConcurrentCalls, int maxWaitingCalls, Duration maxWaitTime) {
+
+		String name = coordinates.getTypeName() + "." + coordinates.getFieldName();
+		DataFetcherBulkhead bulkhead = new DataFetcherBulkhead(name, maxConcurrentCalls, maxWaitingCalls, maxWaitTime);
+		register(coordinates, bulkhead);
+		return bulkhead;
+	}
+
+	/**
+	 * Register the given bulkhead for the given field coordinates.
+	 * @param coordinates the field to apply the bulkhead to
+	 * @param bulkhead the bulkhead to use
+	 */
+	public void register(FieldCoordinates coordinates, DataFetcherBulkhead bulkhead) {
+		Assert.notNull(coordinates, "FieldCoordinates are required");
+		Assert.notNull(bulkhead, "DataFetcherBulkhead is required");
+		synchronized (this.bulkheads) {
+			DataFetcherBulkhead existing = this.bulkheads.putIfAbsent(coordinates, bulkhead);
+			Assert.isTrue(existing == null || existing == bulkhead,
+					"A bulkhead is already registered for " + bulkhead.getName());
+		}
+	}
+
+	/**
+	 * Return the bulkhead registered for the given field coordinates, if any.
+	 * @param coordinates the field coordinates
+	 * @return the bulkhead or {@code null}
+	 */
+	@Nullable
+	public DataFetcherBulkhead getBulkhead(FieldCoordinates coordinates) {
+		synchronized (this.bulkheads) {
+			return this.bulkheads.get(coordinates);
+		}
+	}
+
+	/**
+	 * Return a read-only copy of all registered bulkheads.
+	 */
+	public Map<FieldCoordinates, DataFetcherBulkhead> getBulkheads() {
+		synchronized (this.bulkheads) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(this.bulkheads));
+		}
+	}
+
+	/**
+	 * Return a {@link GraphQLTypeVisitor} that wraps the {@link DataFetcher}s
+	 * of fields with a registered bulkhead. Data fetchers that are already
+	 * decorated via {@link DataFetcherBulkhead#decorate(DataFetcher)} are left
+	 * as is, and subscription fields are not supported.
+	 * @return the type visitor
+	 */
+	public GraphQLTypeVisitor typeVisitor() {
+		return new GraphQLTypeVisitorStub() {
+
+			@Override
+			public TraversalControl visitGraphQLFieldDefinition(GraphQLFieldDefinition fieldDefinition,
+					TraverserContext<GraphQLSchemaElement> context) {
+
+				GraphQLFieldsContainer parent = (GraphQLFieldsContainer) context.getParentNode();
+				if (parent.getName().equals("Subscription")) {
+					return TraversalControl.CONTINUE;
+				}
+
+				FieldCoordinates coordinates = FieldCoordinates.coordinates(parent.getName(), fieldDefinition.getName());
+				DataFetcherBulkhead bulkhead = getBulkhead(coordinates);
+				if (bulkhead == null) {
+					return TraversalControl.CONTINUE;
+				}
+
+				GraphQLCodeRegistry.Builder codeRegistry = context.getVarFromParents(GraphQLCodeRegistry.Builder.class);
+				DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(parent, fieldDefinition);
+				if (!(dataFetcher instanceof BulkheadDataFetcherDecorator)) {
+					codeRegistry.dataFetcher(parent, fieldDefinition, bulkhead.decorate(dataFetcher));
+				}
+				return TraversalControl.CONTINUE;
+			}
+		};
+	}
+
+}
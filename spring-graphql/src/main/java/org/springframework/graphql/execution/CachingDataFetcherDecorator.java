@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import org.springframework.util.Assert;
+
+/**
+ * Wrap a {@link DataFetcher} to cache its results in a {@link DataFetcherCache}.
+ *
+ * <p>The delegate is invoked lazily, when the {@link Mono} for a cache miss or
+ * a refresh is subscribed to, restoring ThreadLocal context at that point.
+ */
+final class CachingDataFetcherDecorator implements DataFetcher<Object> {
+
+	private final DataFetcher<?> delegate;
+
+	private final DataFetcherCache cache;
+
+	CachingDataFetcherDecorator(DataFetcher<?> delegate, DataFetcherCache cache) {
+		Assert.notNull(delegate, "'delegate' DataFetcher is required");
+		Assert.notNull(cache, "'cache' is required");
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) {
+		ContextView contextView = ReactorContextManager.getReactorContext(environment);
+		return this.cache.get(environment, () -> Mono.defer(() -> {
+			Object value;
+			try {
+				ReactorContextManager.restoreThreadLocalValues(contextView);
+				value = this.delegate.get(environment);
+			}
+			catch (Throwable ex) {
+				return Mono.error(ex);
+			}
+			finally {
+				ReactorContextManager.resetThreadLocalValues(contextView);
+			}
+			return BulkheadDataFetcherDecorator.toMono(value);
+		}));
+	}
+
+}
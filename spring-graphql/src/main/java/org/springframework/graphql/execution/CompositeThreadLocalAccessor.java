@@ -27,25 +27,39 @@ import java.util.Map;
  */
 class CompositeThreadLocalAccessor implements ThreadLocalAccessor {
 
-	private final List<ThreadLocalAccessor> accessors;
+	private final ThreadLocalAccessor[] accessors;
 
 	CompositeThreadLocalAccessor(List<ThreadLocalAccessor> accessors) {
-		this.accessors = accessors;
+		this.accessors = accessors.toArray(new ThreadLocalAccessor[0]);
+	}
+
+	/**
+	 * Return the accessors in order, e.g. to extract and restore their values
+	 * in separate slots.
+	 */
+	ThreadLocalAccessor[] getAccessors() {
+		return this.accessors;
 	}
 
 	@Override
 	public void extractValues(Map<String, Object> container) {
-		this.accessors.forEach((accessor) -> accessor.extractValues(container));
+		for (ThreadLocalAccessor accessor : this.accessors) {
+			accessor.extractValues(container);
+		}
 	}
 
 	@Override
 	public void restoreValues(Map<String, Object> values) {
-		this.accessors.forEach((accessor) -> accessor.restoreValues(values));
+		for (ThreadLocalAccessor accessor : this.accessors) {
+			accessor.restoreValues(values);
+		}
 	}
 
 	@Override
 	public void resetValues(Map<String, Object> values) {
-		this.accessors.forEach((accessor) -> accessor.resetValues(values));
+		for (ThreadLocalAccessor accessor : this.accessors) {
+			accessor.resetValues(values);
+		}
 	}
 
 }
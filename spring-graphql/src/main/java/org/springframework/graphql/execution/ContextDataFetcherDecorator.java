@@ -16,6 +16,8 @@
 
 package org.springframework.graphql.execution;
 
+import java.util.concurrent.CancellationException;
+
 import graphql.ExecutionInput;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
@@ -41,6 +43,8 @@ import org.springframework.util.Assert;
  * <li>Support {@link Flux} return value as a shortcut to {@link Flux#collectList()}.
  * <li>Re-establish Reactor Context passed via {@link ExecutionInput}.
  * <li>Re-establish ThreadLocal context passed via {@link ExecutionInput}.
+ * <li>Dispose {@link Mono} and {@link Flux} subscriptions, and skip further
+ * invocations, when the execution is cancelled.
  * </ul>
  *
  * @author Rossen Stoyanchev
@@ -59,6 +63,11 @@ final class ContextDataFetcherDecorator implements DataFetcher<Object> {
 
 	@Override
 	public Object get(DataFetchingEnvironment environment) throws Exception {
+		ExecutionCancellation cancellation = ExecutionCancellation.get(environment);
+		if (cancellation != null && cancellation.isCancelled()) {
+			throw new CancellationException("Execution cancelled");
+		}
+
 		ContextView contextView = ReactorContextManager.getReactorContext(environment);
 
 		Object value;
@@ -83,7 +92,7 @@ final class ContextDataFetcherDecorator implements DataFetcher<Object> {
 			if (!contextView.isEmpty()) {
 				valueMono = valueMono.contextWrite(contextView);
 			}
-			value = valueMono.toFuture();
+			value = (cancellation != null ? cancellation.track(valueMono.toFuture()) : valueMono.toFuture());
 		}
 
 		return value;
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import graphql.schema.DataFetcher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Limits the number of concurrent invocations of a {@link DataFetcher}, so that
+ * a single slow downstream dependency cannot use up all execution resources.
+ * Invocations that exceed the limit wait in a bounded queue for up to
+ * {@link #getMaxWaitTime() maxWaitTime}, and are rejected if the queue is full
+ * or if the wait time elapses. A rejected field resolves to {@code null} with
+ * an {@link ErrorType#UNAVAILABLE} error added to the response, so that
+ * clients can retry it later.
+ *
+ * <p>Waiting does not block threads. An invocation that cannot proceed right
+ * away is adapted to a {@link Mono} that invokes the {@code DataFetcher} once
+ * a permit is released, restoring Reactor and ThreadLocal context.
+ *
+ * <p>Use {@link #decorate(DataFetcher)} to apply a bulkhead directly, or
+ * register it for field coordinates with a {@link BulkheadRegistry}.
+ *
+ * @since 1.0.0
+ * @see BulkheadRegistry
+ */
+public class DataFetcherBulkhead {
+
+	private static final int WAITING = 0;
+
+	private static final int GRANTED = 1;
+
+	private static final int CANCELLED = 2;
+
+
+	private final String name;
+
+	private final int maxConcurrentCalls;
+
+	private final int maxWaitingCalls;
+
+	private final Duration maxWaitTime;
+
+	private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+	private int inFlightCount;
+
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+
+	/**
+	 * Create an instance.
+	 * @param name a name for the bulkhead, typically the field coordinates it
+	 * applies to, e.g. "Query.books"
+	 * @param maxConcurrentCalls the maximum number of concurrent invocations
+	 * @param maxWaitingCalls the maximum number of invocations that can wait
+	 * for a permit, or 0 to reject immediately when saturated
+	 * @param maxWaitTime how long an invocation can wait for a permit
+	 */
+	public DataFetcherBulkhead(String name, int maxConcurrentCalls, int maxWaitingCalls, Duration maxWaitTime) {
+		Assert.hasText(name, "'name' is required");
+		Assert.isTrue(maxConcurrentCalls > 0, "'maxConcurrentCalls' must be greater than 0");
+		Assert.isTrue(maxWaitingCalls >= 0, "'maxWaitingCalls' must not be negative");
+		Assert.notNull(maxWaitTime, "'maxWaitTime' is required");
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitingCalls = (maxWaitTime.isZero() ? 0 : maxWaitingCalls);
+		this.maxWaitTime = maxWaitTime;
+	}
+
+
+	/**
+	 * Return the name of the bulkhead.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the configured maximum number of concurrent invocations.
+	 */
+	public int getMaxConcurrentCalls() {
+		return this.maxConcurrentCalls;
+	}
+
+	/**
+	 * Return the configured maximum number of waiting invocations.
+	 */
+	public int getMaxWaitingCalls() {
+		return this.maxWaitingCalls;
+	}
+
+	/**
+	 * Return the configured maximum time to wait for a permit.
+	 */
+	public Duration getMaxWaitTime() {
+		return this.maxWaitTime;
+	}
+
+	/**
+	 * Return the number of invocations currently in progress.
+	 */
+	public synchronized int getInFlightCount() {
+		return this.inFlightCount;
+	}
+
+	/**
+	 * Return the number of invocations currently waiting for a permit.
+	 */
+	public synchronized int getQueuedCount() {
+		return this.waiters.size();
+	}
+
+	/**
+	 * Return the total number of rejected invocations, either because the wait
+	 * queue was full, or because the wait time elapsed.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.get();
+	}
+
+	/**
+	 * Wrap the given {@code DataFetcher} in order to apply this bulkhead to it.
+	 * <p><strong>Note:</strong> bulkheads are not supported for subscription
+	 * fields.
+	 * @param dataFetcher the data fetcher to wrap
+	 * @return the decorated data fetcher
+	 */
+	public DataFetcher<?> decorate(DataFetcher<?> dataFetcher) {
+		return new BulkheadDataFetcherDecorator(dataFetcher, this);
+	}
+
+
+	/**
+	 * Obtain a permit if one is available right away.
+	 * @return the permit, or {@code null} if saturated
+	 */
+	@Nullable
+	Permit tryAcquire() {
+		synchronized (this) {
+			if (this.inFlightCount < this.maxConcurrentCalls) {
+				this.inFlightCount++;
+				return new Permit();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Obtain a permit, waiting in the queue if necessary.
+	 * @return a {@code Mono} with the permit, or an error signal with
+	 * {@link BulkheadFullException} if the invocation is rejected
+	 */
+	Mono<Permit> acquire() {
+		Mono<Permit> permitMono = Mono.create(this::acquire);
+		if (this.maxWaitingCalls > 0) {
+			permitMono = permitMono.timeout(this.maxWaitTime).onErrorMap(TimeoutException.class, (ex) -> reject());
+		}
+		return permitMono;
+	}
+
+	private void acquire(MonoSink<Permit> sink) {
+		Waiter waiter = null;
+		boolean granted = false;
+		synchronized (this) {
+			if (this.inFlightCount < this.maxConcurrentCalls) {
+				this.inFlightCount++;
+				granted = true;
+			}
+			else if (this.waiters.size() < this.maxWaitingCalls) {
+				waiter = new Waiter(sink);
+				this.waiters.add(waiter);
+			}
+		}
+		if (granted) {
+			sink.success(new Permit());
+		}
+		else if (waiter != null) {
+			Waiter waiterToCancel = waiter;
+			sink.onCancel(() -> cancel(waiterToCancel));
+		}
+		else {
+			sink.error(reject());
+		}
+	}
+
+	private BulkheadFullException reject() {
+		this.rejectedCount.incrementAndGet();
+		return new BulkheadFullException(this.name);
+	}
+
+	private void cancel(Waiter waiter) {
+		if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+			synchronized (this) {
+				this.waiters.remove(waiter);
+			}
+		}
+		else {
+			Permit permit;
+			synchronized (this) {
+				permit = waiter.permit;
+			}
+			if (permit != null) {
+				// Permit granted, but the subscriber is no longer interested
+				permit.release();
+			}
+		}
+	}
+
+	private void release() {
+		Waiter next;
+		synchronized (this) {
+			do {
+				next = this.waiters.poll();
+			}
+			while (next != null && !next.state.compareAndSet(WAITING, GRANTED));
+			if (next == null) {
+				this.inFlightCount--;
+				return;
+			}
+			// Hand the permit over without changing the in-flight count
+			next.permit = new Permit();
+		}
+		next.sink.success(next.permit);
+	}
+
+
+	/**
+	 * Permit for a single invocation that must be released exactly once.
+	 */
+	final class Permit {
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		void release() {
+			if (this.released.compareAndSet(false, true)) {
+				DataFetcherBulkhead.this.release();
+			}
+		}
+
+	}
+
+
+	private static final class Waiter {
+
+		private final MonoSink<Permit> sink;
+
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		@Nullable
+		private Permit permit;
+
+		Waiter(MonoSink<Permit> sink) {
+			this.sink = sink;
+		}
+
+	}
+
+
+	/**
+	 * Raised when an invocation is rejected by a bulkhead.
+	 */
+	@SuppressWarnings("serial")
+	static class BulkheadFullException extends RuntimeException {
+
+		BulkheadFullException(String name) {
+			super("Bulkhead '" + name + "' is full", null, false, false);
+		}
+
+	}
+
+}
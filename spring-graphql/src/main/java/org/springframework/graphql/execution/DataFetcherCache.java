@@ -0,0 +1,373 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded, in-memory cache for the results of a {@link DataFetcher}, keyed by
+ * the identity of the {@link DataFetchingEnvironment#getSource() source}, the
+ * {@link DataFetchingEnvironment#getArguments() arguments} of the field, and a
+ * key returned by the {@link #setKeyResolver(Function) keyResolver}.
+ *
+ * <p>Sources are compared by identity and held through weak references, so a
+ * cache does not prevent them from being garbage collected. Results for root
+ * fields, and for sources that are shared across requests, are shared by all
+ * requests. By default this includes requests from different users, unless a
+ * {@code keyResolver} is configured to tell them apart, e.g. by principal.
+ *
+ * <p>Entries expire after {@link #getTimeToLive() timeToLive}, and the least
+ * recently used entry is evicted once {@link #getMaxSize() maxSize} is
+ * exceeded. If {@link #getRefreshAfter() refreshAfter} is set, an entry older
+ * than that is reloaded in the background on the next access, while the
+ * current value continues to be returned until the reload completes.
+ *
+ * <p>Values are cached as a shared {@link Mono}, so concurrent requests for
+ * the same key result in a single invocation of the {@code DataFetcher}.
+ * {@link reactor.core.publisher.Flux} return values are cached as a
+ * {@code List}. Failed loads are not cached.
+ *
+ * <p>Use {@link #decorate(DataFetcher)} to apply a cache directly, or declare
+ * it on an annotated handler method through
+ * {@link org.springframework.graphql.data.method.annotation.CachedField @CachedField}.
+ *
+ * @since 1.0.0
+ * @see DataFetcherCacheRegistry
+ */
+public class DataFetcherCache {
+
+	private static final Function<DataFetchingEnvironment, Object> DEFAULT_KEY_RESOLVER = (environment) -> "";
+
+	private final String name;
+
+	private final int maxSize;
+
+	private final Duration timeToLive;
+
+	private final Duration refreshAfter;
+
+	private final long timeToLiveNanos;
+
+	private final long refreshAfterNanos;
+
+	private Function<DataFetchingEnvironment, Object> keyResolver = DEFAULT_KEY_RESOLVER;
+
+	private final Map<CacheKey, Entry> entries;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+
+	/**
+	 * Create an instance without refresh-ahead.
+	 * @param name a name for the cache, typically the field coordinates it
+	 * applies to, e.g. "Query.countries"
+	 * @param maxSize the maximum number of cached entries
+	 * @param timeToLive how long an entry remains valid after it is loaded
+	 */
+	public DataFetcherCache(String name, int maxSize, Duration timeToLive) {
+		this(name, maxSize, timeToLive, Duration.ZERO);
+	}
+
+	/**
+	 * Create an instance.
+	 * @param name a name for the cache, typically the field coordinates it
+	 * applies to, e.g. "Query.countries"
+	 * @param maxSize the maximum number of cached entries
+	 * @param timeToLive how long an entry remains valid after it is loaded
+	 * @param refreshAfter how long after it is loaded an entry is reloaded
+	 * in the background on the next access; must be less than the
+	 * {@code timeToLive}, or {@link Duration#ZERO} to disable refresh-ahead
+	 */
+	public DataFetcherCache(String name, int maxSize, Duration timeToLive, Duration refreshAfter) {
+		Assert.hasText(name, "'name' is required");
+		Assert.isTrue(maxSize > 0, "'maxSize' must be greater than 0");
+		Assert.notNull(timeToLive, "'timeToLive' is required");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "'timeToLive' must be greater than 0");
+		Assert.notNull(refreshAfter, "'refreshAfter' is required");
+		Assert.isTrue(!refreshAfter.isNegative(), "'refreshAfter' must not be negative");
+		Assert.isTrue(refreshAfter.compareTo(timeToLive) < 0, "'refreshAfter' must be less than 'timeToLive'");
+		this.name = name;
+		this.maxSize = maxSize;
+		this.timeToLive = timeToLive;
+		this.refreshAfter = refreshAfter;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.refreshAfterNanos = refreshAfter.toNanos();
+		this.entries = new LinkedHashMap<CacheKey, Entry>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+				if (size() > DataFetcherCache.this.maxSize) {
+					DataFetcherCache.this.evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+
+	/**
+	 * Return the name of the cache.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the maximum number of cached entries.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return how long an entry remains valid after it is loaded.
+	 */
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Return how long after it is loaded an entry is refreshed on access,
+	 * or {@link Duration#ZERO} if refresh-ahead is disabled.
+	 */
+	public Duration getRefreshAfter() {
+		return this.refreshAfter;
+	}
+
+	/**
+	 * Configure a function to obtain the part of the cache key that identifies
+	 * the principal, or other request-specific scope, that results depend on,
+	 * or {@code null} if the result for a field should not be cached. The
+	 * function is invoked with ThreadLocal context restored, if the cache is
+	 * applied inside the {@link ContextDataFetcherDecorator}.
+	 * <p>By default, results are shared across all requests.
+	 * @param keyResolver the function to use
+	 */
+	public void setKeyResolver(Function<DataFetchingEnvironment, Object> keyResolver) {
+		Assert.notNull(keyResolver, "'keyResolver' is required");
+		this.keyResolver = keyResolver;
+	}
+
+	/**
+	 * Return the {@link #setKeyResolver configured} key resolver.
+	 */
+	public Function<DataFetchingEnvironment, Object> getKeyResolver() {
+		return this.keyResolver;
+	}
+
+	/**
+	 * Return the current number of entries, including expired entries that
+	 * have not yet been replaced or evicted.
+	 */
+	public int getSize() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * Return the number of lookups that found a valid entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups that required a load.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries evicted due to the size limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public void invalidateAll() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	/**
+	 * Wrap the given {@code DataFetcher} so that its results are cached.
+	 * @param dataFetcher the data fetcher to wrap
+	 * @return the caching data fetcher
+	 */
+	public DataFetcher<?> decorate(DataFetcher<?> dataFetcher) {
+		return new CachingDataFetcherDecorator(dataFetcher, this);
+	}
+
+
+	/**
+	 * Return the cached value for the given environment, or use the loader to
+	 * obtain it. Invoked by {@link CachingDataFetcherDecorator}.
+	 */
+	Mono<Object> get(DataFetchingEnvironment environment, Supplier<Mono<Object>> loader) {
+		Object scope = this.keyResolver.apply(environment);
+		if (scope == null) {
+			return loader.get();
+		}
+		CacheKey key = new CacheKey(environment.getSource(), environment.getArguments(), scope);
+		long now = System.nanoTime();
+		Entry entry;
+		synchronized (this.entries) {
+			entry = this.entries.get(key);
+			if (entry == null || entry.isExpired(now)) {
+				Entry newEntry = new Entry();
+				newEntry.value = loader.get()
+						.doOnSuccess(newEntry::loaded)
+						.doOnError((ex) -> remove(key, newEntry))
+						.cache();
+				this.entries.put(key, newEntry);
+				this.missCount.incrementAndGet();
+				return newEntry.value;
+			}
+		}
+		this.hitCount.incrementAndGet();
+		if (this.refreshAfterNanos > 0 && entry.isRefreshDue(now)) {
+			refresh(entry, loader, ReactorContextManager.getReactorContext(environment));
+		}
+		return entry.value;
+	}
+
+	private void refresh(Entry entry, Supplier<Mono<Object>> loader, ContextView contextView) {
+		loader.get()
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.contextWrite(contextView)
+				.subscribe(entry::refreshed, (ex) -> entry.refreshing.set(false));
+	}
+
+	private void remove(CacheKey key, Entry entry) {
+		synchronized (this.entries) {
+			this.entries.remove(key, entry);
+		}
+	}
+
+
+	/**
+	 * Key that compares the source by identity, and does not keep it reachable.
+	 * Entries for sources that have been garbage collected can no longer be
+	 * matched, and are evicted as least recently used.
+	 */
+	private static final class CacheKey {
+
+		@Nullable
+		private final WeakReference<Object> sourceRef;
+
+		private final Map<String, Object> arguments;
+
+		private final Object scope;
+
+		private final int hashCode;
+
+		CacheKey(@Nullable Object source, Map<String, Object> arguments, Object scope) {
+			this.sourceRef = (source != null ? new WeakReference<>(source) : null);
+			this.arguments = arguments;
+			this.scope = scope;
+			this.hashCode = 31 * (31 * System.identityHashCode(source) + arguments.hashCode()) + scope.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.hashCode == otherKey.hashCode && isSameSource(otherKey) &&
+					this.arguments.equals(otherKey.arguments) && this.scope.equals(otherKey.scope));
+		}
+
+		private boolean isSameSource(CacheKey other) {
+			if (this.sourceRef == null || other.sourceRef == null) {
+				return (this.sourceRef == other.sourceRef);
+			}
+			Object source = this.sourceRef.get();
+			return (source != null && source == other.sourceRef.get());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+
+	private class Entry {
+
+		volatile Mono<Object> value = Mono.empty();
+
+		volatile boolean loaded;
+
+		volatile long loadTime;
+
+		final AtomicBoolean refreshing = new AtomicBoolean();
+
+		void loaded(@Nullable Object result) {
+			this.loadTime = System.nanoTime();
+			this.loaded = true;
+		}
+
+		void refreshed(Optional<Object> result) {
+			this.value = Mono.justOrEmpty(result);
+			this.loadTime = System.nanoTime();
+			this.refreshing.set(false);
+		}
+
+		boolean isExpired(long now) {
+			return (this.loaded && now - this.loadTime >= timeToLiveNanos);
+		}
+
+		boolean isRefreshDue(long now) {
+			return (this.loaded && now - this.loadTime >= refreshAfterNanos && this.refreshing.compareAndSet(false, true));
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import graphql.schema.FieldCoordinates;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Container for {@link DataFetcherCache}s by field coordinates, e.g. in order
+ * to expose them for monitoring or to invalidate them.
+ *
+ * @since 1.0.0
+ */
+public class DataFetcherCacheRegistry {
+
+	private final Map<FieldCoordinates, DataFetcherCache> caches = new LinkedHashMap<>();
+
+
+	/**
+	 * Register the given cache for the given field coordinates.
+	 * @param coordinates the field the cache applies to
+	 * @param cache the cache to register
+	 */
+	public void register(FieldCoordinates coordinates, DataFetcherCache cache) {
+		Assert.notNull(coordinates, "FieldCoordinates are required");
+		Assert.notNull(cache, "DataFetcherCache is required");
+		synchronized (this.caches) {
+			DataFetcherCache existing = this.caches.putIfAbsent(coordinates, cache);
+			Assert.isTrue(existing == null || existing == cache,
+					"A cache is already registered for " + cache.getName());
+		}
+	}
+
+	/**
+	 * Return the cache registered for the given field coordinates, if any.
+	 * @param coordinates the field coordinates
+	 * @return the cache or {@code null}
+	 */
+	@Nullable
+	public DataFetcherCache getCache(FieldCoordinates coordinates) {
+		synchronized (this.caches) {
+			return this.caches.get(coordinates);
+		}
+	}
+
+	/**
+	 * Return a read-only copy of all registered caches.
+	 */
+	public Map<FieldCoordinates, DataFetcherCache> getCaches() {
+		synchronized (this.caches) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(this.caches));
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+
+/**
+ * Counts the data fetcher invocations of a request execution, e.g. to detect
+ * N+1 access patterns in tests. The default property data fetchers of
+ * graphql-java are not counted.
+ *
+ * <p>Counting requires the {@link #instrumentation() instrumentation} to be
+ * installed, e.g. through {@link GraphQlSource.Builder#instrumentation} in
+ * test setup, and so it adds no overhead to other applications. Register an
+ * instance in the {@link graphql.GraphQLContext} of a request through
+ * {@link #register(ExecutionInput)}, e.g. from
+ * {@link org.springframework.graphql.RequestInput#configureExecutionInput}.
+ *
+ * @since 1.0.0
+ */
+public final class DataFetcherInvocationCounter {
+
+	private static final String COUNTER_KEY = DataFetcherInvocationCounter.class.getName();
+
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	private volatile boolean instrumented;
+
+
+	/**
+	 * Return an {@link Instrumentation} that increments the counter registered
+	 * for an execution, if any, for each data fetcher invocation.
+	 * @return the instrumentation to install
+	 */
+	public static Instrumentation instrumentation() {
+		return new CountingInstrumentation();
+	}
+
+
+	/**
+	 * Save this counter in the context of the given input, so that it is
+	 * incremented for each data fetcher invocation of the execution.
+	 * @param executionInput the input for the execution
+	 */
+	public void register(ExecutionInput executionInput) {
+		executionInput.getGraphQLContext().put(COUNTER_KEY, this);
+	}
+
+	/**
+	 * Whether an execution with this counter registered was instrumented,
+	 * i.e. whether the {@link #getCount() count} is meaningful.
+	 * @return {@code true} if the {@link #instrumentation() instrumentation}
+	 * is installed
+	 */
+	public boolean isInstrumented() {
+		return this.instrumented;
+	}
+
+	/**
+	 * Return the number of data fetcher invocations counted so far.
+	 * @return the invocation count
+	 */
+	public int getCount() {
+		return this.count.get();
+	}
+
+
+	private static class CountingInstrumentation extends SimpleInstrumentation {
+
+		@Override
+		public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+			DataFetcherInvocationCounter counter = parameters.getExecutionInput().getGraphQLContext().get(COUNTER_KEY);
+			if (counter != null) {
+				counter.instrumented = true;
+			}
+			return super.beginExecution(parameters);
+		}
+
+		@Override
+		public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+			if (!parameters.isTrivialDataFetcher()) {
+				DataFetcherInvocationCounter counter =
+						parameters.getEnvironment().getGraphQlContext().get(COUNTER_KEY);
+				if (counter != null) {
+					counter.count.incrementAndGet();
+				}
+			}
+			return super.beginFieldFetch(parameters);
+		}
+
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLSchemaElement;
+import graphql.schema.GraphQLTypeVisitor;
+import graphql.schema.GraphQLTypeVisitorStub;
+import graphql.schema.SelectedField;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Opt-in memoization of {@link DataFetcher} invocations within a single
+ * request execution. When the same field is selected more than once with the
+ * same arguments on the same source object, e.g. through different aliases or
+ * fragments, the {@code DataFetcher} is invoked once and the result is shared.
+ *
+ * <p>Results are memoized by {@code DataFetcher} instance, field coordinates,
+ * source object identity, arguments, and the selection set of the field, in a
+ * map stored in the {@link GraphQLContext} of the request, so that fields
+ * sharing a {@code DataFetcher}, or aliases with different sub-selections,
+ * do not share results. {@link Mono} results are cached and {@link Flux}
+ * results are collected to a cached {@code List}, so they are subscribed to
+ * only once. Invocations that throw an exception are not memoized. Mutation
+ * and subscription fields are never memoized.
+ *
+ * <p>Apply to the fields that are expensive to fetch and likely to be
+ * selected more than once through {@link #typeVisitor(Predicate)}:
+ * <pre class="code">
+ * Set&lt;FieldCoordinates&gt; fields = Collections.singleton(FieldCoordinates.coordinates("Book", "author"));
+ *
+ * GraphQlSource.builder()
+ *         .typeVisitors(Collections.singletonList(DataFetcherMemoization.typeVisitor(fields::contains)))
+ *         ...
+ * </pre>
+ *
+ * @since 1.0.0
+ */
+public abstract class DataFetcherMemoization {
+
+	private static final String MEMO_KEY = DataFetcherMemoization.class.getName() + ".MEMO";
+
+
+	/**
+	 * Return a {@link GraphQLTypeVisitor} that memoizes the data fetchers of
+	 * all query and object type fields, except for the default property data
+	 * fetchers from graphql-java which are cheap to invoke.
+	 * <p>This adds overhead to every field, and {@link #typeVisitor(Predicate)}
+	 * should be preferred to memoize only selected fields.
+	 * @return the type visitor
+	 */
+	public static GraphQLTypeVisitor typeVisitor() {
+		return typeVisitor((coordinates) -> true);
+	}
+
+	/**
+	 * Return a {@link GraphQLTypeVisitor} that memoizes the data fetchers of
+	 * the fields matching the given predicate.
+	 * @param fieldFilter predicate to select the fields to memoize
+	 * @return the type visitor
+	 */
+	public static GraphQLTypeVisitor typeVisitor(Predicate<FieldCoordinates> fieldFilter) {
+		Assert.notNull(fieldFilter, "'fieldFilter' is required");
+		return new GraphQLTypeVisitorStub() {
+
+			@Override
+			public TraversalControl visitGraphQLFieldDefinition(GraphQLFieldDefinition fieldDefinition,
+					TraverserContext<GraphQLSchemaElement> context) {
+
+				GraphQLFieldsContainer parent = (GraphQLFieldsContainer) context.getParentNode();
+				if (parent.getName().equals("Mutation") || parent.getName().equals("Subscription")) {
+					return TraversalControl.CONTINUE;
+				}
+
+				GraphQLCodeRegistry.Builder codeRegistry = context.getVarFromParents(GraphQLCodeRegistry.Builder.class);
+				DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(parent, fieldDefinition);
+				if (dataFetcher.getClass().getPackage().getName().startsWith("graphql.") ||
+						dataFetcher instanceof MemoizingDataFetcher) {
+					return TraversalControl.CONTINUE;
+				}
+
+				if (fieldFilter.test(FieldCoordinates.coordinates(parent.getName(), fieldDefinition.getName()))) {
+					codeRegistry.dataFetcher(parent, fieldDefinition, decorate(dataFetcher));
+				}
+				return TraversalControl.CONTINUE;
+			}
+		};
+	}
+
+	/**
+	 * Wrap the given {@code DataFetcher} to memoize its results within each
+	 * request execution.
+	 * @param dataFetcher the data fetcher to wrap
+	 * @return the memoizing data fetcher
+	 */
+	public static DataFetcher<?> decorate(DataFetcher<?> dataFetcher) {
+		return new MemoizingDataFetcher(dataFetcher);
+	}
+
+
+	private static final class MemoizingDataFetcher implements DataFetcher<Object> {
+
+		private final DataFetcher<?> delegate;
+
+		MemoizingDataFetcher(DataFetcher<?> delegate) {
+			Assert.notNull(delegate, "'delegate' DataFetcher is required");
+			this.delegate = delegate;
+		}
+
+		@Override
+		@Nullable
+		public Object get(DataFetchingEnvironment environment) throws Exception {
+			Map<MemoKey, Memo> memos = environment.getGraphQlContext().computeIfAbsent(
+					MEMO_KEY, (key) -> new ConcurrentHashMap<MemoKey, Memo>());
+			MemoKey key = new MemoKey(this.delegate, environment);
+			return memos.computeIfAbsent(key, (k) -> new Memo()).getValue(this.delegate, environment);
+		}
+
+	}
+
+
+	private static final class MemoKey {
+
+		private final DataFetcher<?> dataFetcher;
+
+		private final FieldCoordinates coordinates;
+
+		@Nullable
+		private final Object source;
+
+		private final Map<String, Object> arguments;
+
+		private final Set<List<Object>> selectionSet;
+
+		private final int hashCode;
+
+		MemoKey(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+			this.dataFetcher = dataFetcher;
+			this.coordinates = FieldCoordinates.coordinates(
+					((GraphQLNamedType) environment.getParentType()).getName(), environment.getField().getName());
+			this.source = environment.getSource();
+			this.arguments = environment.getArguments();
+			this.selectionSet = getSelectionSet(environment);
+			int hashCode = 31 * System.identityHashCode(dataFetcher) + this.coordinates.hashCode();
+			hashCode = 31 * hashCode + System.identityHashCode(this.source);
+			hashCode = 31 * hashCode + this.arguments.hashCode();
+			this.hashCode = 31 * hashCode + this.selectionSet.hashCode();
+		}
+
+		/**
+		 * Return the sub-selected fields with their arguments, independent of
+		 * their order and aliases.
+		 */
+		private static Set<List<Object>> getSelectionSet(DataFetchingEnvironment environment) {
+			List<SelectedField> fields = environment.getSelectionSet().getFields();
+			Set<List<Object>> selectionSet = new HashSet<>(fields.size());
+			for (SelectedField field : fields) {
+				selectionSet.add(Arrays.asList(field.getQualifiedName(), field.getArguments()));
+			}
+			return selectionSet;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MemoKey)) {
+				return false;
+			}
+			MemoKey otherKey = (MemoKey) other;
+			return (this.dataFetcher == otherKey.dataFetcher && this.coordinates.equals(otherKey.coordinates) &&
+					this.source == otherKey.source && this.arguments.equals(otherKey.arguments) &&
+					this.selectionSet.equals(otherKey.selectionSet));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+
+	/**
+	 * Holder for a memoized value, invoking the {@code DataFetcher} at most once
+	 * unless it throws an exception.
+	 */
+	private static final class Memo {
+
+		private boolean resolved;
+
+		@Nullable
+		private Object value;
+
+		@Nullable
+		synchronized Object getValue(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment) throws Exception {
+			if (!this.resolved) {
+				this.value = share(dataFetcher.get(environment));
+				this.resolved = true;
+			}
+			return this.value;
+		}
+
+		@Nullable
+		private static Object share(@Nullable Object value) {
+			if (value instanceof Mono) {
+				return ((Mono<?>) value).cache();
+			}
+			if (value instanceof Flux) {
+				return ((Flux<?>) value).collectList().cache();
+			}
+			// CompletionStage and plain values can be shared as is
+			return value;
+		}
+
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
+import graphql.Directives;
 import graphql.GraphQL;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
@@ -62,6 +63,8 @@ class DefaultGraphQlSourceBuilder implements GraphQlSource.Builder {
 	private Consumer<GraphQL.Builder> graphQlConfigurers = (builder) -> {
 	};
 
+	private boolean deferDirective;
+
 
 	@Override
 	public GraphQlSource.Builder schemaResources(Resource... resources) {
@@ -99,6 +102,12 @@ class DefaultGraphQlSourceBuilder implements GraphQlSource.Builder {
 		return this;
 	}
 
+	@Override
+	public GraphQlSource.Builder deferDirective(boolean enabled) {
+		this.deferDirective = enabled;
+		return this;
+	}
+
 	@Override
 	public GraphQlSource build() {
 		TypeDefinitionRegistry registry = this.schemaResources.stream()
@@ -109,6 +118,9 @@ class DefaultGraphQlSourceBuilder implements GraphQlSource.Builder {
 		this.runtimeWiringConfigurers.forEach(configurer -> configurer.configure(runtimeWiringBuilder));
 
 		GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(registry, runtimeWiringBuilder.build());
+		if (this.deferDirective) {
+			schema = addDeferDirective(schema);
+		}
 		schema = applyTypeVisitors(schema);
 
 		GraphQL.Builder builder = GraphQL.newGraphQL(schema);
@@ -136,6 +148,17 @@ class DefaultGraphQlSourceBuilder implements GraphQlSource.Builder {
 		}
 	}
 
+	/**
+	 * Declare the {@code @defer} directive, unless declared in the schema
+	 * resources, to allow clients to defer the results of slow fields.
+	 */
+	private static GraphQLSchema addDeferDirective(GraphQLSchema schema) {
+		if (schema.getDirective(Directives.DeferDirective.getName()) != null) {
+			return schema;
+		}
+		return schema.transform((builder) -> builder.additionalDirective(Directives.DeferDirective));
+	}
+
 	private GraphQLSchema applyTypeVisitors(GraphQLSchema schema) {
 		List<GraphQLTypeVisitor> visitors = new ArrayList<>(this.typeVisitors);
 		visitors.add(ContextDataFetcherDecorator.TYPE_VISITOR);
@@ -57,6 +57,13 @@ public enum ErrorType implements ErrorClassification {
 	 * {@link graphql.schema.DataFetcher} encountered an unexpected condition that
 	 * prevented it from fetching the data value.
 	 */
-	INTERNAL_ERROR;
+	INTERNAL_ERROR,
+
+	/**
+	 * The request, or the fetching of a data value, was not executed because the
+	 * server is temporarily unable to handle it, e.g. due to overload, and may be
+	 * retried later.
+	 */
+	UNAVAILABLE;
 
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import graphql.ExecutionInput;
+import graphql.schema.DataFetchingEnvironment;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Cancellation state for a single request execution, stored in the
+ * {@link graphql.GraphQLContext}. Tracks the futures of pending reactive data
+ * fetchers so that cancelling the execution, e.g. when the client disconnects,
+ * disposes their subscriptions, and data fetchers invoked afterwards fail fast
+ * instead of starting new work.
+ */
+final class ExecutionCancellation {
+
+	private static final String CANCELLATION_KEY = ExecutionCancellation.class.getName();
+
+
+	private final Set<CompletableFuture<?>> pendingFutures = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean cancelled;
+
+
+	/**
+	 * Create an instance and save it in the context of the given input.
+	 * @param executionInput the input for the execution
+	 * @return the created instance
+	 */
+	static ExecutionCancellation register(ExecutionInput executionInput) {
+		ExecutionCancellation cancellation = new ExecutionCancellation();
+		executionInput.getGraphQLContext().put(CANCELLATION_KEY, cancellation);
+		return cancellation;
+	}
+
+	/**
+	 * Return the instance for the current execution, if any.
+	 * @param environment the environment for a data fetcher invocation
+	 * @return the instance, or {@code null} if none was registered
+	 */
+	@Nullable
+	static ExecutionCancellation get(DataFetchingEnvironment environment) {
+		return environment.getGraphQlContext().get(CANCELLATION_KEY);
+	}
+
+
+	boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Track the given future, obtained from {@code Mono#toFuture()}, so that
+	 * it is cancelled, and with it the {@code Mono} subscription, if the
+	 * execution is cancelled before it completes.
+	 * @param future the future to track
+	 * @return the same future
+	 */
+	<T> CompletableFuture<T> track(CompletableFuture<T> future) {
+		if (future.isDone()) {
+			return future;
+		}
+		this.pendingFutures.add(future);
+		future.whenComplete((result, ex) -> this.pendingFutures.remove(future));
+		if (this.cancelled) {
+			future.cancel(true);
+		}
+		return future;
+	}
+
+	/**
+	 * Cancel all pending futures and fail subsequent data fetcher invocations.
+	 */
+	void cancel() {
+		this.cancelled = true;
+		for (CompletableFuture<?> future : this.pendingFutures) {
+			future.cancel(true);
+		}
+	}
+
+}
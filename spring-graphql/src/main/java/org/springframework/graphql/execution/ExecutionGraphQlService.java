@@ -28,6 +28,10 @@ import org.springframework.graphql.RequestInput;
  * {@link GraphQlService} that uses a {@link GraphQlSource} to obtain a
  * {@link GraphQL} instance and perform query execution.
  *
+ * <p>Cancelling the returned {@code Mono}, e.g. when the client disconnects,
+ * cancels pending {@link Mono} and {@link reactor.core.publisher.Flux} data
+ * fetchers, and fails data fetchers that have not been invoked yet.
+ *
  * @author Rossen Stoyanchev
  * @since 1.0.0
  */
@@ -47,7 +51,8 @@ public class ExecutionGraphQlService implements GraphQlService {
 
 		return Mono.deferContextual((contextView) -> {
 			ReactorContextManager.setReactorContext(contextView, executionInput);
-			return Mono.fromFuture(graphQl.executeAsync(executionInput));
+			ExecutionCancellation cancellation = ExecutionCancellation.register(executionInput);
+			return Mono.fromFuture(graphQl.executeAsync(executionInput)).doOnCancel(cancellation::cancel);
 		});
 	}
 
@@ -125,6 +125,18 @@ public interface GraphQlSource {
 		 */
 		Builder configureGraphQl(Consumer<GraphQL.Builder> configurer);
 
+		/**
+		 * Whether to declare the {@code @defer} directive, unless declared in
+		 * the schema resources, to allow clients to defer the results of slow
+		 * fields. Deferred results are sent to HTTP clients that accept
+		 * {@code "multipart/mixed"}, and merged into a single response for
+		 * other clients.
+		 * <p>By default this is {@code false}.
+		 * @param enabled whether to declare the directive
+		 * @return the current builder
+		 */
+		Builder deferDirective(boolean enabled);
+
 		/**
 		 * Build the {@link GraphQlSource}.
 		 * @return the built GraphQlSource
@@ -16,7 +16,8 @@
 
 package org.springframework.graphql.execution;
 
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import graphql.ExecutionInput;
@@ -25,6 +26,7 @@ import graphql.schema.DataFetchingEnvironment;
 import reactor.util.context.Context;
 import reactor.util.context.ContextView;
 
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.lang.Nullable;
 
 /**
@@ -42,11 +44,7 @@ public abstract class ReactorContextManager {
 
 	private static final String CONTEXT_VIEW_KEY = ReactorContextManager.class.getName() + ".CONTEXT_VIEW";
 
-	private static final String THREAD_ID = ReactorContextManager.class.getName() + ".THREAD_ID";
-
-	private static final String THREAD_LOCAL_VALUES_KEY = ReactorContextManager.class.getName() + ".THREAD_VALUES_ACCESSOR";
-
-	private static final String THREAD_LOCAL_ACCESSOR_KEY = ReactorContextManager.class.getName() + ".THREAD_LOCAL_ACCESSOR";
+	private static final String THREAD_LOCAL_SNAPSHOT_KEY = ReactorContextManager.class.getName() + ".THREAD_LOCAL_SNAPSHOT";
 
 	/**
 	 * Save the given Reactor {@link ContextView} in the an {@link ExecutionInput} for
@@ -69,56 +67,160 @@ public abstract class ReactorContextManager {
 	}
 
 	/**
-	 * Use the given accessor to extract ThreadLocal values and save them in a
-	 * sub-map in the given {@link Context}, so those can be restored later
-	 * around the execution of data fetchers and exception resolvers. The accessor
-	 * instance is also saved in the Reactor Context so it can be used to
-	 * actually restore and reset ThreadLocal values.
+	 * Use the given accessor to extract ThreadLocal values and save them in the
+	 * given {@link Context}, so those can be restored later around the execution
+	 * of data fetchers and exception resolvers. The values are saved under a
+	 * single key, as a snapshot with one slot per accessor of a
+	 * {@link ThreadLocalAccessor#composite(List) composite}, and empty slots for
+	 * accessors that did not extract any values.
 	 * @param accessor the accessor to use
 	 * @param context the context to write to if there are ThreadLocal values
 	 * @return a new Reactor {@link ContextView} or the {@code Context} instance
 	 * that was passed in, if there were no ThreadLocal values to extract.
 	 */
+	@SuppressWarnings("unchecked")
 	public static Context extractThreadLocalValues(ThreadLocalAccessor accessor, Context context) {
-		Map<String, Object> valuesMap = new LinkedHashMap<>();
-		accessor.extractValues(valuesMap);
-		if (valuesMap.isEmpty()) {
+		ThreadLocalAccessor[] accessors = (accessor instanceof CompositeThreadLocalAccessor ?
+				((CompositeThreadLocalAccessor) accessor).getAccessors() : null);
+		int slotCount = (accessors != null ? accessors.length : 1);
+		Map<String, Object>[] slotValues = null;
+		Map<String, Object> values = null;
+		for (int i = 0; i < slotCount; i++) {
+			if (values == null) {
+				values = new HashMap<>(4);
+			}
+			(accessors != null ? accessors[i] : accessor).extractValues(values);
+			if (!values.isEmpty()) {
+				if (slotValues == null) {
+					slotValues = new Map[slotCount];
+				}
+				slotValues[i] = values;
+				values = null;
+			}
+		}
+		if (slotValues == null) {
 			return context;
 		}
-		return context.putAll((ContextView) Context.of(
-				THREAD_LOCAL_VALUES_KEY, valuesMap,
-				THREAD_LOCAL_ACCESSOR_KEY, accessor,
-				THREAD_ID, Thread.currentThread().getId()));
+		return context.put(THREAD_LOCAL_SNAPSHOT_KEY, new ThreadLocalSnapshot(accessor, accessors, slotValues));
 	}
 
 	/**
 	 * Look up saved ThreadLocal values and restore them if any are found.
-	 * This is a no-op if invoked on the thread that values were extracted on.
+	 * This is a no-op if the same values are already restored on the current
+	 * thread, e.g. by an outer data fetcher decorator.
 	 * @param contextView the reactor {@link ContextView}
 	 */
 	static void restoreThreadLocalValues(ContextView contextView) {
-		ThreadLocalAccessor accessor = getThreadLocalAccessor(contextView);
-		if (accessor != null) {
-			accessor.restoreValues(contextView.get(THREAD_LOCAL_VALUES_KEY));
+		ThreadLocalSnapshot snapshot = contextView.getOrDefault(THREAD_LOCAL_SNAPSHOT_KEY, null);
+		if (snapshot != null) {
+			snapshot.restore();
 		}
 	}
 
 	/**
 	 * Look up saved ThreadLocal values and remove the ThreadLocal values.
-	 * This is a no-op if invoked on the thread that values were extracted on.
+	 * This is a no-op if it matches a nested
+	 * {@link #restoreThreadLocalValues(ContextView)} that was itself a no-op.
 	 * @param contextView the reactor {@link ContextView}
 	 */
 	static void resetThreadLocalValues(ContextView contextView) {
-		ThreadLocalAccessor accessor = getThreadLocalAccessor(contextView);
-		if (accessor != null) {
-			accessor.resetValues(contextView.get(THREAD_LOCAL_VALUES_KEY));
+		ThreadLocalSnapshot snapshot = contextView.getOrDefault(THREAD_LOCAL_SNAPSHOT_KEY, null);
+		if (snapshot != null) {
+			snapshot.reset();
+		}
+	}
+
+
+	/**
+	 * ThreadLocal values extracted at the start of a request, held in slots
+	 * with the accessor to restore them, saved under a single key in the
+	 * Reactor context.
+	 *
+	 * <p>The snapshot that is currently restored on a thread, and how many
+	 * times it has been restored again while in effect, e.g. by a bulkhead or
+	 * cache decorator inside the context decorator, is tracked in a
+	 * ThreadLocal, so that only the outermost restore and reset on each thread
+	 * invoke the accessors.
+	 */
+	private static final class ThreadLocalSnapshot {
+
+		private static final ThreadLocal<RestoredSnapshot> restoredSnapshotHolder =
+				new NamedThreadLocal<>("Restored ThreadLocal snapshot");
+
+		private final ThreadLocalAccessor accessor;
+
+		@Nullable
+		private final ThreadLocalAccessor[] slotAccessors;
+
+		private final Map<String, Object>[] slotValues;
+
+		ThreadLocalSnapshot(ThreadLocalAccessor accessor, @Nullable ThreadLocalAccessor[] slotAccessors,
+				Map<String, Object>[] slotValues) {
+
+			this.accessor = accessor;
+			this.slotAccessors = slotAccessors;
+			this.slotValues = slotValues;
+		}
+
+		void restore() {
+			RestoredSnapshot restored = restoredSnapshotHolder.get();
+			if (restored != null && restored.snapshot == this) {
+				restored.depth++;
+				return;
+			}
+			if (this.slotAccessors == null) {
+				this.accessor.restoreValues(this.slotValues[0]);
+			}
+			else {
+				for (int i = 0; i < this.slotAccessors.length; i++) {
+					if (this.slotValues[i] != null) {
+						this.slotAccessors[i].restoreValues(this.slotValues[i]);
+					}
+				}
+			}
+			if (restored == null) {
+				restoredSnapshotHolder.set(new RestoredSnapshot(this));
+			}
 		}
+
+		void reset() {
+			RestoredSnapshot restored = restoredSnapshotHolder.get();
+			if (restored != null && restored.snapshot == this) {
+				if (restored.depth > 0) {
+					restored.depth--;
+					return;
+				}
+				restoredSnapshotHolder.remove();
+			}
+			if (this.slotAccessors == null) {
+				this.accessor.resetValues(this.slotValues[0]);
+			}
+			else {
+				for (int i = 0; i < this.slotAccessors.length; i++) {
+					if (this.slotValues[i] != null) {
+						this.slotAccessors[i].resetValues(this.slotValues[i]);
+					}
+				}
+			}
+		}
+
 	}
 
-	@Nullable
-	private static ThreadLocalAccessor getThreadLocalAccessor(ContextView view) {
-		Long id = view.getOrDefault(THREAD_ID, null);
-		return (id != null && id != Thread.currentThread().getId() ? view.get(THREAD_LOCAL_ACCESSOR_KEY) : null);
+
+	/**
+	 * The snapshot restored on the current thread, and the number of nested
+	 * restores of the same snapshot that are still in effect.
+	 */
+	private static final class RestoredSnapshot {
+
+		private final ThreadLocalSnapshot snapshot;
+
+		private int depth;
+
+		RestoredSnapshot(ThreadLocalSnapshot snapshot) {
+			this.snapshot = snapshot;
+		}
+
 	}
 
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.time.Duration;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchemaElement;
+import graphql.schema.GraphQLTypeVisitor;
+import graphql.schema.GraphQLTypeVisitorStub;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Policy for the delivery of the events of a subscription field, for
+ * high-frequency event streams. The policy is applied to the
+ * {@link Publisher} returned by the subscription {@link DataFetcher}, so
+ * events that are dropped are never executed or sent.
+ * {@link #conflate(Duration)} delivers only the latest event per interval,
+ * and keeps only the latest event while the client is slow to consume, so
+ * that clients receive fresh data rather than a backlog.
+ *
+ * <p>Apply to all subscription fields through the {@link #typeVisitor()}:
+ * <pre class="code">
+ * GraphQlSource.builder()
+ *         .typeVisitors(Collections.singletonList(
+ *                 SubscriptionDeliveryPolicy.conflate(Duration.ofMillis(100)).typeVisitor()))
+ *         ...
+ * </pre>
+ * or to individual subscription fields through {@link #decorate(DataFetcher)},
+ * or with {@link org.springframework.graphql.data.method.annotation.SubscriptionDelivery @SubscriptionDelivery}
+ * on a {@code @SubscriptionMapping} method, which takes precedence over a
+ * policy applied through the type visitor.
+ *
+ * @since 1.0.0
+ */
+public abstract class SubscriptionDeliveryPolicy {
+
+	/**
+	 * Create a policy that delivers the latest event of each interval, and
+	 * keeps only the latest event when the client falls behind.
+	 * @param interval the interval to conflate events over
+	 * @return the policy
+	 */
+	public static SubscriptionDeliveryPolicy conflate(Duration interval) {
+		Assert.isTrue(interval.toMillis() > 0, "'interval' must be at least 1 millisecond");
+		return new SubscriptionDeliveryPolicy() {
+
+			@Override
+			public <T> Flux<T> apply(Publisher<T> events) {
+				return Flux.from(events).sample(interval).onBackpressureLatest();
+			}
+		};
+	}
+
+
+	/**
+	 * Apply the policy to the given stream of events.
+	 * @param events the events of a subscription
+	 * @param <T> the type of event
+	 * @return the events to deliver
+	 */
+	public abstract <T> Flux<T> apply(Publisher<T> events);
+
+	/**
+	 * Wrap the given subscription {@code DataFetcher} to apply this policy to
+	 * the {@code Publisher} it returns.
+	 * @param dataFetcher the subscription data fetcher
+	 * @return the decorated data fetcher
+	 */
+	public DataFetcher<?> decorate(DataFetcher<?> dataFetcher) {
+		return new DeliveryPolicyDataFetcher(dataFetcher, this);
+	}
+
+	/**
+	 * Return a {@link GraphQLTypeVisitor} that applies this policy to all
+	 * fields of the "Subscription" type, except for those with a policy
+	 * applied through {@link #decorate(DataFetcher)} already.
+	 * @return the type visitor
+	 */
+	public GraphQLTypeVisitor typeVisitor() {
+		return new GraphQLTypeVisitorStub() {
+
+			@Override
+			public TraversalControl visitGraphQLFieldDefinition(GraphQLFieldDefinition fieldDefinition,
+					TraverserContext<GraphQLSchemaElement> context) {
+
+				GraphQLFieldsContainer parent = (GraphQLFieldsContainer) context.getParentNode();
+				if (!parent.getName().equals("Subscription")) {
+					return TraversalControl.CONTINUE;
+				}
+				GraphQLCodeRegistry.Builder codeRegistry = context.getVarFromParents(GraphQLCodeRegistry.Builder.class);
+				DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(parent, fieldDefinition);
+				if (!(dataFetcher instanceof DeliveryPolicyDataFetcher)) {
+					codeRegistry.dataFetcher(parent, fieldDefinition, decorate(dataFetcher));
+				}
+				return TraversalControl.CONTINUE;
+			}
+		};
+	}
+
+
+	private static final class DeliveryPolicyDataFetcher implements DataFetcher<Object> {
+
+		private final DataFetcher<?> delegate;
+
+		private final SubscriptionDeliveryPolicy policy;
+
+		DeliveryPolicyDataFetcher(DataFetcher<?> delegate, SubscriptionDeliveryPolicy policy) {
+			Assert.notNull(delegate, "'delegate' DataFetcher is required");
+			this.delegate = delegate;
+			this.policy = policy;
+		}
+
+		@Override
+		@Nullable
+		public Object get(DataFetchingEnvironment environment) throws Exception {
+			Object value = this.delegate.get(environment);
+			return (value instanceof Publisher ? this.policy.apply((Publisher<?>) value) : value);
+		}
+
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.rsocket;
+
+import java.util.Map;
+
+import graphql.ExecutionResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.graphql.GraphQlService;
+import org.springframework.graphql.RequestInput;
+import org.springframework.util.Assert;
+
+/**
+ * Handler for GraphQL over RSocket requests, to be invoked from
+ * {@code @MessageMapping} methods of an RSocket {@code @Controller}. Queries
+ * and mutations are handled as request-response interactions through
+ * {@link #handle(Map)}, and subscriptions as request-stream interactions
+ * through {@link #handleSubscription(Map)}. The request payload has the same
+ * structure as the body of a GraphQL over HTTP request, and each response
+ * payload is the {@link ExecutionResult#toSpecification() specification}
+ * form of a result.
+ *
+ * <p>The stream of subscription results is passed on as is, so that the
+ * RSocket request-n demand of the requester is propagated to the
+ * {@code Publisher} of the subscription.
+ *
+ * @since 1.0.0
+ */
+public class GraphQlRSocketHandler {
+
+	private static final Log logger = LogFactory.getLog(GraphQlRSocketHandler.class);
+
+
+	private final GraphQlService graphQlService;
+
+
+	/**
+	 * Create a new instance.
+	 * @param graphQlService the service to execute requests with
+	 */
+	public GraphQlRSocketHandler(GraphQlService graphQlService) {
+		Assert.notNull(graphQlService, "GraphQlService is required");
+		this.graphQlService = graphQlService;
+	}
+
+
+	/**
+	 * Handle a request-response interaction for a query or a mutation.
+	 * @param payload the request payload
+	 * @return the result
+	 */
+	public Mono<Map<String, Object>> handle(Map<String, Object> payload) {
+		return execute(payload).flatMap((result) -> {
+			if (result.getData() instanceof Publisher) {
+				return Mono.error(new IllegalStateException(
+						"Subscriptions must be sent as request-stream, not as request-response"));
+			}
+			return Mono.just(result.toSpecification());
+		});
+	}
+
+	/**
+	 * Handle a request-stream interaction for a subscription. Queries and
+	 * mutations are also supported, and result in a stream of one result.
+	 * @param payload the request payload
+	 * @return the stream of results
+	 */
+	@SuppressWarnings("unchecked")
+	public Flux<Map<String, Object>> handleSubscription(Map<String, Object> payload) {
+		return execute(payload).flatMapMany((result) -> {
+			if (result.getData() instanceof Publisher) {
+				return Flux.from((Publisher<ExecutionResult>) result.getData()).map(ExecutionResult::toSpecification);
+			}
+			return Flux.just(result.toSpecification());
+		});
+	}
+
+	private Mono<ExecutionResult> execute(Map<String, Object> payload) {
+		return Mono.defer(() -> {
+			RequestInput input = new RequestInput(payload);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing: " + input);
+			}
+			return this.graphQlService.execute(input);
+		});
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import org.springframework.util.Assert;
+
+/**
+ * Concurrency limit that adapts to observed request latency, following the
+ * gradient approach: the limit grows while short-term latency stays close to
+ * the long-term baseline, and shrinks in proportion as latency rises above it,
+ * which indicates that requests are queueing somewhere downstream.
+ */
+final class AdaptiveConcurrencyLimit {
+
+	private static final double SMOOTHING = 0.2;
+
+	private static final int SHORT_WINDOW = 10;
+
+	private static final int LONG_WINDOW = 600;
+
+
+	private volatile int minLimit = 1;
+
+	private final int maxLimit;
+
+	private final ExponentialAverage shortRtt = new ExponentialAverage(SHORT_WINDOW);
+
+	private final ExponentialAverage longRtt = new ExponentialAverage(LONG_WINDOW);
+
+	private double estimatedLimit;
+
+	private volatile int limit;
+
+
+	AdaptiveConcurrencyLimit(int initialLimit, int maxLimit) {
+		Assert.isTrue(initialLimit > 0, "'initialLimit' must be greater than 0");
+		Assert.isTrue(maxLimit >= initialLimit, "'maxLimit' must not be less than 'initialLimit'");
+		this.maxLimit = maxLimit;
+		this.estimatedLimit = initialLimit;
+		this.limit = initialLimit;
+	}
+
+
+	void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0 && minLimit <= this.maxLimit, "'minLimit' must be between 1 and 'maxLimit'");
+		this.minLimit = minLimit;
+	}
+
+	int getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * Update the limit with the latency of a completed request.
+	 * @param rttNanos the request latency
+	 * @param inFlight the number of requests in flight when the request completed
+	 */
+	synchronized void onSample(long rttNanos, int inFlight) {
+		long sample = Math.max(1, rttNanos);
+		double shortValue = this.shortRtt.add(sample);
+		double longValue = this.longRtt.add(sample);
+
+		// Let the baseline recover quickly after a sustained drop in latency
+		if (longValue / shortValue > 2) {
+			this.longRtt.set(longValue * 0.95);
+		}
+
+		// Too few requests to tell anything about the limit
+		if (inFlight < this.estimatedLimit / 2) {
+			return;
+		}
+
+		double gradient = Math.max(0.5, Math.min(1.0, longValue / shortValue));
+		double newLimit = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+		newLimit = this.estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+		this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+		this.limit = (int) this.estimatedLimit;
+	}
+
+
+	/**
+	 * Exponential moving average that uses a plain average until the window
+	 * has filled up.
+	 */
+	private static final class ExponentialAverage {
+
+		private final int window;
+
+		private final double factor;
+
+		private int count;
+
+		private double value;
+
+		ExponentialAverage(int window) {
+			this.window = window;
+			this.factor = 2.0 / (window + 1);
+		}
+
+		double add(double sample) {
+			if (this.count < this.window) {
+				this.count++;
+				this.value += (sample - this.value) / this.count;
+			}
+			else {
+				this.value = this.value * (1 - this.factor) + sample * this.factor;
+			}
+			return this.value;
+		}
+
+		void set(double value) {
+			this.value = value;
+		}
+
+	}
+
+}
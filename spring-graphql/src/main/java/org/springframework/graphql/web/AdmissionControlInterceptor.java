@@ -0,0 +1,449 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.language.OperationDefinition;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link WebInterceptor} that limits the number of concurrently executing
+ * requests, so that under overload excess requests are rejected early instead
+ * of all requests slowing down together. It should be the first interceptor
+ * in the chain.
+ *
+ * <p>The concurrency limit adapts to observed request latency, within the
+ * configured range: it grows while latency is stable, and shrinks as latency
+ * rises above its long-term baseline. Subscriptions do not contribute latency
+ * samples, since their response is only the start of a stream. Requests over
+ * the limit wait in a bounded queue for up to a maximum wait time. Rejected
+ * requests complete without execution, with an {@link ErrorType#UNAVAILABLE}
+ * error, {@code "retryable": true} in the error extensions, a 503 status by
+ * default, and a {@code Retry-After} header.
+ *
+ * <p>Each request is assigned a {@link Priority}. Requests with a lower
+ * priority may use only part of the limit, leaving headroom for higher
+ * priority requests, are dequeued last, and are the first to be dropped from
+ * a full queue. By default, mutations are {@link Priority#HIGH high}
+ * priority, introspection queries are {@link Priority#LOW low} priority, and
+ * all other requests are {@link Priority#NORMAL normal} priority, based on the
+ * operation selected by the operation name of the request. Use
+ * {@link #setPriorityResolver(Function)} for a different classification.
+ *
+ * @since 1.0.0
+ */
+public class AdmissionControlInterceptor implements WebInterceptor {
+
+	private static final Priority[] PRIORITIES = Priority.values();
+
+	private static final int WAITING = 0;
+
+	private static final int GRANTED = 1;
+
+	private static final int CANCELLED = 2;
+
+
+	private final AdaptiveConcurrencyLimit limit;
+
+	private final int maxQueueSize;
+
+	private final Duration maxWaitTime;
+
+	private final Deque<Waiter>[] queues;
+
+	private int queuedCount;
+
+	private int inFlightCount;
+
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	private Function<WebInput, Priority> priorityResolver = AdmissionControlInterceptor::resolvePriority;
+
+	private HttpStatus rejectionStatus = HttpStatus.SERVICE_UNAVAILABLE;
+
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+
+	/**
+	 * Create an instance.
+	 * @param initialLimit the initial number of concurrent requests
+	 * @param maxLimit the maximum the limit can grow to
+	 * @param maxQueueSize the maximum number of requests that can wait for
+	 * admission, or 0 to reject immediately when the limit is reached
+	 * @param maxWaitTime how long a request can wait for admission
+	 */
+	@SuppressWarnings("unchecked")
+	public AdmissionControlInterceptor(int initialLimit, int maxLimit, int maxQueueSize, Duration maxWaitTime) {
+		Assert.isTrue(maxQueueSize >= 0, "'maxQueueSize' must not be negative");
+		Assert.notNull(maxWaitTime, "'maxWaitTime' is required");
+		this.limit = new AdaptiveConcurrencyLimit(initialLimit, maxLimit);
+		this.maxQueueSize = (maxWaitTime.isZero() ? 0 : maxQueueSize);
+		this.maxWaitTime = maxWaitTime;
+		this.queues = new Deque[PRIORITIES.length];
+		for (int i = 0; i < this.queues.length; i++) {
+			this.queues[i] = new ArrayDeque<>();
+		}
+	}
+
+
+	/**
+	 * Set the minimum the limit can shrink to.
+	 * <p>By default this is 1.
+	 * @param minLimit the minimum limit
+	 */
+	public void setMinLimit(int minLimit) {
+		this.limit.setMinLimit(minLimit);
+	}
+
+	/**
+	 * Configure how to determine the priority of a request.
+	 * @param priorityResolver the function to use
+	 */
+	public void setPriorityResolver(Function<WebInput, Priority> priorityResolver) {
+		Assert.notNull(priorityResolver, "'priorityResolver' is required");
+		this.priorityResolver = priorityResolver;
+	}
+
+	/**
+	 * Set the HTTP status for rejected requests.
+	 * <p>By default this is 503 (Service Unavailable).
+	 * @param rejectionStatus the status to use, e.g. 429 (Too Many Requests)
+	 */
+	public void setRejectionStatus(HttpStatus rejectionStatus) {
+		Assert.notNull(rejectionStatus, "'rejectionStatus' is required");
+		this.rejectionStatus = rejectionStatus;
+	}
+
+	/**
+	 * Set the delay to suggest to clients in the {@code Retry-After} header of
+	 * rejected requests.
+	 * <p>By default this is 1 second.
+	 * @param retryAfter the delay to suggest
+	 */
+	public void setRetryAfter(Duration retryAfter) {
+		Assert.notNull(retryAfter, "'retryAfter' is required");
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Return the current concurrency limit.
+	 */
+	public int getLimit() {
+		return this.limit.getLimit();
+	}
+
+	/**
+	 * Return the number of requests currently executing.
+	 */
+	public synchronized int getInFlightCount() {
+		return this.inFlightCount;
+	}
+
+	/**
+	 * Return the number of requests currently waiting for admission.
+	 */
+	public synchronized int getQueuedCount() {
+		return this.queuedCount;
+	}
+
+	/**
+	 * Return the total number of rejected requests.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.get();
+	}
+
+
+	@Override
+	public Mono<WebOutput> intercept(WebInput webInput, WebGraphQlHandler next) {
+		Priority priority = this.priorityResolver.apply(webInput);
+		return acquire(priority)
+				.flatMap((permit) -> {
+					long startNanos = System.nanoTime();
+					return next.handle(webInput)
+							.doOnNext((output) -> {
+								// Subscriptions only set up a stream here, so their latency says nothing of load
+								if (!(output.getData() instanceof Publisher)) {
+									permit.sample(System.nanoTime() - startNanos);
+								}
+							})
+							.doOnError((ex) -> permit.sample(System.nanoTime() - startNanos))
+							.doFinally((signalType) -> permit.release());
+				})
+				.onErrorResume(AdmissionRejectedException.class, (ex) -> Mono.just(rejectedOutput(webInput)));
+	}
+
+	private WebOutput rejectedOutput(WebInput webInput) {
+		GraphQLError error = GraphqlErrorBuilder.newError()
+				.errorType(ErrorType.UNAVAILABLE)
+				.message("Server is overloaded, please retry later")
+				.extensions(Collections.singletonMap("retryable", true))
+				.build();
+		WebOutput output = new WebOutput(webInput, ExecutionResultImpl.newExecutionResult().addError(error).build());
+		return output.transform((builder) -> builder
+				.responseStatus(this.rejectionStatus)
+				.responseHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, this.retryAfter.getSeconds()))));
+	}
+
+	private Mono<Permit> acquire(Priority priority) {
+		Mono<Permit> permitMono = Mono.create((sink) -> acquire(sink, priority));
+		if (this.maxQueueSize > 0) {
+			permitMono = permitMono.timeout(this.maxWaitTime).onErrorMap(TimeoutException.class, (ex) -> reject());
+		}
+		return permitMono;
+	}
+
+	private void acquire(MonoSink<Permit> sink, Priority priority) {
+		Waiter waiter = null;
+		Waiter evicted = null;
+		boolean granted = false;
+		synchronized (this) {
+			if (canAdmit(priority) && !hasWaitersAtOrAbove(priority)) {
+				this.inFlightCount++;
+				granted = true;
+			}
+			else if (this.maxQueueSize > 0) {
+				if (this.queuedCount >= this.maxQueueSize) {
+					evicted = evictLowerThan(priority);
+				}
+				if (this.queuedCount < this.maxQueueSize) {
+					waiter = new Waiter(sink);
+					this.queues[priority.ordinal()].add(waiter);
+					this.queuedCount++;
+				}
+			}
+		}
+		if (evicted != null) {
+			evicted.sink.error(reject());
+		}
+		if (granted) {
+			sink.success(new Permit());
+		}
+		else if (waiter != null) {
+			Waiter waiterToCancel = waiter;
+			sink.onCancel(() -> cancel(waiterToCancel));
+		}
+		else {
+			sink.error(reject());
+		}
+	}
+
+	private boolean canAdmit(Priority priority) {
+		int limit = Math.max(1, (int) (this.limit.getLimit() * priority.limitFraction));
+		return (this.inFlightCount < limit);
+	}
+
+	private boolean hasWaitersAtOrAbove(Priority priority) {
+		for (int i = 0; i <= priority.ordinal(); i++) {
+			if (!this.queues[i].isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Nullable
+	private Waiter evictLowerThan(Priority priority) {
+		for (int i = this.queues.length - 1; i > priority.ordinal(); i--) {
+			Waiter waiter;
+			while ((waiter = this.queues[i].pollLast()) != null) {
+				this.queuedCount--;
+				if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+					return waiter;
+				}
+			}
+		}
+		return null;
+	}
+
+	private AdmissionRejectedException reject() {
+		this.rejectedCount.incrementAndGet();
+		return new AdmissionRejectedException();
+	}
+
+	private void cancel(Waiter waiter) {
+		if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+			synchronized (this) {
+				for (Deque<Waiter> queue : this.queues) {
+					if (queue.remove(waiter)) {
+						this.queuedCount--;
+						break;
+					}
+				}
+			}
+		}
+		else {
+			Permit permit;
+			synchronized (this) {
+				permit = waiter.permit;
+			}
+			if (permit != null) {
+				// Permit granted, but the subscriber is no longer interested
+				permit.release();
+			}
+		}
+	}
+
+	private void release() {
+		List<Waiter> granted = null;
+		synchronized (this) {
+			this.inFlightCount--;
+			for (int i = 0; i < this.queues.length; i++) {
+				Priority priority = PRIORITIES[i];
+				Deque<Waiter> queue = this.queues[i];
+				while (!queue.isEmpty() && canAdmit(priority)) {
+					Waiter next = queue.poll();
+					this.queuedCount--;
+					if (next.state.compareAndSet(WAITING, GRANTED)) {
+						this.inFlightCount++;
+						next.permit = new Permit();
+						granted = (granted != null ? granted : new ArrayList<>(1));
+						granted.add(next);
+					}
+				}
+				if (!queue.isEmpty()) {
+					// Lower priorities may use less of the limit
+					break;
+				}
+			}
+		}
+		if (granted != null) {
+			for (Waiter waiter : granted) {
+				waiter.sink.success(waiter.permit);
+			}
+		}
+	}
+
+	private static Priority resolvePriority(WebInput webInput) {
+		ParsedDocument document = ParsedDocument.parse(webInput.getQuery());
+		OperationDefinition operation = (document != null ? document.getOperation(webInput.getOperationName()) : null);
+		if (operation == null) {
+			// Invalid request, left to execution to reject
+			return Priority.NORMAL;
+		}
+		if (operation.getOperation() == OperationDefinition.Operation.MUTATION) {
+			return Priority.HIGH;
+		}
+		Set<String> fieldNames = document.getRootFieldNames(operation);
+		if (fieldNames.contains("__schema") || fieldNames.contains("__type")) {
+			return Priority.LOW;
+		}
+		return Priority.NORMAL;
+	}
+
+
+	/**
+	 * Admission priority of a request.
+	 */
+	public enum Priority {
+
+		/**
+		 * May use the full limit, e.g. for mutations.
+		 */
+		HIGH(1.0),
+
+		/**
+		 * May use up to 90% of the limit, e.g. for queries.
+		 */
+		NORMAL(0.9),
+
+		/**
+		 * May use up to half of the limit, e.g. for introspection.
+		 */
+		LOW(0.5);
+
+		private final double limitFraction;
+
+		Priority(double limitFraction) {
+			this.limitFraction = limitFraction;
+		}
+
+	}
+
+
+	/**
+	 * Permit for a single request that must be released exactly once.
+	 */
+	private final class Permit {
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		void sample(long rttNanos) {
+			AdmissionControlInterceptor.this.limit.onSample(rttNanos, getInFlightCount());
+		}
+
+		void release() {
+			if (this.released.compareAndSet(false, true)) {
+				AdmissionControlInterceptor.this.release();
+			}
+		}
+
+	}
+
+
+	private static final class Waiter {
+
+		private final MonoSink<Permit> sink;
+
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		@Nullable
+		private Permit permit;
+
+		Waiter(MonoSink<Permit> sink) {
+			this.sink = sink;
+		}
+
+	}
+
+
+	/**
+	 * Raised when a request is rejected.
+	 */
+	@SuppressWarnings("serial")
+	private static class AdmissionRejectedException extends RuntimeException {
+
+		AdmissionRejectedException() {
+			super("Request rejected by admission control", null, false, false);
+		}
+
+	}
+
+}
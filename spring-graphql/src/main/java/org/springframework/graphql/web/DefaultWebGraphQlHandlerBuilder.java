@@ -116,6 +116,12 @@ class DefaultWebGraphQlHandlerBuilder implements WebGraphQlHandler.Builder {
 					ReactorContextManager.extractThreadLocalValues(this.accessor, context));
 		}
 
+		@Override
+		public Mono<WebOutput> handle(Mono<WebInput> inputMono) {
+			return inputMono.flatMap((input) -> this.delegate.handle(input)).contextWrite((context) ->
+					ReactorContextManager.extractThreadLocalValues(this.accessor, context));
+		}
+
 	}
 
 }
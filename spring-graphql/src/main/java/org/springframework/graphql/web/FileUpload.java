@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.nio.file.Path;
+
+import graphql.schema.GraphQLScalarType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+/**
+ * A file uploaded with a GraphQL multipart request, as defined in the
+ * <a href="https://github.com/jaydenseric/graphql-multipart-request-spec">GraphQL
+ * multipart request specification</a>, and bound to a variable of type
+ * {@code Upload}.
+ *
+ * <p>File content is not held in memory by the HTTP handlers. Depending on the
+ * server, parts above a size threshold are stored in temporary files, e.g. the
+ * {@code maxInMemorySize} of the multipart reader for WebFlux, or the
+ * {@code file-size-threshold} of the Servlet multipart configuration for Spring
+ * MVC. The content can be streamed through {@link #getContent()} or moved to
+ * a file through {@link #transferTo(Path)}.
+ *
+ * <p>To use it, declare {@code scalar Upload} in the schema, register
+ * {@link #SCALAR_TYPE} with the {@link graphql.schema.idl.RuntimeWiring}, and
+ * declare a {@code FileUpload} argument in the data fetcher or in an
+ * {@link org.springframework.graphql.data.method.annotation.Argument @Argument}
+ * method parameter.
+ *
+ * @since 1.0.0
+ */
+public interface FileUpload {
+
+	/**
+	 * The {@code Upload} scalar type, which accepts {@code FileUpload} variable
+	 * values only.
+	 */
+	GraphQLScalarType SCALAR_TYPE = GraphQLScalarType.newScalar()
+			.name("Upload")
+			.description("A file uploaded with a GraphQL multipart request")
+			.coercing(new FileUploadCoercing())
+			.build();
+
+
+	/**
+	 * Return the name of the multipart request part.
+	 */
+	String getName();
+
+	/**
+	 * Return the original filename in the client's file system, if available.
+	 */
+	@Nullable
+	String getFilename();
+
+	/**
+	 * Return the content type of the file, if available.
+	 */
+	@Nullable
+	MediaType getContentType();
+
+	/**
+	 * Return the size of the file in bytes, or -1 if not known.
+	 */
+	long getSize();
+
+	/**
+	 * Return the content of the file as a stream of buffers, read on demand.
+	 */
+	Flux<DataBuffer> getContent();
+
+	/**
+	 * Transfer the content of the file to the given destination.
+	 * @param destination the destination file
+	 * @return completion signal, or an error if the transfer failed
+	 */
+	Mono<Void> transferTo(Path destination);
+
+}
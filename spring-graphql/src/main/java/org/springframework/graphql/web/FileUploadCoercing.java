@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+
+/**
+ * {@link Coercing} for the {@code Upload} scalar, which is input-only and
+ * accepts {@link FileUpload} variable values bound from multipart requests.
+ */
+class FileUploadCoercing implements Coercing<FileUpload, Object> {
+
+	@Override
+	public Object serialize(Object dataFetcherResult) {
+		throw new CoercingSerializeException("Upload is an input-only type");
+	}
+
+	@Override
+	public FileUpload parseValue(Object input) {
+		if (input instanceof FileUpload) {
+			return (FileUpload) input;
+		}
+		throw new CoercingParseValueException(
+				"Expected a file from a multipart request but was " + input.getClass().getSimpleName());
+	}
+
+	@Override
+	public FileUpload parseLiteral(Object input) {
+		throw new CoercingParseLiteralException("Upload must be provided through a variable");
+	}
+
+}
@@ -0,0 +1,728 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Streaming parser for the JSON body of a GraphQL over HTTP request that reads
+ * the "query", "operationName", and "variables" entries directly, without
+ * first decoding the body to a generic {@code Map}. Limits on the size of the
+ * body, the length of the query, the length of the variables, and the nesting
+ * depth are enforced while reading, so that oversized or deeply nested input
+ * is rejected as soon as a limit is exceeded.
+ *
+ * <p>The "variables" object is validated and kept as raw JSON, and is only
+ * parsed when first accessed, typically when the request is executed. Other
+ * top-level entries are validated and skipped. Numbers are read as
+ * {@link Integer}, {@link Long}, {@link BigInteger}, or {@link Double},
+ * in line with a generic JSON {@code Map} decoder.
+ *
+ * <p>The parser reads from an {@link InputStream}, and is used to read the
+ * Servlet request body in Spring MVC. WebFlux handlers read the body with
+ * the configured JSON codecs instead, which decode it one buffer at a time,
+ * within the codecs' {@code maxInMemorySize} limit.
+ *
+ * @since 1.0.0
+ */
+public class GraphQlRequestParser {
+
+	/**
+	 * Default maximum size of the request body in bytes, the same as the
+	 * default {@code maxInMemorySize} of WebFlux codecs.
+	 */
+	public static final int DEFAULT_MAX_BODY_SIZE = 256 * 1024;
+
+	/**
+	 * Default maximum length of the query in characters.
+	 */
+	public static final int DEFAULT_MAX_QUERY_LENGTH = 256 * 1024;
+
+	/**
+	 * Default maximum length of the variables JSON in characters.
+	 */
+	public static final int DEFAULT_MAX_VARIABLES_LENGTH = 256 * 1024;
+
+	/**
+	 * Default maximum nesting depth of JSON objects and arrays.
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 64;
+
+	// Avoid expensive BigInteger parsing of very long numbers
+	private static final int MAX_NUMBER_LENGTH = 1000;
+
+
+	private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+	private int maxQueryLength = DEFAULT_MAX_QUERY_LENGTH;
+
+	private int maxVariablesLength = DEFAULT_MAX_VARIABLES_LENGTH;
+
+	private int maxDepth = DEFAULT_MAX_DEPTH;
+
+
+	/**
+	 * Configure the maximum size of the request body in bytes. Requests with a
+	 * larger body are rejected with a 413 status.
+	 * <p>By default this is set to {@link #DEFAULT_MAX_BODY_SIZE}.
+	 * @param maxBodySize the maximum body size in bytes
+	 */
+	public void setMaxBodySize(int maxBodySize) {
+		Assert.isTrue(maxBodySize > 0, "'maxBodySize' must be greater than 0");
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Return the configured maximum body size in bytes.
+	 * @return the maximum body size
+	 */
+	public int getMaxBodySize() {
+		return this.maxBodySize;
+	}
+
+	/**
+	 * Configure the maximum length of the "query" in characters.
+	 * <p>By default this is set to {@link #DEFAULT_MAX_QUERY_LENGTH}.
+	 * @param maxQueryLength the maximum query length
+	 */
+	public void setMaxQueryLength(int maxQueryLength) {
+		Assert.isTrue(maxQueryLength > 0, "'maxQueryLength' must be greater than 0");
+		this.maxQueryLength = maxQueryLength;
+	}
+
+	/**
+	 * Return the configured maximum query length in characters.
+	 * @return the maximum query length
+	 */
+	public int getMaxQueryLength() {
+		return this.maxQueryLength;
+	}
+
+	/**
+	 * Configure the maximum length of the "variables" JSON in characters.
+	 * <p>By default this is set to {@link #DEFAULT_MAX_VARIABLES_LENGTH}.
+	 * @param maxVariablesLength the maximum variables length
+	 */
+	public void setMaxVariablesLength(int maxVariablesLength) {
+		Assert.isTrue(maxVariablesLength > 0, "'maxVariablesLength' must be greater than 0");
+		this.maxVariablesLength = maxVariablesLength;
+	}
+
+	/**
+	 * Return the configured maximum variables length in characters.
+	 * @return the maximum variables length
+	 */
+	public int getMaxVariablesLength() {
+		return this.maxVariablesLength;
+	}
+
+	/**
+	 * Configure the maximum nesting depth of JSON objects and arrays in the
+	 * body, including the top-level object.
+	 * <p>By default this is set to {@link #DEFAULT_MAX_DEPTH}.
+	 * @param maxDepth the maximum nesting depth
+	 */
+	public void setMaxDepth(int maxDepth) {
+		Assert.isTrue(maxDepth > 0, "'maxDepth' must be greater than 0");
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Return the configured maximum nesting depth.
+	 * @return the maximum nesting depth
+	 */
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+
+	/**
+	 * Parse a UTF-8 encoded request body, enforcing the maximum body size.
+	 * @param body the request body
+	 * @return a map with the "query", "operationName", and "variables" of the
+	 * request, for use with {@link WebInput}
+	 * @throws IOException in case of I/O errors while reading
+	 * @throws ServerWebInputException if the body is not valid JSON, or
+	 * exceeds the query length, variables length, or depth limits
+	 * @throws ResponseStatusException with status 413 if the body exceeds the
+	 * maximum size
+	 */
+	public Map<String, Object> parse(InputStream body) throws IOException {
+		InputStream limitedBody = new SizeLimitingInputStream(body, this.maxBodySize);
+		return parse(new InputStreamReader(limitedBody, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Variant of {@link #parse(InputStream)} for a body that has already been
+	 * decoded to characters, and is not checked for the maximum body size.
+	 * @param body the request body
+	 * @return a map with the "query", "operationName", and "variables" of the
+	 * request, for use with {@link WebInput}
+	 * @throws IOException in case of I/O errors while reading
+	 * @throws ServerWebInputException if the body is not valid JSON, or
+	 * exceeds the query length, variables length, or depth limits
+	 */
+	public Map<String, Object> parse(Reader body) throws IOException {
+		JsonReader reader = new JsonReader(body, this.maxDepth);
+		Map<String, Object> result = new LinkedHashMap<>(4);
+		reader.beginObject();
+		if (!reader.endObject()) {
+			do {
+				String name = reader.readString(this.maxQueryLength, "Entry name");
+				reader.expect(':');
+				switch (name) {
+					case "query":
+						result.put(name, reader.readNullableString(this.maxQueryLength, "Query"));
+						break;
+					case "operationName":
+						result.put(name, reader.readNullableString(this.maxQueryLength, "Operation name"));
+						break;
+					case "variables":
+						result.put(name, readVariables(reader));
+						break;
+					default:
+						reader.skipValue();
+				}
+			}
+			while (reader.nextEntry());
+		}
+		reader.endDocument();
+		return result;
+	}
+
+	@Nullable
+	private Map<String, Object> readVariables(JsonReader reader) throws IOException {
+		int c = reader.peekToken();
+		if (c == 'n') {
+			reader.readLiteral("null", null);
+			return null;
+		}
+		if (c != '{') {
+			throw new ServerWebInputException("Variables must be a JSON object");
+		}
+		String json = reader.captureValue(this.maxVariablesLength, "Variables");
+		return new LazyVariablesMap(json, this.maxDepth);
+	}
+
+
+	/**
+	 * {@code InputStream} that rejects content beyond the maximum body size.
+	 */
+	private static class SizeLimitingInputStream extends InputStream {
+
+		private final InputStream delegate;
+
+		private final int maxSize;
+
+		private int count;
+
+		SizeLimitingInputStream(InputStream delegate, int maxSize) {
+			this.delegate = delegate;
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = this.delegate.read();
+			if (b != -1) {
+				checkSize(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			int read = this.delegate.read(bytes, offset, length);
+			if (read > 0) {
+				checkSize(read);
+			}
+			return read;
+		}
+
+		private void checkSize(int read) {
+			this.count += read;
+			if (this.count > this.maxSize) {
+				throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+						"Request body exceeds the limit of " + this.maxSize + " bytes");
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.delegate.close();
+		}
+
+	}
+
+
+	/**
+	 * Variables map that holds the raw JSON of the "variables" object, and
+	 * parses it on first access.
+	 */
+	private static final class LazyVariablesMap extends AbstractMap<String, Object> {
+
+		private final String json;
+
+		private final int maxDepth;
+
+		@Nullable
+		private volatile Map<String, Object> variables;
+
+		LazyVariablesMap(String json, int maxDepth) {
+			this.json = json;
+			this.maxDepth = maxDepth;
+		}
+
+		private Map<String, Object> getVariables() {
+			Map<String, Object> variables = this.variables;
+			if (variables == null) {
+				synchronized (this) {
+					variables = this.variables;
+					if (variables == null) {
+						variables = parseVariables();
+						this.variables = variables;
+					}
+				}
+			}
+			return variables;
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<String, Object> parseVariables() {
+			try {
+				JsonReader reader = new JsonReader(new StringReader(this.json), this.maxDepth);
+				Map<String, Object> variables = (Map<String, Object>) reader.readValue();
+				reader.endDocument();
+				return variables;
+			}
+			catch (IOException ex) {
+				// Not expected with a StringReader, and the JSON was validated when captured
+				throw new IllegalStateException("Failed to parse variables", ex);
+			}
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return getVariables().entrySet();
+		}
+
+		@Override
+		public int size() {
+			return getVariables().size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return getVariables().containsKey(key);
+		}
+
+		@Override
+		public Object get(Object key) {
+			return getVariables().get(key);
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return getVariables().put(key, value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			return getVariables().remove(key);
+		}
+
+	}
+
+
+	/**
+	 * Minimal pull-based JSON reader that enforces a nesting depth limit, and
+	 * can either materialize values, skip them, or capture their raw text.
+	 */
+	private static final class JsonReader {
+
+		private final Reader reader;
+
+		private final int maxDepth;
+
+		private final char[] buffer = new char[8192];
+
+		private int position;
+
+		private int limit;
+
+		private int depth;
+
+		@Nullable
+		private StringBuilder capture;
+
+		private int maxCaptureLength;
+
+		@Nullable
+		private String captureName;
+
+		JsonReader(Reader reader, int maxDepth) {
+			this.reader = reader;
+			this.maxDepth = maxDepth;
+		}
+
+		// Character level
+
+		private int peek() throws IOException {
+			if (this.position == this.limit) {
+				this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+				this.position = 0;
+				if (this.limit <= 0) {
+					this.limit = 0;
+					return -1;
+				}
+			}
+			return this.buffer[this.position];
+		}
+
+		private int read() throws IOException {
+			int c = peek();
+			if (c != -1) {
+				this.position++;
+				if (this.capture != null) {
+					if (this.capture.length() == this.maxCaptureLength) {
+						throw new ServerWebInputException(
+								this.captureName + " exceed the limit of " + this.maxCaptureLength + " characters");
+					}
+					this.capture.append((char) c);
+				}
+			}
+			return c;
+		}
+
+		int peekToken() throws IOException {
+			int c = peek();
+			while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+				read();
+				c = peek();
+			}
+			return c;
+		}
+
+		private int readToken() throws IOException {
+			peekToken();
+			return read();
+		}
+
+		void expect(char expected) throws IOException {
+			int c = readToken();
+			if (c != expected) {
+				throw syntaxError("Expected '" + expected + "'", c);
+			}
+		}
+
+		// Structure
+
+		void beginObject() throws IOException {
+			expect('{');
+			enter();
+		}
+
+		/**
+		 * Consume the closing brace of an object if it is next.
+		 */
+		boolean endObject() throws IOException {
+			if (peekToken() == '}') {
+				read();
+				this.depth--;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Consume the separator after an object entry, returning {@code true}
+		 * if another entry follows, or {@code false} at the end of the object.
+		 */
+		boolean nextEntry() throws IOException {
+			int c = readToken();
+			if (c == ',') {
+				return true;
+			}
+			if (c == '}') {
+				this.depth--;
+				return false;
+			}
+			throw syntaxError("Expected ',' or '}'", c);
+		}
+
+		void endDocument() throws IOException {
+			int c = readToken();
+			if (c != -1) {
+				throw syntaxError("Unexpected content after JSON value", c);
+			}
+		}
+
+		private void enter() {
+			if (++this.depth > this.maxDepth) {
+				throw new ServerWebInputException("JSON nesting exceeds the maximum depth of " + this.maxDepth);
+			}
+		}
+
+		// Values
+
+		/**
+		 * Read the next value, and capture its raw JSON text.
+		 */
+		String captureValue(int maxLength, String name) throws IOException {
+			peekToken();
+			this.capture = new StringBuilder(Math.min(maxLength, 256));
+			this.maxCaptureLength = maxLength;
+			this.captureName = name;
+			try {
+				skipValue();
+				return this.capture.toString();
+			}
+			finally {
+				this.capture = null;
+			}
+		}
+
+		void skipValue() throws IOException {
+			readValue(false);
+		}
+
+		@Nullable
+		Object readValue() throws IOException {
+			return readValue(true);
+		}
+
+		@Nullable
+		String readNullableString(int maxLength, String name) throws IOException {
+			int c = peekToken();
+			if (c == 'n') {
+				readLiteral("null", null);
+				return null;
+			}
+			if (c != '"') {
+				throw new ServerWebInputException(name + " must be a string");
+			}
+			return readString(maxLength, name);
+		}
+
+		String readString(int maxLength, String name) throws IOException {
+			expect('"');
+			StringBuilder builder = new StringBuilder(Math.min(maxLength, 64));
+			while (true) {
+				int c = read();
+				if (c == '"') {
+					return builder.toString();
+				}
+				if (c == -1) {
+					throw syntaxError("Unterminated string", c);
+				}
+				if (c < 0x20) {
+					throw syntaxError("Unescaped control character in string", c);
+				}
+				if (c == '\\') {
+					c = readEscape();
+				}
+				if (builder.length() == maxLength) {
+					throw new ServerWebInputException(name + " exceeds the limit of " + maxLength + " characters");
+				}
+				builder.append((char) c);
+			}
+		}
+
+		private char readEscape() throws IOException {
+			int c = read();
+			switch (c) {
+				case '"':
+				case '\\':
+				case '/':
+					return (char) c;
+				case 'b':
+					return '\b';
+				case 'f':
+					return '\f';
+				case 'n':
+					return '\n';
+				case 'r':
+					return '\r';
+				case 't':
+					return '\t';
+				case 'u':
+					int value = 0;
+					for (int i = 0; i < 4; i++) {
+						int digit = Character.digit(read(), 16);
+						if (digit == -1) {
+							throw new ServerWebInputException("Invalid JSON: malformed unicode escape");
+						}
+						value = (value << 4) + digit;
+					}
+					return (char) value;
+				default:
+					throw syntaxError("Invalid escape sequence", c);
+			}
+		}
+
+		@Nullable
+		private Object readValue(boolean materialize) throws IOException {
+			int c = peekToken();
+			switch (c) {
+				case '{':
+					return readObject(materialize);
+				case '[':
+					return readArray(materialize);
+				case '"':
+					String value = readString(Integer.MAX_VALUE, "String");
+					return (materialize ? value : null);
+				case 't':
+					return readLiteral("true", Boolean.TRUE);
+				case 'f':
+					return readLiteral("false", Boolean.FALSE);
+				case 'n':
+					return readLiteral("null", null);
+				default:
+					if (c == '-' || (c >= '0' && c <= '9')) {
+						return readNumber(materialize);
+					}
+					throw syntaxError("Unexpected character", c);
+			}
+		}
+
+		@Nullable
+		private Map<String, Object> readObject(boolean materialize) throws IOException {
+			beginObject();
+			Map<String, Object> map = (materialize ? new LinkedHashMap<>() : null);
+			if (endObject()) {
+				return (materialize ? map : null);
+			}
+			do {
+				String key = readString(Integer.MAX_VALUE, "Entry name");
+				expect(':');
+				Object value = readValue(materialize);
+				if (map != null) {
+					map.put(key, value);
+				}
+			}
+			while (nextEntry());
+			return map;
+		}
+
+		@Nullable
+		private List<Object> readArray(boolean materialize) throws IOException {
+			expect('[');
+			enter();
+			List<Object> list = (materialize ? new ArrayList<>() : null);
+			if (peekToken() == ']') {
+				read();
+				this.depth--;
+				return list;
+			}
+			while (true) {
+				Object value = readValue(materialize);
+				if (list != null) {
+					list.add(value);
+				}
+				int c = readToken();
+				if (c == ']') {
+					this.depth--;
+					return list;
+				}
+				if (c != ',') {
+					throw syntaxError("Expected ',' or ']'", c);
+				}
+			}
+		}
+
+		@Nullable
+		Object readLiteral(String literal, @Nullable Object value) throws IOException {
+			for (int i = 0; i < literal.length(); i++) {
+				int c = read();
+				if (c != literal.charAt(i)) {
+					throw syntaxError("Invalid literal", c);
+				}
+			}
+			return value;
+		}
+
+		@Nullable
+		private Object readNumber(boolean materialize) throws IOException {
+			StringBuilder builder = new StringBuilder();
+			boolean decimal = false;
+			int c = peek();
+			while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+				if (builder.length() == MAX_NUMBER_LENGTH) {
+					throw new ServerWebInputException(
+							"Number exceeds the limit of " + MAX_NUMBER_LENGTH + " characters");
+				}
+				decimal |= (c == '.' || c == 'e' || c == 'E');
+				builder.append((char) read());
+				c = peek();
+			}
+			String text = builder.toString();
+			try {
+				Object number = (decimal ? parseDecimal(text) : parseInteger(text));
+				return (materialize ? number : null);
+			}
+			catch (NumberFormatException ex) {
+				throw new ServerWebInputException("Invalid JSON: malformed number '" + text + "'");
+			}
+		}
+
+		private static Object parseDecimal(String text) {
+			if (text.startsWith("+") || text.startsWith(".") || text.startsWith("-.")) {
+				throw new NumberFormatException(text);
+			}
+			return Double.parseDouble(text);
+		}
+
+		private static Object parseInteger(String text) {
+			if (text.startsWith("+")) {
+				throw new NumberFormatException(text);
+			}
+			BigInteger value = new BigInteger(text);
+			if (value.bitLength() < 32) {
+				return value.intValue();
+			}
+			if (value.bitLength() < 64) {
+				return value.longValue();
+			}
+			return value;
+		}
+
+		private ServerWebInputException syntaxError(String message, int c) {
+			String found = (c == -1 ? "end of input" : "'" + (char) c + "'");
+			return new ServerWebInputException("Invalid JSON: " + message + ", found " + found);
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.execution.defer.DeferredExecutionResult;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+/**
+ * Support for the incremental delivery of the results of fields marked with
+ * {@code @defer}. graphql-java completes the initial result without deferred
+ * fields, and returns their results as a {@code Publisher} of
+ * {@link DeferredExecutionResult} under the {@link GraphQL#DEFERRED_RESULTS}
+ * extensions key. This class turns those into a sequence of payloads: the
+ * initial result with {@code "hasNext": true}, one payload with the
+ * {@code "path"} and {@code "data"} of each deferred field, and a final
+ * {@code {"hasNext": false}} payload.
+ *
+ * <p>Over HTTP, payloads are written as the parts of a {@code multipart/mixed}
+ * response with boundary {@code "-"}, for clients that accept it. Other clients
+ * receive a single result with the deferred results merged in.
+ *
+ * @since 1.0.0
+ */
+public abstract class IncrementalResults {
+
+	/**
+	 * Content type of an HTTP response with incremental payloads.
+	 */
+	public static final MediaType MULTIPART_MIXED = new MediaType(MediaType.MULTIPART_MIXED,
+			Collections.singletonMap("boundary", "\"-\""));
+
+	private static final byte[] PART_PREFIX =
+			"\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] MULTIPART_END = "\r\n-----\r\n".getBytes(StandardCharsets.UTF_8);
+
+
+	/**
+	 * Whether the given result has deferred results to deliver.
+	 * @param result the result of an execution
+	 */
+	public static boolean hasDeferredResults(ExecutionResult result) {
+		return (getDeferredResults(result) != null);
+	}
+
+	/**
+	 * Whether the given accepted media types include {@code multipart/mixed}.
+	 * This must be listed explicitly, and is not matched by wildcards.
+	 * @param acceptedMediaTypes the media types from the "Accept" header
+	 */
+	public static boolean acceptsMultipartMixed(List<MediaType> acceptedMediaTypes) {
+		for (MediaType mediaType : acceptedMediaTypes) {
+			if (MediaType.MULTIPART_MIXED.equalsTypeAndSubtype(mediaType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the payloads for the given result: just its specification if it
+	 * has no deferred results, or otherwise the initial result followed by
+	 * one payload per deferred result, and a final payload.
+	 * @param result the result of an execution
+	 * @return the payloads to send
+	 */
+	public static Flux<Map<String, Object>> toPayloads(ExecutionResult result) {
+		Map<String, Object> initial = toInitialSpecification(result);
+		Publisher<DeferredExecutionResult> deferredResults = getDeferredResults(result);
+		if (deferredResults == null) {
+			return Flux.just(initial);
+		}
+		initial.put("hasNext", true);
+		Flux<Map<String, Object>> subsequent = Flux.from(deferredResults).map((deferredResult) -> {
+			Map<String, Object> payload = new LinkedHashMap<>(deferredResult.toSpecification());
+			payload.put("path", deferredResult.getPath());
+			payload.put("hasNext", true);
+			return payload;
+		});
+		Map<String, Object> last = Collections.singletonMap("hasNext", false);
+		return Flux.concat(Mono.just(initial), subsequent, Mono.just(last));
+	}
+
+	/**
+	 * Return the specification of the given result, with the data of deferred
+	 * results, if any, merged in once they are all complete.
+	 * @param result the result of an execution
+	 * @return the merged result
+	 */
+	public static Mono<Map<String, Object>> toMergedSpecification(ExecutionResult result) {
+		Map<String, Object> spec = toInitialSpecification(result);
+		Publisher<DeferredExecutionResult> deferredResults = getDeferredResults(result);
+		if (deferredResults == null) {
+			return Mono.just(spec);
+		}
+		return Flux.from(deferredResults)
+				.doOnNext((deferredResult) -> merge(spec, deferredResult))
+				.then(Mono.just(spec));
+	}
+
+	/**
+	 * Return the bytes to write before the JSON of each payload, when written
+	 * as a part of a {@link #MULTIPART_MIXED} response.
+	 */
+	public static byte[] getPartPrefix() {
+		return PART_PREFIX.clone();
+	}
+
+	/**
+	 * Return the bytes to write after the last part of a
+	 * {@link #MULTIPART_MIXED} response.
+	 */
+	public static byte[] getMultipartEnd() {
+		return MULTIPART_END.clone();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static Publisher<DeferredExecutionResult> getDeferredResults(ExecutionResult result) {
+		Map<Object, Object> extensions = result.getExtensions();
+		Object value = (extensions != null ? extensions.get(GraphQL.DEFERRED_RESULTS) : null);
+		return (value instanceof Publisher ? (Publisher<DeferredExecutionResult>) value : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> toInitialSpecification(ExecutionResult result) {
+		Map<String, Object> spec = new LinkedHashMap<>(result.toSpecification());
+		Map<Object, Object> extensions = (Map<Object, Object>) spec.get("extensions");
+		if (extensions != null && extensions.containsKey(GraphQL.DEFERRED_RESULTS)) {
+			extensions = new LinkedHashMap<>(extensions);
+			extensions.remove(GraphQL.DEFERRED_RESULTS);
+			if (extensions.isEmpty()) {
+				spec.remove("extensions");
+			}
+			else {
+				spec.put("extensions", extensions);
+			}
+		}
+		return spec;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void merge(Map<String, Object> spec, DeferredExecutionResult deferredResult) {
+		List<Object> path = deferredResult.getPath();
+		Object parent = spec.get("data");
+		for (int i = 0; i < path.size() - 1 && parent != null; i++) {
+			Object segment = path.get(i);
+			if (parent instanceof Map) {
+				parent = ((Map<Object, Object>) parent).get(segment);
+			}
+			else if (parent instanceof List && segment instanceof Integer) {
+				parent = ((List<Object>) parent).get((Integer) segment);
+			}
+			else {
+				parent = null;
+			}
+		}
+		if (parent instanceof Map && !path.isEmpty()) {
+			((Map<Object, Object>) parent).put(path.get(path.size() - 1), deferredResult.getData());
+		}
+		if (!deferredResult.getErrors().isEmpty()) {
+			List<Object> errors = new ArrayList<>();
+			Object existing = spec.get("errors");
+			if (existing instanceof List) {
+				errors.addAll((List<Object>) existing);
+			}
+			for (GraphQLError error : deferredResult.getErrors()) {
+				errors.add(error.toSpecification());
+			}
+			spec.put("errors", errors);
+		}
+	}
+
+}
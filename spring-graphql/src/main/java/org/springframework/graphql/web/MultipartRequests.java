@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Support for GraphQL multipart requests, as defined in the
+ * <a href="https://github.com/jaydenseric/graphql-multipart-request-spec">GraphQL
+ * multipart request specification</a>, shared by the WebFlux and Spring MVC
+ * HTTP handlers. A multipart request has an "operations" part with the
+ * request body in which file variables are {@code null}, a "map" part that
+ * maps file parts to variable paths, and one part per file.
+ *
+ * @since 1.0.0
+ */
+public abstract class MultipartRequests {
+
+	/**
+	 * Name of the part with the JSON request body.
+	 */
+	public static final String OPERATIONS_PART_NAME = "operations";
+
+	/**
+	 * Name of the part with the JSON map of file part names to variable paths.
+	 */
+	public static final String MAP_PART_NAME = "map";
+
+	private static final String VARIABLES_PREFIX = "variables.";
+
+
+	/**
+	 * Insert the uploaded files into the variables of the given operations,
+	 * at the paths listed for each file part in the given map. Batched
+	 * operations are not supported.
+	 * @param operations the request body from the "operations" part
+	 * @param fileMap the content of the "map" part
+	 * @param fileResolver resolves a file part by name, or returns {@code null}
+	 * @return the request body with file variables populated
+	 * @throws ServerWebInputException if the map does not match the
+	 * operations, or refers to a missing file part
+	 */
+	public static Map<String, Object> bindFiles(Map<String, Object> operations, Map<String, Object> fileMap,
+			Function<String, FileUpload> fileResolver) {
+
+		for (Map.Entry<String, Object> entry : fileMap.entrySet()) {
+			FileUpload file = fileResolver.apply(entry.getKey());
+			if (file == null) {
+				throw new ServerWebInputException("No file part for '" + entry.getKey() + "'");
+			}
+			if (!(entry.getValue() instanceof List)) {
+				throw new ServerWebInputException("Expected a list of paths for '" + entry.getKey() + "'");
+			}
+			for (Object path : (List<?>) entry.getValue()) {
+				bindFile(operations, String.valueOf(path), file);
+			}
+		}
+		return operations;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void bindFile(Map<String, Object> operations, String path, FileUpload file) {
+		if (!path.startsWith(VARIABLES_PREFIX)) {
+			throw new ServerWebInputException("Unsupported file path '" + path + "'");
+		}
+		String[] segments = StringUtils.delimitedListToStringArray(path, ".");
+		Object container = operations;
+		for (int i = 0; i < segments.length - 1; i++) {
+			container = getValue(container, segments[i], path);
+		}
+		String last = segments[segments.length - 1];
+		if (container instanceof Map) {
+			((Map<String, Object>) container).put(last, file);
+		}
+		else if (container instanceof List) {
+			((List<Object>) container).set(parseIndex(last, (List<?>) container, path), file);
+		}
+		else {
+			throw new ServerWebInputException("Invalid file path '" + path + "'");
+		}
+	}
+
+	private static Object getValue(@Nullable Object container, String segment, String path) {
+		Object value = null;
+		if (container instanceof Map) {
+			value = ((Map<?, ?>) container).get(segment);
+		}
+		else if (container instanceof List) {
+			value = ((List<?>) container).get(parseIndex(segment, (List<?>) container, path));
+		}
+		if (value == null) {
+			throw new ServerWebInputException("Invalid file path '" + path + "'");
+		}
+		return value;
+	}
+
+	private static int parseIndex(String segment, List<?> list, String path) {
+		try {
+			int index = Integer.parseInt(segment);
+			if (index >= 0 && index < list.size()) {
+				return index;
+			}
+		}
+		catch (NumberFormatException ex) {
+			// fall through
+		}
+		throw new ServerWebInputException("Invalid file path '" + path + "'");
+	}
+
+}
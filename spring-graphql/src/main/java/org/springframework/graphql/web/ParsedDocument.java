@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.parser.Parser;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Parsed query document, for interceptors that need to inspect a request
+ * before it is executed. Documents are parsed once and kept in a bounded
+ * cache shared by all interceptors, so that, for example, admission control
+ * and response caching parse each distinct query only once.
+ */
+final class ParsedDocument {
+
+	private static final int CACHE_LIMIT = 1024;
+
+	private static final Map<String, ParsedDocument> cache =
+			new LinkedHashMap<String, ParsedDocument>(16, 0.75f, true) {
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, ParsedDocument> eldest) {
+					return (size() > CACHE_LIMIT);
+				}
+			};
+
+
+	private final Document document;
+
+	@Nullable
+	private volatile String normalizedQuery;
+
+
+	private ParsedDocument(Document document) {
+		this.document = document;
+	}
+
+
+	/**
+	 * Return the parsed document for the given query.
+	 * @param query the query document
+	 * @return the parsed document, or {@code null} if the query is invalid, in
+	 * which case request execution reports the error
+	 */
+	@Nullable
+	static ParsedDocument parse(String query) {
+		ParsedDocument document;
+		synchronized (cache) {
+			document = cache.get(query);
+		}
+		if (document != null) {
+			return document;
+		}
+		try {
+			document = new ParsedDocument(new Parser().parseDocument(query));
+		}
+		catch (Exception ex) {
+			return null;
+		}
+		synchronized (cache) {
+			cache.put(query, document);
+		}
+		return document;
+	}
+
+
+	/**
+	 * Return the document printed back from its parsed form, so that
+	 * formatting and comments are not significant.
+	 */
+	String getNormalizedQuery() {
+		String normalizedQuery = this.normalizedQuery;
+		if (normalizedQuery == null) {
+			normalizedQuery = AstPrinter.printAst(this.document);
+			this.normalizedQuery = normalizedQuery;
+		}
+		return normalizedQuery;
+	}
+
+	/**
+	 * Return the operation to execute for the given operation name.
+	 * @param operationName the operation name from the request, if any
+	 * @return the operation, or {@code null} if it cannot be determined
+	 */
+	@Nullable
+	OperationDefinition getOperation(@Nullable String operationName) {
+		List<OperationDefinition> operations = this.document.getDefinitionsOfType(OperationDefinition.class);
+		if (!StringUtils.hasText(operationName)) {
+			return (operations.size() == 1 ? operations.get(0) : null);
+		}
+		for (OperationDefinition operation : operations) {
+			if (operationName.equals(operation.getName())) {
+				return operation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the names of the top-level fields of the given operation,
+	 * including fields selected through fragments.
+	 * @param operation an operation of this document
+	 * @return the field names
+	 */
+	Set<String> getRootFieldNames(OperationDefinition operation) {
+		Set<String> names = new LinkedHashSet<>();
+		collectFieldNames(operation.getSelectionSet(), names, new HashSet<>());
+		return names;
+	}
+
+	private void collectFieldNames(@Nullable SelectionSet selectionSet, Set<String> names,
+			Set<String> visitedFragments) {
+
+		if (selectionSet == null) {
+			return;
+		}
+		for (Selection<?> selection : selectionSet.getSelections()) {
+			if (selection instanceof Field) {
+				names.add(((Field) selection).getName());
+			}
+			else if (selection instanceof InlineFragment) {
+				collectFieldNames(((InlineFragment) selection).getSelectionSet(), names, visitedFragments);
+			}
+			else if (selection instanceof FragmentSpread) {
+				String name = ((FragmentSpread) selection).getName();
+				FragmentDefinition fragment = getFragment(name);
+				if (fragment != null && visitedFragments.add(name)) {
+					collectFieldNames(fragment.getSelectionSet(), names, visitedFragments);
+				}
+			}
+		}
+	}
+
+	@Nullable
+	private FragmentDefinition getFragment(String name) {
+		for (FragmentDefinition fragment : this.document.getDefinitionsOfType(FragmentDefinition.class)) {
+			if (name.equals(fragment.getName())) {
+				return fragment;
+			}
+		}
+		return null;
+	}
+
+}
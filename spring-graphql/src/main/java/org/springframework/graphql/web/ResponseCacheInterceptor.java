@@ -0,0 +1,448 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.language.OperationDefinition;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+
+import org.springframework.graphql.data.method.annotation.InvalidateResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link WebInterceptor} that caches complete responses to query operations,
+ * so that repeated identical queries skip execution entirely.
+ *
+ * <p>The cache key is made up of the normalized query document, i.e. parsed
+ * and printed back so that formatting and comments are not significant, the
+ * operation name, the variables, and a key returned by the
+ * {@link #setCacheKeyResolver(Function) cacheKeyResolver} to distinguish
+ * between users or locales. By default, requests with an "Authorization" or
+ * "Cookie" header are not cached, and other requests are keyed by the
+ * "Accept-Language" header.
+ *
+ * <p>Only responses with data, without errors, and without {@code @defer}
+ * results are cached. The cache is bounded by an estimated size in bytes,
+ * evicting least recently used responses first. Responses are fresh for the
+ * configured time to live, and may then be served stale for an additional
+ * {@link #setStaleWhileRevalidate(Duration) staleWhileRevalidate} period while
+ * the query is executed again in the background. Cached responses do not
+ * include custom {@link WebOutput#getResponseHeaders() response headers}.
+ * Identical queries that miss the cache while one of them is executed wait for
+ * and share its result, rather than being executed concurrently.
+ *
+ * <p>The data of a cached response is shared by all requests that it is served
+ * to, and must be treated as read-only, e.g. by interceptors that follow this
+ * one or that post-process the {@link WebOutput}.
+ *
+ * <p>Cached responses are tagged with the names of the top-level fields of
+ * the query, including fields selected through fragments, and are invalidated
+ * when a mutation that declares one of those tags through
+ * {@link InvalidateResponseCache @InvalidateResponseCache} is performed through
+ * this interceptor, or when {@link #invalidate(String...)} is called. A
+ * response is not cached if one of its tags is invalidated while the query is
+ * executed, since it may reflect data from before the mutation.
+ *
+ * @since 1.0.0
+ */
+public class ResponseCacheInterceptor implements WebInterceptor {
+
+	private static final Log logger = LogFactory.getLog(ResponseCacheInterceptor.class);
+
+	private static final Function<WebInput, Object> DEFAULT_CACHE_KEY_RESOLVER = (webInput) -> {
+		HttpHeaders headers = webInput.getHeaders();
+		if (headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE)) {
+			return null;
+		}
+		String language = headers.getFirst(HttpHeaders.ACCEPT_LANGUAGE);
+		return (language != null ? language : "");
+	};
+
+
+	private final long maxSizeInBytes;
+
+	private final long timeToLiveNanos;
+
+	private long staleWhileRevalidateNanos;
+
+	private Function<WebInput, Object> cacheKeyResolver = DEFAULT_CACHE_KEY_RESOLVER;
+
+	private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long sizeInBytes;
+
+	private final Map<List<Object>, Mono<WebOutput>> executions = new ConcurrentHashMap<>();
+
+	private final Map<String, Long> tagGenerations = new HashMap<>();
+
+	private long generation;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+
+	/**
+	 * Create an instance.
+	 * @param maxSizeInBytes the maximum estimated size of all cached responses
+	 * @param timeToLive how long a cached response remains fresh
+	 */
+	public ResponseCacheInterceptor(long maxSizeInBytes, Duration timeToLive) {
+		Assert.isTrue(maxSizeInBytes > 0, "'maxSizeInBytes' must be greater than 0");
+		Assert.notNull(timeToLive, "'timeToLive' is required");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "'timeToLive' must be greater than 0");
+		this.maxSizeInBytes = maxSizeInBytes;
+		this.timeToLiveNanos = timeToLive.toNanos();
+	}
+
+
+	/**
+	 * Configure how long after it expires a cached response may still be
+	 * served, while the query is executed again in the background to refresh it.
+	 * <p>By default this is {@link Duration#ZERO}.
+	 * @param staleWhileRevalidate the stale period
+	 */
+	public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+		Assert.notNull(staleWhileRevalidate, "'staleWhileRevalidate' is required");
+		Assert.isTrue(!staleWhileRevalidate.isNegative(), "'staleWhileRevalidate' must not be negative");
+		this.staleWhileRevalidateNanos = staleWhileRevalidate.toNanos();
+	}
+
+	/**
+	 * Configure a function to obtain the part of the cache key that identifies
+	 * the principal and locale of the request, or {@code null} if the response
+	 * to the request should not be cached.
+	 * <p>By default, requests with an "Authorization" or "Cookie" header are
+	 * not cached, and other requests are keyed by the "Accept-Language" header.
+	 * @param cacheKeyResolver the function to use
+	 */
+	public void setCacheKeyResolver(Function<WebInput, Object> cacheKeyResolver) {
+		Assert.notNull(cacheKeyResolver, "'cacheKeyResolver' is required");
+		this.cacheKeyResolver = cacheKeyResolver;
+	}
+
+	/**
+	 * Return the estimated size in bytes of all cached responses.
+	 */
+	public long getSizeInBytes() {
+		synchronized (this.entries) {
+			return this.sizeInBytes;
+		}
+	}
+
+	/**
+	 * Return the number of cached responses.
+	 */
+	public int getSize() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * Return the number of requests served from the cache, including stale
+	 * responses.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of cacheable requests that required execution, not
+	 * including requests that shared the result of an execution in progress.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of responses evicted due to the size limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Remove cached responses with any of the given tags, i.e. responses to
+	 * queries with top-level fields of the given names.
+	 * @param tags the tags to invalidate
+	 */
+	public void invalidate(String... tags) {
+		invalidate(Arrays.asList(tags));
+	}
+
+	/**
+	 * Remove all cached responses.
+	 */
+	public void invalidateAll() {
+		synchronized (this.entries) {
+			this.entries.clear();
+			this.sizeInBytes = 0;
+			this.generation++;
+		}
+	}
+
+
+	@Override
+	public Mono<WebOutput> intercept(WebInput webInput, WebGraphQlHandler next) {
+		ParsedDocument document = ParsedDocument.parse(webInput.getQuery());
+		OperationDefinition operation = (document != null ? document.getOperation(webInput.getOperationName()) : null);
+		if (operation == null) {
+			return next.handle(webInput);
+		}
+		if (operation.getOperation() == OperationDefinition.Operation.MUTATION) {
+			return handleMutation(webInput, next);
+		}
+		Object cacheKey = this.cacheKeyResolver.apply(webInput);
+		if (operation.getOperation() != OperationDefinition.Operation.QUERY || cacheKey == null) {
+			return next.handle(webInput);
+		}
+
+		List<Object> key = Arrays.asList(document.getNormalizedQuery(),
+				webInput.getOperationName(), webInput.getVariables(), cacheKey);
+
+		long now = System.nanoTime();
+		Entry entry;
+		boolean revalidate = false;
+		synchronized (this.entries) {
+			entry = this.entries.get(key);
+			if (entry != null && !entry.isFresh(now)) {
+				if (entry.isStale(now)) {
+					revalidate = entry.revalidating.compareAndSet(false, true);
+				}
+				else {
+					removeEntry(key);
+					entry = null;
+				}
+			}
+		}
+
+		if (entry == null) {
+			return Mono.defer(() -> execute(webInput, next, key, document.getRootFieldNames(operation)));
+		}
+
+		this.hitCount.incrementAndGet();
+		ExecutionResult result = entry.result;
+		if (!revalidate) {
+			return Mono.just(new WebOutput(webInput, result));
+		}
+		Entry staleEntry = entry;
+		return Mono.deferContextual((contextView) -> {
+			long[] generations = getGenerations(staleEntry.tags);
+			next.handle(webInput)
+					.contextWrite(contextView)
+					.doFinally((signalType) -> staleEntry.revalidating.set(false))
+					.subscribe(
+							(output) -> put(key, staleEntry.tags, generations, output),
+							(ex) -> {
+								if (logger.isDebugEnabled()) {
+									logger.debug("Failed to revalidate cached response for " + webInput, ex);
+								}
+							});
+			return Mono.just(new WebOutput(webInput, result));
+		});
+	}
+
+	/**
+	 * Execute a query that is not cached, or join an execution of the same
+	 * query that is already in progress, in which case the result is shared
+	 * without custom response headers.
+	 */
+	private Mono<WebOutput> execute(WebInput webInput, WebGraphQlHandler next, List<Object> key, Set<String> tags) {
+		Mono<WebOutput> execution = this.executions.get(key);
+		if (execution != null) {
+			return execution.map((output) -> new WebOutput(webInput, output));
+		}
+		long[] generations = getGenerations(tags);
+		Mono<WebOutput> newExecution = next.handle(webInput)
+				.doOnNext((output) -> put(key, tags, generations, output))
+				.doFinally((signalType) -> this.executions.remove(key))
+				.cache();
+		execution = this.executions.putIfAbsent(key, newExecution);
+		if (execution != null) {
+			return execution.map((output) -> new WebOutput(webInput, output));
+		}
+		this.missCount.incrementAndGet();
+		return newExecution;
+	}
+
+	private Mono<WebOutput> handleMutation(WebInput webInput, WebGraphQlHandler next) {
+		Set<String> invalidatedTags = ConcurrentHashMap.newKeySet();
+		webInput.configureExecutionInput((input, builder) -> builder
+				.graphQLContext(Collections.singletonMap(InvalidateResponseCache.class.getName(), invalidatedTags))
+				.build());
+		return next.handle(webInput).doFinally((signalType) -> invalidate(invalidatedTags));
+	}
+
+	/**
+	 * Return the current generations of the given tags, along with the
+	 * generation of the cache as a whole, to detect invalidations that occur
+	 * while a query is executed.
+	 */
+	private long[] getGenerations(Set<String> tags) {
+		synchronized (this.entries) {
+			return getGenerationsInternal(tags);
+		}
+	}
+
+	private long[] getGenerationsInternal(Set<String> tags) {
+		long[] generations = new long[tags.size() + 1];
+		generations[0] = this.generation;
+		int i = 1;
+		for (String tag : tags) {
+			generations[i++] = this.tagGenerations.getOrDefault(tag, 0L);
+		}
+		return generations;
+	}
+
+	private void put(List<Object> key, Set<String> tags, long[] generations, WebOutput output) {
+		if (!output.getErrors().isEmpty() || !output.isDataPresent() ||
+				IncrementalResults.hasDeferredResults(output)) {
+			return;
+		}
+		ExecutionResult result = ExecutionResultImpl.newExecutionResult()
+				.data(output.getData())
+				.extensions(output.getExtensions())
+				.build();
+		long size = estimateSize(key) + estimateSize(output.getData());
+		if (size > this.maxSizeInBytes) {
+			return;
+		}
+		Entry entry = new Entry(result, tags, size, System.nanoTime());
+		synchronized (this.entries) {
+			if (!Arrays.equals(generations, getGenerationsInternal(tags))) {
+				// Invalidated during execution
+				return;
+			}
+			removeEntry(key);
+			this.entries.put(key, entry);
+			this.sizeInBytes += size;
+			Iterator<Entry> iterator = this.entries.values().iterator();
+			while (this.sizeInBytes > this.maxSizeInBytes && iterator.hasNext()) {
+				this.sizeInBytes -= iterator.next().size;
+				iterator.remove();
+				this.evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	private void removeEntry(List<Object> key) {
+		Entry entry = this.entries.remove(key);
+		if (entry != null) {
+			this.sizeInBytes -= entry.size;
+		}
+	}
+
+	private void invalidate(Collection<String> tags) {
+		if (tags.isEmpty()) {
+			return;
+		}
+		synchronized (this.entries) {
+			for (String tag : tags) {
+				this.tagGenerations.merge(tag, 1L, Long::sum);
+			}
+			Iterator<Entry> iterator = this.entries.values().iterator();
+			while (iterator.hasNext()) {
+				Entry entry = iterator.next();
+				if (!Collections.disjoint(entry.tags, tags)) {
+					this.sizeInBytes -= entry.size;
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Estimate the memory used by a query document, variables, or result data.
+	 */
+	private static long estimateSize(@Nullable Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof CharSequence) {
+			return 40 + 2L * ((CharSequence) value).length();
+		}
+		if (value instanceof Map) {
+			long size = 48;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				size += 32 + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+			}
+			return size;
+		}
+		if (value instanceof Collection) {
+			long size = 40;
+			for (Object element : (Collection<?>) value) {
+				size += 8 + estimateSize(element);
+			}
+			return size;
+		}
+		return 16;
+	}
+
+
+	private class Entry {
+
+		final ExecutionResult result;
+
+		final Set<String> tags;
+
+		final long size;
+
+		final long createTime;
+
+		final AtomicBoolean revalidating = new AtomicBoolean();
+
+		Entry(ExecutionResult result, Set<String> tags, long size, long createTime) {
+			this.result = result;
+			this.tags = tags;
+			this.size = size;
+			this.createTime = createTime;
+		}
+
+		boolean isFresh(long now) {
+			return (now - this.createTime < timeToLiveNanos);
+		}
+
+		boolean isStale(long now) {
+			return (now - this.createTime < timeToLiveNanos + staleWhileRevalidateNanos);
+		}
+
+	}
+
+}
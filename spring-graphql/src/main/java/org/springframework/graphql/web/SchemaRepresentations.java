@@ -0,0 +1,321 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import graphql.ExecutionResult;
+import graphql.introspection.IntrospectionQuery;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaPrinter;
+
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Pre-encoded representations of the schema of a {@link GraphQlSource}, for
+ * use by schema handlers: the schema printed as SDL and the result of the
+ * standard introspection query as JSON.
+ *
+ * <p>Each representation is computed once per {@link GraphQLSchema} instance,
+ * on first use, and is kept both as UTF-8 bytes and gzip compressed, with a
+ * strong ETag for conditional requests. If the {@code GraphQlSource} returns
+ * a different schema, e.g. after a reload, representations are recomputed.
+ *
+ * @since 1.0.0
+ */
+public class SchemaRepresentations {
+
+	/**
+	 * Name of the query parameter that selects the representation to render.
+	 */
+	public static final String FORMAT_PARAMETER = "format";
+
+	/**
+	 * Value of the {@link #FORMAT_PARAMETER} that selects the introspection
+	 * result, e.g. "/graphql/schema?format=introspection".
+	 */
+	public static final String INTROSPECTION_FORMAT = "introspection";
+
+	private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+
+	private final GraphQlSource graphQlSource;
+
+	private final SchemaPrinter printer = new SchemaPrinter();
+
+	@Nullable
+	private volatile SchemaState state;
+
+
+	public SchemaRepresentations(GraphQlSource graphQlSource) {
+		Assert.notNull(graphQlSource, "GraphQlSource is required");
+		this.graphQlSource = graphQlSource;
+	}
+
+
+	/**
+	 * Return the representation to use for the given value of the
+	 * {@link #FORMAT_PARAMETER} query parameter: the introspection result for
+	 * {@link #INTROSPECTION_FORMAT}, or the SDL otherwise.
+	 * @param format the requested format, if any
+	 * @return the representation to render
+	 */
+	public Representation select(@Nullable String format) {
+		return (INTROSPECTION_FORMAT.equals(format) ? getIntrospection() : getSdl());
+	}
+
+	/**
+	 * Return the schema printed as SDL.
+	 */
+	public Representation getSdl() {
+		SchemaState state = getState();
+		Representation sdl = state.sdl;
+		if (sdl == null) {
+			sdl = new Representation(TEXT_PLAIN_UTF8, this.printer.print(state.schema));
+			state.sdl = sdl;
+		}
+		return sdl;
+	}
+
+	/**
+	 * Return the JSON result of the standard introspection query.
+	 */
+	public Representation getIntrospection() {
+		SchemaState state = getState();
+		Representation introspection = state.introspection;
+		if (introspection == null) {
+			ExecutionResult result = this.graphQlSource.graphQl().execute(IntrospectionQuery.INTROSPECTION_QUERY);
+			StringBuilder json = new StringBuilder(64 * 1024);
+			writeJson(result.toSpecification(), json);
+			introspection = new Representation(MediaType.APPLICATION_JSON, json.toString());
+			if (result.getErrors().isEmpty()) {
+				state.introspection = introspection;
+			}
+		}
+		return introspection;
+	}
+
+	private SchemaState getState() {
+		GraphQLSchema schema = this.graphQlSource.schema();
+		SchemaState state = this.state;
+		if (state == null || state.schema != schema) {
+			state = new SchemaState(schema);
+			this.state = state;
+		}
+		return state;
+	}
+
+	/**
+	 * Whether the given "Accept-Encoding" header values accept gzip.
+	 * @param acceptEncoding the "Accept-Encoding" header values
+	 * @return whether the gzip content can be returned
+	 */
+	public static boolean isGzipAccepted(List<String> acceptEncoding) {
+		for (String value : acceptEncoding) {
+			for (String coding : StringUtils.tokenizeToStringArray(value, ",")) {
+				int index = coding.indexOf(';');
+				String name = (index != -1 ? coding.substring(0, index).trim() : coding);
+				if (name.equalsIgnoreCase("gzip") && !coding.replace(" ", "").endsWith(";q=0")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void writeJson(@Nullable Object value, StringBuilder json) {
+		if (value == null) {
+			json.append("null");
+		}
+		else if (value instanceof Map) {
+			json.append('{');
+			Iterator<? extends Map.Entry<?, ?>> iterator = ((Map<?, ?>) value).entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<?, ?> entry = iterator.next();
+				writeString(String.valueOf(entry.getKey()), json);
+				json.append(':');
+				writeJson(entry.getValue(), json);
+				if (iterator.hasNext()) {
+					json.append(',');
+				}
+			}
+			json.append('}');
+		}
+		else if (value instanceof Iterable) {
+			json.append('[');
+			Iterator<?> iterator = ((Iterable<?>) value).iterator();
+			while (iterator.hasNext()) {
+				writeJson(iterator.next(), json);
+				if (iterator.hasNext()) {
+					json.append(',');
+				}
+			}
+			json.append(']');
+		}
+		else if (value instanceof Boolean || value instanceof Number) {
+			json.append(value);
+		}
+		else {
+			writeString(value.toString(), json);
+		}
+	}
+
+	private static void writeString(String value, StringBuilder json) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					json.append("\\\"");
+					break;
+				case '\\':
+					json.append("\\\\");
+					break;
+				case '\n':
+					json.append("\\n");
+					break;
+				case '\r':
+					json.append("\\r");
+					break;
+				case '\t':
+					json.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						json.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						json.append(c);
+					}
+			}
+		}
+		json.append('"');
+	}
+
+
+	/**
+	 * Representations computed for a given schema instance.
+	 */
+	private static class SchemaState {
+
+		private final GraphQLSchema schema;
+
+		@Nullable
+		private volatile Representation sdl;
+
+		@Nullable
+		private volatile Representation introspection;
+
+		SchemaState(GraphQLSchema schema) {
+			this.schema = schema;
+		}
+
+	}
+
+
+	/**
+	 * A pre-encoded representation with its gzip compressed variant and
+	 * their ETags.
+	 */
+	public static final class Representation {
+
+		private final MediaType contentType;
+
+		private final byte[] content;
+
+		private final byte[] gzipContent;
+
+		private final String eTag;
+
+		private final String gzipETag;
+
+		Representation(MediaType contentType, String content) {
+			this.contentType = contentType;
+			this.content = content.getBytes(StandardCharsets.UTF_8);
+			this.gzipContent = gzip(this.content);
+			String hash = DigestUtils.md5DigestAsHex(this.content);
+			this.eTag = "\"" + hash + "\"";
+			this.gzipETag = "\"" + hash + "-gzip\"";
+		}
+
+		private static byte[] gzip(byte[] content) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(content);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to compress schema representation", ex);
+			}
+			return out.toByteArray();
+		}
+
+		/**
+		 * Return the media type of the content.
+		 */
+		public MediaType getContentType() {
+			return this.contentType;
+		}
+
+		/**
+		 * Return the content, or the gzip compressed content.
+		 * @param gzip whether to return the compressed content
+		 */
+		public byte[] getContent(boolean gzip) {
+			return (gzip ? this.gzipContent : this.content);
+		}
+
+		/**
+		 * Return the strong ETag of the content, or of the compressed content.
+		 * @param gzip whether to return the ETag of the compressed content
+		 */
+		public String getETag(boolean gzip) {
+			return (gzip ? this.gzipETag : this.eTag);
+		}
+
+		/**
+		 * Whether the given "If-None-Match" header values match either ETag,
+		 * in which case a {@code 304 Not Modified} response can be returned.
+		 * @param ifNoneMatch the "If-None-Match" header values
+		 */
+		public boolean isNotModified(List<String> ifNoneMatch) {
+			for (String value : ifNoneMatch) {
+				for (String tag : StringUtils.tokenizeToStringArray(value, ",")) {
+					if (tag.startsWith("W/")) {
+						tag = tag.substring(2);
+					}
+					if (tag.equals("*") || tag.equals(this.eTag) || tag.equals(this.gzipETag)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
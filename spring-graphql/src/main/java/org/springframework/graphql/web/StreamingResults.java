@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import graphql.ErrorType;
+import graphql.ExecutionResult;
+import graphql.GraphqlErrorBuilder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Support for transports that stream results as a sequence of events, such
+ * as Server-Sent Events and WebSocket, with the results of a subscription,
+ * or the initial and deferred results of a query or mutation.
+ *
+ * @since 1.0.0
+ */
+public abstract class StreamingResults {
+
+	/**
+	 * Return the results to stream for the given output: each result of a
+	 * subscription, or the initial result and each deferred result, if any,
+	 * of a query or mutation. An error that terminates the results is
+	 * turned into a final result with the error under the {@code "errors"}
+	 * key.
+	 * @param output the output of an execution
+	 * @param overflowPolicy the policy to apply to subscription results, if any
+	 * @return the results to stream
+	 */
+	@SuppressWarnings("unchecked")
+	public static Flux<Map<String, Object>> toResults(
+			WebOutput output, @Nullable SubscriptionOverflowPolicy overflowPolicy) {
+
+		Flux<Map<String, Object>> results;
+		if (output.getData() instanceof Publisher) {
+			// Subscription
+			Flux<ExecutionResult> resultFlux = Flux.from((Publisher<ExecutionResult>) output.getData());
+			if (overflowPolicy != null) {
+				resultFlux = overflowPolicy.apply(resultFlux);
+			}
+			results = resultFlux.map(ExecutionResult::toSpecification);
+		}
+		else {
+			// Single response operation (query or mutation), with a result
+			// for the initial result and each deferred result, if any
+			results = IncrementalResults.toPayloads(output);
+		}
+		return results.onErrorResume((ex) -> {
+			Map<String, Object> result = Collections.singletonMap("errors",
+					Collections.singletonList(toErrorSpecification(ex)));
+			return Mono.just(result);
+		});
+	}
+
+	/**
+	 * Return the specification of a GraphQL error for an exception that
+	 * terminated the results of an execution.
+	 * @param ex the exception
+	 * @return the error specification
+	 */
+	public static Map<String, Object> toErrorSpecification(Throwable ex) {
+		return GraphqlErrorBuilder.newError()
+				.errorType(ErrorType.DataFetchingException)
+				.message(ex.getMessage())
+				.build()
+				.toSpecification();
+	}
+
+	/**
+	 * Merge heartbeats into the given events at the given interval, and end
+	 * the stream with the given complete event after the last event.
+	 * @param events the events to stream
+	 * @param completeEvent the event to send after the last event
+	 * @param heartbeat the event to send as heartbeat
+	 * @param interval the interval between heartbeats
+	 * @param <T> the type of events
+	 * @return the events with heartbeats
+	 */
+	public static <T> Flux<T> withHeartbeats(Flux<T> events, T completeEvent, T heartbeat, Duration interval) {
+		Flux<T> heartbeats = Flux.interval(interval).map((tick) -> heartbeat);
+		// Identity comparison, so that only the terminal event completes the stream
+		return Flux.merge(events.concatWith(Mono.just(completeEvent)), heartbeats)
+				.takeUntil((event) -> event == completeEvent);
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import org.springframework.util.Assert;
+
+/**
+ * Bounds the events buffered for each subscription, between the production
+ * of results and the transport that sends them to a slow client, and decides
+ * what happens when the buffer overflows. Each subscription gets its own
+ * buffer, so one slow client cannot hold an unbounded number of events in
+ * memory.
+ *
+ * <p>When the {@link Strategy#ERROR} strategy overflows, the subscription is
+ * terminated with an error that the WebSocket handlers send to the client as
+ * an {@code "error"} message. Counts of dropped events and of overflowed
+ * subscriptions are available for metrics.
+ *
+ * @since 1.0.0
+ */
+public final class SubscriptionOverflowPolicy {
+
+	private final int maxBufferSize;
+
+	private final Strategy strategy;
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private final AtomicLong overflowCount = new AtomicLong();
+
+
+	/**
+	 * Create a new instance.
+	 * @param maxBufferSize the maximum number of events to buffer per
+	 * subscription, in addition to those requested by the transport
+	 * @param strategy what to do when the buffer is full
+	 */
+	public SubscriptionOverflowPolicy(int maxBufferSize, Strategy strategy) {
+		Assert.isTrue(maxBufferSize > 0, "'maxBufferSize' must be greater than 0");
+		Assert.notNull(strategy, "'strategy' is required");
+		this.maxBufferSize = maxBufferSize;
+		this.strategy = strategy;
+	}
+
+
+	/**
+	 * Return the maximum number of events buffered per subscription.
+	 */
+	public int getMaxBufferSize() {
+		return this.maxBufferSize;
+	}
+
+	/**
+	 * Return the strategy applied when the buffer is full.
+	 */
+	public Strategy getStrategy() {
+		return this.strategy;
+	}
+
+	/**
+	 * Return the total number of events dropped across subscriptions with
+	 * {@link Strategy#DROP_OLDEST} or {@link Strategy#DROP_LATEST}.
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.get();
+	}
+
+	/**
+	 * Return the total number of subscriptions terminated with
+	 * {@link Strategy#ERROR}.
+	 */
+	public long getOverflowCount() {
+		return this.overflowCount.get();
+	}
+
+	/**
+	 * Apply the policy to the stream of results of a subscription.
+	 * @param results the results of a subscription
+	 * @param <T> the type of result
+	 * @return the bounded stream of results
+	 */
+	public <T> Flux<T> apply(Publisher<T> results) {
+		Flux<T> flux = Flux.from(results);
+		switch (this.strategy) {
+			case DROP_OLDEST:
+				return flux.onBackpressureBuffer(this.maxBufferSize,
+						(dropped) -> this.droppedCount.incrementAndGet(), BufferOverflowStrategy.DROP_OLDEST);
+			case DROP_LATEST:
+				return flux.onBackpressureBuffer(this.maxBufferSize,
+						(dropped) -> this.droppedCount.incrementAndGet(), BufferOverflowStrategy.DROP_LATEST);
+			default:
+				return flux.onBackpressureBuffer(this.maxBufferSize,
+						(dropped) -> this.overflowCount.incrementAndGet(), BufferOverflowStrategy.ERROR)
+						.onErrorMap(Exceptions::isOverflow, (ex) -> new IllegalStateException(
+								"Subscription exceeded the maximum of " + this.maxBufferSize +
+										" buffered events, the client is not keeping up", ex));
+		}
+	}
+
+
+	/**
+	 * Strategies for a full subscription buffer.
+	 */
+	public enum Strategy {
+
+		/**
+		 * Drop the oldest buffered event to make room for the new one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Drop the new event, keeping the buffered ones.
+		 */
+		DROP_LATEST,
+
+		/**
+		 * Terminate the subscription with an error.
+		 */
+		ERROR
+
+	}
+
+}
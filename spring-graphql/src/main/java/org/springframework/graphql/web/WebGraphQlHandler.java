@@ -39,6 +39,18 @@ public interface WebGraphQlHandler {
 	 */
 	Mono<WebOutput> handle(WebInput input);
 
+	/**
+	 * Variant of {@link #handle(WebInput)} for input that becomes available
+	 * later, e.g. once the request body has been read on another thread. Any
+	 * ThreadLocal values are extracted when the returned {@code Mono} is
+	 * subscribed to, rather than on the thread that provides the input.
+	 * @param inputMono the GraphQL request input container
+	 * @return the execution result
+	 */
+	default Mono<WebOutput> handle(Mono<WebInput> inputMono) {
+		return inputMono.flatMap((input) -> handle(input));
+	}
+
 	/**
 	 * Provides access to a builder to create a {@link WebGraphQlHandler} instance.
 	 * @param graphQlService the {@link GraphQlService} to use for actual execution of the
@@ -26,6 +26,7 @@ import graphql.ExecutionResultImpl;
 import graphql.GraphQLError;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -46,21 +47,27 @@ public class WebOutput implements ExecutionResult {
 	@Nullable
 	private final HttpHeaders responseHeaders;
 
+	@Nullable
+	private final HttpStatus responseStatus;
+
 	/**
 	 * Create an instance that wraps the given {@link ExecutionResult}.
 	 * @param input the container for the GraphQL input
 	 * @param executionResult the result of performing a graphql query
 	 */
 	public WebOutput(WebInput input, ExecutionResult executionResult) {
-		this(input, executionResult, null);
+		this(input, executionResult, null, null);
 	}
 
-	private WebOutput(WebInput input, ExecutionResult executionResult, @Nullable HttpHeaders responseHeaders) {
+	private WebOutput(WebInput input, ExecutionResult executionResult, @Nullable HttpHeaders responseHeaders,
+			@Nullable HttpStatus responseStatus) {
+
 		Assert.notNull(input, "WebInput is required.");
 		Assert.notNull(executionResult, "ExecutionResult is required.");
 		this.input = input;
 		this.executionResult = executionResult;
 		this.responseHeaders = responseHeaders;
+		this.responseStatus = responseStatus;
 	}
 
 	/**
@@ -108,6 +115,17 @@ public class WebOutput implements ExecutionResult {
 		return (this.responseHeaders != null) ? HttpHeaders.readOnlyHttpHeaders(this.responseHeaders) : null;
 	}
 
+	/**
+	 * Return the status to use for the HTTP response, or {@code null} for the
+	 * default status, which is 200 (OK).
+	 * @return the HTTP response status
+	 * @see Builder#responseStatus(HttpStatus)
+	 */
+	@Nullable
+	public HttpStatus getResponseStatus() {
+		return this.responseStatus;
+	}
+
 	/**
 	 * Transform this {@code WebOutput} instance through a {@link Builder} and return a
 	 * new instance with the modified values.
@@ -138,12 +156,16 @@ public class WebOutput implements ExecutionResult {
 		@Nullable
 		private HttpHeaders headers;
 
+		@Nullable
+		private HttpStatus status;
+
 		private Builder(WebOutput output) {
 			this.input = output.getWebInput();
 			this.data = output.getData();
 			this.errors = output.getErrors();
 			this.extensions = output.getExtensions();
 			this.headers = output.responseHeaders;
+			this.status = output.responseStatus;
 		}
 
 		/**
@@ -213,13 +235,28 @@ public class WebOutput implements ExecutionResult {
 			return this;
 		}
 
+		/**
+		 * Set the status of the HTTP response, e.g. to indicate that the request
+		 * was rejected without being executed.
+		 *
+		 * <p>
+		 * <strong>Note:</strong> This can be used for GraphQL over HTTP requests but has
+		 * no impact for queries over a WebSocket session.
+		 * @param status the HTTP response status
+		 * @return the current builder
+		 */
+		public Builder responseStatus(@Nullable HttpStatus status) {
+			this.status = status;
+			return this;
+		}
+
 		private void initHeaders() {
 			this.headers = (this.headers != null) ? this.headers : new HttpHeaders();
 		}
 
 		public WebOutput build() {
 			ExecutionResult result = new ExecutionResultImpl(this.data, this.errors, this.extensions);
-			return new WebOutput(this.input, result, this.headers);
+			return new WebOutput(this.input, result, this.headers, this.status);
 		}
 
 	}
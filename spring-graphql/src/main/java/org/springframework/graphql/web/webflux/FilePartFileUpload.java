@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webflux;
+
+import java.nio.file.Path;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.graphql.web.FileUpload;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link FileUpload} that delegates to a WebFlux {@link FilePart}.
+ */
+class FilePartFileUpload implements FileUpload {
+
+	private final FilePart part;
+
+	FilePartFileUpload(FilePart part) {
+		this.part = part;
+	}
+
+	@Override
+	public String getName() {
+		return this.part.name();
+	}
+
+	@Override
+	public String getFilename() {
+		return this.part.filename();
+	}
+
+	@Override
+	@Nullable
+	public MediaType getContentType() {
+		return this.part.headers().getContentType();
+	}
+
+	@Override
+	public long getSize() {
+		return this.part.headers().getContentLength();
+	}
+
+	@Override
+	public Flux<DataBuffer> getContent() {
+		return this.part.content();
+	}
+
+	@Override
+	public Mono<Void> transferTo(Path destination) {
+		return this.part.transferTo(destination);
+	}
+
+	@Override
+	public String toString() {
+		return "FileUpload[name='" + getName() + "', filename='" + getFilename() + "']";
+	}
+
+}
@@ -16,21 +16,58 @@
 
 package org.springframework.graphql.web.webflux;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.graphql.web.IncrementalResults;
+import org.springframework.graphql.web.MultipartRequests;
 import org.springframework.graphql.web.WebGraphQlHandler;
 import org.springframework.graphql.web.WebInput;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.Part;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserter;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
 
 /**
- * WebFlux.fn Handler for GraphQL over HTTP requests.
+ * WebFlux.fn Handler for GraphQL over HTTP requests. Besides JSON requests,
+ * this also handles {@code multipart/form-data} file uploads as defined in the
+ * <a href="https://github.com/jaydenseric/graphql-multipart-request-spec">GraphQL
+ * multipart request specification</a>, binding files to variables as
+ * {@link org.springframework.graphql.web.FileUpload}. JSON request bodies are
+ * read with the configured codecs, and a body that exceeds their
+ * {@code maxInMemorySize} is rejected with a 413 status.
+ * Results with {@code @defer} fields are written as {@code multipart/mixed}
+ * incremental payloads if the client accepts it, or as a single merged result
+ * otherwise.
  *
  * @author Rossen Stoyanchev
  * @since 1.0.0
@@ -59,7 +96,7 @@ public class GraphQlHttpHandler {
 	 * @return the HTTP response
 	 */
 	public Mono<ServerResponse> handleRequest(ServerRequest request) {
-		return request.bodyToMono(MAP_PARAMETERIZED_TYPE_REF)
+		return readBody(request)
 				.flatMap((body) -> {
 					String id = request.exchange().getRequest().getId();
 					WebInput input = new WebInput(request.uri(), request.headers().asHttpHeaders(), body, id);
@@ -69,16 +106,142 @@ public class GraphQlHttpHandler {
 					return this.graphQlHandler.handle(input);
 				})
 				.flatMap((output) -> {
-					Map<String, Object> spec = output.toSpecification();
 					if (logger.isDebugEnabled()) {
 						logger.debug("Execution complete");
 					}
-					ServerResponse.BodyBuilder builder = ServerResponse.ok();
+					ServerResponse.BodyBuilder builder = (output.getResponseStatus() != null ?
+							ServerResponse.status(output.getResponseStatus()) : ServerResponse.ok());
 					if (output.getResponseHeaders() != null) {
 						builder.headers((headers) -> headers.putAll(output.getResponseHeaders()));
 					}
-					return builder.bodyValue(spec);
+					if (IncrementalResults.hasDeferredResults(output)) {
+						if (IncrementalResults.acceptsMultipartMixed(request.headers().accept())) {
+							return builder.contentType(IncrementalResults.MULTIPART_MIXED)
+									.body(multipartBody(IncrementalResults.toPayloads(output)));
+						}
+						return IncrementalResults.toMergedSpecification(output).flatMap(builder::bodyValue);
+					}
+					return builder.bodyValue(output.toSpecification());
 				});
 	}
 
+	/**
+	 * Write each payload as a part, flushing after each one, so that the
+	 * client receives the initial result before deferred results complete.
+	 */
+	private static BodyInserter<Flux<Map<String, Object>>, ReactiveHttpOutputMessage> multipartBody(
+			Flux<Map<String, Object>> payloads) {
+
+		return (message, context) -> {
+			ResolvableType type = ResolvableType.forType(MAP_PARAMETERIZED_TYPE_REF);
+			Encoder<Map<String, Object>> encoder = getJsonEncoder(context.messageWriters(), type);
+			if (encoder == null) {
+				return Mono.error(new IllegalStateException("No JSON encoder for multipart/mixed responses"));
+			}
+			DataBufferFactory bufferFactory = message.bufferFactory();
+			Flux<Publisher<DataBuffer>> parts = payloads
+					.<Publisher<DataBuffer>>map((payload) -> Flux.concat(
+							Mono.fromCallable(() -> bufferFactory.wrap(IncrementalResults.getPartPrefix())),
+							encoder.encode(Mono.just(payload), bufferFactory, type,
+									MediaType.APPLICATION_JSON, Collections.emptyMap())))
+					.concatWith(Mono.fromCallable(() ->
+							Mono.fromCallable(() -> bufferFactory.wrap(IncrementalResults.getMultipartEnd()))));
+			return message.writeAndFlushWith(parts);
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static Encoder<Map<String, Object>> getJsonEncoder(
+			List<HttpMessageWriter<?>> writers, ResolvableType type) {
+
+		for (HttpMessageWriter<?> writer : writers) {
+			if (writer instanceof EncoderHttpMessageWriter && writer.canWrite(type, MediaType.APPLICATION_JSON)) {
+				return ((EncoderHttpMessageWriter<Map<String, Object>>) writer).getEncoder();
+			}
+		}
+		return null;
+	}
+
+	private static Mono<Map<String, Object>> readBody(ServerRequest request) {
+		MediaType contentType = request.headers().contentType().orElse(null);
+		if (contentType != null && MediaType.MULTIPART_FORM_DATA.isCompatibleWith(contentType)) {
+			return request.multipartData().flatMap((parts) -> readMultipartBody(request, parts));
+		}
+		return readJsonBody(request);
+	}
+
+	/**
+	 * Read a JSON request body with the configured codecs, also for
+	 * {@link GraphQlSseHandler}.
+	 */
+	static Mono<Map<String, Object>> readJsonBody(ServerRequest request) {
+		return request.bodyToMono(MAP_PARAMETERIZED_TYPE_REF)
+				.onErrorMap(DataBufferLimitException.class, (ex) ->
+						new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), ex))
+				.onErrorMap(DecodingException.class, (ex) ->
+						new ServerWebInputException("Invalid request body", null, ex));
+	}
+
+	/**
+	 * Read a GraphQL multipart request. File parts are not aggregated, and
+	 * depending on the configured multipart reader, they are stored in
+	 * temporary files above a size threshold.
+	 */
+	private static Mono<Map<String, Object>> readMultipartBody(
+			ServerRequest request, MultiValueMap<String, Part> parts) {
+
+		Part operationsPart = parts.getFirst(MultipartRequests.OPERATIONS_PART_NAME);
+		Part mapPart = parts.getFirst(MultipartRequests.MAP_PART_NAME);
+		if (operationsPart == null || mapPart == null) {
+			return Mono.error(new ServerWebInputException("Multipart request requires \"" +
+					MultipartRequests.OPERATIONS_PART_NAME + "\" and \"" + MultipartRequests.MAP_PART_NAME + "\" parts"));
+		}
+		return Mono.zip(readJson(request, operationsPart), readJson(request, mapPart))
+				.map((tuple) -> MultipartRequests.bindFiles(tuple.getT1(), tuple.getT2(), (name) -> {
+					Part part = parts.getFirst(name);
+					return (part instanceof FilePart ? new FilePartFileUpload((FilePart) part) : null);
+				}));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Mono<Map<String, Object>> readJson(ServerRequest request, Part part) {
+		ResolvableType type = ResolvableType.forType(MAP_PARAMETERIZED_TYPE_REF);
+		for (HttpMessageReader<?> reader : request.messageReaders()) {
+			if (reader.canRead(type, MediaType.APPLICATION_JSON)) {
+				return ((HttpMessageReader<Map<String, Object>>) reader).readMono(
+						type, new PartInputMessage(part), Collections.emptyMap());
+			}
+		}
+		return Mono.error(new UnsupportedMediaTypeStatusException(MediaType.APPLICATION_JSON,
+				Collections.emptyList(), type));
+	}
+
+
+	/**
+	 * Adapt a multipart request part to read it as JSON.
+	 */
+	private static class PartInputMessage implements ReactiveHttpInputMessage {
+
+		private final Part part;
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		PartInputMessage(Part part) {
+			this.part = part;
+			this.headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public Flux<DataBuffer> getBody() {
+			return this.part.content();
+		}
+
+	}
+
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webflux;
+
+import java.time.Duration;
+
+import graphql.ExecutionResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.graphql.web.StreamingResults;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
+import org.springframework.graphql.web.WebGraphQlHandler;
+import org.springframework.graphql.web.WebInput;
+import org.springframework.graphql.web.WebOutput;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * WebFlux.fn Handler for GraphQL over Server-Sent Events, as defined in the
+ * "distinct connections mode" of the
+ * <a href="https://github.com/enisdenjo/graphql-sse/blob/master/PROTOCOL.md">graphql-sse
+ * protocol</a>. Each request is executed through the {@link WebGraphQlHandler},
+ * and each {@link ExecutionResult} is streamed as a {@code "next"} event,
+ * followed by a {@code "complete"} event. Queries and mutations result in a
+ * single {@code "next"} event. Comments are sent periodically as heartbeats so
+ * that proxies do not close idle subscriptions.
+ *
+ * @since 1.0.0
+ */
+public class GraphQlSseHandler {
+
+	private static final Log logger = LogFactory.getLog(GraphQlSseHandler.class);
+
+	private static final ServerSentEvent<Object> COMPLETE_EVENT =
+			ServerSentEvent.builder().event("complete").data("").build();
+
+	private static final ServerSentEvent<Object> HEARTBEAT_EVENT = ServerSentEvent.builder().comment("").build();
+
+
+	private final WebGraphQlHandler graphQlHandler;
+
+	private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+	@Nullable
+	private SubscriptionOverflowPolicy overflowPolicy;
+
+
+	/**
+	 * Create a new instance.
+	 * @param graphQlHandler common handler for GraphQL over HTTP requests
+	 */
+	public GraphQlSseHandler(WebGraphQlHandler graphQlHandler) {
+		Assert.notNull(graphQlHandler, "WebGraphQlHandler is required");
+		this.graphQlHandler = graphQlHandler;
+	}
+
+
+	/**
+	 * Configure the interval between heartbeat comments.
+	 * <p>By default this is 15 seconds.
+	 * @param heartbeatInterval the heartbeat interval
+	 */
+	public void setHeartbeatInterval(Duration heartbeatInterval) {
+		Assert.isTrue(heartbeatInterval.toMillis() > 0, "'heartbeatInterval' must be at least 1 millisecond");
+		this.heartbeatInterval = heartbeatInterval;
+	}
+
+	/**
+	 * Return the {@link #setHeartbeatInterval configured} heartbeat interval.
+	 */
+	public Duration getHeartbeatInterval() {
+		return this.heartbeatInterval;
+	}
+
+	/**
+	 * Configure a policy to bound the results buffered for each subscription
+	 * while the client is slow to consume them.
+	 * <p>By default this is not set, and results are not bounded.
+	 * @param overflowPolicy the policy to apply
+	 */
+	public void setSubscriptionOverflowPolicy(@Nullable SubscriptionOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Return the {@link #setSubscriptionOverflowPolicy configured} policy, if any.
+	 */
+	@Nullable
+	public SubscriptionOverflowPolicy getSubscriptionOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	/**
+	 * Handle GraphQL requests over Server-Sent Events.
+	 * @param request the incoming HTTP request
+	 * @return the HTTP response
+	 */
+	public Mono<ServerResponse> handleRequest(ServerRequest request) {
+		return GraphQlHttpHandler.readJsonBody(request)
+				.flatMap((body) -> {
+					String id = request.exchange().getRequest().getId();
+					WebInput input = new WebInput(request.uri(), request.headers().asHttpHeaders(), body, id);
+					if (logger.isDebugEnabled()) {
+						logger.debug("Executing: " + input);
+					}
+					return this.graphQlHandler.handle(input);
+				})
+				.flatMap((output) -> ServerResponse.ok()
+						.contentType(MediaType.TEXT_EVENT_STREAM)
+						.body(BodyInserters.fromServerSentEvents(encodeEvents(output))));
+	}
+
+	private Flux<ServerSentEvent<Object>> encodeEvents(WebOutput output) {
+		Flux<ServerSentEvent<Object>> events = StreamingResults.toResults(output, this.overflowPolicy)
+				.map((result) -> ServerSentEvent.builder((Object) result).event("next").build());
+		return StreamingResults.withHeartbeats(events, COMPLETE_EVENT, HEARTBEAT_EVENT, this.heartbeatInterval);
+	}
+
+}
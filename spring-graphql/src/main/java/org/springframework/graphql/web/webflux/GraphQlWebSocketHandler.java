@@ -24,9 +24,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import graphql.ErrorType;
 import graphql.ExecutionResult;
-import graphql.GraphqlErrorBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.reactivestreams.Publisher;
@@ -40,6 +38,9 @@ import org.springframework.core.codec.Decoder;
 import org.springframework.core.codec.Encoder;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.graphql.web.IncrementalResults;
+import org.springframework.graphql.web.StreamingResults;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
 import org.springframework.graphql.web.WebGraphQlHandler;
 import org.springframework.graphql.web.WebInput;
 import org.springframework.graphql.web.WebOutput;
@@ -84,6 +85,9 @@ public class GraphQlWebSocketHandler implements WebSocketHandler {
 
 	private final Duration initTimeoutDuration;
 
+	@Nullable
+	private SubscriptionOverflowPolicy overflowPolicy;
+
 	/**
 	 * Create a new instance.
 	 * @param graphQlHandler common handler for GraphQL over HTTP requests
@@ -101,6 +105,24 @@ public class GraphQlWebSocketHandler implements WebSocketHandler {
 		this.initTimeoutDuration = connectionInitTimeout;
 	}
 
+	/**
+	 * Configure a policy to bound the results buffered for each subscription
+	 * while the client is slow to consume them.
+	 * <p>By default this is not set, and results are not bounded.
+	 * @param overflowPolicy the policy to apply
+	 */
+	public void setSubscriptionOverflowPolicy(@Nullable SubscriptionOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Return the {@link #setSubscriptionOverflowPolicy configured} policy, if any.
+	 */
+	@Nullable
+	public SubscriptionOverflowPolicy getSubscriptionOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
 	private static Decoder<?> initDecoder(ServerCodecConfigurer configurer) {
 		return configurer.getReaders().stream()
 				.filter((reader) -> reader.canRead(MAP_RESOLVABLE_TYPE, MediaType.APPLICATION_JSON))
@@ -136,6 +158,7 @@ public class GraphQlWebSocketHandler implements WebSocketHandler {
 		// Session state
 		AtomicBoolean connectionInitProcessed = new AtomicBoolean();
 		Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+		Map<String, Subscription> executions = new ConcurrentHashMap<>();
 
 		Mono.delay(this.initTimeoutDuration)
 				.then(Mono.defer(() ->
@@ -164,10 +187,17 @@ public class GraphQlWebSocketHandler implements WebSocketHandler {
 					logger.debug("Executing: " + input);
 				}
 				return this.graphQlHandler.handle(input)
+						.doOnSubscribe((subscription) -> executions.put(id, subscription))
+						.doFinally((signalType) -> executions.remove(id))
 						.flatMapMany((output) -> handleWebOutput(session, id, subscriptions, output))
 						.doOnTerminate(() -> subscriptions.remove(id));
 			case COMPLETE:
 				if (id != null) {
+					// Cancel the execution, if still in progress, or the subscription stream
+					Subscription execution = executions.remove(id);
+					if (execution != null) {
+						execution.cancel();
+					}
 					Subscription subscription = subscriptions.remove(id);
 					if (subscription != null) {
 						subscription.cancel();
@@ -208,39 +238,37 @@ public class GraphQlWebSocketHandler implements WebSocketHandler {
 					+ ".");
 		}
 
-		Flux<ExecutionResult> outputFlux;
+		Flux<Map<String, Object>> outputFlux;
 		if (output.getData() instanceof Publisher) {
 			// Subscription
-			outputFlux = Flux.from((Publisher<ExecutionResult>) output.getData())
+			Flux<ExecutionResult> resultFlux = Flux.from((Publisher<ExecutionResult>) output.getData())
 					.doOnSubscribe((subscription) -> {
 							Subscription previous = subscriptions.putIfAbsent(id, subscription);
 							if (previous != null) {
 								throw new SubscriptionExistsException();
 							}
 					});
+			if (this.overflowPolicy != null) {
+				resultFlux = this.overflowPolicy.apply(resultFlux);
+			}
+			outputFlux = resultFlux.map(ExecutionResult::toSpecification);
 		}
 		else {
-			// Single response operation (query or mutation)
-			outputFlux = (CollectionUtils.isEmpty(output.getErrors()) ? Flux.just(output) :
+			// Single response operation (query or mutation), with a "next"
+			// message for the initial result and each deferred result, if any
+			outputFlux = (CollectionUtils.isEmpty(output.getErrors()) ? IncrementalResults.toPayloads(output) :
 					Flux.error(new IllegalStateException("Execution failed: " + output.getErrors())));
 		}
 
 		return outputFlux
-				.map((result) -> {
-						Map<String, Object> dataMap = result.toSpecification();
-						return encode(session, id, MessageType.NEXT, dataMap);
-				})
+				.map((dataMap) -> encode(session, id, MessageType.NEXT, dataMap))
 				.concatWith(Mono.fromCallable(() -> encode(session, id, MessageType.COMPLETE, null)))
 				.onErrorResume((ex) -> {
 						if (ex instanceof SubscriptionExistsException) {
 							CloseStatus status = new CloseStatus(4409, "Subscriber for " + id + " already exists");
 							return GraphQlStatus.close(session, status);
 						}
-						Map<String, Object> errorMap = GraphqlErrorBuilder.newError()
-								.errorType(ErrorType.DataFetchingException)
-								.message(ex.getMessage())
-								.build()
-								.toSpecification();
+						Map<String, Object> errorMap = StreamingResults.toErrorSpecification(ex);
 						return Mono.just(encode(session, id, MessageType.ERROR, errorMap));
 				});
 	}
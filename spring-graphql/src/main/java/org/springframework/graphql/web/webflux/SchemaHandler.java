@@ -16,36 +16,66 @@
 
 package org.springframework.graphql.web.webflux;
 
+import java.util.List;
+
 import graphql.schema.idl.SchemaPrinter;
 import reactor.core.publisher.Mono;
 
 import org.springframework.graphql.execution.GraphQlSource;
-import org.springframework.http.MediaType;
+import org.springframework.graphql.web.SchemaRepresentations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 /**
  * Spring WebFlux functional handler that renders the
- * {@link graphql.schema.GraphQLSchema} printed via {@link SchemaPrinter}.
+ * {@link graphql.schema.GraphQLSchema} printed via {@link SchemaPrinter}, or
+ * the result of the introspection query as JSON if requested with the
+ * "format=introspection" query parameter.
+ *
+ * <p>Responses are pre-encoded once per schema through
+ * {@link SchemaRepresentations}, compressed if the request accepts gzip, and
+ * have an ETag so that clients can poll with conditional requests that
+ * return {@code 304 Not Modified}.
  *
  * @author Rossen Stoyanchev
  */
 public class SchemaHandler {
 
-	private final GraphQlSource graphQlSource;
-
-	private final SchemaPrinter printer = new SchemaPrinter();
+	private final SchemaRepresentations representations;
 
 
 	public SchemaHandler(GraphQlSource graphQlSource) {
-		this.graphQlSource = graphQlSource;
+		this.representations = new SchemaRepresentations(graphQlSource);
 	}
 
 
 	public Mono<ServerResponse> handleRequest(ServerRequest request) {
+		ServerRequest.Headers headers = request.headers();
+		SchemaRepresentations.Representation representation =
+				this.representations.select(request.queryParam(SchemaRepresentations.FORMAT_PARAMETER).orElse(null));
+		boolean gzip = SchemaRepresentations.isGzipAccepted(headers.header(HttpHeaders.ACCEPT_ENCODING));
+		String eTag = representation.getETag(gzip);
+
+		List<String> ifNoneMatch = headers.header(HttpHeaders.IF_NONE_MATCH);
+		if (representation.isNotModified(ifNoneMatch)) {
+			return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+					.eTag(eTag)
+					.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+					.build();
+		}
+
 		return ServerResponse.ok()
-				.contentType(MediaType.TEXT_PLAIN)
-				.bodyValue(this.printer.print(graphQlSource.schema()));
+				.contentType(representation.getContentType())
+				.eTag(eTag)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.headers((httpHeaders) -> {
+					if (gzip) {
+						httpHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+					}
+				})
+				.bodyValue(representation.getContent(gzip));
 	}
 
 }
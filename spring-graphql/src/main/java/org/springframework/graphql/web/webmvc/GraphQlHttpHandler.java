@@ -16,19 +16,40 @@
 
 package org.springframework.graphql.web.webmvc;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.servlet.ServletException;
+import javax.servlet.http.Part;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.web.GraphQlRequestParser;
+import org.springframework.graphql.web.IncrementalResults;
+import org.springframework.graphql.web.MultipartRequests;
 import org.springframework.graphql.web.WebGraphQlHandler;
 import org.springframework.graphql.web.WebInput;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.server.ServerWebInputException;
 import org.springframework.web.servlet.function.ServerRequest;
@@ -36,7 +57,16 @@ import org.springframework.web.servlet.function.ServerResponse;
 
 /**
  * GraphQL handler to expose as a WebMvc.fn endpoint via
- * {@link org.springframework.web.servlet.function.RouterFunctions}.
+ * {@link org.springframework.web.servlet.function.RouterFunctions}. Besides
+ * JSON requests, this also handles {@code multipart/form-data} file uploads as
+ * defined in the
+ * <a href="https://github.com/jaydenseric/graphql-multipart-request-spec">GraphQL
+ * multipart request specification</a>, binding files to variables as
+ * {@link org.springframework.graphql.web.FileUpload}. JSON request bodies are
+ * read from the Servlet input stream with a {@link GraphQlRequestParser} that
+ * enforces size and depth limits. Results with {@code @defer} fields are
+ * written as {@code multipart/mixed} incremental payloads if the client
+ * accepts it, or as a single merged result otherwise.
  *
  * @author Rossen Stoyanchev
  * @author Brian Clozel
@@ -51,47 +81,232 @@ public class GraphQlHttpHandler {
 
 	private final WebGraphQlHandler graphQlHandler;
 
+	private final GraphQlRequestParser requestParser;
+
+	@Nullable
+	private Executor readExecutor;
+
+	@Nullable
+	private Scheduler readScheduler;
+
 	/**
 	 * Create a new instance.
 	 * @param graphQlHandler common handler for GraphQL over HTTP requests
 	 */
 	public GraphQlHttpHandler(WebGraphQlHandler graphQlHandler) {
+		this(graphQlHandler, new GraphQlRequestParser());
+	}
+
+	/**
+	 * Create a new instance with a parser configured with custom limits.
+	 * @param graphQlHandler common handler for GraphQL over HTTP requests
+	 * @param requestParser the parser for JSON request bodies
+	 */
+	public GraphQlHttpHandler(WebGraphQlHandler graphQlHandler, GraphQlRequestParser requestParser) {
 		Assert.notNull(graphQlHandler, "WebGraphQlHandler is required");
+		Assert.notNull(requestParser, "GraphQlRequestParser is required");
 		this.graphQlHandler = graphQlHandler;
+		this.requestParser = requestParser;
 	}
 
 	/**
-	 * Handle GraphQL requests over HTTP.
+	 * Configure an executor to read request bodies on, so that the Servlet
+	 * container thread is released while a slow client is sending a request.
+	 * Reading still blocks a thread of the executor, so it should be dedicated
+	 * to this purpose and sized for the expected number of concurrent slow
+	 * requests, rather than shared with other blocking work.
+	 * <p>By default this is not set, and the request body is read on the
+	 * Servlet container thread, as for other Spring MVC handlers.
+	 * @param readExecutor the executor to read request bodies on
+	 */
+	public void setRequestReadExecutor(@Nullable Executor readExecutor) {
+		this.readExecutor = readExecutor;
+		this.readScheduler = (readExecutor != null ? Schedulers.fromExecutor(readExecutor) : null);
+	}
+
+	/**
+	 * Return the {@link #setRequestReadExecutor configured} executor, if any.
+	 */
+	@Nullable
+	public Executor getRequestReadExecutor() {
+		return this.readExecutor;
+	}
+
+	/**
+	 * Handle GraphQL requests over HTTP. The request body is read on the
+	 * {@link #setRequestReadExecutor configured executor}, if any, and the
+	 * response is written asynchronously.
 	 * @param request the incoming HTTP request
 	 * @return the HTTP response
-	 * @throws ServletException may be raised when reading the request body, e.g.
-	 * {@link HttpMediaTypeNotSupportedException}.
 	 */
-	public ServerResponse handleRequest(ServerRequest request) throws ServletException {
-		WebInput input = new WebInput(request.uri(), request.headers().asHttpHeaders(), readBody(request), null);
-		if (logger.isDebugEnabled()) {
-			logger.debug("Executing: " + input);
+	public ServerResponse handleRequest(ServerRequest request) {
+		Mono<WebInput> inputMono = Mono.fromCallable(() -> readInput(request));
+		if (this.readScheduler != null) {
+			inputMono = inputMono.subscribeOn(this.readScheduler);
 		}
-		Mono<ServerResponse> responseMono = this.graphQlHandler.handle(input).map((output) -> {
+
+		Mono<ServerResponse> responseMono = this.graphQlHandler.handle(inputMono).flatMap((output) -> {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Execution complete");
 			}
-			ServerResponse.BodyBuilder builder = ServerResponse.ok();
+			ServerResponse.BodyBuilder builder = (output.getResponseStatus() != null ?
+					ServerResponse.status(output.getResponseStatus()) : ServerResponse.ok());
 			if (output.getResponseHeaders() != null) {
 				builder.headers((headers) -> headers.putAll(output.getResponseHeaders()));
 			}
-			return builder.body(output.toSpecification());
+			if (IncrementalResults.hasDeferredResults(output)) {
+				if (IncrementalResults.acceptsMultipartMixed(request.headers().accept())) {
+					Flux<byte[]> parts = IncrementalResults.toPayloads(output)
+							.map((payload) -> encodePart(request, payload))
+							.concatWith(Mono.fromCallable(IncrementalResults::getMultipartEnd));
+					return Mono.just(builder.contentType(IncrementalResults.MULTIPART_MIXED).body(parts));
+				}
+				return IncrementalResults.toMergedSpecification(output).map(builder::body);
+			}
+			return Mono.just(builder.body(output.toSpecification()));
 		});
 		return ServerResponse.async(responseMono);
 	}
 
-	private static Map<String, Object> readBody(ServerRequest request) throws ServletException {
+	/**
+	 * Encode a {@code multipart/mixed} part with the given payload as JSON.
+	 * Parts are written and flushed one at a time, so that the client
+	 * receives the initial result before deferred results complete.
+	 */
+	@SuppressWarnings("unchecked")
+	private static byte[] encodePart(ServerRequest request, Map<String, Object> payload) {
+		Type type = MAP_PARAMETERIZED_TYPE_REF.getType();
+		for (HttpMessageConverter<?> converter : request.messageConverters()) {
+			if (converter instanceof GenericHttpMessageConverter &&
+					((GenericHttpMessageConverter<?>) converter).canWrite(type, null, MediaType.APPLICATION_JSON)) {
+				PartOutputMessage outputMessage = new PartOutputMessage();
+				try {
+					outputMessage.write(IncrementalResults.getPartPrefix());
+					((GenericHttpMessageConverter<Object>) converter)
+							.write(payload, type, MediaType.APPLICATION_JSON, outputMessage);
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Failed to write " + payload + " as JSON", ex);
+				}
+				return outputMessage.toByteArray();
+			}
+		}
+		throw new IllegalStateException("No JSON converter for multipart/mixed responses");
+	}
+
+	private WebInput readInput(ServerRequest request) throws ServletException {
+		WebInput input = new WebInput(request.uri(), request.headers().asHttpHeaders(), readBody(request), null);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing: " + input);
+		}
+		return input;
+	}
+
+	private Map<String, Object> readBody(ServerRequest request) throws ServletException {
+		MediaType contentType = request.headers().contentType().orElse(null);
+		if (contentType != null && MediaType.MULTIPART_FORM_DATA.isCompatibleWith(contentType)) {
+			try {
+				return readMultipartBody(request);
+			}
+			catch (IOException ex) {
+				throw new ServerWebInputException("I/O error while reading request body", null, ex);
+			}
+		}
+		return readJsonBody(request, this.requestParser);
+	}
+
+	/**
+	 * Read a JSON request body with the given parser, also for
+	 * {@link GraphQlSseHandler}.
+	 */
+	static Map<String, Object> readJsonBody(ServerRequest request, GraphQlRequestParser requestParser) {
 		try {
-			return request.body(MAP_PARAMETERIZED_TYPE_REF);
+			return requestParser.parse(request.servletRequest().getInputStream());
 		}
 		catch (IOException ex) {
 			throw new ServerWebInputException("I/O error while reading request body", null, ex);
 		}
 	}
 
+	/**
+	 * Read a GraphQL multipart request. File parts are not read, and depending
+	 * on the Servlet multipart configuration, they are stored in temporary
+	 * files above a size threshold.
+	 */
+	private static Map<String, Object> readMultipartBody(ServerRequest request) throws IOException, ServletException {
+		MultiValueMap<String, Part> parts = request.multipartData();
+		Part operationsPart = parts.getFirst(MultipartRequests.OPERATIONS_PART_NAME);
+		Part mapPart = parts.getFirst(MultipartRequests.MAP_PART_NAME);
+		if (operationsPart == null || mapPart == null) {
+			throw new ServerWebInputException("Multipart request requires \"" +
+					MultipartRequests.OPERATIONS_PART_NAME + "\" and \"" + MultipartRequests.MAP_PART_NAME + "\" parts");
+		}
+		return MultipartRequests.bindFiles(readJson(request, operationsPart), readJson(request, mapPart), (name) -> {
+			Part part = parts.getFirst(name);
+			return (part != null && part.getSubmittedFileName() != null ? new ServletPartFileUpload(part) : null);
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> readJson(ServerRequest request, Part part)
+			throws IOException, HttpMediaTypeNotSupportedException {
+
+		Type type = MAP_PARAMETERIZED_TYPE_REF.getType();
+		for (HttpMessageConverter<?> converter : request.messageConverters()) {
+			if (converter instanceof GenericHttpMessageConverter &&
+					((GenericHttpMessageConverter<?>) converter).canRead(type, null, MediaType.APPLICATION_JSON)) {
+				return (Map<String, Object>) ((GenericHttpMessageConverter<?>) converter)
+						.read(type, null, new PartInputMessage(part));
+			}
+		}
+		throw new HttpMediaTypeNotSupportedException(MediaType.APPLICATION_JSON, Collections.emptyList());
+	}
+
+
+	/**
+	 * Adapt a multipart request part to read it as JSON.
+	 */
+	private static class PartInputMessage implements HttpInputMessage {
+
+		private final Part part;
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		PartInputMessage(Part part) {
+			this.part = part;
+			this.headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return this.part.getInputStream();
+		}
+
+	}
+
+
+	/**
+	 * Collect a {@code multipart/mixed} part written as JSON.
+	 */
+	private static class PartOutputMessage extends ByteArrayOutputStream implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		@Override
+		public OutputStream getBody() {
+			return this;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+	}
+
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webmvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import graphql.ExecutionResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.graphql.web.GraphQlRequestParser;
+import org.springframework.graphql.web.StreamingResults;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
+import org.springframework.graphql.web.WebGraphQlHandler;
+import org.springframework.graphql.web.WebInput;
+import org.springframework.graphql.web.WebOutput;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * GraphQL handler for Server-Sent Events to expose as a WebMvc.fn endpoint,
+ * as defined in the "distinct connections mode" of the
+ * <a href="https://github.com/enisdenjo/graphql-sse/blob/master/PROTOCOL.md">graphql-sse
+ * protocol</a>. Each request is executed through the {@link WebGraphQlHandler},
+ * and each {@link ExecutionResult} is streamed as a {@code "next"} event,
+ * followed by a {@code "complete"} event. Queries and mutations result in a
+ * single {@code "next"} event. Comments are sent periodically as heartbeats so
+ * that proxies do not close idle subscriptions.
+ *
+ * <p>The request body is read on the {@link #setRequestReadExecutor configured
+ * executor}, if any, and events are written asynchronously. The stream is
+ * subject to the Spring MVC async request timeout, which heartbeats do not
+ * extend. When it expires, the stream ends without a {@code "complete"} event,
+ * and the client needs to subscribe again. For long-lived subscriptions, raise
+ * the timeout through {@code WebMvcConfigurer#configureAsyncSupport}, or the
+ * {@code spring.mvc.async.request-timeout} property in Spring Boot.
+ *
+ * @since 1.0.0
+ */
+public class GraphQlSseHandler {
+
+	private static final Log logger = LogFactory.getLog(GraphQlSseHandler.class);
+
+	private static final MediaType EVENT_STREAM_TYPE = new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+
+	private static final String COMPLETE_EVENT = "event:complete\ndata:\n\n";
+
+	private static final String HEARTBEAT_EVENT = ":\n\n";
+
+
+	private final WebGraphQlHandler graphQlHandler;
+
+	private final HttpMessageConverter<?> converter;
+
+	private final GraphQlRequestParser requestParser;
+
+	private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+	@Nullable
+	private SubscriptionOverflowPolicy overflowPolicy;
+
+	@Nullable
+	private Executor readExecutor;
+
+	@Nullable
+	private Scheduler readScheduler;
+
+
+	/**
+	 * Create a new instance.
+	 * @param graphQlHandler common handler for GraphQL over HTTP requests
+	 * @param converter for JSON encoding of events
+	 */
+	public GraphQlSseHandler(WebGraphQlHandler graphQlHandler, HttpMessageConverter<?> converter) {
+		this(graphQlHandler, converter, new GraphQlRequestParser());
+	}
+
+	/**
+	 * Create a new instance with a parser configured with custom limits.
+	 * @param graphQlHandler common handler for GraphQL over HTTP requests
+	 * @param converter for JSON encoding of events
+	 * @param requestParser the parser for JSON request bodies
+	 */
+	public GraphQlSseHandler(WebGraphQlHandler graphQlHandler, HttpMessageConverter<?> converter,
+			GraphQlRequestParser requestParser) {
+
+		Assert.notNull(graphQlHandler, "WebGraphQlHandler is required");
+		Assert.notNull(converter, "HttpMessageConverter for JSON is required");
+		Assert.notNull(requestParser, "GraphQlRequestParser is required");
+		this.graphQlHandler = graphQlHandler;
+		this.converter = converter;
+		this.requestParser = requestParser;
+	}
+
+
+	/**
+	 * Configure the interval between heartbeat comments.
+	 * <p>By default this is 15 seconds.
+	 * @param heartbeatInterval the heartbeat interval
+	 */
+	public void setHeartbeatInterval(Duration heartbeatInterval) {
+		Assert.isTrue(heartbeatInterval.toMillis() > 0, "'heartbeatInterval' must be at least 1 millisecond");
+		this.heartbeatInterval = heartbeatInterval;
+	}
+
+	/**
+	 * Return the {@link #setHeartbeatInterval configured} heartbeat interval.
+	 */
+	public Duration getHeartbeatInterval() {
+		return this.heartbeatInterval;
+	}
+
+	/**
+	 * Configure a policy to bound the results buffered for each subscription
+	 * while the client is slow to consume them.
+	 * <p>By default this is not set, and results are not bounded.
+	 * @param overflowPolicy the policy to apply
+	 */
+	public void setSubscriptionOverflowPolicy(@Nullable SubscriptionOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Return the {@link #setSubscriptionOverflowPolicy configured} policy, if any.
+	 */
+	@Nullable
+	public SubscriptionOverflowPolicy getSubscriptionOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	/**
+	 * Configure an executor to read request bodies on, so that the Servlet
+	 * container thread is released while a slow client is sending a request.
+	 * Reading still blocks a thread of the executor, so it should be dedicated
+	 * to this purpose and sized for the expected number of concurrent slow
+	 * requests, rather than shared with other blocking work.
+	 * <p>By default this is not set, and the request body is read on the
+	 * Servlet container thread, as for other Spring MVC handlers.
+	 * @param readExecutor the executor to read request bodies on
+	 */
+	public void setRequestReadExecutor(@Nullable Executor readExecutor) {
+		this.readExecutor = readExecutor;
+		this.readScheduler = (readExecutor != null ? Schedulers.fromExecutor(readExecutor) : null);
+	}
+
+	/**
+	 * Return the {@link #setRequestReadExecutor configured} executor, if any.
+	 */
+	@Nullable
+	public Executor getRequestReadExecutor() {
+		return this.readExecutor;
+	}
+
+	/**
+	 * Handle GraphQL requests over Server-Sent Events.
+	 * @param request the incoming HTTP request
+	 * @return the HTTP response
+	 */
+	public ServerResponse handleRequest(ServerRequest request) {
+		Mono<WebInput> inputMono = Mono.fromCallable(() -> readInput(request));
+		if (this.readScheduler != null) {
+			inputMono = inputMono.subscribeOn(this.readScheduler);
+		}
+
+		Mono<ServerResponse> responseMono = this.graphQlHandler.handle(inputMono)
+				.map((output) -> ServerResponse.ok().contentType(EVENT_STREAM_TYPE).body(encodeEvents(output)));
+		return ServerResponse.async(responseMono);
+	}
+
+	private WebInput readInput(ServerRequest request) {
+		Map<String, Object> body = GraphQlHttpHandler.readJsonBody(request, this.requestParser);
+		WebInput input = new WebInput(request.uri(), request.headers().asHttpHeaders(), body, null);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing: " + input);
+		}
+		return input;
+	}
+
+	private Flux<String> encodeEvents(WebOutput output) {
+		Flux<String> events = StreamingResults.toResults(output, this.overflowPolicy).map(this::encodeNextEvent);
+		return StreamingResults.withHeartbeats(events, COMPLETE_EVENT, HEARTBEAT_EVENT, this.heartbeatInterval);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> String encodeNextEvent(Map<String, Object> result) {
+		HttpOutputMessageAdapter outputMessage = new HttpOutputMessageAdapter();
+		try {
+			((HttpMessageConverter<T>) this.converter).write((T) result, MediaType.APPLICATION_JSON, outputMessage);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write " + result + " as JSON", ex);
+		}
+		StringBuilder builder = new StringBuilder("event:next\n");
+		for (String line : new String(outputMessage.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+			builder.append("data:").append(line).append('\n');
+		}
+		return builder.append('\n').toString();
+	}
+
+
+	private static class HttpOutputMessageAdapter extends ByteArrayOutputStream implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		@Override
+		public OutputStream getBody() {
+			return this;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+	}
+
+}
@@ -29,9 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import graphql.ErrorType;
 import graphql.ExecutionResult;
-import graphql.GraphqlErrorBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.reactivestreams.Publisher;
@@ -42,6 +40,9 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import org.springframework.graphql.web.IncrementalResults;
+import org.springframework.graphql.web.StreamingResults;
+import org.springframework.graphql.web.SubscriptionOverflowPolicy;
 import org.springframework.graphql.web.WebGraphQlHandler;
 import org.springframework.graphql.web.WebInput;
 import org.springframework.graphql.web.WebOutput;
@@ -84,6 +85,9 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 
 	private final Map<String, SessionState> sessionInfoMap = new ConcurrentHashMap<>();
 
+	@Nullable
+	private SubscriptionOverflowPolicy overflowPolicy;
+
 	/**
 	 * Create a new instance.
 	 * @param graphQlHandler common handler for GraphQL over HTTP requests
@@ -101,6 +105,24 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 		this.converter = converter;
 	}
 
+	/**
+	 * Configure a policy to bound the results buffered for each subscription
+	 * while the client is slow to consume them.
+	 * <p>By default this is not set, and results are not bounded.
+	 * @param overflowPolicy the policy to apply
+	 */
+	public void setSubscriptionOverflowPolicy(@Nullable SubscriptionOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Return the {@link #setSubscriptionOverflowPolicy configured} policy, if any.
+	 */
+	@Nullable
+	public SubscriptionOverflowPolicy getSubscriptionOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
 	@Override
 	public List<String> getSubProtocols() {
 		return SUB_PROTOCOL_LIST;
@@ -158,13 +180,24 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 			if (logger.isDebugEnabled()) {
 				logger.debug("Executing: " + input);
 			}
-			this.graphQlHandler.handle(input)
-					.flatMapMany((output) -> handleWebOutput(session, input.getId(), output))
-					.publishOn(sessionState.getScheduler()) // Serial blocking send via single thread
-					.subscribe(new SendMessageSubscriber(id, session, sessionState));
+			Flux<TextMessage> messages = this.graphQlHandler.handle(input)
+					.doOnSubscribe((subscription) -> sessionState.getExecutions().put(id, subscription))
+					.doFinally((signalType) -> sessionState.getExecutions().remove(id))
+					.flatMapMany((output) -> handleWebOutput(session, input.getId(), output));
+			// Serial blocking send via single thread. With an overflow policy, prefetch
+			// one message at a time so that results are only buffered per the policy
+			messages = (this.overflowPolicy != null ?
+					messages.publishOn(sessionState.getScheduler(), 1) :
+					messages.publishOn(sessionState.getScheduler()));
+			messages.subscribe(new SendMessageSubscriber(id, session, sessionState));
 			return;
 		case COMPLETE:
 			if (id != null) {
+				// Cancel the execution, if still in progress, or the subscription stream
+				Subscription execution = sessionState.getExecutions().remove(id);
+				if (execution != null) {
+					execution.cancel();
+				}
 				Subscription subscription = sessionState.getSubscriptions().remove(id);
 				if (subscription != null) {
 					subscription.cancel();
@@ -210,28 +243,30 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 					+ (!CollectionUtils.isEmpty(output.getErrors()) ? " with errors: " + output.getErrors() : "")
 					+ ".");
 		}
-		Flux<ExecutionResult> outputFlux;
+		Flux<Map<String, Object>> outputFlux;
 		if (output.getData() instanceof Publisher) {
 			// Subscription
-			outputFlux = Flux.from((Publisher<ExecutionResult>) output.getData())
+			Flux<ExecutionResult> resultFlux = Flux.from((Publisher<ExecutionResult>) output.getData())
 					.doOnSubscribe((subscription) -> {
 							Subscription prev = getSessionInfo(session).getSubscriptions().putIfAbsent(id, subscription);
 							if (prev != null) {
 								throw new SubscriptionExistsException();
 							}
 					});
+			if (this.overflowPolicy != null) {
+				resultFlux = this.overflowPolicy.apply(resultFlux);
+			}
+			outputFlux = resultFlux.map(ExecutionResult::toSpecification);
 		}
 		else {
-			// Single response operation (query or mutation)
-			outputFlux = (CollectionUtils.isEmpty(output.getErrors()) ? Flux.just(output)
+			// Single response operation (query or mutation), with a "next"
+			// message for the initial result and each deferred result, if any
+			outputFlux = (CollectionUtils.isEmpty(output.getErrors()) ? IncrementalResults.toPayloads(output)
 					: Flux.error(new IllegalStateException("Execution failed: " + output.getErrors())));
 		}
 
 		return outputFlux
-				.map((result) -> {
-						Map<String, Object> dataMap = result.toSpecification();
-						return encode(id, MessageType.NEXT, dataMap);
-				})
+				.map((dataMap) -> encode(id, MessageType.NEXT, dataMap))
 				.concatWith(Mono.fromCallable(() -> encode(id, MessageType.COMPLETE, null)))
 				.onErrorResume((ex) -> {
 						if (ex instanceof SubscriptionExistsException) {
@@ -239,10 +274,7 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 							GraphQlStatus.closeSession(session, status);
 							return Flux.empty();
 						}
-						ErrorType errorType = ErrorType.DataFetchingException;
-						String message = ex.getMessage();
-						Map<String, Object> errorMap = GraphqlErrorBuilder.newError().errorType(errorType).message(message).build()
-								.toSpecification();
+						Map<String, Object> errorMap = StreamingResults.toErrorSpecification(ex);
 						return Mono.just(encode(id, MessageType.ERROR, errorMap));
 				});
 	}
@@ -385,6 +417,8 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 
 		private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
 
+		private final Map<String, Subscription> executions = new ConcurrentHashMap<>();
+
 		private final Scheduler scheduler;
 
 		SessionState(String sessionId) {
@@ -405,8 +439,22 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 			return this.subscriptions;
 		}
 
+		Map<String, Subscription> getExecutions() {
+			return this.executions;
+		}
+
 		void dispose() {
-			for (Map.Entry<String, Subscription> entry : this.subscriptions.entrySet()) {
+			cancelAll(this.executions);
+			cancelAll(this.subscriptions);
+			this.scheduler.dispose();
+		}
+
+		Scheduler getScheduler() {
+			return this.scheduler;
+		}
+
+		private static void cancelAll(Map<String, Subscription> subscriptions) {
+			for (Map.Entry<String, Subscription> entry : subscriptions.entrySet()) {
 				try {
 					entry.getValue().cancel();
 				}
@@ -414,12 +462,7 @@ public class GraphQlWebSocketHandler extends TextWebSocketHandler implements Sub
 					// Ignore and keep on
 				}
 			}
-			this.subscriptions.clear();
-			this.scheduler.dispose();
-		}
-
-		Scheduler getScheduler() {
-			return this.scheduler;
+			subscriptions.clear();
 		}
 
 	}
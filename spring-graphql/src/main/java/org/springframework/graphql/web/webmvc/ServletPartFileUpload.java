@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webmvc;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import javax.servlet.http.Part;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.graphql.web.FileUpload;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link FileUpload} that delegates to a Servlet {@link Part}, which the
+ * Servlet container stores in memory or on disk depending on its size.
+ */
+class ServletPartFileUpload implements FileUpload {
+
+	private static final int BUFFER_SIZE = 8192;
+
+
+	private final Part part;
+
+	ServletPartFileUpload(Part part) {
+		this.part = part;
+	}
+
+	@Override
+	public String getName() {
+		return this.part.getName();
+	}
+
+	@Override
+	@Nullable
+	public String getFilename() {
+		return this.part.getSubmittedFileName();
+	}
+
+	@Override
+	@Nullable
+	public MediaType getContentType() {
+		String contentType = this.part.getContentType();
+		return (StringUtils.hasText(contentType) ? MediaType.parseMediaType(contentType) : null);
+	}
+
+	@Override
+	public long getSize() {
+		return this.part.getSize();
+	}
+
+	@Override
+	public Flux<DataBuffer> getContent() {
+		return DataBufferUtils.readInputStream(
+				this.part::getInputStream, DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE);
+	}
+
+	@Override
+	public Mono<Void> transferTo(Path destination) {
+		return Mono.fromCallable(() -> {
+			try (InputStream inputStream = this.part.getInputStream()) {
+				Files.copy(inputStream, destination, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return destination;
+		}).then();
+	}
+
+	@Override
+	public String toString() {
+		return "FileUpload[name='" + getName() + "', filename='" + getFilename() + "']";
+	}
+
+}
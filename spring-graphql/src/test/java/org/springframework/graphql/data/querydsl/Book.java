@@ -24,6 +24,8 @@ public class Book {
 
 	String author;
 
+	Long authorId;
+
 	public Book() {
 	}
 
@@ -57,4 +59,12 @@ public class Book {
 		this.author = author;
 	}
 
+	public Long getAuthorId() {
+		return this.authorId;
+	}
+
+	public void setAuthorId(Long authorId) {
+		this.authorId = authorId;
+	}
+
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.data.querydsl;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.PathMetadataFactory;
+import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+/**
+ * Generated by Querydsl.
+ */
+public class QAuthor extends EntityPathBase<Author> {
+    private static final long serialVersionUID = -1224401581L;
+    public static final QAuthor author = new QAuthor("author");
+    public final StringPath firstName = this.createString("firstName");
+    public final NumberPath<Long> id = this.createNumber("id", Long.class);
+    public final StringPath lastName = this.createString("lastName");
+
+    public QAuthor(String variable) {
+        super(Author.class, PathMetadataFactory.forVariable(variable));
+    }
+
+    public QAuthor(Path<? extends Author> path) {
+        super(path.getType(), path.getMetadata());
+    }
+
+    public QAuthor(PathMetadata metadata) {
+        super(Author.class, metadata);
+    }
+}
@@ -30,6 +30,7 @@ public class QBook extends EntityPathBase<Book> {
     private static final long serialVersionUID = 1773522017L;
     public static final QBook book = new QBook("book");
     public final StringPath author = this.createString("author");
+    public final NumberPath<Long> authorId = this.createNumber("authorId", Long.class);
     public final NumberPath<Long> id = this.createNumber("id", Long.class);
     public final StringPath name = this.createString("name");
 
@@ -19,11 +19,15 @@ package org.springframework.graphql.data.querydsl;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import com.querydsl.core.types.Predicate;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationState;
 import graphql.schema.GraphQLTypeVisitor;
 import graphql.schema.idl.TypeRuntimeWiring;
 import org.junit.jupiter.api.Test;
@@ -33,6 +37,10 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.querydsl.ReactiveQuerydslPredicateExecutor;
 import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
@@ -48,7 +56,10 @@ import org.springframework.lang.Nullable;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -153,6 +164,31 @@ class QuerydslDataFetcherTests {
 						Collections.singletonMap("name", "Hitchhiker's Guide to the Galaxy by Douglas Adams")));
 	}
 
+	@Test
+	void shouldFetchMultipleItemsWithClosedInterfaceProjection() {
+		MockRepository mockRepository = mock(MockRepository.class);
+		Book book1 = new Book(42L, "Hitchhiker's Guide to the Galaxy", "Douglas Adams");
+		Book book2 = new Book(53L, "Breaking Bad", "Heisenberg");
+		when(mockRepository.findAll(any(Predicate.class))).thenReturn(Arrays.asList(book1, book2));
+
+		WebGraphQlHandler handler = initWebGraphQlHandler(builder -> builder
+				.dataFetcher("books", QuerydslDataFetcher
+						.builder(mockRepository)
+						.projectAs(BookNameProjection.class)
+						.many()));
+
+		WebOutput output = handler.handle(input("{ books {id name}}")).block();
+
+		Map<String, Object> bookData1 = new HashMap<>();
+		bookData1.put("id", "42");
+		bookData1.put("name", "Hitchhiker's Guide to the Galaxy");
+		Map<String, Object> bookData2 = new HashMap<>();
+		bookData2.put("id", "53");
+		bookData2.put("name", "Breaking Bad");
+		assertThat((Object) output.getData()).isEqualTo(
+				Collections.singletonMap("books", Arrays.asList(bookData1, bookData2)));
+	}
+
 	@Test
 	void shouldFetchSingleItemsWithDtoProjection() {
 		MockRepository mockRepository = mock(MockRepository.class);
@@ -193,6 +229,93 @@ class QuerydslDataFetcherTests {
 		assertThat(predicate).isEqualTo(QBook.book.name.startsWith("H").and(QBook.book.author.eq("Doug")));
 	}
 
+	@Test
+	void shouldFetchConnection() {
+		MockRepository mockRepository = mock(MockRepository.class);
+		Book book1 = new Book(42L, "Hitchhiker's Guide to the Galaxy", "Douglas Adams");
+		Book book2 = new Book(53L, "Breaking Bad", "Heisenberg");
+		Book book3 = new Book(64L, "Dune", "Frank Herbert");
+		when(mockRepository.findAll(any(Predicate.class), any(Pageable.class)))
+				.thenReturn(new PageImpl<>(Arrays.asList(book1, book2, book3)));
+
+		WebGraphQlHandler handler = initWebGraphQlHandler(builder -> builder
+				.dataFetcher("booksConnection", QuerydslDataFetcher.builder(mockRepository).connection(Sort.by("id"))));
+
+		WebOutput output = handler.handle(input(
+				"{ booksConnection(first: 2) { edges { node {name} } pageInfo { hasNextPage endCursor } }}")).block();
+
+		Map<String, Object> connection = getConnection(output);
+		assertThat((List<?>) connection.get("edges")).hasSize(2);
+		assertThat(connection.get("pageInfo")).isEqualTo(pageInfo(true, "NTM"));
+
+		ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+		verify(mockRepository).findAll(any(Predicate.class), pageableCaptor.capture());
+		assertThat(pageableCaptor.getValue()).isEqualTo(PageRequest.of(0, 3, Sort.by("id")));
+		verify(mockRepository, never()).count(any());
+	}
+
+	@Test
+	void shouldFetchConnectionAfterCursor() {
+		MockRepository mockRepository = mock(MockRepository.class);
+		Book book = new Book(64L, "Dune", "Frank Herbert");
+		when(mockRepository.findAll(any(Predicate.class), any(Pageable.class)))
+				.thenReturn(new PageImpl<>(Collections.singletonList(book)));
+		when(mockRepository.count(any())).thenReturn(3L);
+
+		WebGraphQlHandler handler = initWebGraphQlHandler(builder -> builder
+				.dataFetcher("booksConnection", QuerydslDataFetcher.builder(mockRepository).connection(Sort.by("id"))));
+
+		WebOutput output = handler.handle(input(
+				"{ booksConnection(first: 2, after: \"NTM\") { totalCount pageInfo { hasNextPage endCursor } }}"))
+				.block();
+
+		Map<String, Object> connection = getConnection(output);
+		assertThat(connection.get("totalCount")).isEqualTo(3);
+		assertThat(connection.get("pageInfo")).isEqualTo(pageInfo(false, "NjQ"));
+
+		ArgumentCaptor<Predicate> predicateCaptor = ArgumentCaptor.forClass(Predicate.class);
+		verify(mockRepository).findAll(predicateCaptor.capture(), any(Pageable.class));
+		assertThat(predicateCaptor.getValue().toString()).isEqualTo("book.id > 53");
+	}
+
+	@Test
+	void shouldFetchConnectionWithLimitedExecutor() {
+		LimitedMockRepository mockRepository = mock(LimitedMockRepository.class);
+		Book book1 = new Book(42L, "Hitchhiker's Guide to the Galaxy", "Douglas Adams");
+		Book book2 = new Book(53L, "Breaking Bad", "Heisenberg");
+		Book book3 = new Book(64L, "Dune", "Frank Herbert");
+		when(mockRepository.findAll(any(Predicate.class), any(Sort.class), eq(3)))
+				.thenReturn(Arrays.asList(book1, book2, book3));
+
+		WebGraphQlHandler handler = initWebGraphQlHandler(builder -> builder
+				.dataFetcher("booksConnection", QuerydslDataFetcher.builder(mockRepository).connection(Sort.by("id"))));
+
+		WebOutput output = handler.handle(input(
+				"{ booksConnection(first: 2) { edges { node {name} } pageInfo { hasNextPage endCursor } }}")).block();
+
+		Map<String, Object> connection = getConnection(output);
+		assertThat((List<?>) connection.get("edges")).hasSize(2);
+		assertThat(connection.get("pageInfo")).isEqualTo(pageInfo(true, "NTM"));
+
+		verify(mockRepository).findAll(any(Predicate.class), eq(Sort.by("id")), eq(3));
+		verify(mockRepository, never()).findAll(any(Predicate.class), any(Pageable.class));
+		verify(mockRepository, never()).count(any());
+	}
+
+	@Test
+	void shouldRejectInvalidCursor() {
+		MockRepository mockRepository = mock(MockRepository.class);
+
+		WebGraphQlHandler handler = initWebGraphQlHandler(builder -> builder
+				.dataFetcher("booksConnection", QuerydslDataFetcher.builder(mockRepository).connection(Sort.by("id"))));
+
+		WebOutput output = handler.handle(input(
+				"{ booksConnection(after: \"!!\") { totalCount }}")).block();
+
+		assertThat(output.getErrors()).hasSize(1);
+		verify(mockRepository, never()).findAll(any(Predicate.class), any(Pageable.class));
+	}
+
 	@Test
 	void shouldReactivelyFetchSingleItems() {
 		ReactiveMockRepository mockRepository = mock(ReactiveMockRepository.class);
@@ -247,16 +370,122 @@ class QuerydslDataFetcherTests {
 	}
 
 
+	@Test
+	void shouldReactivelyFetchConnection() {
+		ReactiveMockRepository mockRepository = mock(ReactiveMockRepository.class);
+		Book book1 = new Book(42L, "Hitchhiker's Guide to the Galaxy", "Douglas Adams");
+		Book book2 = new Book(53L, "Breaking Bad", "Heisenberg");
+		Book book3 = new Book(64L, "Dune", "Frank Herbert");
+		when(mockRepository.findAll(any(Predicate.class), any(Sort.class))).thenReturn(Flux.just(book1, book2, book3));
+
+		WebGraphQlHandler handler = initWebGraphQlHandler(builder -> builder
+				.dataFetcher("booksConnection", QuerydslDataFetcher.builder(mockRepository).connection(Sort.by("id"))));
+
+		WebOutput output = handler.handle(input(
+				"{ booksConnection(first: 2) { edges { cursor } pageInfo { hasNextPage endCursor } }}")).block();
+
+		Map<String, Object> connection = getConnection(output);
+		assertThat(connection.get("edges")).isEqualTo(Arrays.asList(
+				Collections.singletonMap("cursor", "NDI"), Collections.singletonMap("cursor", "NTM")));
+		assertThat(connection.get("pageInfo")).isEqualTo(pageInfo(true, "NTM"));
+		verify(mockRepository, never()).count(any());
+	}
+
+	@Test
+	void shouldBatchLoadManyToOneRelation() {
+		MockRepository bookRepository = mock(MockRepository.class);
+		when(bookRepository.findAll(any(Predicate.class))).thenReturn(Arrays.asList(
+				book(1L, "Hitchhiker's Guide to the Galaxy", 10L),
+				book(2L, "The Restaurant at the End of the Universe", 10L),
+				book(3L, "Dune", 20L)));
+
+		AuthorRepository authorRepository = mock(AuthorRepository.class);
+		when(authorRepository.findAll(any(Predicate.class))).thenReturn(Arrays.asList(
+				new Author(10L, "Douglas", "Adams"), new Author(20L, "Frank", "Herbert")));
+
+		WebGraphQlHandler handler = initRelationLoadingHandler(QuerydslDataFetcher.registrationTypeVisitor(
+				Arrays.asList(bookRepository, authorRepository), Collections.emptyList()));
+
+		WebOutput output = handler.handle(input("{ books { author { firstName } } }")).block();
+
+		assertThat((Object) output.getData()).isEqualTo(Collections.singletonMap("books", Arrays.asList(
+				Collections.singletonMap("author", Collections.singletonMap("firstName", "Douglas")),
+				Collections.singletonMap("author", Collections.singletonMap("firstName", "Douglas")),
+				Collections.singletonMap("author", Collections.singletonMap("firstName", "Frank")))));
+
+		verify(authorRepository, times(1)).findAll(any(Predicate.class));
+	}
+
+	@Test
+	void shouldReactivelyBatchLoadOneToManyRelation() {
+		ReactiveAuthorRepository authorRepository = mock(ReactiveAuthorRepository.class);
+		when(authorRepository.findOne(any())).thenReturn(Mono.just(new Author(10L, "Douglas", "Adams")));
+
+		ReactiveMockRepository bookRepository = mock(ReactiveMockRepository.class);
+		when(bookRepository.findAll((Predicate) any())).thenReturn(Flux.just(
+				book(1L, "Hitchhiker's Guide to the Galaxy", 10L),
+				book(2L, "The Restaurant at the End of the Universe", 10L)));
+
+		WebGraphQlHandler handler = initRelationLoadingHandler(QuerydslDataFetcher.registrationTypeVisitor(
+				Collections.emptyList(), Arrays.asList(bookRepository, authorRepository)));
+
+		WebOutput output = handler.handle(input("{ authorById(id: 10) { books { name } } }")).block();
+
+		assertThat((Object) output.getData()).isEqualTo(Collections.singletonMap("authorById",
+				Collections.singletonMap("books", Arrays.asList(
+						Collections.singletonMap("name", "Hitchhiker's Guide to the Galaxy"),
+						Collections.singletonMap("name", "The Restaurant at the End of the Universe")))));
+
+		ArgumentCaptor<Predicate> predicateCaptor = ArgumentCaptor.forClass(Predicate.class);
+		verify(bookRepository).findAll(predicateCaptor.capture());
+		assertThat(predicateCaptor.getValue().toString()).isEqualTo("book.authorId = 10");
+	}
+
+	@Test
+	void shouldNotAddDataLoaderRegistryWithoutRelations() {
+		MockRepository bookRepository = mock(MockRepository.class);
+		GraphQLTypeVisitor visitor = QuerydslDataFetcher.registrationTypeVisitor(
+				Collections.singletonList(bookRepository), Collections.emptyList());
+		graphQlSource(visitor);
+
+		WebInput input = input("{ books { name } }");
+		QuerydslDataFetcher.configureRelationLoading(visitor, input);
+
+		assertThat(input.toExecutionInput().getDataLoaderRegistry())
+				.isSameAs(DataLoaderDispatcherInstrumentationState.EMPTY_DATALOADER_REGISTRY);
+	}
+
 	@GraphQlRepository
 	interface MockRepository extends Repository<Book, Long>, QuerydslPredicateExecutor<Book> {
 
 	}
 
+	interface LimitedMockRepository extends Repository<Book, Long>,
+			QuerydslPredicateExecutor<Book>, QuerydslLimitedExecutor<Book> {
+
+	}
+
 	@GraphQlRepository
 	interface ReactiveMockRepository extends Repository<Book, Long>, ReactiveQuerydslPredicateExecutor<Book> {
 
 	}
 
+	@GraphQlRepository
+	interface AuthorRepository extends Repository<Author, Long>, QuerydslPredicateExecutor<Author> {
+
+	}
+
+	@GraphQlRepository
+	interface ReactiveAuthorRepository extends Repository<Author, Long>, ReactiveQuerydslPredicateExecutor<Author> {
+
+	}
+
+	private static Book book(Long id, String name, Long authorId) {
+		Book book = new Book(id, name, null);
+		book.setAuthorId(authorId);
+		return book;
+	}
+
 	static WebGraphQlHandler initWebGraphQlHandler(Consumer<TypeRuntimeWiring.Builder> configurer) {
 		return initWebGraphQlHandler(configurer, null, null);
 	}
@@ -271,6 +500,22 @@ class QuerydslDataFetcherTests {
 				.build();
 	}
 
+	private static WebGraphQlHandler initRelationLoadingHandler(GraphQLTypeVisitor visitor) {
+		return WebGraphQlHandler.builder(new ExecutionGraphQlService(graphQlSource(visitor)))
+				.interceptor((input, next) -> {
+					QuerydslDataFetcher.configureRelationLoading(visitor, input);
+					return next.handle(input);
+				})
+				.build();
+	}
+
+	private static GraphQlSource graphQlSource(GraphQLTypeVisitor visitor) {
+		return GraphQlSource.builder()
+				.schemaResources(new ClassPathResource("books/schema.graphqls"))
+				.typeVisitors(Collections.singletonList(visitor))
+				.build();
+	}
+
 	private static GraphQlSource graphQlSource(
 			@Nullable Consumer<TypeRuntimeWiring.Builder> configurer,
 			@Nullable QuerydslPredicateExecutor<?> executor,
@@ -294,6 +539,19 @@ class QuerydslDataFetcherTests {
 		return graphQlSourceBuilder.build();
 	}
 
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getConnection(WebOutput output) {
+		Map<String, Object> data = output.getData();
+		return (Map<String, Object>) data.get("booksConnection");
+	}
+
+	private static Map<String, Object> pageInfo(boolean hasNextPage, String endCursor) {
+		Map<String, Object> pageInfo = new HashMap<>();
+		pageInfo.put("hasNextPage", hasNextPage);
+		pageInfo.put("endCursor", endCursor);
+		return pageInfo;
+	}
+
 	private WebInput input(String query) {
 		return new WebInput(URI.create("http://abc.org"), new HttpHeaders(),
 				Collections.singletonMap("query", query), "1");
@@ -306,6 +564,14 @@ class QuerydslDataFetcherTests {
 
 	}
 
+	interface BookNameProjection {
+
+		Long getId();
+
+		String getName();
+
+	}
+
 	static class BookDto {
 
 		private final String name;
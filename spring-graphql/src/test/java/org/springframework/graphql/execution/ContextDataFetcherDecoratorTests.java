@@ -16,6 +16,7 @@
 
 package org.springframework.graphql.execution;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@ import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 import reactor.util.context.ContextView;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.graphql.GraphQlTestUtils;
 import org.springframework.graphql.TestThreadLocalAccessor;
 
@@ -72,6 +74,28 @@ public class ContextDataFetcherDecoratorTests {
 		assertThat((List<String>) data.get("greetings")).containsExactly("Hi 007", "Bonjour 007", "Hola 007");
 	}
 
+	@Test
+	void scalarDataFetchers() throws Exception {
+		String schema = "type Query { greeting: String, greetings: [String], none: String, failure: String }";
+		GraphQL graphQl = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(schema.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) -> builder
+						.dataFetcher("greeting", (env) -> Mono.just("Hello"))
+						.dataFetcher("greetings", (env) -> Flux.just("Hi"))
+						.dataFetcher("none", (env) -> Mono.empty())
+						.dataFetcher("failure", (env) -> Mono.error(new IllegalStateException("Boom")))))
+				.build()
+				.graphQl();
+
+		ExecutionResult result = graphQl.executeAsync(
+				ExecutionInput.newExecutionInput().query("{ greeting greetings none failure }").build()).get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("greeting", "Hello").containsEntry("none", null).containsEntry("failure", null);
+		assertThat((List<String>) data.get("greetings")).containsExactly("Hi");
+		assertThat(result.getErrors()).hasSize(1);
+	}
+
 	@Test
 	void fluxDataFetcherSubscription() throws Exception {
 		GraphQL graphQl = GraphQlTestUtils.initGraphQl(
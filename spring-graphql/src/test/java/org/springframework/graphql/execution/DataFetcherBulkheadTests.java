@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.FieldCoordinates;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.graphql.GraphQlTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DataFetcherBulkhead} applied through a {@link BulkheadRegistry}.
+ */
+public class DataFetcherBulkheadTests {
+
+	private static final String SCHEMA = "type Query { greeting: String }";
+
+	@Test
+	void rejectWhenSaturated() throws Exception {
+		BulkheadRegistry registry = new BulkheadRegistry();
+		DataFetcherBulkhead bulkhead = registry.register(
+				FieldCoordinates.coordinates("Query", "greeting"), 1, 0, Duration.ZERO);
+
+		GraphQL graphQl = initGraphQl(registry);
+		ExecutionInput input = ExecutionInput.newExecutionInput().query("{ a: greeting b: greeting }").build();
+		ExecutionResult result = graphQl.executeAsync(input).get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("a", "Hello").containsEntry("b", null);
+
+		assertThat(result.getErrors()).hasSize(1);
+		GraphQLError error = result.getErrors().get(0);
+		assertThat(error.getErrorType()).isEqualTo(ErrorType.UNAVAILABLE);
+		assertThat(error.getMessage()).isEqualTo("Bulkhead 'Query.greeting' is full");
+
+		assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void waitForPermit() throws Exception {
+		BulkheadRegistry registry = new BulkheadRegistry();
+		DataFetcherBulkhead bulkhead = registry.register(
+				FieldCoordinates.coordinates("Query", "greeting"), 1, 2, Duration.ofSeconds(5));
+
+		GraphQL graphQl = initGraphQl(registry);
+		ExecutionInput input = ExecutionInput.newExecutionInput().query("{ a: greeting b: greeting c: greeting }").build();
+		ExecutionResult result = graphQl.executeAsync(input).get();
+
+		assertThat(result.getErrors()).isEmpty();
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("a", "Hello").containsEntry("b", "Hello").containsEntry("c", "Hello");
+
+		assertThat(bulkhead.getRejectedCount()).isEqualTo(0);
+		assertThat(bulkhead.getQueuedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void rejectWhenWaitTimeElapses() throws Exception {
+		BulkheadRegistry registry = new BulkheadRegistry();
+		DataFetcherBulkhead bulkhead = registry.register(
+				FieldCoordinates.coordinates("Query", "greeting"), 1, 1, Duration.ofMillis(10));
+
+		GraphQL graphQl = initGraphQl(registry);
+		ExecutionInput input = ExecutionInput.newExecutionInput().query("{ a: greeting b: greeting }").build();
+		ExecutionResult result = graphQl.executeAsync(input).get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("a", "Hello").containsEntry("b", null);
+		assertThat(result.getErrors()).hasSize(1);
+
+		assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+		assertThat(bulkhead.getQueuedCount()).isEqualTo(0);
+	}
+
+	private static GraphQL initGraphQl(BulkheadRegistry registry) {
+		return GraphQlTestUtils.initGraphQlSource(SCHEMA, "Query", "greeting",
+				(env) -> Mono.delay(Duration.ofMillis(100)).map((aLong) -> "Hello"))
+				.typeVisitors(Collections.singletonList(registry.typeVisitor()))
+				.build()
+				.graphQl();
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.GraphQlTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DataFetcherCache}.
+ */
+public class DataFetcherCacheTests {
+
+	private static final String SCHEMA = "type Query { greeting(name: String): String, greetings: [String], " +
+			"books: [Book] } type Book { id: ID, title: String }";
+
+	private final AtomicInteger loadCount = new AtomicInteger();
+
+
+	@Test
+	void cacheByArguments() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greeting", 10, Duration.ofMinutes(1));
+		GraphQL graphQl = initGraphQl(cache, (env) -> {
+			this.loadCount.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(50)).map((aLong) -> "Hello " + env.getArgument("name"));
+		});
+
+		ExecutionResult result = graphQl.executeAsync(
+				"{ a: greeting(name: \"A\") b: greeting(name: \"A\") c: greeting(name: \"C\") }").get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("a", "Hello A").containsEntry("b", "Hello A").containsEntry("c", "Hello C");
+		assertThat(this.loadCount.get()).isEqualTo(2);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+
+		graphQl.executeAsync("{ greeting(name: \"A\") }").get();
+		assertThat(this.loadCount.get()).isEqualTo(2);
+		assertThat(cache.getHitCount()).isEqualTo(2);
+	}
+
+	@Test
+	void cacheFlux() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greetings", 10, Duration.ofMinutes(1));
+		GraphQL graphQl = GraphQlTestUtils.initGraphQl(SCHEMA, "Query", "greetings", cache.decorate((env) -> {
+			this.loadCount.incrementAndGet();
+			return Flux.just("Hi", "Hello");
+		}));
+
+		graphQl.executeAsync("{ greetings }").get();
+		ExecutionResult result = graphQl.executeAsync("{ greetings }").get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data.get("greetings")).asList().containsExactly("Hi", "Hello");
+		assertThat(this.loadCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	void expireAfterTimeToLive() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greeting", 10, Duration.ofMillis(50));
+		GraphQL graphQl = initGraphQl(cache, (env) -> "Hello " + this.loadCount.incrementAndGet());
+
+		assertThat(greeting(graphQl)).isEqualTo("Hello 1");
+		assertThat(greeting(graphQl)).isEqualTo("Hello 1");
+
+		Thread.sleep(100);
+		assertThat(greeting(graphQl)).isEqualTo("Hello 2");
+	}
+
+	@Test
+	void refreshAhead() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greeting", 10, Duration.ofMinutes(1), Duration.ofMillis(50));
+		GraphQL graphQl = initGraphQl(cache, (env) -> {
+			int count = this.loadCount.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(20)).map((aLong) -> "Hello " + count);
+		});
+
+		assertThat(greeting(graphQl)).isEqualTo("Hello 1");
+
+		Thread.sleep(100);
+		assertThat(greeting(graphQl)).as("Stale value returned while refreshing").isEqualTo("Hello 1");
+
+		Thread.sleep(100);
+		assertThat(greeting(graphQl)).isEqualTo("Hello 2");
+		assertThat(cache.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void evictLeastRecentlyUsed() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greeting", 1, Duration.ofMinutes(1));
+		GraphQL graphQl = initGraphQl(cache, (env) -> "Hello " + env.getArgument("name"));
+
+		graphQl.executeAsync("{ greeting(name: \"A\") }").get();
+		graphQl.executeAsync("{ greeting(name: \"B\") }").get();
+
+		assertThat(cache.getSize()).isEqualTo(1);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void doNotCacheErrors() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greeting", 10, Duration.ofMinutes(1));
+		GraphQL graphQl = initGraphQl(cache, (env) -> {
+			if (this.loadCount.incrementAndGet() == 1) {
+				throw new IllegalStateException("Boom");
+			}
+			return "Hello";
+		});
+
+		ExecutionResult result = graphQl.executeAsync("{ greeting }").get();
+		assertThat(result.getErrors()).hasSize(1);
+
+		assertThat(greeting(graphQl)).isEqualTo("Hello");
+		assertThat(cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	void cacheBySourceIdentity() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Book.title", 10, Duration.ofMinutes(1));
+		Map<String, Object> book = Collections.singletonMap("id", "1");
+		Map<String, Object> equalBook = new HashMap<>(book);
+		GraphQL graphQl = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring
+						.type("Query", (builder) -> builder.dataFetcher("books", (env) -> Arrays.asList(book, book, equalBook)))
+						.type("Book", (builder) -> builder.dataFetcher("title", cache.decorate((env) ->
+								"Title " + this.loadCount.incrementAndGet()))))
+				.build()
+				.graphQl();
+
+		Map<String, Object> data = graphQl.executeAsync("{ books { title } }").get().getData();
+
+		assertThat(data.get("books")).asList().extracting("title").containsExactly("Title 1", "Title 1", "Title 2");
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	void cacheByResolvedKey() throws Exception {
+		DataFetcherCache cache = new DataFetcherCache("Query.greeting", 10, Duration.ofMinutes(1));
+		cache.setKeyResolver((env) -> env.getGraphQlContext().get("user"));
+		GraphQL graphQl = initGraphQl(cache, (env) -> "Hello " + this.loadCount.incrementAndGet());
+
+		assertThat(greeting(graphQl, "A")).isEqualTo("Hello 1");
+		assertThat(greeting(graphQl, "A")).isEqualTo("Hello 1");
+		assertThat(greeting(graphQl, "B")).isEqualTo("Hello 2");
+
+		// No key, not cached
+		assertThat(greeting(graphQl)).isEqualTo("Hello 3");
+		assertThat(greeting(graphQl)).isEqualTo("Hello 4");
+		assertThat(cache.getSize()).isEqualTo(2);
+	}
+
+	private static GraphQL initGraphQl(DataFetcherCache cache, DataFetcher<?> dataFetcher) {
+		return GraphQlTestUtils.initGraphQl(SCHEMA, "Query", "greeting", cache.decorate(dataFetcher));
+	}
+
+	private static Object greeting(GraphQL graphQl) throws Exception {
+		Map<String, Object> data = graphQl.executeAsync("{ greeting }").get().getData();
+		return data.get("greeting");
+	}
+
+	private static Object greeting(GraphQL graphQl, String user) throws Exception {
+		ExecutionInput input = ExecutionInput.newExecutionInput().query("{ greeting }")
+				.graphQLContext(Collections.singletonMap("user", user)).build();
+		Map<String, Object> data = graphQl.executeAsync(input).get().getData();
+		return data.get("greeting");
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.idl.TypeRuntimeWiring;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.GraphQlTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DataFetcherMemoization}.
+ */
+public class DataFetcherMemoizationTests {
+
+	private static final String SCHEMA = "type Query { greeting(name: String): String }";
+
+	private final AtomicInteger invocationCount = new AtomicInteger();
+
+
+	@Test
+	void memoizeWithinExecution() throws Exception {
+		GraphQL graphQl = initGraphQl();
+
+		ExecutionResult result = graphQl.executeAsync(
+				"{ a: greeting(name: \"A\") b: greeting(name: \"A\") c: greeting(name: \"C\") }").get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("a", "Hello A").containsEntry("b", "Hello A").containsEntry("c", "Hello C");
+		assertThat(this.invocationCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void doNotMemoizeAcrossExecutions() throws Exception {
+		GraphQL graphQl = initGraphQl();
+
+		graphQl.executeAsync("{ greeting(name: \"A\") }").get();
+		graphQl.executeAsync("{ greeting(name: \"A\") }").get();
+
+		assertThat(this.invocationCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void doNotShareResultsAcrossFieldsWithSameDataFetcher() throws Exception {
+		DataFetcher<?> dataFetcher = (env) -> {
+			this.invocationCount.incrementAndGet();
+			return env.getField().getName() + " " + env.getArgument("name");
+		};
+		GraphQL graphQl = initGraphQl("type Query { greeting(name: String): String farewell(name: String): String }",
+				(wiring) -> wiring.dataFetcher("greeting", dataFetcher).dataFetcher("farewell", dataFetcher));
+
+		ExecutionResult result = graphQl.executeAsync("{ greeting(name: \"A\") farewell(name: \"A\") }").get();
+
+		Map<String, Object> data = result.getData();
+		assertThat(data).containsEntry("greeting", "greeting A").containsEntry("farewell", "farewell A");
+		assertThat(this.invocationCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void memoizeBySelectionSet() throws Exception {
+		GraphQL graphQl = initGraphQl("type Query { book: Book } type Book { id: ID title: String }",
+				(wiring) -> wiring.dataFetcher("book", (env) -> {
+					this.invocationCount.incrementAndGet();
+					Map<String, Object> book = new HashMap<>();
+					book.put("id", "1");
+					if (env.getSelectionSet().contains("title")) {
+						book.put("title", "Nineteen Eighty-Four");
+					}
+					return book;
+				}));
+
+		ExecutionResult result = graphQl.executeAsync("{ a: book { id } b: book { id } c: book { title } }").get();
+
+		Map<String, Map<String, Object>> data = result.getData();
+		assertThat(data.get("a")).containsEntry("id", "1");
+		assertThat(data.get("c")).containsEntry("title", "Nineteen Eighty-Four");
+		assertThat(this.invocationCount.get()).isEqualTo(2);
+	}
+
+	private GraphQL initGraphQl(String schema, UnaryOperator<TypeRuntimeWiring.Builder> queryWiring) {
+
+		return GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(schema.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", queryWiring))
+				.typeVisitors(Collections.singletonList(DataFetcherMemoization.typeVisitor(
+						(coordinates) -> coordinates.getTypeName().equals("Query"))))
+				.build()
+				.graphQl();
+	}
+
+	private GraphQL initGraphQl() {
+		return GraphQlTestUtils.initGraphQlSource(SCHEMA, "Query", "greeting", (env) -> {
+					this.invocationCount.incrementAndGet();
+					return Mono.just("Hello " + env.getArgument("name"));
+				})
+				.typeVisitors(Collections.singletonList(DataFetcherMemoization.typeVisitor()))
+				.build()
+				.graphQl();
+	}
+
+}
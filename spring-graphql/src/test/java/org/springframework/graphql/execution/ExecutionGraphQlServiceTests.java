@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.GraphQlTestUtils;
+import org.springframework.graphql.RequestInput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExecutionGraphQlService}.
+ */
+public class ExecutionGraphQlServiceTests {
+
+	@Test
+	void cancelPendingDataFetchers() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		GraphQlSource source = GraphQlTestUtils.initGraphQlSource("type Query { greeting: String }",
+				"Query", "greeting", (env) -> Mono.never().doOnCancel(() -> cancelled.set(true))).build();
+
+		Disposable disposable = new ExecutionGraphQlService(source)
+				.execute(new RequestInput("{ greeting }", null, null)).subscribe();
+		assertThat(cancelled.get()).isFalse();
+
+		disposable.dispose();
+		assertThat(cancelled.get()).isTrue();
+	}
+
+	@Test
+	void doNotFetchNestedFieldsAfterCancellation() {
+		Sinks.One<String> bookSink = Sinks.one();
+		AtomicInteger titleCount = new AtomicInteger();
+		String schema = "type Query { book: Book } type Book { title: String }";
+		GraphQlSource source = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(schema.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring
+						.type("Query", (builder) -> builder.dataFetcher("book", (env) -> bookSink.asMono()))
+						.type("Book", (builder) -> builder.dataFetcher("title", (env) -> {
+							titleCount.incrementAndGet();
+							return "Title";
+						})))
+				.build();
+
+		Disposable disposable = new ExecutionGraphQlService(source)
+				.execute(new RequestInput("{ book { title } }", null, null)).subscribe();
+		disposable.dispose();
+		bookSink.tryEmitValue("Book");
+
+		assertThat(titleCount.get()).isEqualTo(0);
+	}
+
+	@Test
+	void failDataFetchersInvokedAfterCancellation() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		GraphQL graphQl = GraphQlTestUtils.initGraphQl("type Query { greeting: String }", "Query", "greeting",
+				(env) -> {
+					count.incrementAndGet();
+					return Mono.just("Hello");
+				});
+
+		ExecutionInput input = ExecutionInput.newExecutionInput().query("{ greeting }").build();
+		ExecutionCancellation.register(input).cancel();
+		ExecutionResult result = graphQl.executeAsync(input).get();
+
+		assertThat(count.get()).isEqualTo(0);
+		assertThat(result.getErrors()).hasSize(1);
+	}
+
+}
@@ -16,6 +16,14 @@
 package org.springframework.graphql.execution;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
@@ -54,20 +62,197 @@ public class ReactorContextManagerTests {
 	}
 
 	@Test
-	void restoreThreadLocaValuesOnSameThreadIsNoOp() {
+	void restoreThreadLocaValuesOnSameThread() {
 		ThreadLocal<String> threadLocal = new ThreadLocal<>();
 		threadLocal.set("myValue");
 
 		Context context = ReactorContextManager.extractThreadLocalValues(
 				new TestThreadLocalAccessor<>(threadLocal, true), Context.empty());
+		try {
+			threadLocal.remove();
+			ReactorContextManager.restoreThreadLocalValues(context);
+			assertThat(threadLocal.get()).isEqualTo("myValue");
+
+			ReactorContextManager.resetThreadLocalValues(context);
+			assertThat(threadLocal.get()).isNull();
+		}
+		finally {
+			threadLocal.remove();
+		}
+	}
+
+	@Test
+	void nestedRestoreOfSameValuesIsNoOp() {
+		ThreadLocal<String> threadLocal = new ThreadLocal<>();
+		threadLocal.set("myValue");
+
+		AtomicInteger restoreCount = new AtomicInteger();
+		Context context = ReactorContextManager.extractThreadLocalValues(
+				new TestThreadLocalAccessor<String>(threadLocal) {
+
+					@Override
+					public void restoreValues(Map<String, Object> values) {
+						restoreCount.incrementAndGet();
+						super.restoreValues(values);
+					}
+				}, Context.empty());
+		try {
+			Mono.delay(Duration.ofMillis(10))
+					.doOnNext(aLong -> {
+						ReactorContextManager.restoreThreadLocalValues(context);
+						ReactorContextManager.restoreThreadLocalValues(context);
+						ReactorContextManager.resetThreadLocalValues(context);
+						assertThat(threadLocal.get()).isEqualTo("myValue");
+						ReactorContextManager.resetThreadLocalValues(context);
+						assertThat(threadLocal.get()).isNull();
+					})
+					.block();
+		}
+		finally {
+			threadLocal.remove();
+		}
+
+		assertThat(restoreCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	void restoreCompositeValuesBySlot() {
+		ThreadLocal<String> threadLocal1 = new ThreadLocal<>();
+		ThreadLocal<String> threadLocal2 = new ThreadLocal<>();
+		threadLocal1.set("value1");
+		threadLocal2.set("value2");
+
+		AtomicInteger emptyRestoreCount = new AtomicInteger();
+		ThreadLocalAccessor emptyAccessor = new ThreadLocalAccessor() {
+
+			@Override
+			public void extractValues(Map<String, Object> container) {
+			}
+
+			@Override
+			public void restoreValues(Map<String, Object> values) {
+				emptyRestoreCount.incrementAndGet();
+			}
 
+			@Override
+			public void resetValues(Map<String, Object> values) {
+			}
+		};
+
+		// Both test accessors use the same key, which is fine with separate slots
+		Context context = ReactorContextManager.extractThreadLocalValues(ThreadLocalAccessor.composite(Arrays.asList(
+				new TestThreadLocalAccessor<>(threadLocal1), emptyAccessor, new TestThreadLocalAccessor<>(threadLocal2))),
+				Context.empty());
+		try {
+			Mono.delay(Duration.ofMillis(10))
+					.doOnNext(aLong -> {
+						ReactorContextManager.restoreThreadLocalValues(context);
+						assertThat(threadLocal1.get()).isEqualTo("value1");
+						assertThat(threadLocal2.get()).isEqualTo("value2");
+						ReactorContextManager.resetThreadLocalValues(context);
+						assertThat(threadLocal1.get()).isNull();
+						assertThat(threadLocal2.get()).isNull();
+					})
+					.block();
+		}
+		finally {
+			threadLocal1.remove();
+			threadLocal2.remove();
+		}
+
+		assertThat(emptyRestoreCount.get()).isEqualTo(0);
+	}
+
+	@Test
+	void restoreOnConcurrentThreads() throws Exception {
+		ThreadLocal<String> threadLocal = new ThreadLocal<>();
+		threadLocal.set("myValue");
+
+		Context context = ReactorContextManager.extractThreadLocalValues(
+				new TestThreadLocalAccessor<>(threadLocal, true), Context.empty());
+		threadLocal.remove();
+
+		AtomicReference<String> valueAfterOtherThread = new AtomicReference<>();
+		AtomicReference<String> valueOnOtherThread = new AtomicReference<>();
+		AtomicReference<String> valueAfterReset = new AtomicReference<>("notReset");
+		Thread thread = new Thread(() -> {
+			ReactorContextManager.restoreThreadLocalValues(context);
+			Thread otherThread = new Thread(() -> {
+				ReactorContextManager.restoreThreadLocalValues(context);
+				valueOnOtherThread.set(threadLocal.get());
+				ReactorContextManager.resetThreadLocalValues(context);
+			});
+			otherThread.start();
+			try {
+				otherThread.join();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			valueAfterOtherThread.set(threadLocal.get());
+			ReactorContextManager.resetThreadLocalValues(context);
+			valueAfterReset.set(threadLocal.get());
+		});
+		thread.start();
+		thread.join();
+
+		assertThat(valueOnOtherThread.get()).isEqualTo("myValue");
+		assertThat(valueAfterOtherThread.get()).isEqualTo("myValue");
+		assertThat(valueAfterReset.get()).isNull();
+	}
+
+	@Test
+	void nestedRestoreOnConcurrentThreads() throws Exception {
+		ThreadLocal<String> threadLocal = new ThreadLocal<>();
+		threadLocal.set("myValue");
+
+		AtomicInteger restoreCount = new AtomicInteger();
+		Context context = ReactorContextManager.extractThreadLocalValues(
+				new TestThreadLocalAccessor<String>(threadLocal, true) {
+
+					@Override
+					public void restoreValues(Map<String, Object> values) {
+						restoreCount.incrementAndGet();
+						super.restoreValues(values);
+					}
+				}, Context.empty());
 		threadLocal.remove();
-		ReactorContextManager.restoreThreadLocalValues(context);
-		assertThat(threadLocal.get()).isNull();
 
-		threadLocal.set("anotherValue");
-		ReactorContextManager.resetThreadLocalValues(context);
-		assertThat(threadLocal.get()).isEqualTo("anotherValue");
+		// Both threads restore before either resets, and check their value after a nested reset
+		CountDownLatch restoredLatch = new CountDownLatch(2);
+		CountDownLatch nestedResetLatch = new CountDownLatch(2);
+		List<String> valuesAfterNestedReset = new CopyOnWriteArrayList<>();
+		List<String> valuesAfterReset = new CopyOnWriteArrayList<>();
+		Runnable task = () -> {
+			ReactorContextManager.restoreThreadLocalValues(context);
+			ReactorContextManager.restoreThreadLocalValues(context);
+			await(restoredLatch);
+			ReactorContextManager.resetThreadLocalValues(context);
+			await(nestedResetLatch);
+			valuesAfterNestedReset.add(threadLocal.get());
+			ReactorContextManager.resetThreadLocalValues(context);
+			valuesAfterReset.add(threadLocal.get());
+		};
+		Thread thread1 = new Thread(task);
+		Thread thread2 = new Thread(task);
+		thread1.start();
+		thread2.start();
+		thread1.join();
+		thread2.join();
+
+		assertThat(valuesAfterNestedReset).containsExactly("myValue", "myValue");
+		assertThat(valuesAfterReset).hasSize(2).containsOnlyNulls();
+		assertThat(restoreCount.get()).isEqualTo(2);
+	}
+
+	private static void await(CountDownLatch latch) {
+		latch.countDown();
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.execution;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.graphql.GraphQlTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SubscriptionDeliveryPolicy}.
+ */
+public class SubscriptionDeliveryPolicyTests {
+
+	private static final String SCHEMA = "type Query { greeting: String } type Subscription { counter: Int }";
+
+	private static final DataFetcher<?> COUNTER_DATA_FETCHER =
+			(env) -> Flux.interval(Duration.ofMillis(10)).take(20).map(Long::intValue);
+
+	@Test
+	void conflate() throws Exception {
+		SubscriptionDeliveryPolicy policy = SubscriptionDeliveryPolicy.conflate(Duration.ofMillis(50));
+		List<Integer> values = subscribe(initGraphQl(COUNTER_DATA_FETCHER, policy));
+
+		assertThat(values).hasSizeLessThan(20).isSorted();
+		assertThat(values.get(values.size() - 1)).isEqualTo(19);
+	}
+
+	@Test
+	void typeVisitorSkipsDecoratedDataFetcher() throws Exception {
+		SubscriptionDeliveryPolicy deliverAll = new SubscriptionDeliveryPolicy() {
+
+			@Override
+			public <T> Flux<T> apply(Publisher<T> events) {
+				return Flux.from(events);
+			}
+		};
+		DataFetcher<?> dataFetcher = deliverAll.decorate(COUNTER_DATA_FETCHER);
+
+		SubscriptionDeliveryPolicy policy = SubscriptionDeliveryPolicy.conflate(Duration.ofMillis(50));
+		List<Integer> values = subscribe(initGraphQl(dataFetcher, policy));
+
+		assertThat(values).hasSize(20);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Integer> subscribe(GraphQL graphQl) throws Exception {
+		Publisher<ExecutionResult> publisher = graphQl.executeAsync("subscription { counter }").get().getData();
+		return Flux.from(publisher)
+				.map((result) -> (Integer) ((Map<String, Object>) result.getData()).get("counter"))
+				.collectList()
+				.block(Duration.ofSeconds(5));
+	}
+
+	private static GraphQL initGraphQl(DataFetcher<?> dataFetcher, SubscriptionDeliveryPolicy policy) {
+		return GraphQlTestUtils.initGraphQlSource(SCHEMA, "Subscription", "counter", dataFetcher)
+				.typeVisitors(Collections.singletonList(policy.typeVisitor()))
+				.build()
+				.graphQl();
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.rsocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.ExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GraphQlRSocketHandler}.
+ */
+public class GraphQlRSocketHandlerTests {
+
+	private static final String SCHEMA = "type Query { greeting: String } type Subscription { greetings: String }";
+
+	private final GraphQlRSocketHandler handler = initHandler();
+
+	@Test
+	void query() {
+		Map<String, Object> result = this.handler.handle(payload("{ greeting }")).block();
+
+		assertThat(result).isEqualTo(Collections.singletonMap("data", Collections.singletonMap("greeting", "Hello")));
+	}
+
+	@Test
+	void subscription() {
+		StepVerifier.create(this.handler.handleSubscription(payload("subscription { greetings }")))
+				.expectNext(Collections.singletonMap("data", Collections.singletonMap("greetings", "Hi")))
+				.expectNext(Collections.singletonMap("data", Collections.singletonMap("greetings", "Bonjour")))
+				.expectNext(Collections.singletonMap("data", Collections.singletonMap("greetings", "Hola")))
+				.verifyComplete();
+	}
+
+	@Test
+	void queryAsRequestStream() {
+		StepVerifier.create(this.handler.handleSubscription(payload("{ greeting }")))
+				.expectNext(Collections.singletonMap("data", Collections.singletonMap("greeting", "Hello")))
+				.verifyComplete();
+	}
+
+	@Test
+	void subscriptionAsRequestResponse() {
+		StepVerifier.create(this.handler.handle(payload("subscription { greetings }")))
+				.expectErrorMessage("Subscriptions must be sent as request-stream, not as request-response")
+				.verify();
+	}
+
+	@Test
+	void missingQuery() {
+		StepVerifier.create(this.handler.handle(Collections.emptyMap()))
+				.expectError(IllegalArgumentException.class)
+				.verify();
+	}
+
+	private static Map<String, Object> payload(String query) {
+		return Collections.singletonMap("query", query);
+	}
+
+	private static GraphQlRSocketHandler initHandler() {
+		GraphQlSource source = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring
+						.type("Query", (builder) -> builder.dataFetcher("greeting", (env) -> "Hello"))
+						.type("Subscription", (builder) -> builder.dataFetcher("greetings",
+								(env) -> Flux.just("Hi", "Bonjour", "Hola"))))
+				.build();
+		return new GraphQlRSocketHandler(new ExecutionGraphQlService(source));
+	}
+
+}
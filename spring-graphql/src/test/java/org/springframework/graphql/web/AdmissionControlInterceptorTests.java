@@ -0,0 +1,198 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdmissionControlInterceptor}.
+ */
+public class AdmissionControlInterceptorTests {
+
+	private final List<Sinks.One<ExecutionResult>> executions = new CopyOnWriteArrayList<>();
+
+	private final List<WebOutput> outputs = new CopyOnWriteArrayList<>();
+
+
+	@Test
+	void rejectWhenLimitReached() {
+		AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(1, 1, 0, Duration.ofSeconds(5));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+		WebOutput rejected = handler.handle(webInput("{ greeting }")).block();
+
+		assertThat(this.executions).hasSize(1);
+		assertThat(rejected.getResponseStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(rejected.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		GraphQLError error = rejected.getErrors().get(0);
+		assertThat(error.getErrorType()).isEqualTo(ErrorType.UNAVAILABLE);
+		assertThat(error.getExtensions()).containsEntry("retryable", true);
+		assertThat(interceptor.getRejectedCount()).isEqualTo(1);
+
+		complete(0);
+		assertThat(this.outputs).hasSize(1);
+		assertThat(this.outputs.get(0).getResponseStatus()).isNull();
+		assertThat(interceptor.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	void queueUntilPermitReleased() {
+		AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(1, 1, 1, Duration.ofSeconds(5));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+		assertThat(this.executions).hasSize(1);
+		assertThat(interceptor.getQueuedCount()).isEqualTo(1);
+
+		complete(0);
+		assertThat(this.executions).hasSize(2);
+		assertThat(interceptor.getQueuedCount()).isEqualTo(0);
+
+		complete(1);
+		assertThat(this.outputs).hasSize(2);
+		assertThat(interceptor.getRejectedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void rejectWhenWaitTimeElapses() {
+		AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(1, 1, 1, Duration.ofMillis(50));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+		WebOutput rejected = handler.handle(webInput("{ greeting }")).block();
+
+		assertThat(rejected.getResponseStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(interceptor.getQueuedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void higherPriorityEvictsLowerPriorityFromFullQueue() {
+		AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(1, 1, 1, Duration.ofSeconds(5));
+		interceptor.setRejectionStatus(HttpStatus.TOO_MANY_REQUESTS);
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+		handler.handle(webInput("{ __schema { queryType { name } } }")).subscribe(this.outputs::add);
+		handler.handle(webInput("mutation { setGreeting }")).subscribe(this.outputs::add);
+
+		assertThat(this.outputs).hasSize(1);
+		assertThat(this.outputs.get(0).getResponseStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+		complete(0);
+		assertThat(this.executions).hasSize(2);
+		complete(1);
+		assertThat(this.outputs).hasSize(3);
+	}
+
+	@Test
+	void priorityOfSelectedOperation() {
+		AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(1, 1, 1, Duration.ofSeconds(5));
+		WebGraphQlHandler handler = initHandler(interceptor);
+		String document = "query Q { greeting(name: \"mutation { setGreeting }\") } mutation M { setGreeting }";
+
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+		handler.handle(webInput("{ greeting }")).subscribe(this.outputs::add);
+
+		// Same priority as the queued query, so rejected rather than evicting it
+		WebOutput rejected = handler.handle(webInput(document, "Q")).block();
+		assertThat(rejected.getResponseStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(interceptor.getQueuedCount()).isEqualTo(1);
+
+		// Higher priority, so evicts the queued query
+		handler.handle(webInput(document, "M")).subscribe(this.outputs::add);
+		assertThat(this.outputs).hasSize(1);
+		assertThat(this.outputs.get(0).getResponseStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(interceptor.getRejectedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void adaptiveLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 100);
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(Duration.ofMillis(1).toNanos(), limit.getLimit());
+		}
+		int grownLimit = limit.getLimit();
+		assertThat(grownLimit).isGreaterThan(10);
+
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(Duration.ofMillis(10).toNanos(), limit.getLimit());
+		}
+		assertThat(limit.getLimit()).isLessThan(grownLimit);
+	}
+
+	@Test
+	void subscriptionsNotSampled() {
+		AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(10, 100, 0, Duration.ofSeconds(5));
+		WebGraphQlHandler handler = WebGraphQlHandler.builder((input) ->
+				Mono.just(ExecutionResultImpl.newExecutionResult().data(Flux.just("Hello")).build()))
+				.interceptor(interceptor).build();
+
+		for (int i = 0; i < 100; i++) {
+			WebOutput output = handler.handle(webInput("subscription { greetings }")).block();
+			assertThat(output.getResponseStatus()).isNull();
+		}
+		assertThat(interceptor.getLimit()).isEqualTo(10);
+		assertThat(interceptor.getInFlightCount()).isEqualTo(0);
+	}
+
+	private WebGraphQlHandler initHandler(AdmissionControlInterceptor interceptor) {
+		return WebGraphQlHandler.builder((input) -> {
+			Sinks.One<ExecutionResult> sink = Sinks.one();
+			this.executions.add(sink);
+			return sink.asMono();
+		}).interceptor(interceptor).build();
+	}
+
+	private void complete(int index) {
+		Map<String, Object> data = Collections.singletonMap("greeting", "Hello");
+		this.executions.get(index).tryEmitValue(ExecutionResultImpl.newExecutionResult().data(data).build());
+	}
+
+	private static WebInput webInput(String query) {
+		return webInput(query, null);
+	}
+
+	private static WebInput webInput(String query, String operationName) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("query", query);
+		body.put("operationName", operationName);
+		return new WebInput(URI.create("http://abc.org"), new HttpHeaders(), body, null);
+	}
+
+}
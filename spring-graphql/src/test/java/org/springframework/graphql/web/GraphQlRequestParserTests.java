@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link GraphQlRequestParser}.
+ */
+public class GraphQlRequestParserTests {
+
+	private final GraphQlRequestParser parser = new GraphQlRequestParser();
+
+
+	@Test
+	void parseRequest() throws Exception {
+		Map<String, Object> body = parse("{" +
+				"\"query\": \"query Q($id: ID) { book(id: $id) { name } }\", " +
+				"\"operationName\": \"Q\", " +
+				"\"extensions\": {\"persistedQuery\": {\"version\": 1}}, " +
+				"\"variables\": {\"id\": \"1\", \"count\": 2, \"big\": 12345678901, \"huge\": 123456789012345678901, " +
+				"\"price\": 1.5, \"flag\": true, \"none\": null, \"list\": [1, \"a\\n\\u0041\"], \"nested\": {}}" +
+				"}");
+
+		WebInput input = new WebInput(URI.create("http://abc.org"), new HttpHeaders(), body, null);
+		assertThat(input.getQuery()).isEqualTo("query Q($id: ID) { book(id: $id) { name } }");
+		assertThat(input.getOperationName()).isEqualTo("Q");
+
+		Map<String, Object> variables = input.getVariables();
+		assertThat(variables).containsEntry("id", "1").containsEntry("count", 2)
+				.containsEntry("big", 12345678901L).containsEntry("huge", new BigInteger("123456789012345678901"))
+				.containsEntry("price", 1.5).containsEntry("flag", true).containsEntry("none", null)
+				.containsEntry("list", Arrays.asList(1, "a\nA")).containsEntry("nested", Collections.emptyMap());
+		assertThat(body).doesNotContainKey("extensions");
+	}
+
+	@Test
+	void nullOperationNameAndVariables() throws Exception {
+		Map<String, Object> body = parse("{\"query\": \"{ greeting }\", \"operationName\": null, \"variables\": null}");
+		WebInput input = new WebInput(URI.create("http://abc.org"), new HttpHeaders(), body, null);
+		assertThat(input.getOperationName()).isNull();
+		assertThat(input.getVariables()).isEmpty();
+	}
+
+	@Test
+	void rejectInvalidJson() {
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\""))
+				.isInstanceOf(ServerWebInputException.class);
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\", \"variables\": {\"a\": tru}}"))
+				.isInstanceOf(ServerWebInputException.class);
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\"} trailing"))
+				.isInstanceOf(ServerWebInputException.class);
+		assertThatThrownBy(() -> parse("{\"query\": 1}"))
+				.isInstanceOf(ServerWebInputException.class).hasMessageContaining("Query must be a string");
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\", \"variables\": []}"))
+				.isInstanceOf(ServerWebInputException.class).hasMessageContaining("Variables must be a JSON object");
+	}
+
+	@Test
+	void rejectQueryTooLong() {
+		this.parser.setMaxQueryLength(10);
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\"}"))
+				.isInstanceOf(ServerWebInputException.class).hasMessageContaining("Query exceeds the limit");
+	}
+
+	@Test
+	void rejectVariablesTooLong() {
+		this.parser.setMaxVariablesLength(10);
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\", \"variables\": {\"name\": \"0123456789\"}}"))
+				.isInstanceOf(ServerWebInputException.class).hasMessageContaining("Variables exceed the limit");
+	}
+
+	@Test
+	void rejectNestingTooDeep() {
+		this.parser.setMaxDepth(3);
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\", \"variables\": {\"a\": {\"b\": {}}}}"))
+				.isInstanceOf(ServerWebInputException.class).hasMessageContaining("maximum depth of 3");
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\", \"extensions\": [[[]]]}"))
+				.isInstanceOf(ServerWebInputException.class).hasMessageContaining("maximum depth of 3");
+	}
+
+	@Test
+	void rejectBodyTooLarge() {
+		this.parser.setMaxBodySize(16);
+		assertThatThrownBy(() -> parse("{\"query\": \"{ greeting }\"}"))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						(ex) -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+	}
+
+	private Map<String, Object> parse(String json) throws IOException {
+		return this.parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
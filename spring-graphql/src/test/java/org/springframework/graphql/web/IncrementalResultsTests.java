@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link IncrementalResults}.
+ */
+public class IncrementalResultsTests {
+
+	private static final String SCHEMA = "type Query { fast: String slow: String }";
+
+	private final GraphQL graphQl = GraphQlSource.builder()
+			.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+			.deferDirective(true)
+			.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) -> builder
+					.dataFetcher("fast", (env) -> "fast")
+					.dataFetcher("slow", (env) -> Mono.delay(Duration.ofMillis(50)).map((tick) -> "slow"))))
+			.build()
+			.graphQl();
+
+	@Test
+	void toPayloads() throws Exception {
+		ExecutionResult result = this.graphQl.executeAsync("{ fast slow @defer }").get();
+		assertThat(IncrementalResults.hasDeferredResults(result)).isTrue();
+
+		List<Map<String, Object>> payloads = IncrementalResults.toPayloads(result)
+				.collectList().block(Duration.ofSeconds(5));
+
+		assertThat(payloads).hasSize(3);
+		assertThat(payloads.get(0)).containsEntry("hasNext", true).doesNotContainKey("extensions");
+		assertThat(getData(payloads.get(0))).containsEntry("fast", "fast");
+		assertThat(payloads.get(1))
+				.containsEntry("path", Collections.singletonList("slow"))
+				.containsEntry("data", "slow")
+				.containsEntry("hasNext", true);
+		assertThat(payloads.get(2)).containsExactly(entry("hasNext", false));
+	}
+
+	@Test
+	void toPayloadsWithoutDeferredResults() throws Exception {
+		ExecutionResult result = this.graphQl.executeAsync("{ fast slow }").get();
+		assertThat(IncrementalResults.hasDeferredResults(result)).isFalse();
+
+		List<Map<String, Object>> payloads = IncrementalResults.toPayloads(result)
+				.collectList().block(Duration.ofSeconds(5));
+
+		assertThat(payloads).hasSize(1);
+		assertThat(payloads.get(0)).doesNotContainKey("hasNext");
+		assertThat(getData(payloads.get(0))).containsEntry("fast", "fast").containsEntry("slow", "slow");
+	}
+
+	@Test
+	void toMergedSpecification() throws Exception {
+		ExecutionResult result = this.graphQl.executeAsync("{ fast slow @defer }").get();
+
+		Map<String, Object> spec = IncrementalResults.toMergedSpecification(result).block(Duration.ofSeconds(5));
+
+		assertThat(spec).doesNotContainKeys("hasNext", "extensions");
+		assertThat(getData(spec)).containsEntry("fast", "fast").containsEntry("slow", "slow");
+	}
+
+	@Test
+	void acceptsMultipartMixed() {
+		assertThat(IncrementalResults.acceptsMultipartMixed(
+				Arrays.asList(MediaType.APPLICATION_JSON, MediaType.MULTIPART_MIXED))).isTrue();
+		assertThat(IncrementalResults.acceptsMultipartMixed(
+				Collections.singletonList(MediaType.ALL))).isFalse();
+		assertThat(IncrementalResults.acceptsMultipartMixed(Collections.emptyList())).isFalse();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getData(Map<String, Object> payload) {
+		return (Map<String, Object>) payload.get("data");
+	}
+
+}
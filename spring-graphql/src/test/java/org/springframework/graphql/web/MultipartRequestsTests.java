@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.graphql.execution.ExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ServerWebInputException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link MultipartRequests} and the {@link FileUpload} scalar.
+ */
+public class MultipartRequestsTests {
+
+	@Test
+	void bindFiles() {
+		Map<String, Object> variables = new LinkedHashMap<>();
+		variables.put("file", null);
+		variables.put("files", new ArrayList<>(Arrays.asList(null, null)));
+		Map<String, Object> operations = operations("mutation { upload }", variables);
+
+		Map<String, Object> fileMap = new LinkedHashMap<>();
+		fileMap.put("0", Collections.singletonList("variables.file"));
+		fileMap.put("1", Arrays.asList("variables.files.0", "variables.files.1"));
+
+		TestFileUpload file0 = new TestFileUpload("0");
+		TestFileUpload file1 = new TestFileUpload("1");
+		Map<String, FileUpload> files = new HashMap<>();
+		files.put("0", file0);
+		files.put("1", file1);
+
+		MultipartRequests.bindFiles(operations, fileMap, files::get);
+
+		assertThat(variables.get("file")).isSameAs(file0);
+		assertThat((List<?>) variables.get("files")).containsExactly(file1, file1);
+	}
+
+	@Test
+	void rejectInvalidFileMap() {
+		Map<String, Object> operations = operations("mutation { upload }", new HashMap<>());
+
+		assertThatThrownBy(() -> MultipartRequests.bindFiles(operations,
+				Collections.singletonMap("0", Collections.singletonList("variables.file")), (name) -> null))
+				.isInstanceOf(ServerWebInputException.class);
+
+		assertThatThrownBy(() -> MultipartRequests.bindFiles(operations,
+				Collections.singletonMap("0", Collections.singletonList("query")), TestFileUpload::new))
+				.isInstanceOf(ServerWebInputException.class);
+
+		assertThatThrownBy(() -> MultipartRequests.bindFiles(operations,
+				Collections.singletonMap("0", Collections.singletonList("variables.files.0")), TestFileUpload::new))
+				.isInstanceOf(ServerWebInputException.class);
+	}
+
+	@Test
+	void uploadScalar() {
+		String schema = "scalar Upload " +
+				"type Query { greeting: String } " +
+				"type Mutation { upload(file: Upload!): String }";
+
+		GraphQlSource graphQlSource = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(schema.getBytes(StandardCharsets.UTF_8)))
+				.configureRuntimeWiring((wiring) -> wiring
+						.scalar(FileUpload.SCALAR_TYPE)
+						.type("Mutation", (builder) -> builder.dataFetcher("upload", (env) -> {
+							FileUpload file = env.getArgument("file");
+							return file.getFilename();
+						})))
+				.build();
+		WebGraphQlHandler handler = WebGraphQlHandler.builder(new ExecutionGraphQlService(graphQlSource)).build();
+
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("file", null);
+		Map<String, Object> operations = operations("mutation Upload($file: Upload!) { upload(file: $file) }", variables);
+		MultipartRequests.bindFiles(operations,
+				Collections.singletonMap("0", Collections.singletonList("variables.file")), TestFileUpload::new);
+
+		WebOutput output = handler.handle(
+				new WebInput(URI.create("http://abc.org"), new HttpHeaders(), operations, "1")).block();
+
+		assertThat(output.getErrors()).isEmpty();
+		assertThat((Object) output.getData()).isEqualTo(Collections.singletonMap("upload", "0.txt"));
+	}
+
+	private static Map<String, Object> operations(String query, Map<String, Object> variables) {
+		Map<String, Object> operations = new HashMap<>();
+		operations.put("query", query);
+		operations.put("variables", variables);
+		return operations;
+	}
+
+
+	private static class TestFileUpload implements FileUpload {
+
+		private final String name;
+
+		TestFileUpload(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public String getFilename() {
+			return this.name + ".txt";
+		}
+
+		@Override
+		public MediaType getContentType() {
+			return MediaType.TEXT_PLAIN;
+		}
+
+		@Override
+		public long getSize() {
+			return 0;
+		}
+
+		@Override
+		public Flux<DataBuffer> getContent() {
+			return Flux.empty();
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path destination) {
+			return Mono.empty();
+		}
+
+	}
+
+}
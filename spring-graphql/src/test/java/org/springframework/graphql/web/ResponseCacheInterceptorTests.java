@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphqlErrorBuilder;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import org.springframework.graphql.RequestInput;
+import org.springframework.graphql.data.method.annotation.InvalidateResponseCache;
+import org.springframework.http.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ResponseCacheInterceptor}.
+ */
+public class ResponseCacheInterceptorTests {
+
+	private final AtomicInteger executionCount = new AtomicInteger();
+
+
+	@Test
+	void cacheQueryResponse() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+		assertThat(greeting(handler, "{\n  greeting # comment\n}")).isEqualTo("Hello 1");
+		assertThat(this.executionCount.get()).isEqualTo(1);
+		assertThat(interceptor.getHitCount()).isEqualTo(1);
+		assertThat(interceptor.getMissCount()).isEqualTo(1);
+		assertThat(interceptor.getSizeInBytes()).isGreaterThan(0);
+	}
+
+	@Test
+	void cacheKeyIncludesVariablesAndLocale() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		greeting(handler, webInput("{ greeting }", Collections.singletonMap("name", "A"), new HttpHeaders()));
+		greeting(handler, webInput("{ greeting }", Collections.singletonMap("name", "B"), new HttpHeaders()));
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_LANGUAGE, "de");
+		greeting(handler, webInput("{ greeting }", Collections.singletonMap("name", "A"), headers));
+
+		assertThat(this.executionCount.get()).isEqualTo(3);
+		assertThat(interceptor.getSize()).isEqualTo(3);
+	}
+
+	@Test
+	void doNotCacheAuthenticatedRequests() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBasicAuth("user", "password");
+		greeting(handler, webInput("{ greeting }", null, headers));
+		greeting(handler, webInput("{ greeting }", null, headers));
+
+		assertThat(this.executionCount.get()).isEqualTo(2);
+		assertThat(interceptor.getSize()).isEqualTo(0);
+	}
+
+	@Test
+	void doNotCacheErrors() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = WebGraphQlHandler.builder((input) -> {
+			this.executionCount.incrementAndGet();
+			return Mono.just(ExecutionResultImpl.newExecutionResult()
+					.addError(GraphqlErrorBuilder.newError().message("Boom").build())
+					.build());
+		}).interceptor(interceptor).build();
+
+		handler.handle(webInput("{ greeting }", null, new HttpHeaders())).block();
+		handler.handle(webInput("{ greeting }", null, new HttpHeaders())).block();
+
+		assertThat(this.executionCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void evictWhenFull() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		for (int i = 0; i < 10; i++) {
+			greeting(handler, webInput("{ greeting }", Collections.singletonMap("name", "name" + i), new HttpHeaders()));
+		}
+
+		assertThat(interceptor.getSizeInBytes()).isLessThanOrEqualTo(1024);
+		assertThat(interceptor.getEvictionCount()).isGreaterThan(0);
+	}
+
+	@Test
+	void staleWhileRevalidate() throws Exception {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMillis(50));
+		interceptor.setStaleWhileRevalidate(Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+
+		Thread.sleep(100);
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 2");
+		assertThat(this.executionCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void revalidateAgainAfterRevalidationWithErrors() throws Exception {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMillis(50));
+		interceptor.setStaleWhileRevalidate(Duration.ofMinutes(1));
+		WebGraphQlHandler handler = WebGraphQlHandler.builder((input) -> {
+			if (this.executionCount.get() == 1) {
+				this.executionCount.incrementAndGet();
+				return Mono.just(ExecutionResultImpl.newExecutionResult()
+						.addError(GraphqlErrorBuilder.newError().message("Boom").build())
+						.build());
+			}
+			return execute(input);
+		}).interceptor(interceptor).build();
+
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+
+		Thread.sleep(100);
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 3");
+		assertThat(this.executionCount.get()).isEqualTo(3);
+	}
+
+	@Test
+	void shareExecutionOfConcurrentMisses() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = WebGraphQlHandler.builder((input) ->
+				Mono.delay(Duration.ofMillis(50)).then(execute(input))).interceptor(interceptor).build();
+
+		Tuple2<WebOutput, WebOutput> outputs = Mono.zip(
+				handler.handle(webInput("{ greeting }", null, new HttpHeaders())),
+				handler.handle(webInput("{ greeting }", null, new HttpHeaders()))).block();
+
+		assertThat(outputs.getT1().<Map<String, Object>>getData()).containsEntry("greeting", "Hello 1");
+		assertThat(outputs.getT2().<Map<String, Object>>getData()).containsEntry("greeting", "Hello 1");
+		assertThat(this.executionCount.get()).isEqualTo(1);
+		assertThat(interceptor.getMissCount()).isEqualTo(1);
+		assertThat(interceptor.getSize()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidateOnMutation() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		greeting(handler, "{ greeting }");
+		assertThat(interceptor.getSize()).isEqualTo(1);
+
+		handler.handle(webInput("mutation { setGreeting }", null, new HttpHeaders())).block();
+		assertThat(interceptor.getSize()).isEqualTo(0);
+
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 2");
+	}
+
+	@Test
+	void invalidateByTag() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		greeting(handler, "{ greeting }");
+		interceptor.invalidate("other");
+		assertThat(interceptor.getSize()).isEqualTo(1);
+
+		interceptor.invalidate("greeting");
+		assertThat(interceptor.getSize()).isEqualTo(0);
+		assertThat(interceptor.getSizeInBytes()).isEqualTo(0);
+	}
+
+	@Test
+	void invalidateQueryWithFragments() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = initHandler(interceptor);
+
+		greeting(handler, "query { ...Greeting } fragment Greeting on Query { greeting }");
+		greeting(handler, "query { ... on Query { greeting } }");
+		assertThat(interceptor.getSize()).isEqualTo(2);
+
+		interceptor.invalidate("greeting");
+		assertThat(interceptor.getSize()).isEqualTo(0);
+	}
+
+	@Test
+	void doNotCacheResponseInvalidatedDuringExecution() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(1024 * 1024, Duration.ofMinutes(1));
+		WebGraphQlHandler handler = WebGraphQlHandler.builder((input) -> {
+			// Concurrent mutation while the query is executed
+			interceptor.invalidate("greeting");
+			return execute(input);
+		}).interceptor(interceptor).build();
+
+		assertThat(greeting(handler, "{ greeting }")).isEqualTo("Hello 1");
+		assertThat(interceptor.getSize()).isEqualTo(0);
+		assertThat(interceptor.getMissCount()).isEqualTo(1);
+	}
+
+	private WebGraphQlHandler initHandler(ResponseCacheInterceptor interceptor) {
+		return WebGraphQlHandler.builder(this::execute).interceptor(interceptor).build();
+	}
+
+	private Mono<ExecutionResult> execute(RequestInput input) {
+		ExecutionInput executionInput = input.toExecutionInput();
+		if (input.getQuery().startsWith("mutation")) {
+			Collection<String> tags = executionInput.getGraphQLContext().get(InvalidateResponseCache.class.getName());
+			tags.add("greeting");
+			return Mono.just(ExecutionResultImpl.newExecutionResult().data(Collections.emptyMap()).build());
+		}
+		Map<String, Object> data = new HashMap<>();
+		data.put("greeting", "Hello " + this.executionCount.incrementAndGet());
+		return Mono.just(ExecutionResultImpl.newExecutionResult().data(data).build());
+	}
+
+	private static Object greeting(WebGraphQlHandler handler, String query) {
+		return greeting(handler, webInput(query, null, new HttpHeaders()));
+	}
+
+	private static Object greeting(WebGraphQlHandler handler, WebInput webInput) {
+		Map<String, Object> data = handler.handle(webInput).block().getData();
+		return data.get("greeting");
+	}
+
+	private static WebInput webInput(String query, Map<String, Object> variables, HttpHeaders headers) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("query", query);
+		body.put("variables", variables);
+		return new WebInput(URI.create("http://abc.org"), headers, body, null);
+	}
+
+}
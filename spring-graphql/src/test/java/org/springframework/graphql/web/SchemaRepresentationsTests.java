@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SchemaRepresentations}.
+ */
+public class SchemaRepresentationsTests {
+
+	private static final String SCHEMA = "type Query { greeting(name: String = \"\\\"World\\\"\"): String }";
+
+	private final GraphQlSource graphQlSource = GraphQlSource.builder()
+			.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+			.build();
+
+
+	@Test
+	void sdlIsComputedOnce() throws IOException {
+		SchemaRepresentations representations = new SchemaRepresentations(this.graphQlSource);
+		SchemaRepresentations.Representation sdl = representations.select(null);
+
+		assertThat(sdl).isSameAs(representations.getSdl());
+		assertThat(sdl.getContentType().isCompatibleWith(MediaType.TEXT_PLAIN)).isTrue();
+		assertThat(new String(sdl.getContent(false), StandardCharsets.UTF_8)).contains("greeting(name: String");
+		assertThat(gunzip(sdl.getContent(true))).isEqualTo(sdl.getContent(false));
+	}
+
+	@Test
+	void introspectionIsValidJson() throws IOException {
+		SchemaRepresentations representations = new SchemaRepresentations(this.graphQlSource);
+		SchemaRepresentations.Representation introspection =
+				representations.select(SchemaRepresentations.INTROSPECTION_FORMAT);
+
+		assertThat(introspection).isSameAs(representations.getIntrospection());
+		assertThat(introspection.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+
+		Map<?, ?> result = new ObjectMapper().readValue(introspection.getContent(false), Map.class);
+		assertThat(result).containsOnlyKeys("data");
+		assertThat((Map<?, ?>) result.get("data")).containsKey("__schema");
+		assertThat(new String(introspection.getContent(false), StandardCharsets.UTF_8)).contains("\\\"World\\\"");
+	}
+
+	@Test
+	void notModified() {
+		SchemaRepresentations.Representation sdl = new SchemaRepresentations(this.graphQlSource).getSdl();
+		String eTag = sdl.getETag(false);
+
+		assertThat(eTag).startsWith("\"").endsWith("\"");
+		assertThat(sdl.getETag(true)).isNotEqualTo(eTag);
+		assertThat(sdl.isNotModified(Collections.singletonList(eTag))).isTrue();
+		assertThat(sdl.isNotModified(Collections.singletonList("\"other\", W/" + sdl.getETag(true)))).isTrue();
+		assertThat(sdl.isNotModified(Collections.singletonList("\"other\""))).isFalse();
+		assertThat(sdl.isNotModified(Collections.emptyList())).isFalse();
+	}
+
+	@Test
+	void gzipAccepted() {
+		assertThat(SchemaRepresentations.isGzipAccepted(Collections.singletonList("gzip, deflate, br"))).isTrue();
+		assertThat(SchemaRepresentations.isGzipAccepted(Collections.singletonList("deflate, gzip;q=0.5"))).isTrue();
+		assertThat(SchemaRepresentations.isGzipAccepted(Collections.singletonList("gzip;q=0"))).isFalse();
+		assertThat(SchemaRepresentations.isGzipAccepted(Collections.emptyList())).isFalse();
+	}
+
+	private static byte[] gunzip(byte[] content) throws IOException {
+		return StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(content)));
+	}
+
+}
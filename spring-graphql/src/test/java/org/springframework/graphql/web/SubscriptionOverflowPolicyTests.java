@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SubscriptionOverflowPolicy}.
+ */
+public class SubscriptionOverflowPolicyTests {
+
+	@Test
+	void dropOldest() {
+		SubscriptionOverflowPolicy policy = new SubscriptionOverflowPolicy(4, SubscriptionOverflowPolicy.Strategy.DROP_OLDEST);
+
+		StepVerifier.create(policy.apply(Flux.range(1, 10)), 0)
+				.thenRequest(10)
+				.expectNext(7, 8, 9, 10)
+				.verifyComplete();
+
+		assertThat(policy.getDroppedCount()).isEqualTo(6);
+		assertThat(policy.getOverflowCount()).isEqualTo(0);
+	}
+
+	@Test
+	void dropLatest() {
+		SubscriptionOverflowPolicy policy = new SubscriptionOverflowPolicy(4, SubscriptionOverflowPolicy.Strategy.DROP_LATEST);
+
+		StepVerifier.create(policy.apply(Flux.range(1, 10)), 0)
+				.thenRequest(10)
+				.expectNext(1, 2, 3, 4)
+				.verifyComplete();
+
+		assertThat(policy.getDroppedCount()).isEqualTo(6);
+	}
+
+	@Test
+	void error() {
+		SubscriptionOverflowPolicy policy = new SubscriptionOverflowPolicy(4, SubscriptionOverflowPolicy.Strategy.ERROR);
+
+		StepVerifier.create(policy.apply(Flux.range(1, 10)), 0)
+				.thenRequest(10)
+				.thenConsumeWhile((value) -> true)
+				.expectErrorSatisfies((ex) -> assertThat(ex)
+						.isInstanceOf(IllegalStateException.class)
+						.hasMessage("Subscription exceeded the maximum of 4 buffered events, the client is not keeping up"))
+				.verify();
+
+		assertThat(policy.getOverflowCount()).isEqualTo(1);
+		assertThat(policy.getDroppedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void noOverflowWhenClientKeepsUp() {
+		SubscriptionOverflowPolicy policy = new SubscriptionOverflowPolicy(4, SubscriptionOverflowPolicy.Strategy.ERROR);
+
+		StepVerifier.create(policy.apply(Flux.range(1, 10)))
+				.expectNextCount(10)
+				.verifyComplete();
+
+		assertThat(policy.getOverflowCount()).isEqualTo(0);
+	}
+
+}
@@ -118,6 +118,33 @@ public class WebGraphQlHandlerTests {
 		}
 	}
 
+	@Test
+	void threadLocalContextPropagationWithDeferredInput() {
+		ThreadLocal<String> nameThreadLocal = new ThreadLocal<>();
+		nameThreadLocal.set("007");
+		TestThreadLocalAccessor<String> threadLocalAccessor = new TestThreadLocalAccessor<>(nameThreadLocal);
+		try {
+			GraphQL graphQl = GraphQlTestUtils.initGraphQl(
+					"type Query { greeting: String }", "Query", "greeting",
+					(env) -> "Hello " + nameThreadLocal.get());
+
+			GraphQlService service = new ExecutionGraphQlService(new TestGraphQlSource(graphQl));
+
+			WebGraphQlHandler handler = WebGraphQlHandler.builder(service)
+					.threadLocalAccessor(threadLocalAccessor)
+					.build();
+
+			// Input provided on another thread, e.g. after reading the request body
+			Mono<WebInput> inputMono = Mono.just(webInput).delayElement(Duration.ofMillis(10));
+			Map<String, Object> data = handler.handle(inputMono).block().getData();
+
+			assertThat(data).hasSize(1).containsEntry("greeting", "Hello 007");
+		}
+		finally {
+			nameThreadLocal.remove();
+		}
+	}
+
 	@Test
 	void threadLocalContextPropagationToExceptionResolver() {
 		ThreadLocal<String> nameThreadLocal = new ThreadLocal<>();
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webflux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.ExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.web.WebGraphQlHandler;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link GraphQlHttpHandler}.
+ */
+public class GraphQlHttpHandlerTests {
+
+	private static final String SCHEMA = "type Query { fast: String slow: String }";
+
+	private static final String PART_PREFIX = "\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n";
+
+	private static final String MULTIPART_END = "\r\n-----\r\n";
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final WebTestClient client = initWebTestClient();
+
+	@Test
+	void deferWithMultipartMixed() throws Exception {
+		String body = this.client.post().uri("/graphql")
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.MULTIPART_MIXED, MediaType.APPLICATION_JSON)
+				.bodyValue("{\"query\":\"{ fast slow @defer }\"}")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.MULTIPART_MIXED)
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		List<Map<String, Object>> parts = decodeParts(body);
+		assertThat(parts).hasSize(3);
+		assertThat(parts.get(0))
+				.containsEntry("data", Collections.singletonMap("fast", "fast"))
+				.containsEntry("hasNext", true);
+		assertThat(parts.get(1))
+				.containsEntry("path", Collections.singletonList("slow"))
+				.containsEntry("data", "slow")
+				.containsEntry("hasNext", true);
+		assertThat(parts.get(2)).containsExactly(entry("hasNext", false));
+	}
+
+	@Test
+	void deferWithoutMultipartMixed() {
+		this.client.post().uri("/graphql")
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"query\":\"{ fast slow @defer }\"}")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+				.expectBody()
+				.jsonPath("data.fast").isEqualTo("fast")
+				.jsonPath("data.slow").isEqualTo("slow")
+				.jsonPath("hasNext").doesNotExist();
+	}
+
+	private static WebTestClient initWebTestClient() {
+		GraphQlSource graphQlSource = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.deferDirective(true)
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) -> builder
+						.dataFetcher("fast", (env) -> "fast")
+						.dataFetcher("slow", (env) -> Mono.delay(Duration.ofMillis(50)).map((tick) -> "slow"))))
+				.build();
+		WebGraphQlHandler graphQlHandler = WebGraphQlHandler.builder(new ExecutionGraphQlService(graphQlSource)).build();
+		GraphQlHttpHandler handler = new GraphQlHttpHandler(graphQlHandler);
+		return WebTestClient.bindToRouterFunction(
+				RouterFunctions.route(RequestPredicates.POST("/graphql"), handler::handleRequest)).build();
+	}
+
+	private static List<Map<String, Object>> decodeParts(String body) throws Exception {
+		assertThat(body).startsWith(PART_PREFIX).endsWith(MULTIPART_END);
+		String content = body.substring(PART_PREFIX.length(), body.length() - MULTIPART_END.length());
+		List<Map<String, Object>> parts = new ArrayList<>();
+		for (String json : content.split(Pattern.quote(PART_PREFIX))) {
+			parts.add(objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {}));
+		}
+		return parts;
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webmvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.ExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.web.WebGraphQlHandler;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link GraphQlHttpHandler}.
+ */
+public class GraphQlHttpHandlerTests {
+
+	private static final String SCHEMA = "type Query { fast: String slow: String }";
+
+	private static final String PART_PREFIX = "\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n";
+
+	private static final String MULTIPART_END = "\r\n-----\r\n";
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GenericWebApplicationContext context = initApplicationContext();
+
+	private final MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(this.context).build();
+
+	@AfterEach
+	void closeApplicationContext() {
+		this.context.close();
+	}
+
+	@Test
+	void deferWithMultipartMixed() throws Exception {
+		MvcResult result = this.mockMvc.perform(post("/graphql")
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.MULTIPART_MIXED, MediaType.APPLICATION_JSON)
+						.content("{\"query\":\"{ fast slow @defer }\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// Wait for the response to write all parts
+		MvcResult partsResult = this.mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.MULTIPART_MIXED))
+				.andReturn();
+		partsResult.getAsyncResult(5000);
+
+		List<Map<String, Object>> parts = decodeParts(
+				partsResult.getResponse().getContentAsString(StandardCharsets.UTF_8));
+		assertThat(parts).hasSize(3);
+		assertThat(parts.get(0))
+				.containsEntry("data", Collections.singletonMap("fast", "fast"))
+				.containsEntry("hasNext", true);
+		assertThat(parts.get(1))
+				.containsEntry("path", Collections.singletonList("slow"))
+				.containsEntry("data", "slow")
+				.containsEntry("hasNext", true);
+		assertThat(parts.get(2)).containsExactly(entry("hasNext", false));
+	}
+
+	@Test
+	void deferWithoutMultipartMixed() throws Exception {
+		MvcResult result = this.mockMvc.perform(post("/graphql")
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.APPLICATION_JSON)
+						.content("{\"query\":\"{ fast slow @defer }\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		this.mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("data.fast").value("fast"))
+				.andExpect(jsonPath("data.slow").value("slow"))
+				.andExpect(jsonPath("hasNext").doesNotExist());
+	}
+
+	private static GenericWebApplicationContext initApplicationContext() {
+		GraphQlSource graphQlSource = GraphQlSource.builder()
+				.schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+				.deferDirective(true)
+				.configureRuntimeWiring((wiring) -> wiring.type("Query", (builder) -> builder
+						.dataFetcher("fast", (env) -> "fast")
+						.dataFetcher("slow", (env) -> Mono.delay(Duration.ofMillis(50)).map((tick) -> "slow"))))
+				.build();
+		WebGraphQlHandler graphQlHandler = WebGraphQlHandler.builder(new ExecutionGraphQlService(graphQlSource)).build();
+		GraphQlHttpHandler handler = new GraphQlHttpHandler(graphQlHandler);
+
+		GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+		context.registerBean(WebConfig.class);
+		context.registerBean("graphQlRouterFunction", RouterFunction.class, () -> routerFunction(handler));
+		context.refresh();
+		return context;
+	}
+
+	private static RouterFunction<ServerResponse> routerFunction(GraphQlHttpHandler handler) {
+		return RouterFunctions.route(RequestPredicates.POST("/graphql"), handler::handleRequest);
+	}
+
+	private static List<Map<String, Object>> decodeParts(String body) throws Exception {
+		assertThat(body).startsWith(PART_PREFIX).endsWith(MULTIPART_END);
+		String content = body.substring(PART_PREFIX.length(), body.length() - MULTIPART_END.length());
+		List<Map<String, Object>> parts = new ArrayList<>();
+		for (String json : content.split(Pattern.quote(PART_PREFIX))) {
+			parts.add(objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {}));
+		}
+		return parts;
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableWebMvc
+	static class WebConfig {
+
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.graphql.web.webmvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import graphql.schema.DataFetcher;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.GraphQlTestUtils;
+import org.springframework.graphql.execution.ExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.web.WebGraphQlHandler;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests for {@link GraphQlSseHandler}.
+ */
+public class GraphQlSseHandlerTests {
+
+	private static final String SCHEMA = "type Query { greeting: String } type Subscription { counter: Int }";
+
+	private static final String COMPLETE_EVENT = "event:complete\ndata:";
+
+	private static final String HEARTBEAT_EVENT = ":";
+
+	@Test
+	void query() throws Exception {
+		GraphQlSseHandler handler = initHandler((env) -> Flux.just(1));
+
+		List<String> events = exchange(handler, "{ greeting }");
+
+		assertThat(events).containsExactly("event:next\ndata:{\"data\":{\"greeting\":null}}", COMPLETE_EVENT);
+	}
+
+	@Test
+	void subscription() throws Exception {
+		GraphQlSseHandler handler = initHandler((env) -> Flux.just(1, 2, 3));
+
+		List<String> events = exchange(handler, "subscription { counter }");
+
+		assertThat(events).containsExactly(
+				"event:next\ndata:{\"data\":{\"counter\":1}}",
+				"event:next\ndata:{\"data\":{\"counter\":2}}",
+				"event:next\ndata:{\"data\":{\"counter\":3}}",
+				COMPLETE_EVENT);
+	}
+
+	@Test
+	void subscriptionError() throws Exception {
+		GraphQlSseHandler handler = initHandler((env) ->
+				Flux.just(1).concatWith(Flux.error(new IllegalStateException("boo"))));
+
+		List<String> events = exchange(handler, "subscription { counter }");
+
+		assertThat(events).hasSize(3);
+		assertThat(events.get(0)).isEqualTo("event:next\ndata:{\"data\":{\"counter\":1}}");
+		assertThat(events.get(1)).startsWith("event:next\ndata:{\"errors\":[{")
+				.contains("\"message\":\"boo\"", "\"classification\":\"DataFetchingException\"");
+		assertThat(events.get(2)).isEqualTo(COMPLETE_EVENT);
+	}
+
+	@Test
+	void heartbeats() throws Exception {
+		GraphQlSseHandler handler = initHandler((env) ->
+				Flux.interval(Duration.ofMillis(200)).take(2).map(Long::intValue));
+		handler.setHeartbeatInterval(Duration.ofMillis(20));
+
+		List<String> events = exchange(handler, "subscription { counter }");
+
+		assertThat(events.indexOf("event:next\ndata:{\"data\":{\"counter\":0}}"))
+				.isGreaterThan(events.indexOf(HEARTBEAT_EVENT));
+		assertThat(events.stream().filter((event) -> !event.equals(HEARTBEAT_EVENT)))
+				.containsExactly(
+						"event:next\ndata:{\"data\":{\"counter\":0}}",
+						"event:next\ndata:{\"data\":{\"counter\":1}}",
+						COMPLETE_EVENT);
+		assertThat(events).endsWith(COMPLETE_EVENT).containsOnlyOnce(COMPLETE_EVENT);
+	}
+
+	private static GraphQlSseHandler initHandler(DataFetcher<?> counterDataFetcher) {
+		GraphQlSource graphQlSource = GraphQlTestUtils.initGraphQlSource(
+				SCHEMA, "Subscription", "counter", counterDataFetcher).build();
+		WebGraphQlHandler graphQlHandler = WebGraphQlHandler.builder(new ExecutionGraphQlService(graphQlSource)).build();
+		return new GraphQlSseHandler(graphQlHandler, new MappingJackson2HttpMessageConverter());
+	}
+
+	private static List<String> exchange(GraphQlSseHandler handler, String query) throws Exception {
+		GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+		context.registerBean(WebConfig.class);
+		context.registerBean("graphQlRouterFunction", RouterFunction.class, () -> routerFunction(handler));
+		context.refresh();
+
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		MvcResult result = mockMvc.perform(post("/graphql")
+						.contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.TEXT_EVENT_STREAM)
+						.content("{\"query\":\"" + query + "\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// Wait for the response to stream all events
+		MvcResult streamResult = mockMvc.perform(asyncDispatch(result)).andReturn();
+		streamResult.getAsyncResult(5000);
+
+		assertThat(streamResult.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+		String body = streamResult.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		context.close();
+		return Arrays.stream(body.split("\n\n")).filter((event) -> !event.isEmpty()).collect(Collectors.toList());
+	}
+
+	private static RouterFunction<ServerResponse> routerFunction(GraphQlSseHandler handler) {
+		return RouterFunctions.route(RequestPredicates.POST("/graphql"), handler::handleRequest);
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableWebMvc
+	static class WebConfig {
+
+	}
+
+}